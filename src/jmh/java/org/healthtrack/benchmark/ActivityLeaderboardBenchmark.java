@@ -0,0 +1,79 @@
+package org.healthtrack.benchmark;
+
+import org.apache.ibatis.session.SqlSession;
+import org.healthtrack.dto.ActiveUserStats;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.ActivityLeaderboardMapper;
+import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.ParticipationMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 最活跃用户排行：逐用户查询（旧实现）与单条聚合查询的对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivityLeaderboardBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"1000", "10000"})
+    public int userCount;
+
+    private BenchmarkDatabase database;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("leaderboard_" + userCount);
+        database.seed(SyntheticDataGenerator.Scale.ofUsers(userCount), 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    /**
+     * 旧实现：加载全部用户，每个用户各查一次健康报告和参与记录，再在内存中排序
+     */
+    @Benchmark
+    public List<ActiveUserStats> perUserLoop() {
+        try (SqlSession session = database.getSqlSessionFactory().openSession()) {
+            UserMapper userMapper = session.getMapper(UserMapper.class);
+            HealthReportMapper healthReportMapper = session.getMapper(HealthReportMapper.class);
+            ParticipationMapper participationMapper = session.getMapper(ParticipationMapper.class);
+
+            List<ActiveUserStats> statsList = new ArrayList<>();
+            for (User user : userMapper.findAll()) {
+                int healthRecordCount = healthReportMapper.findByUserId(user.getHealthId()).size();
+                int completedChallengeCount = (int) participationMapper.findByUserId(user.getHealthId()).stream()
+                        .filter(p -> p.getProgress() != null && p.getProgress() >= 100)
+                        .count();
+                statsList.add(new ActiveUserStats(user, healthRecordCount, completedChallengeCount));
+            }
+
+            return statsList.stream()
+                    .sorted(Comparator.comparingInt(ActiveUserStats::getTotalActivityScore).reversed())
+                    .limit(LIMIT)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Benchmark
+    public List<ActiveUserStats> aggregateQuery() {
+        try (SqlSession session = database.getSqlSessionFactory().openSession()) {
+            return session.getMapper(ActivityLeaderboardMapper.class).findMostActiveUsers("total", LIMIT);
+        }
+    }
+}
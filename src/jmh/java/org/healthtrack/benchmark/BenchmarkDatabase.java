@@ -0,0 +1,74 @@
+package org.healthtrack.benchmark;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * 基准测试用的内嵌H2数据库（MySQL兼容模式）
+ * 使用init.sql建表，通过 {@link SyntheticDataGenerator} 按给定规模生成合成数据，并直接构建MyBatis会话工厂，不启动Spring上下文
+ * 所有数据由随机种子决定，同一种子在不同版本间生成完全相同的数据，便于比较基准结果
+ */
+public class BenchmarkDatabase {
+
+    private final PooledDataSource dataSource;
+    private final SqlSessionFactory sqlSessionFactory;
+    private SyntheticDataGenerator.Scale scale;
+
+    private BenchmarkDatabase(String name) throws Exception {
+        dataSource = new PooledDataSource("org.h2.Driver",
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        SyntheticDataGenerator.runInitScript(dataSource);
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        // 使用Mapper中为H2提供的专用语句，例如upsert的MERGE写法
+        configuration.setDatabaseId("h2");
+        configuration.addMappers("org.healthtrack.mapper");
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    /**
+     * 创建一个新的内存数据库并执行init.sql
+     * @param name 数据库名称，同一JVM内不同基准应使用不同名称
+     */
+    public static BenchmarkDatabase create(String name) throws Exception {
+        return new BenchmarkDatabase(name);
+    }
+
+    public SqlSessionFactory getSqlSessionFactory() {
+        return sqlSessionFactory;
+    }
+
+    /**
+     * 按规模生成全部表的数据
+     * @param scale 数据规模
+     * @param seed 随机种子，保证数据可复现
+     */
+    public void seed(SyntheticDataGenerator.Scale scale, long seed) throws Exception {
+        this.scale = scale;
+        int threads = Runtime.getRuntime().availableProcessors();
+        dataSource.setPoolMaximumActiveConnections(Math.max(10, threads));
+        new SyntheticDataGenerator(dataSource, scale, seed, threads).generate();
+    }
+
+    public int getUserCount() {
+        return scale.getUsers();
+    }
+
+    public int getChallengeCount() {
+        return scale.getChallenges();
+    }
+
+    public int getProviderCount() {
+        return scale.getProviders();
+    }
+
+    public void close() {
+        dataSource.forceCloseAll();
+    }
+}
@@ -0,0 +1,80 @@
+package org.healthtrack.benchmark;
+
+import org.apache.ibatis.session.SqlSessionManager;
+import org.healthtrack.mapper.*;
+import org.healthtrack.service.impl.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 不启动Spring上下文，手工装配基准测试要用到的服务实现
+ * Mapper来自SqlSessionManager，每次调用自动开启并关闭一个会话，相当于运行时的非事务调用
+ */
+public class BenchmarkServices {
+
+    private final SqlSessionManager sessionManager;
+    // 参与/退出挑战时才会用到，基准中保持默认的关闭状态
+    private final ChallengePopularityIndex popularityIndex = new ChallengePopularityIndex();
+
+    public BenchmarkServices(BenchmarkDatabase database) {
+        sessionManager = SqlSessionManager.newInstance(database.getSqlSessionFactory());
+        ReflectionTestUtils.setField(popularityIndex, "challengeMapper", mapper(WellnessChallengeMapper.class));
+    }
+
+    public <T> T mapper(Class<T> type) {
+        return sessionManager.getMapper(type);
+    }
+
+    public HealthReportServiceImpl healthReportService() {
+        HealthReportServiceImpl service = new HealthReportServiceImpl();
+        ReflectionTestUtils.setField(service, "healthReportMapper", mapper(HealthReportMapper.class));
+        ReflectionTestUtils.setField(service, "healthIndicatorMapper", mapper(HealthIndicatorMapper.class));
+        ReflectionTestUtils.setField(service, "monthlyRollupMapper", mapper(MonthlyRollupMapper.class));
+        return service;
+    }
+
+    public UserServiceImpl userService() {
+        UserServiceImpl service = new UserServiceImpl();
+        ReflectionTestUtils.setField(service, "userMapper", mapper(UserMapper.class));
+        ReflectionTestUtils.setField(service, "userEmailMapper", mapper(UserEmailMapper.class));
+        ReflectionTestUtils.setField(service, "activityLeaderboardMapper", mapper(ActivityLeaderboardMapper.class));
+        return service;
+    }
+
+    /**
+     * @param popularityIndexEnabled 是否使用内存热门挑战索引（对应 healthtrack.challenge.popularity-index.enabled）
+     */
+    public WellnessChallengeServiceImpl challengeService(boolean popularityIndexEnabled) {
+        ChallengePopularityIndex index = new ChallengePopularityIndex();
+        ReflectionTestUtils.setField(index, "challengeMapper", mapper(WellnessChallengeMapper.class));
+        ReflectionTestUtils.setField(index, "enabled", popularityIndexEnabled);
+
+        WellnessChallengeServiceImpl service = new WellnessChallengeServiceImpl();
+        ReflectionTestUtils.setField(service, "challengeMapper", mapper(WellnessChallengeMapper.class));
+        ReflectionTestUtils.setField(service, "popularityIndex", index);
+        return service;
+    }
+
+    /**
+     * @param rankingIndexLoaded 是否预先加载挑战排名索引；未加载时排名退回COUNT查询
+     */
+    public ParticipationServiceImpl participationService(boolean rankingIndexLoaded) {
+        ChallengeRankingIndex index = new ChallengeRankingIndex();
+        ReflectionTestUtils.setField(index, "participationMapper", mapper(ParticipationMapper.class));
+        if (rankingIndexLoaded) {
+            index.rebuild();
+        }
+
+        ParticipationServiceImpl service = new ParticipationServiceImpl();
+        ReflectionTestUtils.setField(service, "participationMapper", mapper(ParticipationMapper.class));
+        ReflectionTestUtils.setField(service, "popularityIndex", popularityIndex);
+        ReflectionTestUtils.setField(service, "rankingIndex", index);
+        return service;
+    }
+
+    public AppointmentServiceImpl appointmentService() {
+        AppointmentServiceImpl service = new AppointmentServiceImpl();
+        ReflectionTestUtils.setField(service, "appointmentMapper", mapper(AppointmentMapper.class));
+        ReflectionTestUtils.setField(service, "appointmentProviderMapper", mapper(AppointmentProviderMapper.class));
+        return service;
+    }
+}
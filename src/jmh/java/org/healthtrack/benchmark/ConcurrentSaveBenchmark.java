@@ -0,0 +1,91 @@
+package org.healthtrack.benchmark;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.SqlSession;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并发保存用户：先查询再插入/更新（旧实现）与单条upsert的吞吐量对比
+ * 每次保存的健康ID随机取自已有用户数两倍的范围，开始时有一半尚不存在，多个写线程可能同时保存同一个新ID；
+ * 旧实现在这种竞争下会出现重复键错误，次数记在duplicateKeyErrors中。线程数可用 -t 调整。
+ * 写线程之间竞争激烈，单次fork的结果波动很大，因此默认运行5次fork
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Threads(8)
+@Fork(5)
+public class ConcurrentSaveBenchmark {
+
+    @Param({"1000"})
+    public int userCount;
+
+    private BenchmarkDatabase database;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long duplicateKeyErrors;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("concurrent_save_" + userCount);
+        database.seed(SyntheticDataGenerator.Scale.ofUsers(userCount), 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    /**
+     * 旧实现：同一事务中按ID查询，存在则更新，否则插入
+     */
+    @Benchmark
+    public int findThenWrite(Conflicts conflicts) {
+        User user = randomUser();
+        try (SqlSession session = database.getSqlSessionFactory().openSession()) {
+            UserMapper userMapper = session.getMapper(UserMapper.class);
+            int rows = userMapper.findById(user.getHealthId()) != null
+                    ? userMapper.update(user)
+                    : userMapper.insert(user);
+            session.commit();
+            return rows;
+        } catch (PersistenceException e) {
+            conflicts.duplicateKeyErrors++;
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public int upsert(Conflicts conflicts) {
+        User user = randomUser();
+        try (SqlSession session = database.getSqlSessionFactory().openSession()) {
+            int rows = session.getMapper(UserMapper.class).upsert(user);
+            session.commit();
+            return rows;
+        } catch (PersistenceException e) {
+            conflicts.duplicateKeyErrors++;
+            return 0;
+        }
+    }
+
+    private User randomUser() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        User user = new User();
+        user.setHealthId(SyntheticDataGenerator.userId(random.nextInt(userCount * 2)));
+        user.setName("用户" + random.nextInt(1000));
+        user.setPhone(String.format("137%08d", random.nextInt(100_000_000)));
+        user.setVerificationStatus("Verified");
+        user.setRole("User");
+        return user;
+    }
+}
@@ -0,0 +1,139 @@
+package org.healthtrack.benchmark;
+
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.healthtrack.util.HealthIndicatorExtractor.IndicatorBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * summary指标解析：每种指标一个正则、各扫描一遍（旧实现）与单次遍历扫描器的对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndicatorExtractionBenchmark {
+
+    // 旧实现的两个正则，另按同样写法补上心率和血糖，使两边识别的指标种类相同
+    private static final Pattern WEIGHT_PATTERN = Pattern.compile(
+            "(?:体重|weight)[:：]?\\s*(\\d+(?:\\.\\d+)?)\\s*(?:kg|公斤)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BLOOD_PRESSURE_PATTERN = Pattern.compile(
+            "(?:血压|blood\\s*pressure|bp)[:：]?\\s*(\\d+)\\s*/\\s*(\\d+)\\s*(?:mmHg)?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEART_RATE_PATTERN = Pattern.compile(
+            "(?:心率|脉搏|heart\\s*rate|pulse)[:：]?\\s*(\\d+(?:\\.\\d+)?)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern GLUCOSE_PATTERN = Pattern.compile(
+            "(?:血糖|glucose|blood\\s*sugar)[:：]?\\s*(\\d+(?:\\.\\d+)?)", Pattern.CASE_INSENSITIVE);
+
+    private static final String[] FILLER = {
+            "今日步行约一万步，状态良好。", "Slept well, mild fatigue after lunch. ",
+            "饮食清淡，少油少盐。", "Follow-up with provider next week. ",
+            "weightlifting session skipped. ", "blood test pending. ", "心情不错，", "BPM monitor recalibrated. "
+    };
+
+    @Param({"1024", "4096", "10240"})
+    public int summaryLength;
+
+    private String summary;
+    private final IndicatorBuffer buffer = new IndicatorBuffer();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        summary = generateSummary(summaryLength, new Random(42L));
+
+        // 两种实现必须得到同样的结果，否则对比没有意义
+        buffer.clear();
+        HealthIndicatorExtractor.scan(summary, buffer);
+        List<Double> expected = regexPerIndicator();
+        List<Double> actual = new ArrayList<>();
+        for (int i = 0; i < buffer.getWeightCount(); i++) {
+            actual.add(buffer.getWeight(i));
+        }
+        for (int i = 0; i < buffer.getBloodPressureCount(); i++) {
+            actual.add((double) buffer.getSystolic(i));
+            actual.add((double) buffer.getDiastolic(i));
+        }
+        for (int i = 0; i < buffer.getHeartRateCount(); i++) {
+            actual.add(buffer.getHeartRate(i));
+        }
+        for (int i = 0; i < buffer.getGlucoseCount(); i++) {
+            actual.add(buffer.getGlucose(i));
+        }
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("扫描器与正则解析结果不一致: " + expected + " vs " + actual);
+        }
+    }
+
+    /**
+     * 旧实现：每种指标各跑一遍正则，结果装箱进List
+     */
+    @Benchmark
+    public List<Double> regexPerIndicator() {
+        List<Double> values = new ArrayList<>();
+        Matcher matcher = WEIGHT_PATTERN.matcher(summary);
+        while (matcher.find()) {
+            values.add(Double.parseDouble(matcher.group(1)));
+        }
+        matcher = BLOOD_PRESSURE_PATTERN.matcher(summary);
+        while (matcher.find()) {
+            values.add((double) Integer.parseInt(matcher.group(1)));
+            values.add((double) Integer.parseInt(matcher.group(2)));
+        }
+        matcher = HEART_RATE_PATTERN.matcher(summary);
+        while (matcher.find()) {
+            values.add(Double.parseDouble(matcher.group(1)));
+        }
+        matcher = GLUCOSE_PATTERN.matcher(summary);
+        while (matcher.find()) {
+            values.add(Double.parseDouble(matcher.group(1)));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public void singlePassScan(Blackhole blackhole) {
+        buffer.clear();
+        HealthIndicatorExtractor.scan(summary, buffer);
+        blackhole.consume(buffer.getWeightCount() + buffer.getBloodPressureCount()
+                + buffer.getHeartRateCount() + buffer.getGlucoseCount());
+    }
+
+    /**
+     * 生成中英文混排的summary，夹杂指标和容易误判的相近词
+     */
+    static String generateSummary(int length, Random random) {
+        StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            switch (random.nextInt(10)) {
+                case 0:
+                    sb.append(random.nextBoolean() ? "体重：" : "Weight: ")
+                            .append(50 + random.nextInt(50)).append('.').append(random.nextInt(10)).append("kg，");
+                    break;
+                case 1:
+                    sb.append(random.nextBoolean() ? "血压 " : "blood pressure: ")
+                            .append(100 + random.nextInt(40)).append(" / ").append(60 + random.nextInt(30))
+                            .append(" mmHg; ");
+                    break;
+                case 2:
+                    sb.append(random.nextBoolean() ? "心率:" : "heart rate ").append(55 + random.nextInt(50))
+                            .append(" bpm, ");
+                    break;
+                case 3:
+                    sb.append(random.nextBoolean() ? "血糖 " : "glucose: ").append(4 + random.nextInt(4))
+                            .append('.').append(random.nextInt(10)).append(" mmol/L. ");
+                    break;
+                default:
+                    sb.append(FILLER[random.nextInt(FILLER.length)]);
+            }
+        }
+        return sb.toString();
+    }
+}
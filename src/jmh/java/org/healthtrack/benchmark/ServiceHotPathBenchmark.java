@@ -0,0 +1,116 @@
+package org.healthtrack.benchmark;
+
+import org.healthtrack.dto.ActiveUserStats;
+import org.healthtrack.dto.ChallengeWithParticipants;
+import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.entity.Appointment;
+import org.healthtrack.entity.Participation;
+import org.healthtrack.service.impl.*;
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务层热点路径基准：月度指标统计、活跃用户排行、热门挑战、挑战排名和预约搜索
+ * 数据规模由rows参数控制（health_report行数），例如 -p rows=10000,100000,1000000
+ * 每次调用随机选取用户/挑战，避免结果只反映单一热点行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceHotPathBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"10000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private HealthReportServiceImpl healthReportService;
+    private UserServiceImpl userService;
+    private WellnessChallengeServiceImpl challengeQueryService;
+    private WellnessChallengeServiceImpl challengeIndexService;
+    private ParticipationServiceImpl rankIndexService;
+    private ParticipationServiceImpl rankQueryService;
+    private AppointmentServiceImpl appointmentService;
+
+    private final Random random = new Random(SEED);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.create("service_" + rows);
+        database.seed(SyntheticDataGenerator.Scale.ofReportRows(rows), SEED);
+
+        BenchmarkServices services = new BenchmarkServices(database);
+        healthReportService = services.healthReportService();
+        userService = services.userService();
+        challengeQueryService = services.challengeService(false);
+        challengeIndexService = services.challengeService(true);
+        rankIndexService = services.participationService(true);
+        rankQueryService = services.participationService(false);
+        appointmentService = services.appointmentService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public HealthIndicatorStats monthlyIndicatorStats() {
+        return healthReportService.getMonthlyIndicatorStats(randomUser(), "2020-03", HealthIndicatorExtractor.WEIGHT);
+    }
+
+    @Benchmark
+    public List<ActiveUserStats> mostActiveUsers() {
+        return userService.getMostActiveUsers(10, "total");
+    }
+
+    @Benchmark
+    public List<ChallengeWithParticipants> mostPopularChallengesQuery() {
+        return challengeQueryService.getMostPopularChallenges(5);
+    }
+
+    @Benchmark
+    public List<ChallengeWithParticipants> mostPopularChallengesIndex() {
+        return challengeIndexService.getMostPopularChallenges(5);
+    }
+
+    @Benchmark
+    public int userRankIndex() {
+        return rankIndexService.getUserRankInChallenge(randomParticipation());
+    }
+
+    @Benchmark
+    public int userRankCountQuery() {
+        return rankQueryService.getUserRankInChallenge(randomParticipation());
+    }
+
+    @Benchmark
+    public List<Appointment> searchAppointmentsByUser() {
+        return appointmentService.searchAppointments(randomUser(), "Scheduled", null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Appointment> searchAppointmentsByProviderAndDate() {
+        LocalDateTime start = LocalDateTime.of(2024, 1 + random.nextInt(11), 1, 0, 0);
+        return appointmentService.searchAppointments(null, null, null, start, start.plusMonths(1),
+                SyntheticDataGenerator.providerLicense(random.nextInt(database.getProviderCount())));
+    }
+
+    private String randomUser() {
+        return SyntheticDataGenerator.userId(random.nextInt(database.getUserCount()));
+    }
+
+    private Participation randomParticipation() {
+        return new Participation(randomUser(),
+                SyntheticDataGenerator.challengeId(random.nextInt(database.getChallengeCount())), random.nextInt(101));
+    }
+}
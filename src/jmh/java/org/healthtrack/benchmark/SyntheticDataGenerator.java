@@ -0,0 +1,593 @@
+package org.healthtrack.benchmark;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.healthtrack.config.SchemaMigrator;
+import org.healthtrack.entity.HealthIndicator;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可复现的合成数据生成器，按规模填充init.sql中的全部表，数据之间满足外键约束
+ *
+ * 用户按固定大小分块，每块使用由(种子, 阶段, 块号)派生的独立随机数，
+ * 因此生成结果只取决于规模和种子，与写入线程数无关。
+ * 各阶段按外键依赖顺序执行：家庭组和医疗服务提供者 → 用户 → 挑战 → 报告、预约、邀请、参与等用户数据，
+ * 同一阶段内的分块由多个线程并行写入，每块一个事务，使用JDBC批量插入；最后由报告和指标整体生成月度汇总。
+ *
+ * 命令行用法（MySQL建议在URL上加 rewriteBatchedStatements=true）：
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.healthtrack.benchmark.SyntheticDataGenerator
+ *     -Dexec.args="--url jdbc:mysql://localhost:3306/healthtrack?rewriteBatchedStatements=true
+ *                  --user root --password *** --users 170000 --seed 42 --threads 8"
+ * 平均每个用户约生成60行，170000个用户约1000万行。
+ */
+public class SyntheticDataGenerator {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int BATCH_SIZE = 1000;
+    private static final LocalDate FIRST_MONTH = LocalDate.of(2020, 1, 1);
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private static final String[] SPECIALTIES = {
+            "Cardiology", "Nutrition", "General Practice", "Endocrinology", "Dentistry", "Internal Medicine"
+    };
+    private static final String[] APPOINTMENT_STATUSES = {"Scheduled", "Completed", "Completed", "Cancelled"};
+    private static final String[] INVITATION_STATUSES = {"Pending", "Accepted", "Expired", "Cancelled"};
+    private static final String[] CHALLENGE_GOALS = {
+            "Walk %d steps a day", "Drink %d ml of water daily", "Sleep before %d:00", "Exercise %d minutes a day"
+    };
+    private static final String[] NOTES_CN = {"整体状态良好。", "睡眠质量一般，", "本月坚持锻炼，", "饮食较为规律。"};
+    private static final String[] NOTES_EN = {
+            "Feeling well overall. ", "Slept poorly some nights. ", "Kept up regular exercise. ", "Diet was balanced. "
+    };
+
+    private final DataSource dataSource;
+    private final Scale scale;
+    private final long seed;
+    private final int threads;
+    private final Map<String, LongAdder> rowCounts = new LinkedHashMap<>();
+
+    public SyntheticDataGenerator(DataSource dataSource, Scale scale, long seed, int threads) {
+        this.dataSource = dataSource;
+        this.scale = scale;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+        for (String table : new String[]{"family_group", "provider", "provider_email", "app_user", "user_email",
+                "user_provider_link", "wellness_challenge", "health_report", "health_indicator", "appointment",
+                "appointment_provider", "invitation", "participation", "challenge_report",
+                "monthly_user_rollup", "monthly_indicator_rollup"}) {
+            rowCounts.put(table, new LongAdder());
+        }
+    }
+
+    /**
+     * 按依赖顺序生成全部数据
+     * @return 每张表写入的行数
+     */
+    public Map<String, Long> generate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runPhase(executor, 1, scale.getFamilyCount(), this::writeFamilies);
+            runPhase(executor, 2, scale.getProviders(), this::writeProviders);
+            runPhase(executor, 3, scale.getUsers(), this::writeUsers);
+            runPhase(executor, 4, scale.getChallenges(), this::writeChallenges);
+            runPhase(executor, 5, scale.getUsers(), this::writeUserActivity);
+        } finally {
+            executor.shutdownNow();
+        }
+        writeRollups();
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        rowCounts.forEach((table, count) -> result.put(table, count.sum()));
+        return result;
+    }
+
+    /**
+     * 由已写入的报告和指标生成月度汇总，与MonthlyRollupRebuildJob的聚合方式相同
+     */
+    private void writeRollups() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            rowCounts.get("monthly_user_rollup").add(statement.executeUpdate(
+                    "INSERT INTO monthly_user_rollup " +
+                    "(user_id, report_month, report_count, steps_count, steps_total, steps_min, steps_max) " +
+                    "SELECT user_id, report_month, COUNT(*), COUNT(total_steps), COALESCE(SUM(total_steps), 0), " +
+                    "MIN(total_steps), MAX(total_steps) FROM health_report GROUP BY user_id, report_month"));
+            rowCounts.get("monthly_indicator_rollup").add(statement.executeUpdate(
+                    "INSERT INTO monthly_indicator_rollup " +
+                    "(user_id, indicator_type, report_month, value_count, value_sum, value_min, value_max) " +
+                    "SELECT user_id, indicator_type, report_month, COUNT(*), SUM(indicator_value), " +
+                    "MIN(indicator_value), MAX(indicator_value) FROM health_indicator " +
+                    "GROUP BY user_id, indicator_type, report_month"));
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    private void runPhase(ExecutorService executor, int phase, int total, ChunkWriter writer) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int start = 0; start < total; start += CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(total, start + CHUNK_SIZE);
+            Random random = new Random(seed * 31 + phase * 1_000_003L + from / CHUNK_SIZE);
+            futures.add(executor.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    connection.setAutoCommit(false);
+                    writer.write(connection, from, to, random);
+                    connection.commit();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void writeFamilies(Connection connection, int from, int to, Random random) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO family_group (family_id) VALUES (?)")) {
+            for (int i = from; i < to; i++) {
+                ps.setString(1, familyId(i));
+                add(ps, "family_group");
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void writeProviders(Connection connection, int from, int to, Random random) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO provider (license_number, name, specialty, verified_status, phone) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement emailPs = connection.prepareStatement(
+                "INSERT INTO provider_email (license_number, email_address, is_primary) VALUES (?, ?, ?)")) {
+            for (int i = from; i < to; i++) {
+                ps.setString(1, providerLicense(i));
+                ps.setString(2, "Dr. Synthetic " + i);
+                ps.setString(3, SPECIALTIES[random.nextInt(SPECIALTIES.length)]);
+                ps.setString(4, random.nextInt(5) == 0 ? "Unverified" : "Verified");
+                ps.setString(5, String.format("138%08d", i));
+                add(ps, "provider");
+            }
+            ps.executeBatch();
+
+            for (int i = from; i < to; i++) {
+                addEmail(emailPs, providerLicense(i), providerLicense(i) + "@hospital.example.com", true, "provider_email");
+                if (random.nextInt(3) == 0) {
+                    addEmail(emailPs, providerLicense(i), providerLicense(i) + ".personal@example.com", false, "provider_email");
+                }
+            }
+            emailPs.executeBatch();
+        }
+    }
+
+    private void writeUsers(Connection connection, int from, int to, Random random) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO app_user (health_id, name, phone, verification_status, role, family_id) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement emailPs = connection.prepareStatement(
+                "INSERT INTO user_email (health_id, email_address, is_primary) VALUES (?, ?, ?)");
+             PreparedStatement linkPs = connection.prepareStatement(
+                "INSERT INTO user_provider_link (health_id, license_number, is_primary) VALUES (?, ?, ?)")) {
+            for (int u = from; u < to; u++) {
+                ps.setString(1, userId(u));
+                ps.setString(2, "Synthetic User " + u);
+                ps.setString(3, String.format("139%08d", u));
+                ps.setString(4, random.nextInt(4) == 0 ? "Unverified" : "Verified");
+                ps.setString(5, random.nextInt(100) == 0 ? "Administrator" : "Regular User");
+                // 约四分之三的用户属于家庭组，每组4人
+                ps.setString(6, u % 4 == 3 ? null : familyId(u / 4));
+                add(ps, "app_user");
+            }
+            ps.executeBatch();
+
+            for (int u = from; u < to; u++) {
+                addEmail(emailPs, userId(u), userId(u) + "@example.com", true, "user_email");
+                if (random.nextInt(3) == 0) {
+                    addEmail(emailPs, userId(u), userId(u) + ".work@example.org", false, "user_email");
+                }
+
+                int links = 1 + random.nextInt(2);
+                int first = random.nextInt(scale.getProviders());
+                for (int l = 0; l < Math.min(links, scale.getProviders()); l++) {
+                    linkPs.setString(1, userId(u));
+                    linkPs.setString(2, providerLicense((first + l) % scale.getProviders()));
+                    linkPs.setBoolean(3, l == 0);
+                    add(linkPs, "user_provider_link");
+                }
+            }
+            emailPs.executeBatch();
+            linkPs.executeBatch();
+        }
+    }
+
+    private void writeChallenges(Connection connection, int from, int to, Random random) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO wellness_challenge (challenge_id, goal, start_date, end_date, description, creator_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            LocalDate firstStart = LocalDate.of(2024, 1, 1);
+            for (int i = from; i < to; i++) {
+                LocalDate start = firstStart.plusDays(random.nextInt(730));
+                String goal = CHALLENGE_GOALS[random.nextInt(CHALLENGE_GOALS.length)];
+                ps.setString(1, challengeId(i));
+                ps.setString(2, String.format(goal, 5 + random.nextInt(10000)));
+                ps.setDate(3, Date.valueOf(start));
+                ps.setDate(4, Date.valueOf(start.plusDays(7 + random.nextInt(90))));
+                ps.setString(5, "Synthetic challenge " + i);
+                ps.setString(6, userId(random.nextInt(scale.getUsers())));
+                add(ps, "wellness_challenge");
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * 写入一块用户的报告、指标、预约、邀请、参与和挑战-报告关联
+     */
+    private void writeUserActivity(Connection connection, int from, int to, Random random) throws Exception {
+        int chunkUsers = to - from;
+        int[] reportCounts = new int[chunkUsers];
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO health_report (report_id, report_month, total_steps, summary, user_id, verifier_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement indicatorPs = connection.prepareStatement(
+                "INSERT INTO health_indicator (report_id, indicator_type, user_id, report_month, indicator_value) " +
+                "VALUES (?, ?, ?, ?, ?)")) {
+            List<HealthReport> pending = new ArrayList<>();
+            for (int u = from; u < to; u++) {
+                int reports = random.nextInt(scale.getReportsPerUser() * 2 + 1);
+                reportCounts[u - from] = reports;
+                double weight = 50 + random.nextInt(50) + random.nextInt(10) / 10.0;
+                for (int r = 0; r < reports; r++) {
+                    weight = Math.max(40, weight + (random.nextInt(21) - 10) / 10.0);
+                    HealthReport report = new HealthReport(reportId(u, r), FIRST_MONTH.plusMonths(r), userId(u));
+                    report.setTotalSteps(90000 + random.nextInt(300000));
+                    report.setSummary(summary(random, weight));
+                    ps.setString(1, report.getReportId());
+                    ps.setDate(2, Date.valueOf(report.getReportMonth()));
+                    ps.setInt(3, report.getTotalSteps());
+                    ps.setString(4, report.getSummary());
+                    ps.setString(5, report.getUserId());
+                    ps.setString(6, random.nextBoolean() ? providerLicense(random.nextInt(scale.getProviders())) : null);
+                    ps.addBatch();
+                    pending.add(report);
+                    if (pending.size() == BATCH_SIZE) {
+                        flushReports(ps, indicatorPs, pending);
+                    }
+                }
+            }
+            flushReports(ps, indicatorPs, pending);
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO appointment (appointment_id, date_time, type, note, status, cancel_reason, user_id, report_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement linkPs = connection.prepareStatement(
+                "INSERT INTO appointment_provider (appointment_id, license_number) VALUES (?, ?)")) {
+            int pending = 0;
+            for (int u = from; u < to; u++) {
+                int appointments = random.nextInt(scale.getAppointmentsPerUser() * 2 + 1);
+                int reports = reportCounts[u - from];
+                for (int a = 0; a < appointments; a++) {
+                    String status = APPOINTMENT_STATUSES[random.nextInt(APPOINTMENT_STATUSES.length)];
+                    ps.setString(1, appointmentId(u, a));
+                    ps.setTimestamp(2, Timestamp.valueOf(FIRST_SLOT.plusMinutes(30L * random.nextInt(2 * 365 * 48))));
+                    ps.setString(3, random.nextBoolean() ? "In-Person" : "Virtual");
+                    ps.setString(4, "Synthetic appointment " + a);
+                    ps.setString(5, status);
+                    ps.setString(6, "Cancelled".equals(status) ? "Schedule conflict" : null);
+                    ps.setString(7, userId(u));
+                    ps.setString(8, reports > 0 && random.nextInt(3) == 0 ? reportId(u, random.nextInt(reports)) : null);
+                    ps.addBatch();
+
+                    int providers = Math.min(random.nextInt(5) == 0 ? 2 : 1, scale.getProviders());
+                    int first = random.nextInt(scale.getProviders());
+                    for (int p = 0; p < providers; p++) {
+                        linkPs.setString(1, appointmentId(u, a));
+                        linkPs.setString(2, providerLicense((first + p) % scale.getProviders()));
+                        linkPs.addBatch();
+                        count("appointment_provider");
+                    }
+                    count("appointment");
+                    if (++pending == BATCH_SIZE) {
+                        ps.executeBatch();
+                        linkPs.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            ps.executeBatch();
+            linkPs.executeBatch();
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO invitation (invitation_id, invitee_contact, sent_time, expired_time, status, " +
+                "invitation_type, inviter_id, related_challenge_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int u = from; u < to; u++) {
+                int invitations = random.nextInt(scale.getInvitationsPerUser() * 2 + 1);
+                for (int i = 0; i < invitations; i++) {
+                    LocalDateTime sent = FIRST_SLOT.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+                    boolean challenge = random.nextInt(3) != 0;
+                    ps.setString(1, invitationId(u, i));
+                    ps.setString(2, random.nextBoolean()
+                            ? "friend" + random.nextInt(1_000_000) + "@example.net"
+                            : String.format("137%08d", random.nextInt(100_000_000)));
+                    ps.setTimestamp(3, Timestamp.valueOf(sent));
+                    ps.setTimestamp(4, Timestamp.valueOf(sent.plusDays(challenge ? 7 : 15)));
+                    ps.setString(5, INVITATION_STATUSES[random.nextInt(INVITATION_STATUSES.length)]);
+                    ps.setString(6, challenge ? "Challenge" : "Platform");
+                    ps.setString(7, userId(u));
+                    ps.setString(8, challenge ? challengeId(random.nextInt(scale.getChallenges())) : null);
+                    add(ps, "invitation");
+                }
+            }
+            ps.executeBatch();
+        }
+
+        // 参与的挑战在用户间错开，挑战-报告关联取该用户的某份报告，保证两张表的主键不重复
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO participation (health_id, challenge_id, progress) VALUES (?, ?, ?)");
+             PreparedStatement reportPs = connection.prepareStatement(
+                "INSERT INTO challenge_report (challenge_id, report_id) VALUES (?, ?)")) {
+            int perUser = Math.min(scale.getParticipationsPerUser(), scale.getChallenges());
+            for (int u = from; u < to; u++) {
+                int offset = random.nextInt(scale.getChallenges());
+                int reports = reportCounts[u - from];
+                for (int c = 0; c < perUser; c++) {
+                    String challengeId = challengeId((offset + c) % scale.getChallenges());
+                    ps.setString(1, userId(u));
+                    ps.setString(2, challengeId);
+                    ps.setInt(3, random.nextInt(4) == 0 ? 100 : random.nextInt(101));
+                    add(ps, "participation");
+                    if (reports > 0 && random.nextBoolean()) {
+                        reportPs.setString(1, challengeId);
+                        reportPs.setString(2, reportId(u, random.nextInt(reports)));
+                        add(reportPs, "challenge_report");
+                    }
+                }
+            }
+            ps.executeBatch();
+            reportPs.executeBatch();
+        }
+    }
+
+    /**
+     * 先写报告再写从summary解析出的指标，指标与报告内容保持一致
+     */
+    private void flushReports(PreparedStatement ps, PreparedStatement indicatorPs,
+                              List<HealthReport> pending) throws Exception {
+        ps.executeBatch();
+        for (HealthReport report : pending) {
+            for (HealthIndicator indicator : HealthIndicatorExtractor.extractIndicators(report)) {
+                indicatorPs.setString(1, indicator.getReportId());
+                indicatorPs.setString(2, indicator.getIndicatorType());
+                indicatorPs.setString(3, indicator.getUserId());
+                indicatorPs.setDate(4, Date.valueOf(indicator.getReportMonth()));
+                indicatorPs.setDouble(5, indicator.getIndicatorValue());
+                indicatorPs.addBatch();
+                count("health_indicator");
+            }
+        }
+        indicatorPs.executeBatch();
+        rowCounts.get("health_report").add(pending.size());
+        pending.clear();
+    }
+
+    /**
+     * 生成中文或英文的月度小结，包含体重、血压，部分包含心率和血糖
+     */
+    private static String summary(Random random, double weight) {
+        int systolic = 100 + random.nextInt(45);
+        int diastolic = 60 + random.nextInt(30);
+        String weightText = String.format("%.1f", weight);
+        StringBuilder sb = new StringBuilder(160);
+        if (random.nextBoolean()) {
+            sb.append(NOTES_CN[random.nextInt(NOTES_CN.length)])
+              .append("体重: ").append(weightText).append("kg，血压: ")
+              .append(systolic).append('/').append(diastolic).append(" mmHg");
+            if (random.nextBoolean()) {
+                sb.append("，心率: ").append(55 + random.nextInt(45));
+            }
+            if (random.nextInt(4) == 0) {
+                sb.append("，血糖: ").append(4 + random.nextInt(4)).append('.').append(random.nextInt(10));
+            }
+            sb.append('。');
+        } else {
+            sb.append(NOTES_EN[random.nextInt(NOTES_EN.length)])
+              .append("Weight: ").append(weightText).append(" kg, blood pressure: ")
+              .append(systolic).append('/').append(diastolic).append(" mmHg");
+            if (random.nextBoolean()) {
+                sb.append(", heart rate: ").append(55 + random.nextInt(45)).append(" bpm");
+            }
+            if (random.nextInt(4) == 0) {
+                sb.append(", glucose: ").append(4 + random.nextInt(4)).append('.').append(random.nextInt(10)).append(" mmol/L");
+            }
+            sb.append('.');
+        }
+        return sb.toString();
+    }
+
+    private void addEmail(PreparedStatement ps, String ownerId, String email, boolean primary, String table) throws Exception {
+        ps.setString(1, ownerId);
+        ps.setString(2, email);
+        ps.setBoolean(3, primary);
+        add(ps, table);
+    }
+
+    // 单块内这些表的行数有限（每块至多数千行），整块攒成一个批次即可
+    private void add(PreparedStatement ps, String table) throws Exception {
+        ps.addBatch();
+        count(table);
+    }
+
+    private void count(String table) {
+        rowCounts.get(table).increment();
+    }
+
+    public static String familyId(int index) {
+        return "bf" + index;
+    }
+
+    public static String userId(int index) {
+        return "bu" + index;
+    }
+
+    public static String providerLicense(int index) {
+        return "bl" + index;
+    }
+
+    public static String challengeId(int index) {
+        return "bc" + index;
+    }
+
+    public static String reportId(int userIndex, int reportIndex) {
+        return "r" + userIndex + "_" + reportIndex;
+    }
+
+    public static String appointmentId(int userIndex, int appointmentIndex) {
+        return "ba" + userIndex + "_" + appointmentIndex;
+    }
+
+    public static String invitationId(int userIndex, int invitationIndex) {
+        return "bi" + userIndex + "_" + invitationIndex;
+    }
+
+    /**
+     * 命令行入口，参数：--url --user --password --users --seed --threads [--init-schema]
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--init-schema".equals(args[i])) {
+                options.put("init-schema", "true");
+            } else if (args[i].startsWith("--") && i + 1 < args.length) {
+                options.put(args[i].substring(2), args[++i]);
+            }
+        }
+        String url = options.get("url");
+        if (url == null) {
+            System.err.println("用法: SyntheticDataGenerator --url <jdbc-url> [--user u] [--password p] " +
+                    "[--users 100000] [--seed 42] [--threads 4] [--init-schema]");
+            System.exit(1);
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        PooledDataSource dataSource = new PooledDataSource(driverFor(url), url,
+                options.getOrDefault("user", ""), options.getOrDefault("password", ""));
+        dataSource.setPoolMaximumActiveConnections(threads);
+        dataSource.setPoolMaximumIdleConnections(threads);
+        try {
+            if (options.containsKey("init-schema")) {
+                runInitScript(dataSource);
+            }
+            long start = System.currentTimeMillis();
+            Map<String, Long> counts = new SyntheticDataGenerator(dataSource, Scale.ofUsers(users), seed, threads).generate();
+            long total = 0;
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                System.out.printf("%-22s %,12d%n", entry.getKey(), entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.printf("共写入 %,d 行，耗时 %.1f 秒%n", total, (System.currentTimeMillis() - start) / 1000.0);
+        } finally {
+            dataSource.forceCloseAll();
+        }
+    }
+
+    /**
+     * 执行init.sql建表并应用db/migration下的结构迁移（脚本自带的少量示例数据使用INSERT IGNORE，可重复执行）
+     */
+    static void runInitScript(DataSource dataSource) throws Exception {
+        Resources.setCharset(StandardCharsets.UTF_8);
+        try (Connection connection = dataSource.getConnection();
+             Reader reader = Resources.getResourceAsReader("init.sql")) {
+            ScriptRunner runner = new ScriptRunner(connection);
+            runner.setLogWriter(null);
+            runner.setStopOnError(true);
+            runner.runScript(reader);
+        }
+        SchemaMigrator migrator = new SchemaMigrator();
+        ReflectionTestUtils.setField(migrator, "dataSource", dataSource);
+        migrator.migrate();
+    }
+
+    private static String driverFor(String url) {
+        return url.startsWith("jdbc:h2:") ? "org.h2.Driver" : "com.mysql.cj.jdbc.Driver";
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(Connection connection, int from, int to, Random random) throws Exception;
+    }
+
+    /**
+     * 数据规模，除用户数外的各项均按用户数推算，平均每用户约60行
+     */
+    public static final class Scale {
+        private final int users;
+        private final int providers;
+        private final int challenges;
+        private final int reportsPerUser;
+        private final int appointmentsPerUser;
+        private final int invitationsPerUser;
+        private final int participationsPerUser;
+
+        private Scale(int users, int providers, int challenges, int reportsPerUser,
+                      int appointmentsPerUser, int invitationsPerUser, int participationsPerUser) {
+            this.users = users;
+            this.providers = providers;
+            this.challenges = challenges;
+            this.reportsPerUser = reportsPerUser;
+            this.appointmentsPerUser = appointmentsPerUser;
+            this.invitationsPerUser = invitationsPerUser;
+            this.participationsPerUser = participationsPerUser;
+        }
+
+        /**
+         * @param users 用户数
+         */
+        public static Scale ofUsers(int users) {
+            return new Scale(users, Math.max(20, users / 200), Math.max(50, users / 100), 10, 2, 1, 4);
+        }
+
+        /**
+         * 按health_report目标行数推算规模（约每用户10份报告）
+         * @param reportRows health_report行数，例如10000到1000000
+         */
+        public static Scale ofReportRows(int reportRows) {
+            return ofUsers(Math.max(100, reportRows / 10));
+        }
+
+        public int getUsers() { return users; }
+        public int getFamilyCount() { return (users + 3) / 4; }
+        public int getProviders() { return providers; }
+        public int getChallenges() { return challenges; }
+        public int getReportsPerUser() { return reportsPerUser; }
+        public int getAppointmentsPerUser() { return appointmentsPerUser; }
+        public int getInvitationsPerUser() { return invitationsPerUser; }
+        public int getParticipationsPerUser() { return participationsPerUser; }
+    }
+}
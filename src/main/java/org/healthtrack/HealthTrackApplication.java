@@ -19,6 +19,11 @@ public class HealthTrackApplication {
         // Start Spring Boot application context
         context = SpringApplication.run(HealthTrackApplication.class, args);
 
+        // Web模式（healthtrack.ui.enabled=false）下只提供REST接口，不打开界面
+        if (!context.getEnvironment().getProperty("healthtrack.ui.enabled", Boolean.class, true)) {
+            return;
+        }
+
         // Get UserService bean from Spring context
         UserService userService = context.getBean(UserService.class);
 
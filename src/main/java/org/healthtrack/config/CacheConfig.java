@@ -0,0 +1,99 @@
+package org.healthtrack.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 查询缓存
+ * 按ID、按邮箱查找用户和提供者的结果缓存在进程内的Caffeine缓存中（W-TinyLFU淘汰，容量和写入后过期时间可配置），
+ * 对应的写操作精确清除受影响的键；按邮箱缓存的键为 {@link #emailKey(String)} 规范化后的邮箱，
+ * 与数据库不区分大小写的比较一致，同一邮箱的不同写法共用一个缓存项，按存储的写法清除即可。
+ * 命中率等统计见 {@link org.healthtrack.service.CacheStatsService}。
+ * 缓存的用户和提供者在写入和读取时都会复制，调用方修改返回的对象不会影响缓存；
+ * 清除和写入在事务提交后才生效，避免提交前其他线程把旧数据重新放回缓存。
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String PRIMARY_EMAILS = "primaryEmails";
+    public static final String PROVIDERS = "providers";
+    public static final String PROVIDERS_BY_EMAIL = "providersByEmail";
+
+    /**
+     * 按邮箱缓存的键：去掉首尾空白并转为小写，与EmailIdentityIndex的规范化一致
+     */
+    public static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Value("${healthtrack.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${healthtrack.cache.expire-after-write-seconds:600}")
+    private long expireAfterWriteSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                USERS, USERS_BY_EMAIL, PRIMARY_EMAILS, PROVIDERS, PROVIDERS_BY_EMAIL) {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new CopyingCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats());
+        // 查不到的结果不缓存，新注册的邮箱或用户无需额外清除
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * 存取时复制可变实体的Caffeine缓存
+     */
+    private static class CopyingCaffeineCache extends CaffeineCache {
+
+        CopyingCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                             boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        protected Object toStoreValue(Object userValue) {
+            return super.toStoreValue(copy(userValue));
+        }
+
+        @Override
+        protected Object fromStoreValue(Object storeValue) {
+            return copy(super.fromStoreValue(storeValue));
+        }
+
+        private static Object copy(Object value) {
+            if (value instanceof User user) {
+                return new User(user);
+            }
+            if (value instanceof Provider provider) {
+                return new Provider(provider);
+            }
+            return value;
+        }
+    }
+}
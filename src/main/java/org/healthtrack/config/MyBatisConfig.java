@@ -1,10 +1,28 @@
 package org.healthtrack.config;
 
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Properties;
+
 @Configuration
 @MapperScan("org.healthtrack.mapper")
 public class MyBatisConfig {
-    // 配置类为空即可，@MapperScan注解会扫描mapper包
-}
\ No newline at end of file
+    // @MapperScan注解会扫描mapper包
+
+    /**
+     * 按数据库产品名设置databaseId，少数语句（如upsert）为H2提供了专用写法，其余语句两种数据库通用
+     */
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties properties = new Properties();
+        properties.setProperty("MySQL", "mysql");
+        properties.setProperty("H2", "h2");
+        VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+        provider.setProperties(properties);
+        return provider;
+    }
+}
@@ -0,0 +1,10 @@
+package org.healthtrack.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // 启用@Scheduled后台任务（统计快照刷新等）
+}
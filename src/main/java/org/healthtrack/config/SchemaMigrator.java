@@ -0,0 +1,198 @@
+package org.healthtrack.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 版本化的结构迁移
+ * init.sql负责建表（可重复执行），之后的结构变更放在 classpath:db/migration/V{版本}__{说明}.sql 中，
+ * 按版本号顺序执行，已执行的版本记录在schema_version表，每个版本只执行一次。
+ * 在init.sql执行完成后、其他组件使用数据库之前运行；某个版本失败时启动失败，修复后重启即可重试。
+ * MySQL的DDL会隐式提交，失败的版本可能已部分生效，因此脚本须可重复执行：
+ * 建表使用 IF NOT EXISTS，CREATE INDEX 在索引已存在时跳过，ALTER TABLE ... ADD COLUMN 在列已存在时跳过。
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class SchemaMigrator {
+
+    private static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\b.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "ALTER\\s+TABLE\\s+(\\w+)\\s+ADD\\s+(?:COLUMN\\s+)?(\\w+)\\b.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void onStartup() {
+        try {
+            int applied = migrate();
+            if (applied > 0) {
+                System.out.println("数据库结构迁移完成，执行 " + applied + " 个版本");
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("数据库结构迁移失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行所有尚未执行的迁移脚本
+     * @return 本次执行的版本数
+     */
+    public int migrate() throws Exception {
+        List<Migration> migrations = findMigrations();
+        int applied = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            Set<Integer> done = appliedVersions(connection);
+            for (Migration migration : migrations) {
+                if (done.contains(migration.version)) {
+                    continue;
+                }
+                executeScript(connection, migration.resource);
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO schema_version (version, description, applied_time) VALUES (?, ?, ?)")) {
+                    ps.setInt(1, migration.version);
+                    ps.setString(2, migration.description);
+                    ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.executeUpdate();
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private void executeScript(Connection connection, Resource resource) throws Exception {
+        String script;
+        try (InputStream in = resource.getInputStream()) {
+            script = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        for (String sql : splitStatements(script)) {
+            Matcher index = CREATE_INDEX.matcher(sql);
+            if (index.matches() && indexExists(connection, index.group(2), index.group(1))) {
+                continue;
+            }
+            Matcher column = ADD_COLUMN.matcher(sql);
+            if (column.matches() && columnExists(connection, column.group(1), column.group(2))) {
+                continue;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * 按分号拆分脚本并去掉"--"行注释；迁移脚本只包含普通DDL/DML，字符串中不出现分号
+     */
+    private static List<String> splitStatements(String script) {
+        StringBuilder body = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith(ScriptUtils.DEFAULT_COMMENT_PREFIX)) {
+                body.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : body.toString().split(ScriptUtils.DEFAULT_STATEMENT_SEPARATOR)) {
+            if (!sql.isBlank()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+
+    private boolean indexExists(Connection connection, String table, String index) throws Exception {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase()}) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, name, false, true)) {
+                while (rs.next()) {
+                    if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean columnExists(Connection connection, String table, String column) throws Exception {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] {table, table.toUpperCase()}) {
+            try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null, name, null)) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<Migration> findMigrations() throws Exception {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+            if (matcher.matches()) {
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), resource));
+            }
+        }
+        migrations.sort(Comparator.comparingInt(m -> m.version));
+        return migrations;
+    }
+
+    private Set<Integer> appliedVersions(Connection connection) throws Exception {
+        Set<Integer> versions = new HashSet<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT version FROM schema_version");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final Resource resource;
+
+        Migration(int version, String description, Resource resource) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class ActiveUserStats {
     private int healthRecordCount;      // 健康数据记录数
     private int completedChallengeCount; // 完成的挑战数
     
+    public ActiveUserStats() {}
+    
     public ActiveUserStats(User user, int healthRecordCount, int completedChallengeCount) {
         this.user = user;
         this.healthRecordCount = healthRecordCount;
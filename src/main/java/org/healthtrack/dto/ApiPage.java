@@ -0,0 +1,68 @@
+package org.healthtrack.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * REST接口的一页结果
+ * next为下一页的游标，请求下一页时作为after参数传回；为null时已到最后一页
+ */
+public class ApiPage<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final List<T> items;
+    private final String next;
+
+    private ApiPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    /**
+     * 由键集分页结果构造，游标由本页最后一行的排序键生成
+     */
+    public static <T> ApiPage<T> of(KeysetPage<T> page, Function<T, String> cursor) {
+        return new ApiPage<>(page.getItems(), page.hasNext() ? cursor.apply(page.getLast()) : null);
+    }
+
+    /**
+     * 对已全部读入内存的小表（提供者、挑战）按键排序后取after之后的一页
+     */
+    public static <T> ApiPage<T> slice(List<T> rows, Function<T, String> key, String after, int pageSize) {
+        List<T> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder())));
+        List<T> page = new ArrayList<>(pageSize);
+        boolean hasNext = false;
+        for (T row : sorted) {
+            String rowKey = key.apply(row);
+            if (after != null && (rowKey == null || rowKey.compareTo(after) <= 0)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                hasNext = true;
+                break;
+            }
+            page.add(row);
+        }
+        return new ApiPage<>(List.copyOf(page), hasNext ? key.apply(page.get(page.size() - 1)) : null);
+    }
+
+    /**
+     * 把请求的每页行数限制在1到MAX_PAGE_SIZE之间
+     */
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
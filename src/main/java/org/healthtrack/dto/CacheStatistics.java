@@ -0,0 +1,57 @@
+package org.healthtrack.dto;
+
+/**
+ * 单个查询缓存的统计，统计数自应用启动起累计
+ */
+public class CacheStatistics {
+    private final String name;
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    public CacheStatistics(String name, long size, long hitCount, long missCount, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前条目数（估计值）
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 因容量或过期被淘汰的条目数，不含写操作主动清除的条目
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: 条目=%d, 命中=%d, 未命中=%d, 命中率=%.1f%%, 淘汰=%d",
+                name, size, hitCount, missCount, getHitRate() * 100, evictionCount);
+    }
+}
@@ -9,6 +9,8 @@ public class ChallengeWithParticipants {
     private WellnessChallenge challenge;
     private int participantCount;
     
+    public ChallengeWithParticipants() {}
+    
     public ChallengeWithParticipants(WellnessChallenge challenge, int participantCount) {
         this.challenge = challenge;
         this.participantCount = participantCount;
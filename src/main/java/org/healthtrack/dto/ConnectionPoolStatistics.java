@@ -0,0 +1,108 @@
+package org.healthtrack.dto;
+
+/**
+ * 单个连接池的当前状态和获取连接耗时，耗时统计自应用启动起累计
+ */
+public class ConnectionPoolStatistics {
+    private final String poolName;
+    private final int active;
+    private final int idle;
+    private final int pending;
+    private final int max;
+    private final long acquireCount;
+    private final double acquireMeanMs;
+    private final double acquireP50Ms;
+    private final double acquireP95Ms;
+    private final double acquireP99Ms;
+    private final double acquireMaxMs;
+    private final long timeoutCount;
+
+    public ConnectionPoolStatistics(String poolName, int active, int idle, int pending, int max,
+                                    long acquireCount, double acquireMeanMs, double acquireP50Ms,
+                                    double acquireP95Ms, double acquireP99Ms, double acquireMaxMs,
+                                    long timeoutCount) {
+        this.poolName = poolName;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.acquireCount = acquireCount;
+        this.acquireMeanMs = acquireMeanMs;
+        this.acquireP50Ms = acquireP50Ms;
+        this.acquireP95Ms = acquireP95Ms;
+        this.acquireP99Ms = acquireP99Ms;
+        this.acquireMaxMs = acquireMaxMs;
+        this.timeoutCount = timeoutCount;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * 已借出的连接数
+     */
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * 正在等待连接的线程数，长期大于0说明池偏小
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public double getAcquireMeanMs() {
+        return acquireMeanMs;
+    }
+
+    /**
+     * 获取连接耗时的百分位，未配置百分位时为NaN
+     */
+    public double getAcquireP50Ms() {
+        return acquireP50Ms;
+    }
+
+    public double getAcquireP95Ms() {
+        return acquireP95Ms;
+    }
+
+    public double getAcquireP99Ms() {
+        return acquireP99Ms;
+    }
+
+    /**
+     * 最近一段时间窗口内的最大耗时
+     */
+    public double getAcquireMaxMs() {
+        return acquireMaxMs;
+    }
+
+    /**
+     * 超过connection-timeout仍未取得连接的次数
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: 使用中=%d, 空闲=%d, 等待=%d, 上限=%d, 获取=%d次, " +
+                        "耗时(ms) 平均=%.2f p50=%.2f p95=%.2f p99=%.2f 最大=%.2f, 超时=%d",
+                poolName, active, idle, pending, max, acquireCount,
+                acquireMeanMs, acquireP50Ms, acquireP95Ms, acquireP99Ms, acquireMaxMs, timeoutCount);
+    }
+}
@@ -0,0 +1,114 @@
+package org.healthtrack.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 管理员统计面板的数据快照（不可变）
+ */
+public final class DashboardSnapshot {
+    private final long totalUsers;
+    private final long verifiedUsers;
+    private final long adminUsers;
+    private final long totalProviders;
+    private final long verifiedProviders;
+    private final long totalAppointments;
+    private final long scheduledAppointments;
+    private final long completedAppointments;
+    private final long cancelledAppointments;
+    private final long totalChallenges;
+    private final long activeChallenges;
+    private final long totalReports;
+    private final List<ActiveUserStats> mostActiveUsers;
+    private final List<ChallengeWithParticipants> popularChallenges;
+    private final LocalDateTime generatedAt;
+    
+    public DashboardSnapshot(long totalUsers, long verifiedUsers, long adminUsers,
+                             long totalProviders, long verifiedProviders,
+                             long totalAppointments, long scheduledAppointments,
+                             long completedAppointments, long cancelledAppointments,
+                             long totalChallenges, long activeChallenges, long totalReports,
+                             List<ActiveUserStats> mostActiveUsers,
+                             List<ChallengeWithParticipants> popularChallenges,
+                             LocalDateTime generatedAt) {
+        this.totalUsers = totalUsers;
+        this.verifiedUsers = verifiedUsers;
+        this.adminUsers = adminUsers;
+        this.totalProviders = totalProviders;
+        this.verifiedProviders = verifiedProviders;
+        this.totalAppointments = totalAppointments;
+        this.scheduledAppointments = scheduledAppointments;
+        this.completedAppointments = completedAppointments;
+        this.cancelledAppointments = cancelledAppointments;
+        this.totalChallenges = totalChallenges;
+        this.activeChallenges = activeChallenges;
+        this.totalReports = totalReports;
+        this.mostActiveUsers = List.copyOf(mostActiveUsers);
+        this.popularChallenges = List.copyOf(popularChallenges);
+        this.generatedAt = generatedAt;
+    }
+    
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public long getVerifiedUsers() {
+        return verifiedUsers;
+    }
+    
+    public long getUnverifiedUsers() {
+        return totalUsers - verifiedUsers;
+    }
+    
+    public long getAdminUsers() {
+        return adminUsers;
+    }
+    
+    public long getTotalProviders() {
+        return totalProviders;
+    }
+    
+    public long getVerifiedProviders() {
+        return verifiedProviders;
+    }
+    
+    public long getTotalAppointments() {
+        return totalAppointments;
+    }
+    
+    public long getScheduledAppointments() {
+        return scheduledAppointments;
+    }
+    
+    public long getCompletedAppointments() {
+        return completedAppointments;
+    }
+    
+    public long getCancelledAppointments() {
+        return cancelledAppointments;
+    }
+    
+    public long getTotalChallenges() {
+        return totalChallenges;
+    }
+    
+    public long getActiveChallenges() {
+        return activeChallenges;
+    }
+    
+    public long getTotalReports() {
+        return totalReports;
+    }
+    
+    public List<ActiveUserStats> getMostActiveUsers() {
+        return mostActiveUsers;
+    }
+    
+    public List<ChallengeWithParticipants> getPopularChallenges() {
+        return popularChallenges;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package org.healthtrack.dto;
+
+/**
+ * 邮箱对应的身份：用户或提供者
+ */
+public class EmailIdentity {
+    public static final String USER = "User";
+    public static final String PROVIDER = "Provider";
+
+    private String emailAddress;
+    private String identityType;   // USER 或 PROVIDER
+    private String identityId;     // 用户的健康ID或提供者的执照号
+
+    public EmailIdentity() {}
+
+    public EmailIdentity(String emailAddress, String identityType, String identityId) {
+        this.emailAddress = emailAddress;
+        this.identityType = identityType;
+        this.identityId = identityId;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public void setEmailAddress(String emailAddress) {
+        this.emailAddress = emailAddress;
+    }
+
+    public String getIdentityType() {
+        return identityType;
+    }
+
+    public void setIdentityType(String identityType) {
+        this.identityType = identityType;
+    }
+
+    public String getIdentityId() {
+        return identityId;
+    }
+
+    public void setIdentityId(String identityId) {
+        this.identityId = identityId;
+    }
+
+    public boolean isUser() {
+        return USER.equals(identityType);
+    }
+
+    public boolean isProvider() {
+        return PROVIDER.equals(identityType);
+    }
+}
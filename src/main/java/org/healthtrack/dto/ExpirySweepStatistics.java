@@ -0,0 +1,65 @@
+package org.healthtrack.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邀请过期清理任务的统计，统计数自应用启动起累计
+ */
+public class ExpirySweepStatistics {
+    private final long sweepCount;
+    private final long totalExpired;
+    private final long totalDurationMs;
+    private final long lastExpired;
+    private final long lastDurationMs;
+    private final LocalDateTime lastSweepTime;
+
+    public ExpirySweepStatistics(long sweepCount, long totalExpired, long totalDurationMs,
+                                 long lastExpired, long lastDurationMs, LocalDateTime lastSweepTime) {
+        this.sweepCount = sweepCount;
+        this.totalExpired = totalExpired;
+        this.totalDurationMs = totalDurationMs;
+        this.lastExpired = lastExpired;
+        this.lastDurationMs = lastDurationMs;
+        this.lastSweepTime = lastSweepTime;
+    }
+
+    public long getSweepCount() {
+        return sweepCount;
+    }
+
+    /**
+     * 累计标记为过期的邀请数
+     */
+    public long getTotalExpired() {
+        return totalExpired;
+    }
+
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    public long getLastExpired() {
+        return lastExpired;
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    /**
+     * 最近一次清理的完成时间，尚未执行过时为null
+     */
+    public LocalDateTime getLastSweepTime() {
+        return lastSweepTime;
+    }
+
+    public double getAverageDurationMs() {
+        return sweepCount == 0 ? 0 : (double) totalDurationMs / sweepCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("邀请过期清理: 次数=%d, 累计过期=%d, 最近过期=%d, 最近耗时=%d ms, 平均耗时=%.1f ms",
+                sweepCount, totalExpired, lastExpired, lastDurationMs, getAverageDurationMs());
+    }
+}
@@ -4,12 +4,14 @@ package org.healthtrack.dto;
  * 健康指标统计结果
  */
 public class HealthIndicatorStats {
-    private String indicatorType;  // 指标类型：weight, blood_pressure_systolic, blood_pressure_diastolic
+    private String indicatorType;  // 指标类型：weight, blood_pressure_systolic, blood_pressure_diastolic, heart_rate, glucose
     private Double average;        // 平均值
     private Double min;           // 最小值
     private Double max;           // 最大值
     private int count;            // 数据点数量
     
+    public HealthIndicatorStats() {}
+    
     public HealthIndicatorStats(String indicatorType) {
         this.indicatorType = indicatorType;
         this.count = 0;
@@ -0,0 +1,78 @@
+package org.healthtrack.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 健康报告搜索条件，为null的条件不参与过滤
+ * 步数条件只过滤填写了步数的报告，未填写步数的报告始终保留
+ */
+public class HealthReportCriteria {
+    private String userId;
+    private LocalDate month;       // 报告月份，取该月任意一天
+    private LocalDate startDate;   // 报告月份下限（含）
+    private LocalDate endDate;     // 报告月份上限（含）
+    private Integer minSteps;
+    private Integer maxSteps;
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDate getMonth() {
+        return month;
+    }
+    
+    public void setMonth(LocalDate month) {
+        this.month = month;
+    }
+    
+    /**
+     * 所选月份的第一天，未选择月份时为null
+     */
+    public LocalDate getMonthStart() {
+        return month != null ? month.withDayOfMonth(1) : null;
+    }
+    
+    /**
+     * 所选月份的最后一天，未选择月份时为null
+     */
+    public LocalDate getMonthEnd() {
+        return month != null ? month.withDayOfMonth(month.lengthOfMonth()) : null;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public Integer getMinSteps() {
+        return minSteps;
+    }
+    
+    public void setMinSteps(Integer minSteps) {
+        this.minSteps = minSteps;
+    }
+    
+    public Integer getMaxSteps() {
+        return maxSteps;
+    }
+    
+    public void setMaxSteps(Integer maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+}
@@ -0,0 +1,63 @@
+package org.healthtrack.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 健康报告列表中的一行：只包含列表显示的列，摘要为数据库截取的前缀，完整内容按reportId另行查询
+ */
+public class HealthReportListItem {
+    private String reportId;
+    private LocalDate reportMonth;
+    private Integer totalSteps;
+    private String summaryPreview;   // 摘要前缀，超长时以"..."结尾
+    private String verifierId;
+    private String verifierName;     // 验证者姓名，由查询关联provider得到，未验证时为null
+    
+    public String getReportId() {
+        return reportId;
+    }
+    
+    public void setReportId(String reportId) {
+        this.reportId = reportId;
+    }
+    
+    public LocalDate getReportMonth() {
+        return reportMonth;
+    }
+    
+    public void setReportMonth(LocalDate reportMonth) {
+        this.reportMonth = reportMonth;
+    }
+    
+    public Integer getTotalSteps() {
+        return totalSteps;
+    }
+    
+    public void setTotalSteps(Integer totalSteps) {
+        this.totalSteps = totalSteps;
+    }
+    
+    public String getSummaryPreview() {
+        return summaryPreview;
+    }
+    
+    public void setSummaryPreview(String summaryPreview) {
+        this.summaryPreview = summaryPreview;
+    }
+    
+    public String getVerifierId() {
+        return verifierId;
+    }
+    
+    public void setVerifierId(String verifierId) {
+        this.verifierId = verifierId;
+    }
+    
+    public String getVerifierName() {
+        return verifierName;
+    }
+    
+    public void setVerifierName(String verifierName) {
+        this.verifierName = verifierName;
+    }
+}
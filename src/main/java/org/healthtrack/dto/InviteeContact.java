@@ -0,0 +1,32 @@
+package org.healthtrack.dto;
+
+/**
+ * 可被邀请的用户及其联系方式
+ */
+public class InviteeContact {
+    private String healthId;
+    private String primaryEmail;   // 主邮箱，没有主邮箱时为null
+
+    public String getHealthId() {
+        return healthId;
+    }
+
+    public void setHealthId(String healthId) {
+        this.healthId = healthId;
+    }
+
+    public String getPrimaryEmail() {
+        return primaryEmail;
+    }
+
+    public void setPrimaryEmail(String primaryEmail) {
+        this.primaryEmail = primaryEmail;
+    }
+
+    /**
+     * 邀请使用的联系方式：优先主邮箱，否则为健康ID
+     */
+    public String getContact() {
+        return primaryEmail != null ? primaryEmail : healthId;
+    }
+}
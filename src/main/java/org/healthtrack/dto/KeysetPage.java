@@ -0,0 +1,52 @@
+package org.healthtrack.dto;
+
+import java.util.List;
+
+/**
+ * 键集分页的一页结果
+ * 下一页以本页最后一行（getLast）的排序键为起点查询；hasNext为false时已到最后一页
+ */
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final boolean hasNext;
+
+    private KeysetPage(List<T> items, boolean hasNext) {
+        this.items = items;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * 由多查询一行（pageSize + 1）的结果构造分页，多出的一行只用于判断是否还有下一页
+     * @param rows 查询结果，最多pageSize + 1行
+     * @param pageSize 每页行数
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new KeysetPage<>(List.copyOf(rows.subList(0, pageSize)), true);
+        }
+        return new KeysetPage<>(List.copyOf(rows), false);
+    }
+
+    public static <T> KeysetPage<T> empty() {
+        return new KeysetPage<>(List.of(), false);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * 本页最后一行，作为查询下一页的起点；空页返回null
+     */
+    public T getLast() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,34 @@
+package org.healthtrack.dto;
+
+/**
+ * 分组计数结果：某指标下某个分类的记录数
+ */
+public class MetricCount {
+    private String metric;    // 指标名称，例如 user_verification、appointment_status
+    private String category;  // 分类值，例如 Verified、Scheduled
+    private long total;       // 记录数
+    
+    public String getMetric() {
+        return metric;
+    }
+    
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+}
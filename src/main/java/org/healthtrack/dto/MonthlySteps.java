@@ -0,0 +1,44 @@
+package org.healthtrack.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 图表中的一个点：某用户某月的步数合计及报告数
+ */
+public class MonthlySteps {
+    private LocalDate reportMonth;  // 报告月份
+    private long steps;             // 当月步数合计
+    private int reportCount;        // 当月报告数
+    
+    public MonthlySteps() {}
+    
+    public MonthlySteps(LocalDate reportMonth, long steps, int reportCount) {
+        this.reportMonth = reportMonth;
+        this.steps = steps;
+        this.reportCount = reportCount;
+    }
+    
+    public LocalDate getReportMonth() {
+        return reportMonth;
+    }
+    
+    public void setReportMonth(LocalDate reportMonth) {
+        this.reportMonth = reportMonth;
+    }
+    
+    public long getSteps() {
+        return steps;
+    }
+    
+    public void setSteps(long steps) {
+        this.steps = steps;
+    }
+    
+    public int getReportCount() {
+        return reportCount;
+    }
+    
+    public void setReportCount(int reportCount) {
+        this.reportCount = reportCount;
+    }
+}
@@ -0,0 +1,34 @@
+package org.healthtrack.dto;
+
+/**
+ * 挑战进度分布中的一个桶：某挑战中进度为指定值的参与人数
+ */
+public class ProgressBucket {
+    private String challengeId;
+    private int progress;          // 进度（0-100）
+    private int participantCount;  // 该进度的参与人数
+    
+    public String getChallengeId() {
+        return challengeId;
+    }
+    
+    public void setChallengeId(String challengeId) {
+        this.challengeId = challengeId;
+    }
+    
+    public int getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+    
+    public int getParticipantCount() {
+        return participantCount;
+    }
+    
+    public void setParticipantCount(int participantCount) {
+        this.participantCount = participantCount;
+    }
+}
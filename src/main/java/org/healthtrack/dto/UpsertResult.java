@@ -0,0 +1,30 @@
+package org.healthtrack.dto;
+
+/**
+ * 各Mapper中upsert的执行结果，由受影响行数换算
+ * upsert一次往返完成保存，并发保存同一主键时不会像先查询再插入那样出现重复键错误。
+ * MySQL使用 INSERT ... ON DUPLICATE KEY UPDATE：受影响行数为1表示插入新行，2表示更新已有行，0表示已有行的值未变化；
+ * Connector/J默认按"匹配行数"返回，已有行未变化时也返回1。
+ * H2（databaseId为h2时）使用 MERGE ... KEY，插入和更新都返回1。
+ * 因此1只能换算为 {@link #INSERTED_OR_MATCHED}（插入了新行，或匹配到已有行），不能据此区分插入与更新；
+ * 调用方据此做的处理应当可以重复执行。
+ */
+public enum UpsertResult {
+    /** 插入了新行，或匹配到已有行（H2 MERGE、Connector/J按匹配行数返回时） */
+    INSERTED_OR_MATCHED,
+    /** 更新了已有行（仅MySQL按受影响行数返回2时） */
+    UPDATED,
+    /** 已有行的值未变化（仅MySQL按受影响行数返回0时） */
+    UNCHANGED;
+
+    public static UpsertResult of(int affectedRows) {
+        switch (affectedRows) {
+            case 0:
+                return UNCHANGED;
+            case 1:
+                return INSERTED_OR_MATCHED;
+            default:
+                return UPDATED;
+        }
+    }
+}
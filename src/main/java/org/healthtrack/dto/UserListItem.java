@@ -0,0 +1,18 @@
+package org.healthtrack.dto;
+
+import org.healthtrack.entity.User;
+
+/**
+ * 用户列表中的一行：用户信息及主邮箱，主邮箱由分页查询关联user_email得到
+ */
+public class UserListItem extends User {
+    private String primaryEmail;   // 主邮箱，没有主邮箱时为null
+
+    public String getPrimaryEmail() {
+        return primaryEmail;
+    }
+
+    public void setPrimaryEmail(String primaryEmail) {
+        this.primaryEmail = primaryEmail;
+    }
+}
@@ -0,0 +1,47 @@
+package org.healthtrack.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 健康指标实体类
+ * 保存报告写入时从summary中解析出的指标值，每份报告每种指标一条
+ */
+public class HealthIndicator {
+    private String reportId;         // 报告ID（复合主键部分）
+    private String indicatorType;    // 指标类型（复合主键部分）：weight、blood_pressure_systolic、blood_pressure_diastolic、heart_rate、glucose
+    private String userId;           // 用户ID
+    private LocalDate reportMonth;   // 报告月份
+    private Double indicatorValue;   // 指标值
+
+    public HealthIndicator() {}
+
+    public HealthIndicator(String reportId, String indicatorType, String userId, LocalDate reportMonth, Double indicatorValue) {
+        this.reportId = reportId;
+        this.indicatorType = indicatorType;
+        this.userId = userId;
+        this.reportMonth = reportMonth;
+        this.indicatorValue = indicatorValue;
+    }
+
+    // getter/setter方法
+    public String getReportId() { return reportId; }
+    public void setReportId(String reportId) { this.reportId = reportId; }
+
+    public String getIndicatorType() { return indicatorType; }
+    public void setIndicatorType(String indicatorType) { this.indicatorType = indicatorType; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDate getReportMonth() { return reportMonth; }
+    public void setReportMonth(LocalDate reportMonth) { this.reportMonth = reportMonth; }
+
+    public Double getIndicatorValue() { return indicatorValue; }
+    public void setIndicatorValue(Double indicatorValue) { this.indicatorValue = indicatorValue; }
+
+    @Override
+    public String toString() {
+        return String.format("HealthIndicator{reportId='%s', type='%s', userId='%s', month=%s, value=%s}",
+                reportId, indicatorType, userId, reportMonth, indicatorValue);
+    }
+}
@@ -0,0 +1,41 @@
+package org.healthtrack.entity;
+
+import java.time.LocalDate;
+
+/**
+ * 用户月度汇总实体类
+ * 每个用户每个报告月份一行，由health_report聚合而来，随报告的保存和删除在同一事务中重算
+ */
+public class MonthlyUserRollup {
+    private String userId;          // 用户ID（复合主键部分）
+    private LocalDate reportMonth;  // 报告月份（复合主键部分）
+    private int reportCount;        // 报告数
+    private int stepsCount;         // 填写了步数的报告数
+    private long stepsTotal;        // 步数合计
+    private Integer stepsMin;       // 最少步数，没有步数时为null
+    private Integer stepsMax;       // 最多步数，没有步数时为null
+
+    public MonthlyUserRollup() {}
+
+    // getter/setter方法
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDate getReportMonth() { return reportMonth; }
+    public void setReportMonth(LocalDate reportMonth) { this.reportMonth = reportMonth; }
+
+    public int getReportCount() { return reportCount; }
+    public void setReportCount(int reportCount) { this.reportCount = reportCount; }
+
+    public int getStepsCount() { return stepsCount; }
+    public void setStepsCount(int stepsCount) { this.stepsCount = stepsCount; }
+
+    public long getStepsTotal() { return stepsTotal; }
+    public void setStepsTotal(long stepsTotal) { this.stepsTotal = stepsTotal; }
+
+    public Integer getStepsMin() { return stepsMin; }
+    public void setStepsMin(Integer stepsMin) { this.stepsMin = stepsMin; }
+
+    public Integer getStepsMax() { return stepsMax; }
+    public void setStepsMax(Integer stepsMax) { this.stepsMax = stepsMax; }
+}
@@ -21,6 +21,13 @@ public class Provider {
         this.phone = phone;
     }
 
+    /**
+     * 复制构造方法
+     */
+    public Provider(Provider other) {
+        this(other.licenseNumber, other.name, other.specialty, other.verifiedStatus, other.phone);
+    }
+
     // Getter和Setter方法
     public String getLicenseNumber() { return licenseNumber; }
     public void setLicenseNumber(String licenseNumber) { this.licenseNumber = licenseNumber; }
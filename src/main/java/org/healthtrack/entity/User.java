@@ -22,6 +22,14 @@ public class User {
         this.role = role;
     }
 
+    /**
+     * 复制构造方法
+     */
+    public User(User other) {
+        this(other.healthId, other.name, other.phone, other.verificationStatus, other.role);
+        this.familyId = other.familyId;
+    }
+
     // Getter和Setter方法
     public String getHealthId() { return healthId; }
     public void setHealthId(String healthId) { this.healthId = healthId; }
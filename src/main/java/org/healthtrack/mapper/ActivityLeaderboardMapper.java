@@ -0,0 +1,46 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.ActiveUserStats;
+import java.util.List;
+
+@Mapper
+public interface ActivityLeaderboardMapper {
+
+    /**
+     * 按用户聚合健康记录数与完成挑战数（进度>=100），排序和截取都在数据库中完成
+     * @param sortBy 排序方式：health_records、challenges、total
+     * @param limit 返回数量限制，小于等于0表示不限制
+     */
+    @Select("<script>" +
+            "SELECT u.health_id, u.name, u.phone, u.verification_status, u.role, u.family_id, " +
+            "COALESCE(hr.record_count, 0) AS health_record_count, " +
+            "COALESCE(pc.completed_count, 0) AS completed_challenge_count, " +
+            "COALESCE(hr.record_count, 0) + COALESCE(pc.completed_count, 0) AS activity_score " +
+            "FROM app_user u " +
+            "LEFT JOIN (SELECT user_id, COUNT(*) AS record_count FROM health_report GROUP BY user_id) hr " +
+            "ON hr.user_id = u.health_id " +
+            "LEFT JOIN (SELECT health_id, COUNT(*) AS completed_count FROM participation " +
+            "WHERE progress &gt;= 100 GROUP BY health_id) pc " +
+            "ON pc.health_id = u.health_id " +
+            "ORDER BY " +
+            "<choose>" +
+            "<when test='sortBy == \"health_records\"'> health_record_count DESC, </when>" +
+            "<when test='sortBy == \"challenges\"'> completed_challenge_count DESC, </when>" +
+            "<otherwise> activity_score DESC, </otherwise>" +
+            "</choose>" +
+            "u.health_id " +
+            "<if test='limit &gt; 0'> LIMIT #{limit} </if>" +
+            "</script>")
+    @Results(id = "activeUserStats", value = {
+            @Result(property = "user.healthId", column = "health_id"),
+            @Result(property = "user.name", column = "name"),
+            @Result(property = "user.phone", column = "phone"),
+            @Result(property = "user.verificationStatus", column = "verification_status"),
+            @Result(property = "user.role", column = "role"),
+            @Result(property = "user.familyId", column = "family_id"),
+            @Result(property = "healthRecordCount", column = "health_record_count"),
+            @Result(property = "completedChallengeCount", column = "completed_challenge_count")
+    })
+    List<ActiveUserStats> findMostActiveUsers(@Param("sortBy") String sortBy, @Param("limit") int limit);
+}
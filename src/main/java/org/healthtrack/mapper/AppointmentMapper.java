@@ -1,6 +1,7 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 import org.healthtrack.entity.Appointment;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,25 @@ public interface AppointmentMapper {
             "VALUES (#{appointmentId}, #{dateTime}, #{type}, #{note}, #{status}, #{cancelReason}, #{userId}, #{reportId})")
     int insert(Appointment appointment);
 
+    /**
+     * 按appointment_id插入或更新预约
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO appointment (appointment_id, date_time, type, note, status, cancel_reason, " +
+            "user_id, report_id) " +
+            "VALUES (#{appointmentId}, #{dateTime}, #{type}, #{note}, #{status}, #{cancelReason}, " +
+            "#{userId}, #{reportId}) " +
+            "ON DUPLICATE KEY UPDATE date_time = VALUES(date_time), type = VALUES(type), " +
+            "note = VALUES(note), status = VALUES(status), cancel_reason = VALUES(cancel_reason), " +
+            "user_id = VALUES(user_id), report_id = VALUES(report_id)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO appointment (appointment_id, date_time, type, note, status, cancel_reason, " +
+            "user_id, report_id) " +
+            "KEY (appointment_id) " +
+            "VALUES (#{appointmentId}, #{dateTime}, #{type}, #{note}, #{status}, #{cancelReason}, " +
+            "#{userId}, #{reportId})")
+    int upsert(Appointment appointment);
+
     @Update("UPDATE appointment SET date_time = #{dateTime}, type = #{type}, note = #{note}, status = #{status}, " +
             "cancel_reason = #{cancelReason}, user_id = #{userId}, report_id = #{reportId} " +
             "WHERE appointment_id = #{appointmentId}")
@@ -41,8 +61,10 @@ public interface AppointmentMapper {
             "WHERE ap.license_number = #{licenseNumber}")
     List<Appointment> findByProviderId(String licenseNumber);
 
-    @Select("<script>" +
-            "SELECT * FROM appointment WHERE 1=1 " +
+    /**
+     * searchAppointments及其分页、计数、流式版本共用的筛选条件
+     */
+    String SEARCH_CONDITIONS =
             "<if test='userId != null'> AND user_id = #{userId} </if>" +
             "<if test='status != null and status != \"\"'> AND status = #{status} </if>" +
             "<if test='type != null and type != \"\"'> AND type = #{type} </if>" +
@@ -50,7 +72,11 @@ public interface AppointmentMapper {
             "<if test='endDate != null'> AND date_time &lt;= #{endDate} </if>" +
             "<if test='providerLicense != null and providerLicense != \"\"'> " +
             "AND appointment_id IN (SELECT appointment_id FROM appointment_provider WHERE license_number = #{providerLicense}) " +
-            "</if>" +
+            "</if>";
+
+    @Select("<script>" +
+            "SELECT * FROM appointment WHERE 1=1 " +
+            SEARCH_CONDITIONS +
             "ORDER BY date_time DESC" +
             "</script>")
     List<Appointment> searchAppointments(@Param("userId") String userId, 
@@ -59,4 +85,56 @@ public interface AppointmentMapper {
                                          @Param("startDate") LocalDateTime startDate, 
                                          @Param("endDate") LocalDateTime endDate, 
                                          @Param("providerLicense") String providerLicense);
-}
\ No newline at end of file
+
+    /**
+     * searchAppointments的键集分页版本，按(date_time, appointment_id)倒序
+     * afterDateTime/afterAppointmentId为上一页最后一条预约的时间和ID，为null时从第一行开始；
+     * skip为定位后再跳过的行数，顺序翻页时为0
+     */
+    @Select("<script>" +
+            "SELECT * FROM appointment WHERE 1=1 " +
+            SEARCH_CONDITIONS +
+            "<if test='afterDateTime != null'> " +
+            "AND date_time &lt;= #{afterDateTime} " +
+            "AND (date_time &lt; #{afterDateTime} OR appointment_id &lt; #{afterAppointmentId}) " +
+            "</if>" +
+            "ORDER BY date_time DESC, appointment_id DESC LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<Appointment> searchAppointmentsPage(@Param("userId") String userId,
+                                             @Param("status") String status,
+                                             @Param("type") String type,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             @Param("providerLicense") String providerLicense,
+                                             @Param("afterDateTime") LocalDateTime afterDateTime,
+                                             @Param("afterAppointmentId") String afterAppointmentId,
+                                             @Param("skip") int skip,
+                                             @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM appointment WHERE 1=1 " +
+            SEARCH_CONDITIONS +
+            "</script>")
+    int countAppointments(@Param("userId") String userId,
+                          @Param("status") String status,
+                          @Param("type") String type,
+                          @Param("startDate") LocalDateTime startDate,
+                          @Param("endDate") LocalDateTime endDate,
+                          @Param("providerLicense") String providerLicense);
+
+    /**
+     * searchAppointments的流式版本，顺序与分页版本相同，必须在事务内遍历并关闭
+     */
+    @Select("<script>" +
+            "SELECT * FROM appointment WHERE 1=1 " +
+            SEARCH_CONDITIONS +
+            "ORDER BY date_time DESC, appointment_id DESC" +
+            "</script>")
+    @Options(fetchSize = 1000)
+    Cursor<Appointment> streamAppointments(@Param("userId") String userId,
+                                           @Param("status") String status,
+                                           @Param("type") String type,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           @Param("providerLicense") String providerLicense);
+}
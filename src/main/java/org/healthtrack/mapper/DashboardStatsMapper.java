@@ -0,0 +1,30 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.MetricCount;
+import java.util.List;
+
+@Mapper
+public interface DashboardStatsMapper {
+
+    /**
+     * 一次查询返回统计面板所需的全部分组计数
+     * metric 取值：user_verification、user_role、provider_verification、appointment_status、challenge_status、report
+     */
+    @Select("SELECT 'user_verification' AS metric, verification_status AS category, COUNT(*) AS total " +
+            "FROM app_user GROUP BY verification_status " +
+            "UNION ALL " +
+            "SELECT 'user_role', role, COUNT(*) FROM app_user GROUP BY role " +
+            "UNION ALL " +
+            "SELECT 'provider_verification', verified_status, COUNT(*) FROM provider GROUP BY verified_status " +
+            "UNION ALL " +
+            "SELECT 'appointment_status', status, COUNT(*) FROM appointment GROUP BY status " +
+            "UNION ALL " +
+            "SELECT 'challenge_status', c.challenge_status, COUNT(*) FROM (" +
+            "SELECT CASE WHEN start_date <= CURRENT_DATE AND end_date >= CURRENT_DATE " +
+            "THEN 'Active' ELSE 'Inactive' END AS challenge_status FROM wellness_challenge) c " +
+            "GROUP BY c.challenge_status " +
+            "UNION ALL " +
+            "SELECT 'report', 'All', COUNT(*) FROM health_report")
+    List<MetricCount> countByMetric();
+}
@@ -0,0 +1,46 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.entity.HealthIndicator;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface HealthIndicatorMapper {
+
+    @Select("SELECT * FROM health_indicator WHERE report_id = #{reportId}")
+    List<HealthIndicator> findByReportId(String reportId);
+
+    @Insert("<script>" +
+            "INSERT INTO health_indicator (report_id, indicator_type, user_id, report_month, indicator_value) VALUES " +
+            "<foreach collection='indicators' item='i' separator=','>" +
+            "(#{i.reportId}, #{i.indicatorType}, #{i.userId}, #{i.reportMonth}, #{i.indicatorValue})" +
+            "</foreach>" +
+            "</script>")
+    int insertAll(@Param("indicators") List<HealthIndicator> indicators);
+
+    @Delete("DELETE FROM health_indicator WHERE report_id = #{reportId}")
+    int deleteByReportId(String reportId);
+
+    @Delete("<script>" +
+            "DELETE FROM health_indicator WHERE report_id IN " +
+            "<foreach collection='reportIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByReportIds(@Param("reportIds") Collection<String> reportIds);
+
+    /**
+     * 按用户、指标类型和月份范围聚合，没有数据时返回null
+     */
+    @Select("SELECT indicator_type, COUNT(*) AS count, MIN(indicator_value) AS min, " +
+            "MAX(indicator_value) AS max, AVG(indicator_value) AS average " +
+            "FROM health_indicator " +
+            "WHERE user_id = #{userId} AND indicator_type = #{indicatorType} " +
+            "AND report_month BETWEEN #{start} AND #{end} " +
+            "GROUP BY indicator_type")
+    HealthIndicatorStats findStats(@Param("userId") String userId,
+                                   @Param("indicatorType") String indicatorType,
+                                   @Param("start") LocalDate start,
+                                   @Param("end") LocalDate end);
+}
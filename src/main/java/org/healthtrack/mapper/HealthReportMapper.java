@@ -1,8 +1,12 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.HealthReportCriteria;
+import org.healthtrack.dto.HealthReportListItem;
 import org.healthtrack.entity.HealthReport;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -18,6 +22,23 @@ public interface HealthReportMapper {
             "VALUES (#{reportId}, #{reportMonth}, #{totalSteps}, #{summary}, #{userId}, #{verifierId})")
     int insert(HealthReport report);
 
+    /**
+     * 按report_id插入或更新报告
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO health_report (report_id, report_month, total_steps, summary, user_id, " +
+            "verifier_id) " +
+            "VALUES (#{reportId}, #{reportMonth}, #{totalSteps}, #{summary}, #{userId}, #{verifierId}) " +
+            "ON DUPLICATE KEY UPDATE report_month = VALUES(report_month), " +
+            "total_steps = VALUES(total_steps), summary = VALUES(summary), " +
+            "user_id = VALUES(user_id), verifier_id = VALUES(verifier_id)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO health_report (report_id, report_month, total_steps, summary, user_id, " +
+            "verifier_id) " +
+            "KEY (report_id) " +
+            "VALUES (#{reportId}, #{reportMonth}, #{totalSteps}, #{summary}, #{userId}, #{verifierId})")
+    int upsert(HealthReport report);
+
     @Update("UPDATE health_report SET report_month = #{reportMonth}, total_steps = #{totalSteps}, summary = #{summary}, " +
             "user_id = #{userId}, verifier_id = #{verifierId} WHERE report_id = #{reportId}")
     int update(HealthReport report);
@@ -28,9 +49,159 @@ public interface HealthReportMapper {
     @Select("SELECT * FROM health_report WHERE user_id = #{userId}")
     List<HealthReport> findByUserId(String userId);
 
+    @Select("SELECT COUNT(*) FROM health_report WHERE user_id = #{userId}")
+    int countByUserId(String userId);
+
     @Select("SELECT * FROM health_report WHERE verifier_id = #{verifierId}")
     List<HealthReport> findByVerifierId(String verifierId);
 
     @Select("SELECT * FROM health_report WHERE report_month BETWEEN #{start} AND #{end}")
     List<HealthReport> findByMonthBetween(LocalDate start, LocalDate end);
-}
\ No newline at end of file
+
+    @Select("SELECT COUNT(*) FROM health_report WHERE report_month BETWEEN #{start} AND #{end}")
+    int countByMonthBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * 按report_id顺序分页查询指标解析版本低于指定版本的报告，用于回填health_indicator
+     */
+    @Select("SELECT * FROM health_report " +
+            "WHERE indicator_version < #{version} AND report_id > #{afterReportId} " +
+            "ORDER BY report_id LIMIT #{limit}")
+    List<HealthReport> findPageBelowIndicatorVersion(@Param("version") int version,
+                                                     @Param("afterReportId") String afterReportId,
+                                                     @Param("limit") int limit);
+
+    /**
+     * 记录报告的指标已按指定版本的规则解析
+     */
+    @Update("<script>" +
+            "UPDATE health_report SET indicator_version = #{version} WHERE report_id IN " +
+            "<foreach collection='reportIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markIndicatorVersion(@Param("reportIds") Collection<String> reportIds, @Param("version") int version);
+
+    // ==================== 键集分页与流式读取 ====================
+    // 分页方法按排序键定位（WHERE 键 > 上一页最后一行的键），after参数为null时从第一行开始；
+    // skip为定位后再跳过的行数，顺序翻页时为0，表格直接跳到未加载过的位置时才用OFFSET补足。
+    // 流式方法返回Cursor，必须在事务内遍历并关闭
+
+    @Select("<script>" +
+            "SELECT * FROM health_report " +
+            "<if test='afterReportId != null'> WHERE report_id &gt; #{afterReportId} </if>" +
+            "ORDER BY report_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<HealthReport> findPage(@Param("afterReportId") String afterReportId,
+                                @Param("skip") int skip,
+                                @Param("limit") int limit);
+
+    /**
+     * 按(report_month, report_id)顺序分页查询某用户的报告，使用(user_id, report_month)索引
+     */
+    @Select("<script>" +
+            "SELECT * FROM health_report WHERE user_id = #{userId} " +
+            "<if test='afterMonth != null'> " +
+            "AND report_month &gt;= #{afterMonth} " +
+            "AND (report_month &gt; #{afterMonth} OR report_id &gt; #{afterReportId}) " +
+            "</if>" +
+            "ORDER BY report_month, report_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<HealthReport> findPageByUserId(@Param("userId") String userId,
+                                        @Param("afterMonth") LocalDate afterMonth,
+                                        @Param("afterReportId") String afterReportId,
+                                        @Param("skip") int skip,
+                                        @Param("limit") int limit);
+
+    /**
+     * 按(report_month, report_id)顺序分页查询月份区间内的报告
+     */
+    @Select("<script>" +
+            "SELECT * FROM health_report WHERE report_month BETWEEN #{start} AND #{end} " +
+            "<if test='afterMonth != null'> " +
+            "AND report_month &gt;= #{afterMonth} " +
+            "AND (report_month &gt; #{afterMonth} OR report_id &gt; #{afterReportId}) " +
+            "</if>" +
+            "ORDER BY report_month, report_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<HealthReport> findPageByMonthBetween(@Param("start") LocalDate start,
+                                              @Param("end") LocalDate end,
+                                              @Param("afterMonth") LocalDate afterMonth,
+                                              @Param("afterReportId") String afterReportId,
+                                              @Param("skip") int skip,
+                                              @Param("limit") int limit);
+
+    @Select("SELECT * FROM health_report ORDER BY report_id")
+    @Options(fetchSize = 1000)
+    Cursor<HealthReport> streamAll();
+
+    @Select("SELECT * FROM health_report WHERE report_month BETWEEN #{start} AND #{end} ORDER BY report_month, report_id")
+    @Options(fetchSize = 1000)
+    Cursor<HealthReport> streamByMonthBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // ==================== 条件搜索 ====================
+
+    /**
+     * 列表中摘要显示的最大字符数
+     */
+    int SUMMARY_PREVIEW_LENGTH = 30;
+
+    /**
+     * 搜索结果只取列表显示的列，摘要在数据库中截取前缀，不传输完整的summary；
+     * 验证者姓名通过关联provider一并查出，不需要再逐行查询提供者
+     */
+    String SEARCH_COLUMNS =
+            "SELECT r.report_id, r.report_month, r.total_steps, r.verifier_id, v.name AS verifier_name, " +
+            "CASE WHEN CHAR_LENGTH(r.summary) &gt; " + SUMMARY_PREVIEW_LENGTH + " " +
+            "THEN CONCAT(SUBSTRING(r.summary, 1, " + SUMMARY_PREVIEW_LENGTH + "), '...') " +
+            "ELSE r.summary END AS summary_preview " +
+            "FROM health_report r LEFT JOIN provider v ON v.license_number = r.verifier_id ";
+
+    /**
+     * search及其分页、计数版本共用的筛选条件（参数名为criteria，报告表别名为r）
+     */
+    String SEARCH_CONDITIONS =
+            "<if test='criteria.userId != null'> AND r.user_id = #{criteria.userId} </if>" +
+            "<if test='criteria.month != null'> " +
+            "AND r.report_month BETWEEN #{criteria.monthStart} AND #{criteria.monthEnd} " +
+            "</if>" +
+            "<if test='criteria.startDate != null'> AND r.report_month &gt;= #{criteria.startDate} </if>" +
+            "<if test='criteria.endDate != null'> AND r.report_month &lt;= #{criteria.endDate} </if>" +
+            "<if test='criteria.minSteps != null'> " +
+            "AND (r.total_steps IS NULL OR r.total_steps &gt;= #{criteria.minSteps}) " +
+            "</if>" +
+            "<if test='criteria.maxSteps != null'> " +
+            "AND (r.total_steps IS NULL OR r.total_steps &lt;= #{criteria.maxSteps}) " +
+            "</if>";
+
+    @Select("<script>" +
+            SEARCH_COLUMNS +
+            "<where>" + SEARCH_CONDITIONS + "</where>" +
+            "ORDER BY r.report_month, r.report_id" +
+            "</script>")
+    List<HealthReportListItem> search(@Param("criteria") HealthReportCriteria criteria);
+
+    /**
+     * search的键集分页版本，按(report_month, report_id)顺序
+     */
+    @Select("<script>" +
+            SEARCH_COLUMNS +
+            "<where>" +
+            SEARCH_CONDITIONS +
+            "<if test='afterMonth != null'> " +
+            "AND r.report_month &gt;= #{afterMonth} " +
+            "AND (r.report_month &gt; #{afterMonth} OR r.report_id &gt; #{afterReportId}) " +
+            "</if>" +
+            "</where>" +
+            "ORDER BY r.report_month, r.report_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<HealthReportListItem> searchPage(@Param("criteria") HealthReportCriteria criteria,
+                                          @Param("afterMonth") LocalDate afterMonth,
+                                          @Param("afterReportId") String afterReportId,
+                                          @Param("skip") int skip,
+                                          @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM health_report r " +
+            "<where>" + SEARCH_CONDITIONS + "</where>" +
+            "</script>")
+    int countSearch(@Param("criteria") HealthReportCriteria criteria);
+}
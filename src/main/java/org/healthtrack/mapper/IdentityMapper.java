@@ -0,0 +1,34 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.EmailIdentity;
+import java.util.List;
+
+/**
+ * 邮箱到用户/提供者身份的查询，user_email和provider_email合并为一条UNION ALL
+ */
+@Mapper
+public interface IdentityMapper {
+
+    /**
+     * 查找邮箱对应的所有身份，两张表都通过email_address索引查找
+     */
+    @Select("SELECT email_address, '" + EmailIdentity.USER + "' AS identity_type, health_id AS identity_id " +
+            "FROM user_email WHERE email_address = #{email} " +
+            "UNION ALL " +
+            "SELECT email_address, '" + EmailIdentity.PROVIDER + "' AS identity_type, license_number AS identity_id " +
+            "FROM provider_email WHERE email_address = #{email}")
+    List<EmailIdentity> findByEmail(@Param("email") String email);
+
+    /**
+     * 流式读取全部邮箱身份，用于重建内存索引，需在事务内遍历
+     */
+    @Select("SELECT email_address, '" + EmailIdentity.USER + "' AS identity_type, health_id AS identity_id " +
+            "FROM user_email " +
+            "UNION ALL " +
+            "SELECT email_address, '" + EmailIdentity.PROVIDER + "' AS identity_type, license_number AS identity_id " +
+            "FROM provider_email")
+    @Options(fetchSize = 1000)
+    Cursor<EmailIdentity> streamAll();
+}
@@ -1,7 +1,10 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.InviteeContact;
 import org.healthtrack.entity.Invitation;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -19,6 +22,26 @@ public interface InvitationMapper {
             "#{invitationType}, #{inviterId}, #{relatedChallengeId})")
     int insert(Invitation invitation);
 
+    /**
+     * 按invitation_id插入或更新邀请
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO invitation (invitation_id, invitee_contact, sent_time, expired_time, " +
+            "status, invitation_type, inviter_id, related_challenge_id) " +
+            "VALUES (#{invitationId}, #{inviteeContact}, #{sentTime}, #{expiredTime}, #{status}, " +
+            "#{invitationType}, #{inviterId}, #{relatedChallengeId}) " +
+            "ON DUPLICATE KEY UPDATE invitee_contact = VALUES(invitee_contact), " +
+            "sent_time = VALUES(sent_time), expired_time = VALUES(expired_time), " +
+            "status = VALUES(status), invitation_type = VALUES(invitation_type), " +
+            "inviter_id = VALUES(inviter_id), related_challenge_id = VALUES(related_challenge_id)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO invitation (invitation_id, invitee_contact, sent_time, expired_time, status, " +
+            "invitation_type, inviter_id, related_challenge_id) " +
+            "KEY (invitation_id) " +
+            "VALUES (#{invitationId}, #{inviteeContact}, #{sentTime}, #{expiredTime}, #{status}, " +
+            "#{invitationType}, #{inviterId}, #{relatedChallengeId})")
+    int upsert(Invitation invitation);
+
     @Update("UPDATE invitation SET invitee_contact = #{inviteeContact}, sent_time = #{sentTime}, " +
             "expired_time = #{expiredTime}, status = #{status}, invitation_type = #{invitationType}, " +
             "inviter极_id = #{inviterId}, related_challenge_id = #{relatedChallengeId} " +
@@ -39,4 +62,47 @@ public interface InvitationMapper {
 
     @Select("SELECT * FROM invitation WHERE invitee_contact = #{inviteeContact}")
     List<Invitation> findByInviteeContact(String inviteeContact);
+
+    /**
+     * 将截至now已过期的待处理邀请标记为过期，每次最多limit行，返回本次更新的行数
+     * 通过idx_invitation_status_expired定位，分批执行使每个事务持有的行锁都很少
+     */
+    @Update("UPDATE invitation SET status = 'Expired' " +
+            "WHERE status = 'Pending' AND expired_time < #{now} LIMIT #{limit}")
+    int expirePending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // ==================== 批量邀请 ====================
+
+    /**
+     * 单次查询或插入最多包含的用户/邀请数，更多的由调用方分批处理
+     */
+    int MAX_BATCH_SIZE = 500;
+
+    /**
+     * 批量插入邀请，invitations不能为空且不超过MAX_BATCH_SIZE条
+     */
+    @Insert("<script>" +
+            "INSERT INTO invitation (invitation_id, invitee_contact, sent_time, expired_time, status, " +
+            "invitation_type, inviter_id, related_challenge_id) VALUES " +
+            "<foreach collection='invitations' item='i' separator=','>" +
+            "(#{i.invitationId}, #{i.inviteeContact}, #{i.sentTime}, #{i.expiredTime}, #{i.status}, " +
+            "#{i.invitationType}, #{i.inviterId}, #{i.relatedChallengeId})" +
+            "</foreach>" +
+            "</script>")
+    int insertAll(@Param("invitations") List<Invitation> invitations);
+
+    /**
+     * 在给定用户中找出存在且尚未参与该挑战的用户，连同主邮箱一起返回
+     * @param healthIds 不能为空且不超过MAX_BATCH_SIZE个
+     */
+    @Select("<script>" +
+            "SELECT u.health_id, e.email_address AS primary_email FROM app_user u " +
+            "LEFT JOIN user_email e ON e.health_id = u.health_id AND e.is_primary = TRUE " +
+            "WHERE u.health_id IN " +
+            "<foreach collection='healthIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "AND NOT EXISTS (SELECT 1 FROM participation p " +
+            "WHERE p.health_id = u.health_id AND p.challenge_id = #{challengeId})" +
+            "</script>")
+    List<InviteeContact> findInviteeContacts(@Param("challengeId") String challengeId,
+                                             @Param("healthIds") Collection<String> healthIds);
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.dto.MonthlySteps;
+import org.healthtrack.entity.MonthlyUserRollup;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 月度汇总表monthly_user_rollup（步数）和monthly_indicator_rollup（健康指标）
+ * 汇总行总是从health_report/health_indicator整体重算：先删除再按GROUP BY插入，最小值和最大值因此无需增量维护
+ */
+@Mapper
+public interface MonthlyRollupMapper {
+
+    /**
+     * 按月份顺序获取用户在月份区间内的汇总
+     */
+    @Select("SELECT * FROM monthly_user_rollup " +
+            "WHERE user_id = #{userId} AND report_month BETWEEN #{start} AND #{end} ORDER BY report_month")
+    List<MonthlyUserRollup> findByUserAndMonthBetween(@Param("userId") String userId,
+                                                      @Param("start") LocalDate start,
+                                                      @Param("end") LocalDate end);
+
+    /**
+     * 只取图表需要的月份、步数合计和报告数三列
+     */
+    @Select("SELECT report_month, steps_total AS steps, report_count FROM monthly_user_rollup " +
+            "WHERE user_id = #{userId} AND report_month BETWEEN #{start} AND #{end} ORDER BY report_month")
+    List<MonthlySteps> findMonthlySteps(@Param("userId") String userId,
+                                        @Param("start") LocalDate start,
+                                        @Param("end") LocalDate end);
+
+    /**
+     * 由月度汇总合并出月份区间内的指标统计，没有数据时返回null
+     */
+    @Select("SELECT indicator_type, SUM(value_count) AS count, MIN(value_min) AS min, MAX(value_max) AS max, " +
+            "SUM(value_sum) / SUM(value_count) AS average " +
+            "FROM monthly_indicator_rollup " +
+            "WHERE user_id = #{userId} AND indicator_type = #{indicatorType} " +
+            "AND report_month BETWEEN #{start} AND #{end} " +
+            "GROUP BY indicator_type")
+    HealthIndicatorStats findIndicatorStats(@Param("userId") String userId,
+                                            @Param("indicatorType") String indicatorType,
+                                            @Param("start") LocalDate start,
+                                            @Param("end") LocalDate end);
+
+    // ==================== 单个用户月份重算 ====================
+
+    @Delete("DELETE FROM monthly_user_rollup WHERE user_id = #{userId} AND report_month = #{month}")
+    int deleteUserMonth(@Param("userId") String userId, @Param("month") LocalDate month);
+
+    @Insert("INSERT INTO monthly_user_rollup " +
+            "(user_id, report_month, report_count, steps_count, steps_total, steps_min, steps_max) " +
+            "SELECT user_id, report_month, COUNT(*), COUNT(total_steps), COALESCE(SUM(total_steps), 0), " +
+            "MIN(total_steps), MAX(total_steps) " +
+            "FROM health_report WHERE user_id = #{userId} AND report_month = #{month} " +
+            "GROUP BY user_id, report_month")
+    int insertUserMonth(@Param("userId") String userId, @Param("month") LocalDate month);
+
+    @Delete("DELETE FROM monthly_indicator_rollup WHERE user_id = #{userId} AND report_month = #{month}")
+    int deleteIndicatorMonth(@Param("userId") String userId, @Param("month") LocalDate month);
+
+    @Insert("INSERT INTO monthly_indicator_rollup " +
+            "(user_id, indicator_type, report_month, value_count, value_sum, value_min, value_max) " +
+            "SELECT user_id, indicator_type, report_month, COUNT(*), SUM(indicator_value), " +
+            "MIN(indicator_value), MAX(indicator_value) " +
+            "FROM health_indicator WHERE user_id = #{userId} AND report_month = #{month} " +
+            "GROUP BY user_id, indicator_type, report_month")
+    int insertIndicatorMonth(@Param("userId") String userId, @Param("month") LocalDate month);
+
+    // ==================== 按用户批量重建 ====================
+
+    @Delete("<script>" +
+            "DELETE FROM monthly_user_rollup WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteUsers(@Param("userIds") Collection<String> userIds);
+
+    @Insert("<script>" +
+            "INSERT INTO monthly_user_rollup " +
+            "(user_id, report_month, report_count, steps_count, steps_total, steps_min, steps_max) " +
+            "SELECT user_id, report_month, COUNT(*), COUNT(total_steps), COALESCE(SUM(total_steps), 0), " +
+            "MIN(total_steps), MAX(total_steps) " +
+            "FROM health_report WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY user_id, report_month" +
+            "</script>")
+    int insertUsers(@Param("userIds") Collection<String> userIds);
+
+    @Delete("<script>" +
+            "DELETE FROM monthly_indicator_rollup WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteIndicatorUsers(@Param("userIds") Collection<String> userIds);
+
+    @Insert("<script>" +
+            "INSERT INTO monthly_indicator_rollup " +
+            "(user_id, indicator_type, report_month, value_count, value_sum, value_min, value_max) " +
+            "SELECT user_id, indicator_type, report_month, COUNT(*), SUM(indicator_value), " +
+            "MIN(indicator_value), MAX(indicator_value) " +
+            "FROM health_indicator WHERE user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY user_id, indicator_type, report_month" +
+            "</script>")
+    int insertIndicatorUsers(@Param("userIds") Collection<String> userIds);
+}
@@ -1,6 +1,7 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.ProgressBucket;
 import org.healthtrack.entity.Participation;
 import java.util.List;
 
@@ -31,6 +32,13 @@ public interface ParticipationMapper {
     @Select("SELECT * FROM participation WHERE health_id = #{healthId} AND challenge_id = #{challengeId}")
     Participation findByUserAndChallenge(@Param("healthId") String healthId, @Param("challengeId") String challengeId);
 
+    /**
+     * 查询并锁定特定参与记录，直到事务结束；修改进度或退出时据此得到准确的原进度
+     */
+    @Select("SELECT * FROM participation WHERE health_id = #{healthId} AND challenge_id = #{challengeId} FOR UPDATE")
+    Participation findByUserAndChallengeForUpdate(@Param("healthId") String healthId,
+                                                  @Param("challengeId") String challengeId);
+
     /**
      * 插入新的参与记录
      */
@@ -76,5 +84,17 @@ public interface ParticipationMapper {
     @Select("SELECT COUNT(*) FROM participation WHERE challenge_id = #{challengeId}")
     int countByChallengeId(String challengeId);
 
+    /**
+     * 统计挑战中进度高于指定值的参与人数（用于计算排名）
+     */
+    @Select("SELECT COUNT(*) FROM participation WHERE challenge_id = #{challengeId} AND progress > #{progress}")
+    int countAheadInChallenge(@Param("challengeId") String challengeId, @Param("progress") int progress);
+
+    /**
+     * 按挑战和进度分组统计人数，用于重建内存排名索引
+     */
+    @Select("SELECT challenge_id, COALESCE(progress, 0) AS progress, COUNT(*) AS participant_count " +
+            "FROM participation GROUP BY challenge_id, COALESCE(progress, 0)")
+    List<ProgressBucket> findProgressBuckets();
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
 import org.healthtrack.entity.Provider;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -13,10 +14,38 @@ public interface ProviderMapper {
     @Select("SELECT * FROM provider WHERE license_number = #{licenseNumber}")
     Provider findById(String licenseNumber);
 
+    /**
+     * findByIds单次查询最多包含的执照号，更多的执照号由调用方分批查询
+     */
+    int MAX_IDS_PER_QUERY = 500;
+
+    /**
+     * 按执照号批量查询，licenseNumbers不能为空且不超过MAX_IDS_PER_QUERY个
+     */
+    @Select("<script>" +
+            "SELECT * FROM provider WHERE license_number IN " +
+            "<foreach collection='licenseNumbers' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Provider> findByIds(@Param("licenseNumbers") Collection<String> licenseNumbers);
+
     @Insert("INSERT INTO provider (license_number, name, specialty, email, verified_status, phone) " +
             "VALUES (#{licenseNumber}, #{name}, #{specialty}, #{email}, #{verifiedStatus}, #{phone})")
     int insert(Provider provider);
 
+    /**
+     * 按执照号插入或更新提供者（邮箱保存在provider_email表中，不在此处写入）
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO provider (license_number, name, specialty, verified_status, phone) " +
+            "VALUES (#{licenseNumber}, #{name}, #{specialty}, #{verifiedStatus}, #{phone}) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), specialty = VALUES(specialty), " +
+            "verified_status = VALUES(verified_status), phone = VALUES(phone)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO provider (license_number, name, specialty, verified_status, phone) " +
+            "KEY (license_number) " +
+            "VALUES (#{licenseNumber}, #{name}, #{specialty}, #{verifiedStatus}, #{phone})")
+    int upsert(Provider provider);
+
     @Update("UPDATE provider SET name = #{name}, specialty = #{specialty}, email = #{email}, " +
             "verified_status = #{verifiedStatus}, phone = #{phone} WHERE license_number = #{licenseNumber}")
     int update(Provider provider);
@@ -33,6 +62,7 @@ public interface ProviderMapper {
     @Select("SELECT * FROM provider WHERE verified_status = #{verifiedStatus}")
     List<Provider> findByVerifiedStatus(String verifiedStatus);
 
-    @Select("SELECT * FROM provider WHERE email = #{email}")
+    @Select("SELECT p.* FROM provider p INNER JOIN provider_email e ON p.license_number = e.license_number " +
+            "WHERE e.email_address = #{email}")
     Provider findByEmail(String email);
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ public interface UserEmailMapper {
     @Select("SELECT * FROM user_email WHERE health_id = #{healthId}")
     List<UserEmail> findByUserId(String healthId);
 
+    @Select("SELECT COUNT(*) FROM user_email WHERE health_id = #{healthId}")
+    int countByUserId(String healthId);
+
     @Select("SELECT * FROM user_email WHERE health_id = #{healthId} AND is_primary = TRUE")
     UserEmail findPrimaryEmail(String healthId);
 
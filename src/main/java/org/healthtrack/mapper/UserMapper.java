@@ -1,6 +1,8 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.UserListItem;
 import org.healthtrack.entity.User;
 import java.util.List;
 
@@ -17,6 +19,21 @@ public interface UserMapper {
             "VALUES (#{healthId}, #{name}, #{phone}, #{verificationStatus}, #{role}, #{familyId})")
     int insert(User user);
 
+    /**
+     * 保存用户：health_id不存在时插入，存在时更新其余列
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO app_user (health_id, name, phone, verification_status, role, family_id) " +
+            "VALUES (#{healthId}, #{name}, #{phone}, #{verificationStatus}, #{role}, #{familyId}) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), phone = VALUES(phone), " +
+            "verification_status = VALUES(verification_status), role = VALUES(role), " +
+            "family_id = VALUES(family_id)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO app_user (health_id, name, phone, verification_status, role, family_id) " +
+            "KEY (health_id) " +
+            "VALUES (#{healthId}, #{name}, #{phone}, #{verificationStatus}, #{role}, #{familyId})")
+    int upsert(User user);
+
     @Update("UPDATE app_user SET name = #{name}, phone = #{phone}, " +
             "verification_status = #{verificationStatus}, role = #{role}, family_id = #{familyId} " +
             "WHERE health_id = #{healthId}")
@@ -39,4 +56,68 @@ public interface UserMapper {
 
     @Select("SELECT * FROM app_user WHERE family_id = #{familyId}")
     List<User> findByFamilyId(String familyId);
-}
\ No newline at end of file
+
+    @Select("SELECT COUNT(*) FROM app_user")
+    int countAll();
+
+    /**
+     * 尚未参与指定挑战的用户（不含excludeHealthId），按health_id顺序键集分页，用于选择邀请对象
+     * afterHealthId为上一页最后一个用户的ID，为null时从第一行开始；skip为定位后再跳过的行数
+     */
+    @Select("<script>" +
+            "SELECT * FROM app_user u WHERE u.health_id &lt;&gt; #{excludeHealthId} " +
+            "<if test='afterHealthId != null'> AND u.health_id &gt; #{afterHealthId} </if>" +
+            "AND NOT EXISTS (SELECT 1 FROM participation p " +
+            "WHERE p.health_id = u.health_id AND p.challenge_id = #{challengeId}) " +
+            "ORDER BY u.health_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<User> findNotParticipating(@Param("challengeId") String challengeId,
+                                    @Param("excludeHealthId") String excludeHealthId,
+                                    @Param("afterHealthId") String afterHealthId,
+                                    @Param("skip") int skip,
+                                    @Param("limit") int limit);
+
+    /**
+     * 尚未参与指定挑战的用户数（不含excludeHealthId）
+     */
+    @Select("SELECT COUNT(*) FROM app_user u WHERE u.health_id <> #{excludeHealthId} AND NOT EXISTS " +
+            "(SELECT 1 FROM participation p WHERE p.health_id = u.health_id AND p.challenge_id = #{challengeId})")
+    int countNotParticipating(@Param("challengeId") String challengeId,
+                              @Param("excludeHealthId") String excludeHealthId);
+
+    @Select("SELECT COUNT(*) FROM app_user WHERE verification_status = #{verificationStatus}")
+    int countByVerificationStatus(String verificationStatus);
+
+    /**
+     * 按health_id顺序键集分页，afterHealthId为上一页最后一个用户的ID，为null时从第一行开始
+     * skip为定位后再跳过的行数，顺序翻页时为0
+     */
+    @Select("<script>" +
+            "SELECT * FROM app_user " +
+            "<if test='afterHealthId != null'> WHERE health_id &gt; #{afterHealthId} </if>" +
+            "ORDER BY health_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<User> findPage(@Param("afterHealthId") String afterHealthId,
+                        @Param("skip") int skip,
+                        @Param("limit") int limit);
+
+    /**
+     * 与findPage相同的分页，同时关联出每个用户的主邮箱，供用户列表显示
+     */
+    @Select("<script>" +
+            "SELECT u.*, e.email_address AS primary_email FROM app_user u " +
+            "LEFT JOIN user_email e ON e.health_id = u.health_id AND e.is_primary = TRUE " +
+            "<if test='afterHealthId != null'> WHERE u.health_id &gt; #{afterHealthId} </if>" +
+            "ORDER BY u.health_id LIMIT #{limit} OFFSET #{skip}" +
+            "</script>")
+    List<UserListItem> findListPage(@Param("afterHealthId") String afterHealthId,
+                                    @Param("skip") int skip,
+                                    @Param("limit") int limit);
+
+    /**
+     * 按health_id顺序流式读取全部用户，必须在事务内遍历并关闭
+     */
+    @Select("SELECT * FROM app_user ORDER BY health_id")
+    @Options(fetchSize = 1000)
+    Cursor<User> streamAll();
+}
@@ -57,4 +57,16 @@ public interface UserProviderLinkMapper {
     @Select("SELECT COUNT(*) FROM user_provider_link " +
             "WHERE health_id = #{healthId} AND license_number = #{licenseNumber}")
     int exists(@Param("healthId") String healthId, @Param("licenseNumber") String licenseNumber);
+
+    /**
+     * 统计用户关联的提供者数量
+     */
+    @Select("SELECT COUNT(*) FROM user_provider_link WHERE health_id = #{healthId}")
+    int countByUserId(String healthId);
+
+    /**
+     * 统计提供者关联的用户数量
+     */
+    @Select("SELECT COUNT(*) FROM user_provider_link WHERE license_number = #{licenseNumber}")
+    int countByProviderId(String licenseNumber);
 }
\ No newline at end of file
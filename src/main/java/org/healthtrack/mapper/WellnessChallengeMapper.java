@@ -1,7 +1,9 @@
 package org.healthtrack.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.healthtrack.dto.ChallengeWithParticipants;
 import org.healthtrack.entity.WellnessChallenge;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -18,6 +20,23 @@ public interface WellnessChallengeMapper {
             "VALUES (#{challengeId}, #{goal}, #{startDate}, #{endDate}, #{description}, #{creatorId})")
     int insert(WellnessChallenge challenge);
 
+    /**
+     * 按challenge_id插入或更新挑战，返回1时为新建的挑战
+     * @return 受影响行数，含义见 {@link org.healthtrack.dto.UpsertResult#of(int)}
+     */
+    @Insert("INSERT INTO wellness_challenge (challenge_id, goal, start_date, end_date, description, " +
+            "creator_id) " +
+            "VALUES (#{challengeId}, #{goal}, #{startDate}, #{endDate}, #{description}, #{creatorId}) " +
+            "ON DUPLICATE KEY UPDATE goal = VALUES(goal), start_date = VALUES(start_date), " +
+            "end_date = VALUES(end_date), description = VALUES(description), " +
+            "creator_id = VALUES(creator_id)")
+    @Insert(databaseId = "h2",
+            value = "MERGE INTO wellness_challenge (challenge_id, goal, start_date, end_date, description, " +
+            "creator_id) " +
+            "KEY (challenge_id) " +
+            "VALUES (#{challengeId}, #{goal}, #{startDate}, #{endDate}, #{description}, #{creatorId})")
+    int upsert(WellnessChallenge challenge);
+
     @Update("UPDATE wellness_challenge SET goal = #{goal}, start_date = #{startDate}, end_date = #{endDate}, " +
             "description = #{description}, creator_id = #{creatorId} WHERE challenge_id = #{challengeId}")
     int update(WellnessChallenge challenge);
@@ -28,9 +47,42 @@ public interface WellnessChallengeMapper {
     @Select("SELECT * FROM wellness_challenge WHERE creator_id = #{creatorId}")
     List<WellnessChallenge> findByCreatorId(String creatorId);
 
+    @Select("SELECT COUNT(*) FROM wellness_challenge WHERE creator_id = #{creatorId}")
+    int countByCreatorId(String creatorId);
+
     @Select("SELECT * FROM wellness_challenge WHERE start_date <= NOW() AND end_date >= NOW()")
     List<WellnessChallenge> findActiveChallenges();
 
     @Select("SELECT * FROM wellness_challenge WHERE end_date < NOW()")
     List<WellnessChallenge> findCompletedChallenges();
+
+    @Select("<script>" +
+            "SELECT * FROM wellness_challenge WHERE challenge_id IN " +
+            "<foreach collection='challengeIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<WellnessChallenge> findByIds(@Param("challengeIds") Collection<String> challengeIds);
+
+    /**
+     * 按参与人数降序返回挑战（含无人参与的挑战），排序和截取在数据库中完成
+     * @param limit 返回数量限制，小于等于0表示不限制
+     */
+    @Select("<script>" +
+            "SELECT c.challenge_id, c.goal, c.start_date, c.end_date, c.description, c.creator_id, " +
+            "COALESCE(p.participant_count, 0) AS participant_count " +
+            "FROM wellness_challenge c " +
+            "LEFT JOIN (SELECT challenge_id, COUNT(*) AS participant_count FROM participation GROUP BY challenge_id) p " +
+            "ON p.challenge_id = c.challenge_id " +
+            "ORDER BY participant_count DESC, c.challenge_id " +
+            "<if test='limit &gt; 0'> LIMIT #{limit} </if>" +
+            "</script>")
+    @Results(id = "challengeWithParticipants", value = {
+            @Result(property = "challenge.challengeId", column = "challenge_id"),
+            @Result(property = "challenge.goal", column = "goal"),
+            @Result(property = "challenge.startDate", column = "start_date"),
+            @Result(property = "challenge.endDate", column = "end_date"),
+            @Result(property = "challenge.description", column = "description"),
+            @Result(property = "challenge.creatorId", column = "creator_id"),
+            @Result(property = "participantCount", column = "participant_count")
+    })
+    List<ChallengeWithParticipants> findMostPopular(@Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package org.healthtrack.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 映射器调用指标
+ * 拦截Executor的查询和更新，按语句ID（如 HealthReportMapper.findById）记录：
+ * healthtrack.mapper.calls 耗时（p50/p95/p99，outcome区分成功和失败）、
+ * healthtrack.mapper.rows 返回或影响的行数、healthtrack.mapper.errors 按异常类型计数的失败次数。
+ * 耗时达到 healthtrack.metrics.slow-query-threshold-ms 的语句连同SQL打印为慢查询。
+ * 返回Cursor的语句只计打开游标的时间和不计行数，遍历在调用方进行。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    static final String CALLS = "healthtrack.mapper.calls";
+    static final String ROWS = "healthtrack.mapper.rows";
+    static final String ERRORS = "healthtrack.mapper.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${healthtrack.metrics.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMs;
+
+    // 每条语句的计时器和行数分布只构建一次，避免每次调用都查找注册表
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement mappedStatement = (MappedStatement) args[0];
+        StatementMeters statementMeters = meters.computeIfAbsent(mappedStatement.getId(),
+                id -> new StatementMeters(statementName(id), mappedStatement));
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            long elapsed = System.nanoTime() - start;
+            statementMeters.success.record(elapsed, TimeUnit.NANOSECONDS);
+            long rows = rowCount(result);
+            if (rows >= 0) {
+                statementMeters.rows.record(rows);
+            }
+            logIfSlow(statementMeters.name, elapsed, mappedStatement, args);
+            return result;
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            statementMeters.failure.record(elapsed, TimeUnit.NANOSECONDS);
+            Counter.builder(ERRORS)
+                    .tag("statement", statementMeters.name)
+                    .tag("exception", rootCause(e).getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            logIfSlow(statementMeters.name, elapsed, mappedStatement, args);
+            throw e;
+        }
+    }
+
+    private void logIfSlow(String statement, long elapsedNanos, MappedStatement mappedStatement, Object[] args) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs < slowQueryThresholdMs) {
+            return;
+        }
+        String sql;
+        try {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : mappedStatement.getBoundSql(args[1]);
+            sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+        } catch (Exception e) {
+            sql = "(无法取得SQL: " + e.getMessage() + ")";
+        }
+        System.err.println("慢查询 " + statement + " 耗时 " + elapsedMs + "ms: " + sql);
+    }
+
+    /**
+     * 查询返回列表的大小，更新返回影响行数；游标和批处理中尚未执行的更新返回-1
+     */
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count && count != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            return Math.max(count, 0);
+        }
+        return -1;
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * 去掉包名：org.healthtrack.mapper.HealthReportMapper.findById -> HealthReportMapper.findById
+     */
+    static String statementName(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return id.substring(type + 1);
+    }
+
+    private final class StatementMeters {
+        private final String name;
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary rows;
+
+        private StatementMeters(String name, MappedStatement mappedStatement) {
+            String command = mappedStatement.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+            this.name = name;
+            this.success = timer(name, command, "success");
+            this.failure = timer(name, command, "error");
+            this.rows = DistributionSummary.builder(ROWS)
+                    .tag("statement", name)
+                    .tag("command", command)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String name, String command, String outcome) {
+            return Timer.builder(CALLS)
+                    .tag("statement", name)
+                    .tag("command", command)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.healthtrack.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标文件导出
+ * 按 healthtrack.metrics.export-interval-ms 把当前全部指标写入 healthtrack.metrics.export-dir：
+ * metrics.prom 为Prometheus文本格式（可由node_exporter的textfile收集器读取），metrics.json 供本地查看。
+ * 两个文件都先写临时文件再替换，读取方不会看到写了一半的内容。
+ */
+@Component
+public class MetricsFileExporter {
+
+    static final String PROMETHEUS_FILE = "metrics.prom";
+    static final String JSON_FILE = "metrics.json";
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 关闭Prometheus导出（management.prometheus.metrics.export.enabled=false）时不存在
+    @Autowired(required = false)
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Value("${healthtrack.metrics.export-enabled:false}")
+    private boolean enabled;
+
+    @Value("${healthtrack.metrics.export-dir:metrics}")
+    private String exportDir;
+
+    @Scheduled(fixedDelayString = "${healthtrack.metrics.export-interval-ms:60000}")
+    public void scheduledExport() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            export();
+        } catch (Exception e) {
+            System.err.println("导出指标文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 立即导出一次
+     * @return 导出的指标数
+     */
+    public int export() throws IOException {
+        Path dir = Paths.get(exportDir);
+        Files.createDirectories(dir);
+        if (prometheusMeterRegistry != null) {
+            writeAtomically(dir.resolve(PROMETHEUS_FILE), prometheusMeterRegistry.scrape());
+        }
+        List<Map<String, Object>> meters = new ArrayList<>();
+        meterRegistry.getMeters().stream()
+                .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+                        .thenComparing(meter -> meter.getId().getTags().toString()))
+                .forEach(meter -> meters.add(toJson(meter)));
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timestamp", LocalDateTime.now().toString());
+        document.put("meters", meters);
+        writeAtomically(dir.resolve(JSON_FILE), JSON.writeValueAsString(document));
+        return meters.size();
+    }
+
+    private static Map<String, Object> toJson(Meter meter) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", meter.getId().getName());
+        json.put("type", meter.getId().getType().name().toLowerCase());
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : meter.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        json.put("tags", tags);
+        Map<String, Double> measurements = new LinkedHashMap<>();
+        for (Measurement measurement : meter.measure()) {
+            measurements.put(measurement.getStatistic().getTagValueRepresentation(), finite(measurement.getValue()));
+        }
+        json.put("measurements", measurements);
+        // 计时器的百分位统一以毫秒输出
+        HistogramSnapshot snapshot = null;
+        if (meter instanceof Timer timer) {
+            snapshot = timer.takeSnapshot();
+        } else if (meter instanceof DistributionSummary summary) {
+            snapshot = summary.takeSnapshot();
+        }
+        if (snapshot != null && snapshot.percentileValues().length > 0) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(String.valueOf(value.percentile()), finite(meter instanceof Timer
+                        ? value.value(TimeUnit.MILLISECONDS) : value.value()));
+            }
+            json.put("percentiles", percentiles);
+        }
+        return json;
+    }
+
+    private static Double finite(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private static void writeAtomically(Path target, String content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,94 @@
+package org.healthtrack.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务调用指标
+ * 对service.impl中@Service类的公开方法记录 healthtrack.service.calls 耗时（p50/p95/p99），
+ * 抛出异常的调用另计入 healthtrack.service.errors。
+ * 切面排在事务和缓存之外，耗时包含提交事务和缓存命中的情况。
+ * 服务内部捕获后返回默认值的失败不会抛到这里，对应的SQL异常由 {@link MapperMetricsInterceptor} 计数。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String CALLS = "healthtrack.service.calls";
+    static final String ERRORS = "healthtrack.service.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 每个服务方法的计时器只构建一次，避免每次调用都查找注册表
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("within(org.healthtrack.service.impl..*) && @within(org.springframework.stereotype.Service) " +
+            "&& execution(public * *(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.computeIfAbsent(method,
+                m -> new MethodMeters(serviceName(joinPoint.getTarget().getClass()), m.getName()));
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodMeters.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Counter.builder(ERRORS)
+                    .tag("service", methodMeters.service)
+                    .tag("method", methodMeters.method)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        }
+    }
+
+    /**
+     * 按实现类取服务名并去掉Impl后缀：HealthReportServiceImpl -> HealthReportService
+     */
+    static String serviceName(Class<?> type) {
+        String name = type.getSimpleName();
+        return name.endsWith("Impl") ? name.substring(0, name.length() - "Impl".length()) : name;
+    }
+
+    private final class MethodMeters {
+        private final String service;
+        private final String method;
+        private final Timer success;
+        private final Timer failure;
+
+        private MethodMeters(String service, String method) {
+            this.service = service;
+            this.method = method;
+            this.success = timer("success");
+            this.failure = timer("error");
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder(CALLS)
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+    }
+}
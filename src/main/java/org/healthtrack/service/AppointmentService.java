@@ -1,7 +1,9 @@
 package org.healthtrack.service;
 
+import org.healthtrack.dto.KeysetPage;
 import org.healthtrack.entity.Appointment;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AppointmentService {
     List<Appointment> getAllAppointments();
@@ -28,4 +30,36 @@ public interface AppointmentService {
                                          java.time.LocalDateTime startDate, 
                                          java.time.LocalDateTime endDate, 
                                          String providerLicense);
-}
\ No newline at end of file
+
+    /**
+     * 多条件搜索预约的键集分页版本，按预约时间倒序
+     * @param after 上一页最后一条预约，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     * @return 一页预约
+     */
+    KeysetPage<Appointment> searchAppointmentsPage(String userId, String status, String type,
+                                                   java.time.LocalDateTime startDate,
+                                                   java.time.LocalDateTime endDate,
+                                                   String providerLicense,
+                                                   Appointment after, int skip, int pageSize);
+
+    /**
+     * 统计符合搜索条件的预约数
+     */
+    int countAppointments(String userId, String status, String type,
+                          java.time.LocalDateTime startDate,
+                          java.time.LocalDateTime endDate,
+                          String providerLicense);
+
+    /**
+     * 按预约时间倒序逐条处理符合条件的预约，结果不整体载入内存
+     * @param action 对每条预约执行的操作
+     * @return 已处理的预约数
+     */
+    int forEachAppointment(String userId, String status, String type,
+                           java.time.LocalDateTime startDate,
+                           java.time.LocalDateTime endDate,
+                           String providerLicense,
+                           Consumer<Appointment> action);
+}
@@ -0,0 +1,21 @@
+package org.healthtrack.service;
+
+import org.healthtrack.dto.CacheStatistics;
+
+import java.util.List;
+
+/**
+ * 查询缓存统计
+ */
+public interface CacheStatsService {
+
+    /**
+     * 各缓存当前的条目数和命中、未命中、淘汰次数，按缓存名排序
+     */
+    List<CacheStatistics> getCacheStatistics();
+
+    /**
+     * 清空所有查询缓存（例如直接修改了数据库之后）
+     */
+    void clearAll();
+}
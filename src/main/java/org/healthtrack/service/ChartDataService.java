@@ -0,0 +1,21 @@
+package org.healthtrack.service;
+
+import org.healthtrack.dto.MonthlySteps;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 图表数据服务
+ * 只返回绘图所需的(月份, 数值)点，不加载完整的报告实体
+ */
+public interface ChartDataService {
+
+    /**
+     * 获取用户在月份区间内每月的步数合计和报告数，按月份顺序，没有报告的月份不返回
+     * @param userId 用户ID
+     * @param start 开始月份
+     * @param end 结束月份
+     */
+    List<MonthlySteps> getMonthlySteps(String userId, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,16 @@
+package org.healthtrack.service;
+
+import org.healthtrack.dto.ConnectionPoolStatistics;
+
+import java.util.List;
+
+/**
+ * 数据库连接池统计
+ */
+public interface ConnectionPoolStatsService {
+
+    /**
+     * 各连接池当前的使用中、空闲、等待连接数和获取连接耗时分布，按池名排序
+     */
+    List<ConnectionPoolStatistics> getPoolStatistics();
+}
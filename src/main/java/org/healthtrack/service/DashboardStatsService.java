@@ -0,0 +1,20 @@
+package org.healthtrack.service;
+
+import org.healthtrack.dto.DashboardSnapshot;
+
+/**
+ * 管理员统计面板服务
+ * 通过少量分组聚合查询生成不可变快照，并按TTL缓存
+ */
+public interface DashboardStatsService {
+
+    /**
+     * 获取统计快照，缓存未过期时直接返回缓存
+     */
+    DashboardSnapshot getSnapshot();
+
+    /**
+     * 立即重新计算统计快照并替换缓存
+     */
+    DashboardSnapshot refreshSnapshot();
+}
@@ -1,9 +1,14 @@
 package org.healthtrack.service;
 
 import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.dto.HealthReportCriteria;
+import org.healthtrack.dto.HealthReportListItem;
+import org.healthtrack.dto.KeysetPage;
 import org.healthtrack.entity.HealthReport;
+import org.healthtrack.entity.MonthlyUserRollup;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface HealthReportService {
     List<HealthReport> getAllReports();
@@ -12,6 +17,7 @@ public interface HealthReportService {
     boolean deleteReport(String reportId);
     List<HealthReport> getReportsByUser(String userId);
     List<HealthReport> getReportsByDateRange(LocalDate start, LocalDate end);
+
     int countReportsByUser(String userId);
     boolean verifyReport(String reportId, String verifierId);
     
@@ -19,8 +25,77 @@ public interface HealthReportService {
      * 获取指定月份的健康指标统计（平均值/最小值/最大值）
      * @param userId 用户ID
      * @param month 月份（格式：yyyy-MM）
-     * @param indicatorType 指标类型：weight（体重）、blood_pressure_systolic（收缩压）、blood_pressure_diastolic（舒张压）
+     * @param indicatorType 指标类型：weight（体重）、blood_pressure_systolic（收缩压）、blood_pressure_diastolic（舒张压）、heart_rate（心率）、glucose（血糖）
      * @return 健康指标统计结果
      */
     HealthIndicatorStats getMonthlyIndicatorStats(String userId, String month, String indicatorType);
-}
\ No newline at end of file
+
+    /**
+     * 获取用户在月份区间内的月度汇总（报告数、步数合计/最小/最大），每月一行
+     * @param userId 用户ID
+     * @param start 起始月份（含）
+     * @param end 结束月份（含）
+     * @return 按月份排序的汇总列表
+     */
+    List<MonthlyUserRollup> getMonthlyRollups(String userId, LocalDate start, LocalDate end);
+
+    // ==================== 键集分页与流式读取 ====================
+
+    /**
+     * 按报告ID顺序分页获取全部报告
+     * @param after 上一页最后一份报告，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     */
+    KeysetPage<HealthReport> getReportsPage(HealthReport after, int skip, int pageSize);
+
+    /**
+     * 按月份顺序分页获取某用户的报告
+     * @param userId 用户ID
+     * @param after 上一页最后一份报告，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     */
+    KeysetPage<HealthReport> getReportsByUserPage(String userId, HealthReport after, int skip, int pageSize);
+
+    /**
+     * 按月份顺序分页获取月份区间内的报告
+     * @param after 上一页最后一份报告，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     */
+    KeysetPage<HealthReport> getReportsByDateRangePage(LocalDate start, LocalDate end,
+                                                       HealthReport after, int skip, int pageSize);
+
+    int countReportsByDateRange(LocalDate start, LocalDate end);
+
+    /**
+     * 按月份顺序逐条处理月份区间内的报告，结果不整体载入内存
+     * @param action 对每份报告执行的操作
+     * @return 已处理的报告数
+     */
+    int forEachReportInDateRange(LocalDate start, LocalDate end, Consumer<HealthReport> action);
+
+    // ==================== 条件搜索 ====================
+
+    /**
+     * 按条件搜索报告，所有条件都在数据库中过滤，结果只包含列表显示的列
+     * @param criteria 搜索条件
+     * @return 按月份排序的报告列表
+     */
+    List<HealthReportListItem> searchReports(HealthReportCriteria criteria);
+
+    /**
+     * 按条件分页搜索报告
+     * @param after 上一页最后一行，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     */
+    KeysetPage<HealthReportListItem> searchReportsPage(HealthReportCriteria criteria,
+                                                       HealthReportListItem after, int skip, int pageSize);
+
+    /**
+     * 统计符合条件的报告数
+     */
+    int countSearchReports(HealthReportCriteria criteria);
+}
@@ -0,0 +1,31 @@
+package org.healthtrack.service;
+
+import org.healthtrack.dto.EmailIdentity;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+
+/**
+ * 按邮箱解析登录身份
+ * 先查内存邮箱索引，索引中没有时用一条UNION查询同时查找user_email和provider_email
+ */
+public interface IdentityResolver {
+
+    /**
+     * 解析邮箱对应的身份，邮箱同时属于提供者和用户时返回提供者
+     * @param email 邮箱地址
+     * @return 身份，不存在时返回null
+     */
+    EmailIdentity resolve(String email);
+
+    /**
+     * 查找邮箱对应的用户
+     * @return 用户，不存在时返回null
+     */
+    User resolveUser(String email);
+
+    /**
+     * 查找邮箱对应的提供者
+     * @return 提供者，不存在时返回null
+     */
+    Provider resolveProvider(String email);
+}
@@ -1,6 +1,10 @@
 package org.healthtrack.service;
 
+import org.healthtrack.dto.ExpirySweepStatistics;
+import org.healthtrack.dto.KeysetPage;
 import org.healthtrack.entity.Invitation;
+import org.healthtrack.entity.User;
+import java.util.Collection;
 import java.util.List;
 
 public interface InvitationService {
@@ -12,5 +16,30 @@ public interface InvitationService {
     List<Invitation> getInvitationsByStatus(String status);
     List<Invitation> getInvitationsByInvitee(String inviteeContact);
     boolean expireOldInvitations();
+
+    /**
+     * 邀请过期清理的累计统计
+     */
+    ExpirySweepStatistics getExpirySweepStatistics();
     boolean acceptInvitation(String invitationId);
+
+    /**
+     * 可以被邀请加入挑战的用户数：尚未参与该挑战且不是邀请人本人
+     */
+    int countInvitableUsers(String challengeId, String inviterId);
+
+    /**
+     * 按健康ID顺序分页获取可以被邀请加入挑战的用户
+     * @param after 上一页最后一个用户，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     */
+    KeysetPage<User> getInvitableUsersPage(String challengeId, String inviterId, User after, int skip, int pageSize);
+
+    /**
+     * 批量邀请用户加入挑战，在一个事务中批量写入全部邀请
+     * 不存在或已参与挑战的用户会被跳过
+     * @return 发出的邀请数，失败时为0且不写入任何邀请
+     */
+    int inviteAll(String challengeId, String inviterId, Collection<String> healthIds);
 }
\ No newline at end of file
@@ -74,5 +74,10 @@ public interface ParticipationService {
      */
     int getUserRankInChallenge(String healthId, String challengeId);
 
+    /**
+     * 获取参与记录在其挑战中的排名（按进度，并列进度名次相同）
+     */
+    int getUserRankInChallenge(Participation participation);
+
     int getChallengeParticipantsCount(String challengeId);
 }
\ No newline at end of file
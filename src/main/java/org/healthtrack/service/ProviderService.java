@@ -2,13 +2,22 @@ package org.healthtrack.service;
 
 import org.healthtrack.entity.Provider;
 import org.healthtrack.entity.ProviderEmail;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProviderService {
 
     // 原有的提供者管理方法
     List<Provider> getAllProviders();
     Provider getProviderById(String licenseNumber);
+
+    /**
+     * 批量获取提供者，代替逐个调用getProviderById
+     * @param licenseNumbers 执照号，重复和null会被忽略
+     * @return 执照号到提供者的映射，不存在的执照号不在结果中
+     */
+    Map<String, Provider> getProvidersByIds(Collection<String> licenseNumbers);
     boolean saveProvider(Provider provider);
     boolean deleteProvider(String licenseNumber);
     List<Provider> searchProvidersByName(String name);
@@ -1,8 +1,11 @@
 package org.healthtrack.service;
 
+import org.healthtrack.dto.KeysetPage;
+import org.healthtrack.dto.UserListItem;
 import org.healthtrack.entity.User;
 import org.healthtrack.entity.UserEmail;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -15,6 +18,27 @@ public interface UserService {
     List<User> getUsersByFamily(String familyId);
     List<User> getUsersByVerificationStatus(String status);
 
+    /**
+     * 按健康ID顺序分页获取用户
+     * @param after 上一页最后一个用户，为null时从第一行开始
+     * @param skip 在after之后再跳过的行数，顺序翻页时为0
+     * @param pageSize 每页行数
+     * @return 一页用户
+     */
+    KeysetPage<User> getUsersPage(User after, int skip, int pageSize);
+
+    /**
+     * 按健康ID顺序分页获取用户列表行（含主邮箱），参数同 {@link #getUsersPage(User, int, int)}
+     */
+    KeysetPage<UserListItem> getUserListPage(User after, int skip, int pageSize);
+
+    /**
+     * 按健康ID顺序逐个处理全部用户，结果不整体载入内存
+     * @param action 对每个用户执行的操作
+     * @return 已处理的用户数
+     */
+    int forEachUser(Consumer<User> action);
+
     // ==================== 图片中需要补充的三个方法 ====================
     /**
      * 检查用户是否存在
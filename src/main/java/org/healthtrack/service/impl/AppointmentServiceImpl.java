@@ -1,5 +1,7 @@
 package org.healthtrack.service.impl;
 
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.KeysetPage;
 import org.healthtrack.entity.Appointment;
 import org.healthtrack.entity.AppointmentProvider;
 import org.healthtrack.mapper.AppointmentMapper;
@@ -8,7 +10,9 @@ import org.healthtrack.service.AppointmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -43,12 +47,8 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public boolean saveAppointment(Appointment appointment) {
         try {
-            Appointment existing = appointmentMapper.findById(appointment.getAppointmentId());
-            if (existing != null) {
-                return appointmentMapper.update(appointment) > 0;
-            } else {
-                return appointmentMapper.insert(appointment) > 0;
-            }
+            appointmentMapper.upsert(appointment);
+            return true;
         } catch (Exception e) {
             System.err.println("保存预约失败: " + e.getMessage());
             return false;
@@ -134,4 +134,52 @@ public class AppointmentServiceImpl implements AppointmentService {
             return List.of();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Appointment> searchAppointmentsPage(String userId, String status, String type,
+                                                          LocalDateTime startDate, LocalDateTime endDate,
+                                                          String providerLicense,
+                                                          Appointment after, int skip, int pageSize) {
+        try {
+            LocalDateTime afterDateTime = after != null ? after.getDateTime() : null;
+            String afterAppointmentId = after != null ? after.getAppointmentId() : null;
+            return KeysetPage.of(appointmentMapper.searchAppointmentsPage(userId, status, type, startDate, endDate,
+                    providerLicense, afterDateTime, afterAppointmentId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页搜索预约失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int countAppointments(String userId, String status, String type,
+                                 LocalDateTime startDate, LocalDateTime endDate, String providerLicense) {
+        try {
+            return appointmentMapper.countAppointments(userId, status, type, startDate, endDate, providerLicense);
+        } catch (Exception e) {
+            System.err.println("统计预约失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int forEachAppointment(String userId, String status, String type,
+                                  LocalDateTime startDate, LocalDateTime endDate,
+                                  String providerLicense, Consumer<Appointment> action) {
+        int count = 0;
+        // Cursor依赖当前事务持有的连接，遍历必须在方法内完成
+        try (Cursor<Appointment> cursor = appointmentMapper.streamAppointments(
+                userId, status, type, startDate, endDate, providerLicense)) {
+            for (Appointment appointment : cursor) {
+                action.accept(appointment);
+                count++;
+            }
+        } catch (Exception e) {
+            System.err.println("遍历预约失败: " + e.getMessage());
+        }
+        return count;
+    }
+}
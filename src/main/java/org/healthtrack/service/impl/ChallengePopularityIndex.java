@@ -0,0 +1,191 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.ChallengeWithParticipants;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 挑战参与人数的内存排行索引（可选）
+ * 首次查询时从数据库加载一次，之后由参与/退出挑战、创建/删除挑战增量维护，删除用户后整体重新加载，
+ * 热门挑战列表可直接从内存读取而不必扫描participation表。
+ * 每次加载递增版本号；增量在事务提交前记下版本号，提交后版本号已变化说明提交前后发生过加载，
+ * 加载结果可能已包含这次变化，此时不再累加而是丢弃索引，下次查询重新加载，避免重复计数。
+ * 通过 healthtrack.challenge.popularity-index.enabled 开启，默认关闭。
+ */
+@Component
+public class ChallengePopularityIndex {
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt((Entry e) -> e.count).reversed()
+            .thenComparing(e -> e.challengeId);
+
+    @Autowired
+    private WellnessChallengeMapper challengeMapper;
+
+    @Value("${healthtrack.challenge.popularity-index.enabled:false}")
+    private boolean enabled;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+    private boolean loaded;
+    // 每次从数据库加载时递增
+    private long loadGeneration;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 返回参与人数最多的挑战ID及人数（按人数降序，人数相同按ID升序）
+     * @param limit 返回数量限制，小于等于0表示不限制
+     * @return 挑战ID到参与人数的有序映射
+     */
+    public synchronized Map<String, Integer> topChallenges(int limit) {
+        ensureLoaded();
+        Map<String, Integer> result = new LinkedHashMap<>();
+        Iterator<Entry> iterator = ranking.iterator();
+        while (iterator.hasNext() && (limit <= 0 || result.size() < limit)) {
+            Entry entry = iterator.next();
+            result.put(entry.challengeId, entry.count);
+        }
+        return result;
+    }
+
+    /**
+     * 用户参与挑战后调用，事务提交后生效
+     */
+    public void participantJoined(String challengeId) {
+        afterCommit(() -> adjust(challengeId, 1));
+    }
+
+    /**
+     * 用户退出挑战后调用，事务提交后生效
+     */
+    public void participantLeft(String challengeId) {
+        afterCommit(() -> adjust(challengeId, -1));
+    }
+
+    /**
+     * 新建挑战后调用，使无人参与的挑战也出现在排行中
+     */
+    public void challengeCreated(String challengeId) {
+        afterCommit(() -> adjust(challengeId, 0));
+    }
+
+    /**
+     * 删除挑战后调用
+     */
+    public void challengeDeleted(String challengeId) {
+        afterCommit(() -> remove(challengeId));
+    }
+
+    /**
+     * 删除用户后调用：级联删除的参与记录和该用户创建的挑战无法逐条扣减，事务提交后丢弃索引，下次查询时重新加载
+     */
+    public void userDeleted() {
+        afterCommit(this::invalidate);
+    }
+
+    /**
+     * 丢弃内存数据，下次查询时重新从数据库加载
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        ranking.clear();
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadGeneration++;
+        List<ChallengeWithParticipants> counts = challengeMapper.findMostPopular(0);
+        for (ChallengeWithParticipants cwp : counts) {
+            Entry entry = new Entry(cwp.getChallenge().getChallengeId(), cwp.getParticipantCount());
+            entries.put(entry.challengeId, entry);
+            ranking.add(entry);
+        }
+        loaded = true;
+    }
+
+    private synchronized void adjust(String challengeId, int delta) {
+        if (!loaded || challengeId == null) {
+            // 尚未加载时无需维护，加载时会读取最新数据
+            return;
+        }
+        Entry entry = entries.get(challengeId);
+        if (entry == null) {
+            entry = new Entry(challengeId, 0);
+            entries.put(challengeId, entry);
+        } else {
+            ranking.remove(entry);
+        }
+        entry.count = Math.max(0, entry.count + delta);
+        ranking.add(entry);
+    }
+
+    private synchronized void remove(String challengeId) {
+        Entry entry = entries.remove(challengeId);
+        if (entry != null) {
+            ranking.remove(entry);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long generation;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    generation = currentGeneration();
+                }
+
+                @Override
+                public void afterCommit() {
+                    applyCommitted(generation, action);
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return loadGeneration;
+    }
+
+    private synchronized void applyCommitted(long generation, Runnable action) {
+        if (generation == loadGeneration) {
+            action.run();
+        } else {
+            invalidate();
+        }
+    }
+
+    private static class Entry {
+        private final String challengeId;
+        private int count;
+
+        Entry(String challengeId, int count) {
+            this.challengeId = challengeId;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.ProgressBucket;
+import org.healthtrack.entity.Participation;
+import org.healthtrack.entity.WellnessChallenge;
+import org.healthtrack.mapper.ParticipationMapper;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 挑战内排名的内存索引
+ * 每个挑战维护一个0-100的进度直方图，排名 = 1 + 进度严格更高的人数，查询为常数时间。
+ * 应用启动完成后从participation表按(挑战, 进度)分组统计重建，之后由参与、退出和更新进度在事务提交后增量维护；
+ * 删除挑战时丢弃其直方图，删除用户时扣除其参与记录并丢弃其创建的挑战（两者都随用户级联删除）。
+ */
+@Component
+public class ChallengeRankingIndex {
+
+    private static final int MAX_PROGRESS = 100;
+
+    @Autowired
+    private ParticipationMapper participationMapper;
+
+    @Autowired
+    private WellnessChallengeMapper challengeMapper;
+
+    private Map<String, int[]> histograms = new HashMap<>();
+    private boolean loaded;
+
+    /**
+     * 应用启动后重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            System.err.println("重建挑战排名索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 从participation表重新统计全部挑战的进度分布
+     */
+    public synchronized void rebuild() {
+        List<ProgressBucket> buckets = participationMapper.findProgressBuckets();
+        Map<String, int[]> rebuilt = new HashMap<>();
+        for (ProgressBucket bucket : buckets) {
+            int[] histogram = rebuilt.computeIfAbsent(bucket.getChallengeId(), id -> new int[MAX_PROGRESS + 1]);
+            histogram[clamp(bucket.getProgress())] += bucket.getParticipantCount();
+        }
+        histograms = rebuilt;
+        loaded = true;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 计算指定进度在挑战中的排名（并列进度名次相同）
+     * @param challengeId 挑战ID
+     * @param progress 用户进度
+     * @return 排名（从1开始）
+     */
+    public synchronized int rankOf(String challengeId, int progress) {
+        int[] histogram = histograms.get(challengeId);
+        if (histogram == null) {
+            return 1;
+        }
+        int ahead = 0;
+        for (int p = clamp(progress) + 1; p <= MAX_PROGRESS; p++) {
+            ahead += histogram[p];
+        }
+        return ahead + 1;
+    }
+
+    /**
+     * 用户参与挑战后调用，事务提交后生效
+     */
+    public void participantJoined(String challengeId, Integer progress) {
+        afterCommit(() -> adjust(challengeId, progress, 1));
+    }
+
+    /**
+     * 用户退出挑战后调用，事务提交后生效
+     */
+    public void participantLeft(String challengeId, Integer progress) {
+        afterCommit(() -> adjust(challengeId, progress, -1));
+    }
+
+    /**
+     * 进度更新后调用，事务提交后生效
+     */
+    public void progressChanged(String challengeId, Integer oldProgress, Integer newProgress) {
+        afterCommit(() -> {
+            adjust(challengeId, oldProgress, -1);
+            adjust(challengeId, newProgress, 1);
+        });
+    }
+
+    /**
+     * 删除挑战后调用，事务提交后丢弃该挑战的进度分布，重新使用同一ID的挑战从零开始
+     */
+    public void challengeDeleted(String challengeId) {
+        afterCommit(() -> remove(List.of(challengeId)));
+    }
+
+    /**
+     * 删除用户前调用（须在同一事务中、删除之前）：读取将被级联删除的参与记录和该用户创建的挑战，事务提交后从索引中扣除
+     */
+    public void userDeleting(String healthId) {
+        if (!isLoaded()) {
+            return;
+        }
+        List<Participation> participations = participationMapper.findByUserId(healthId);
+        List<String> createdChallenges = challengeMapper.findByCreatorId(healthId).stream()
+                .map(WellnessChallenge::getChallengeId).toList();
+        afterCommit(() -> {
+            for (Participation participation : participations) {
+                adjust(participation.getChallengeId(), participation.getProgress(), -1);
+            }
+            remove(createdChallenges);
+        });
+    }
+
+    private synchronized void remove(List<String> challengeIds) {
+        for (String challengeId : challengeIds) {
+            histograms.remove(challengeId);
+        }
+    }
+
+    private synchronized void adjust(String challengeId, Integer progress, int delta) {
+        if (!loaded || challengeId == null) {
+            return;
+        }
+        int[] histogram = histograms.computeIfAbsent(challengeId, id -> new int[MAX_PROGRESS + 1]);
+        int bucket = clamp(progress != null ? progress : 0);
+        histogram[bucket] = Math.max(0, histogram[bucket] + delta);
+    }
+
+    private static int clamp(int progress) {
+        return Math.max(0, Math.min(MAX_PROGRESS, progress));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.MonthlySteps;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.service.ChartDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 图表数据服务实现类
+ * 步数点直接从月度汇总表按(user_id, report_month)主键范围读取三列，每月一行
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChartDataServiceImpl implements ChartDataService {
+
+    @Autowired
+    private MonthlyRollupMapper monthlyRollupMapper;
+
+    @Override
+    public List<MonthlySteps> getMonthlySteps(String userId, LocalDate start, LocalDate end) {
+        try {
+            return monthlyRollupMapper.findMonthlySteps(userId, start, end);
+        } catch (Exception e) {
+            System.err.println("获取步数图表数据失败: " + e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.healthtrack.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.healthtrack.dto.ConnectionPoolStatistics;
+import org.healthtrack.service.ConnectionPoolStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池统计实现类
+ * 读取HikariCP注册到Micrometer的hikaricp.*指标，与metrics端点中看到的是同一组数据
+ */
+@Service
+public class ConnectionPoolStatsServiceImpl implements ConnectionPoolStatsService {
+
+    private static final String POOL_TAG = "pool";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public List<ConnectionPoolStatistics> getPoolStatistics() {
+        TreeSet<String> poolNames = new TreeSet<>();
+        for (Gauge gauge : meterRegistry.find("hikaricp.connections.active").gauges()) {
+            poolNames.add(gauge.getId().getTag(POOL_TAG));
+        }
+        List<ConnectionPoolStatistics> result = new ArrayList<>();
+        for (String poolName : poolNames) {
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag(POOL_TAG, poolName).timer();
+            HistogramSnapshot snapshot = acquire != null ? acquire.takeSnapshot() : HistogramSnapshot.empty(0, 0, 0);
+            Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag(POOL_TAG, poolName).counter();
+            result.add(new ConnectionPoolStatistics(poolName,
+                    gauge("hikaricp.connections.active", poolName),
+                    gauge("hikaricp.connections.idle", poolName),
+                    gauge("hikaricp.connections.pending", poolName),
+                    gauge("hikaricp.connections.max", poolName),
+                    snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS),
+                    percentile(snapshot, 0.5),
+                    percentile(snapshot, 0.95),
+                    percentile(snapshot, 0.99),
+                    snapshot.max(TimeUnit.MILLISECONDS),
+                    timeouts != null ? (long) timeouts.count() : 0));
+        }
+        return result;
+    }
+
+    private int gauge(String name, String poolName) {
+        Gauge gauge = meterRegistry.find(name).tag(POOL_TAG, poolName).gauge();
+        return gauge != null ? (int) gauge.value() : 0;
+    }
+
+    /**
+     * 取配置的百分位（management.metrics.distribution.percentiles），未配置时返回NaN
+     */
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (Math.abs(value.percentile() - percentile) < 1e-9) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,155 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.ActiveUserStats;
+import org.healthtrack.dto.ChallengeWithParticipants;
+import org.healthtrack.dto.DashboardSnapshot;
+import org.healthtrack.dto.MetricCount;
+import org.healthtrack.mapper.ActivityLeaderboardMapper;
+import org.healthtrack.mapper.DashboardStatsMapper;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.healthtrack.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 管理员统计面板服务实现类
+ * 快照由三条查询生成：一条UNION ALL分组计数、一条活跃用户排行、一条热门挑战排行。
+ * 快照被读取后由后台定时任务按固定间隔刷新，界面读取的始终是预先算好的对象；
+ * 最近一次读取超过有效期（snapshot-ttl-ms）后停止后台刷新，之后再读取时若快照已过期则当场重新生成。
+ */
+@Service
+@Transactional(readOnly = true)
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    private static final int MOST_ACTIVE_USER_LIMIT = 5;
+    private static final int POPULAR_CHALLENGE_LIMIT = 3;
+
+    @Autowired
+    private DashboardStatsMapper dashboardStatsMapper;
+
+    @Autowired
+    private ActivityLeaderboardMapper activityLeaderboardMapper;
+
+    @Autowired
+    private WellnessChallengeMapper challengeMapper;
+
+    @Value("${healthtrack.dashboard.snapshot-ttl-ms:60000}")
+    private long snapshotTtlMs;
+
+    private volatile DashboardSnapshot snapshot;
+    // 最近一次读取快照的时间（毫秒）
+    private volatile long lastReadMillis;
+
+    @Override
+    public DashboardSnapshot getSnapshot() {
+        lastReadMillis = System.currentTimeMillis();
+        DashboardSnapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            return current;
+        }
+        return refreshSnapshot();
+    }
+
+    @Override
+    public DashboardSnapshot refreshSnapshot() {
+        lastReadMillis = System.currentTimeMillis();
+        return recompute();
+    }
+
+    private DashboardSnapshot recompute() {
+        try {
+            DashboardSnapshot refreshed = computeSnapshot();
+            snapshot = refreshed;
+            return refreshed;
+        } catch (Exception e) {
+            System.err.println("生成统计快照失败: " + e.getMessage());
+            // 刷新失败时保留旧快照
+            return snapshot;
+        }
+    }
+
+    /**
+     * 后台刷新：仅在有效期内读取过快照时执行，统计界面关闭后不再持续查询
+     */
+    @Scheduled(fixedDelayString = "${healthtrack.dashboard.refresh-interval-ms:30000}",
+            initialDelayString = "${healthtrack.dashboard.refresh-interval-ms:30000}")
+    public void refreshInBackground() {
+        if (snapshot != null && System.currentTimeMillis() - lastReadMillis <= snapshotTtlMs) {
+            recompute();
+        }
+    }
+
+    private boolean isExpired(DashboardSnapshot current) {
+        return current.getGeneratedAt().plus(Duration.ofMillis(snapshotTtlMs)).isBefore(LocalDateTime.now());
+    }
+
+    private DashboardSnapshot computeSnapshot() {
+        long totalUsers = 0, verifiedUsers = 0, adminUsers = 0;
+        long totalProviders = 0, verifiedProviders = 0;
+        long totalAppointments = 0, scheduled = 0, completed = 0, cancelled = 0;
+        long totalChallenges = 0, activeChallenges = 0;
+        long totalReports = 0;
+
+        for (MetricCount count : dashboardStatsMapper.countByMetric()) {
+            String category = count.getCategory();
+            long total = count.getTotal();
+            switch (count.getMetric()) {
+                case "user_verification":
+                    totalUsers += total;
+                    if ("Verified".equals(category)) {
+                        verifiedUsers += total;
+                    }
+                    break;
+                case "user_role":
+                    if ("Administrator".equals(category)) {
+                        adminUsers += total;
+                    }
+                    break;
+                case "provider_verification":
+                    totalProviders += total;
+                    if ("Verified".equals(category)) {
+                        verifiedProviders += total;
+                    }
+                    break;
+                case "appointment_status":
+                    totalAppointments += total;
+                    if ("Scheduled".equals(category)) {
+                        scheduled += total;
+                    } else if ("Completed".equals(category)) {
+                        completed += total;
+                    } else if ("Cancelled".equals(category)) {
+                        cancelled += total;
+                    }
+                    break;
+                case "challenge_status":
+                    totalChallenges += total;
+                    if ("Active".equals(category)) {
+                        activeChallenges += total;
+                    }
+                    break;
+                case "report":
+                    totalReports += total;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        List<ActiveUserStats> mostActiveUsers =
+                activityLeaderboardMapper.findMostActiveUsers("health_records", MOST_ACTIVE_USER_LIMIT);
+        List<ChallengeWithParticipants> popularChallenges = challengeMapper.findMostPopular(POPULAR_CHALLENGE_LIMIT);
+
+        return new DashboardSnapshot(totalUsers, verifiedUsers, adminUsers,
+                totalProviders, verifiedProviders,
+                totalAppointments, scheduled, completed, cancelled,
+                totalChallenges, activeChallenges, totalReports,
+                mostActiveUsers, popularChallenges, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,180 @@
+package org.healthtrack.service.impl;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.EmailIdentity;
+import org.healthtrack.mapper.IdentityMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 邮箱到身份ID的内存哈希索引
+ * 应用启动完成后从user_email、provider_email流式加载，登录时按邮箱直接取得健康ID或执照号。
+ * 索引中没有的邮箱由调用方查询数据库后通过learn补充；邮箱增删后在事务提交时移除对应条目，下次查询重新从数据库读取。
+ * 调用方在查询前取得 {@link #generation()}，查询期间若有邮箱变化，learn丢弃这次可能已过期的结果。
+ * 邮箱按小写存储，与MySQL不区分大小写的排序规则一致。
+ * 通过 healthtrack.identity-index.enabled 关闭后，所有查询都直接访问数据库。
+ */
+@Component
+public class EmailIdentityIndex {
+
+    @Autowired
+    private IdentityMapper identityMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${healthtrack.identity-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Map<String, String> userIds = new ConcurrentHashMap<>();
+    private volatile Map<String, String> providerIds = new ConcurrentHashMap<>();
+    // 重建期间发生变化的邮箱，重建完成后从新索引中移除
+    private Set<String> changedDuringRebuild;
+    // 每次移除条目时递增，用于识别查询期间发生的变化
+    private long generation;
+
+    /**
+     * 应用启动后重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int count = rebuild();
+            System.out.println("邮箱身份索引加载完成，共 " + count + " 个邮箱");
+        } catch (Exception e) {
+            System.err.println("重建邮箱身份索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库重新加载全部邮箱身份
+     * @return 加载的邮箱数
+     */
+    public int rebuild() {
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        Map<String, String> users = new ConcurrentHashMap<>();
+        Map<String, String> providers = new ConcurrentHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Cursor<EmailIdentity> cursor = identityMapper.streamAll()) {
+                    for (EmailIdentity identity : cursor) {
+                        // 同一邮箱属于多个身份时保留第一个，与按邮箱查询时取第一条一致
+                        indexFor(identity.getIdentityType(), users, providers)
+                                .putIfAbsent(normalize(identity.getEmailAddress()), identity.getIdentityId());
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (String email : changedDuringRebuild) {
+                users.remove(email);
+                providers.remove(email);
+            }
+            changedDuringRebuild = null;
+            userIds = users;
+            providerIds = providers;
+        }
+        return users.size() + providers.size();
+    }
+
+    /**
+     * 查找邮箱对应的身份ID
+     * @param identityType EmailIdentity.USER 或 EmailIdentity.PROVIDER
+     * @return 健康ID或执照号；索引中没有时返回null，需查询数据库
+     */
+    public String lookup(String identityType, String email) {
+        if (!enabled || email == null) {
+            return null;
+        }
+        return indexFor(identityType, userIds, providerIds).get(normalize(email));
+    }
+
+    /**
+     * 当前版本号，在查询数据库之前取得，随查询结果传给 {@link #learn(EmailIdentity, long)}
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * 记录从数据库查到的身份
+     * @param readGeneration 查询前取得的版本号；此后有邮箱变化时结果可能已过期，不予记录
+     */
+    public synchronized void learn(EmailIdentity identity, long readGeneration) {
+        if (!enabled || identity.getEmailAddress() == null || identity.getIdentityId() == null
+                || readGeneration != generation) {
+            return;
+        }
+        indexFor(identity.getIdentityType(), userIds, providerIds)
+                .putIfAbsent(normalize(identity.getEmailAddress()), identity.getIdentityId());
+    }
+
+    /**
+     * 邮箱被添加、删除或随所有者删除后调用，事务提交后生效
+     */
+    public void emailsChanged(Collection<String> emails) {
+        List<String> changed = emails.stream().filter(Objects::nonNull).map(EmailIdentityIndex::normalize).toList();
+        afterCommit(() -> forget(changed));
+    }
+
+    private synchronized void forget(List<String> emails) {
+        generation++;
+        for (String email : emails) {
+            userIds.remove(email);
+            providerIds.remove(email);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(email);
+            }
+        }
+    }
+
+    private static Map<String, String> indexFor(String identityType,
+                                                Map<String, String> users, Map<String, String> providers) {
+        return EmailIdentity.PROVIDER.equals(identityType) ? providers : users;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.entity.HealthIndicator;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.mapper.HealthIndicatorMapper;
+import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 健康指标回填任务
+ * 为尚未按当前识别规则（{@link HealthIndicatorExtractor#VERSION}）解析过的报告重新解析summary并覆盖指标，
+ * 完成后记录health_report.indicator_version，没有任何指标的报告也只解析一次。
+ * 按report_id分批处理，每批一个事务，同一事务中重算涉及的用户月份的指标汇总；启动时若存在待解析的报告则自动执行，
+ * 可通过 healthtrack.health-indicator.backfill-on-startup=false 关闭。
+ */
+@Component
+public class HealthIndicatorBackfillJob {
+
+    @Autowired
+    private HealthReportMapper healthReportMapper;
+
+    @Autowired
+    private HealthIndicatorMapper healthIndicatorMapper;
+
+    @Autowired
+    private MonthlyRollupMapper monthlyRollupMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${healthtrack.health-indicator.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${healthtrack.health-indicator.backfill-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (!hasPendingReports()) {
+                return;
+            }
+            int count = backfill();
+            System.out.println("健康指标回填完成，写入指标 " + count + " 条");
+        } catch (Exception e) {
+            System.err.println("健康指标回填失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 是否存在尚未按当前规则解析的报告
+     */
+    public boolean hasPendingReports() {
+        return !healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "", 1).isEmpty();
+    }
+
+    /**
+     * 重新解析所有尚未按当前规则解析的报告
+     * @return 写入的指标条数
+     */
+    public int backfill() {
+        int written = 0;
+        String afterReportId = "";
+        while (true) {
+            List<HealthReport> page = healthReportMapper.findPageBelowIndicatorVersion(
+                    HealthIndicatorExtractor.VERSION, afterReportId, batchSize);
+            if (page.isEmpty()) {
+                return written;
+            }
+
+            List<String> reportIds = new ArrayList<>(page.size());
+            List<HealthIndicator> indicators = new ArrayList<>();
+            // 旧版本可能已写入部分指标，因此每份报告所在的用户月份都要重算汇总
+            Map<String, Set<LocalDate>> userMonths = new LinkedHashMap<>();
+            for (HealthReport report : page) {
+                reportIds.add(report.getReportId());
+                indicators.addAll(HealthIndicatorExtractor.extractIndicators(report));
+                userMonths.computeIfAbsent(report.getUserId(), userId -> new LinkedHashSet<>())
+                        .add(report.getReportMonth());
+            }
+            Integer inserted = transactionTemplate.execute(status -> {
+                healthIndicatorMapper.deleteByReportIds(reportIds);
+                int rows = indicators.isEmpty() ? 0 : healthIndicatorMapper.insertAll(indicators);
+                healthReportMapper.markIndicatorVersion(reportIds, HealthIndicatorExtractor.VERSION);
+                userMonths.forEach((userId, months) -> months.forEach(month -> {
+                    monthlyRollupMapper.deleteIndicatorMonth(userId, month);
+                    monthlyRollupMapper.insertIndicatorMonth(userId, month);
+                }));
+                return rows;
+            });
+            written += inserted != null ? inserted : 0;
+            afterReportId = page.get(page.size() - 1).getReportId();
+        }
+    }
+}
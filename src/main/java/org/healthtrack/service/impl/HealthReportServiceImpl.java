@@ -1,20 +1,30 @@
 package org.healthtrack.service.impl;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.dto.HealthReportCriteria;
+import org.healthtrack.dto.HealthReportListItem;
+import org.healthtrack.dto.KeysetPage;
+import org.healthtrack.entity.HealthIndicator;
 import org.healthtrack.entity.HealthReport;
+import org.healthtrack.entity.MonthlyUserRollup;
+import org.healthtrack.mapper.HealthIndicatorMapper;
 import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.MonthlyRollupMapper;
 import org.healthtrack.service.HealthReportService;
 import org.healthtrack.util.HealthIndicatorExtractor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * 健康报告服务实现类
- * 处理健康报告相关的业务逻辑
+ * 处理健康报告相关的业务逻辑；保存和删除报告时在同一事务中重算受影响用户月份的月度汇总
  */
 @Service
 @Transactional
@@ -23,6 +33,12 @@ public class HealthReportServiceImpl implements HealthReportService {
     @Autowired
     private HealthReportMapper healthReportMapper;
 
+    @Autowired
+    private HealthIndicatorMapper healthIndicatorMapper;
+
+    @Autowired
+    private MonthlyRollupMapper monthlyRollupMapper;
+
     /**
      * 获取所有健康报告
      * @return 健康报告列表
@@ -60,13 +76,18 @@ public class HealthReportServiceImpl implements HealthReportService {
     @Override
     public boolean saveReport(HealthReport report) {
         try {
-            HealthReport existing = healthReportMapper.findById(report.getReportId());
-            if (existing != null) {
-                return healthReportMapper.update(report) > 0;
-            } else {
-                return healthReportMapper.insert(report) > 0;
+            // 报告改了用户或月份时，原来所在的月份也要重算
+            HealthReport previous = healthReportMapper.findById(report.getReportId());
+            healthReportMapper.upsert(report);
+            replaceIndicators(report);
+            refreshRollup(report.getUserId(), report.getReportMonth());
+            if (previous != null && (!Objects.equals(previous.getUserId(), report.getUserId())
+                    || !Objects.equals(previous.getReportMonth(), report.getReportMonth()))) {
+                refreshRollup(previous.getUserId(), previous.getReportMonth());
             }
+            return true;
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("保存健康报告失败: " + e.getMessage());
             return false;
         }
@@ -80,8 +101,14 @@ public class HealthReportServiceImpl implements HealthReportService {
     @Override
     public boolean deleteReport(String reportId) {
         try {
-            return healthReportMapper.delete(reportId) > 0;
+            HealthReport report = healthReportMapper.findById(reportId);
+            if (report == null || healthReportMapper.delete(reportId) == 0) {
+                return false;
+            }
+            refreshRollup(report.getUserId(), report.getReportMonth());
+            return true;
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             System.err.println("删除健康报告失败: " + e.getMessage());
             return false;
         }
@@ -126,8 +153,7 @@ public class HealthReportServiceImpl implements HealthReportService {
     @Override
     public int countReportsByUser(String userId) {
         try {
-            List<HealthReport> reports = healthReportMapper.findByUserId(userId);
-            return reports != null ? reports.size() : 0;
+            return healthReportMapper.countByUserId(userId);
         } catch (Exception e) {
             System.err.println("统计用户健康报告数量失败: " + e.getMessage());
             return 0;
@@ -155,65 +181,152 @@ public class HealthReportServiceImpl implements HealthReportService {
             LocalDate startDate = monthDate.withDayOfMonth(1);
             LocalDate endDate = monthDate.withDayOfMonth(monthDate.lengthOfMonth());
             
-            // 获取该月的所有报告
-            List<HealthReport> reports = healthReportMapper.findByUserId(userId).stream()
-                .filter(r -> r.getReportMonth() != null && 
-                    !r.getReportMonth().isBefore(startDate) && 
-                    !r.getReportMonth().isAfter(endDate))
-                .collect(Collectors.toList());
-            
-            HealthIndicatorStats stats = new HealthIndicatorStats(indicatorType);
-            
-            if (reports.isEmpty()) {
-                return stats;
-            }
-            
-            // 根据指标类型提取数据
-            List<Double> values = new java.util.ArrayList<>();
-            
-            for (HealthReport report : reports) {
-                String summary = report.getSummary();
-                if (summary == null || summary.trim().isEmpty()) {
-                    continue;
-                }
-                
-                switch (indicatorType) {
-                    case "weight":
-                        Double weight = HealthIndicatorExtractor.extractWeight(summary);
-                        if (weight != null) {
-                            values.add(weight);
-                        }
-                        break;
-                    case "blood_pressure_systolic":
-                        HealthIndicatorExtractor.BloodPressure bp = HealthIndicatorExtractor.extractBloodPressure(summary);
-                        if (bp != null) {
-                            values.add((double) bp.getSystolic());
-                        }
-                        break;
-                    case "blood_pressure_diastolic":
-                        HealthIndicatorExtractor.BloodPressure bp2 = HealthIndicatorExtractor.extractBloodPressure(summary);
-                        if (bp2 != null) {
-                            values.add((double) bp2.getDiastolic());
-                        }
-                        break;
-                }
-            }
-            
-            if (values.isEmpty()) {
-                return stats;
-            }
-            
-            // 计算统计值
-            stats.setCount(values.size());
-            stats.setMin(values.stream().mapToDouble(Double::doubleValue).min().orElse(0));
-            stats.setMax(values.stream().mapToDouble(Double::doubleValue).max().orElse(0));
-            stats.setAverage(values.stream().mapToDouble(Double::doubleValue).average().orElse(0));
-            
-            return stats;
+            // 读取月度汇总，不再逐条聚合health_indicator
+            HealthIndicatorStats stats = monthlyRollupMapper.findIndicatorStats(userId, indicatorType, startDate, endDate);
+            return stats != null ? stats : new HealthIndicatorStats(indicatorType);
         } catch (Exception e) {
             System.err.println("获取健康指标统计失败: " + e.getMessage());
             e.printStackTrace();
             return new HealthIndicatorStats(indicatorType);
         }
     }
-}
\ No newline at end of file
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyUserRollup> getMonthlyRollups(String userId, LocalDate start, LocalDate end) {
+        try {
+            return monthlyRollupMapper.findByUserAndMonthBetween(userId, start, end);
+        } catch (Exception e) {
+            System.err.println("获取月度汇总失败: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<HealthReport> getReportsPage(HealthReport after, int skip, int pageSize) {
+        try {
+            String afterReportId = after != null ? after.getReportId() : null;
+            return KeysetPage.of(healthReportMapper.findPage(afterReportId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页获取健康报告失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<HealthReport> getReportsByUserPage(String userId, HealthReport after, int skip, int pageSize) {
+        try {
+            LocalDate afterMonth = after != null ? after.getReportMonth() : null;
+            String afterReportId = after != null ? after.getReportId() : null;
+            return KeysetPage.of(
+                    healthReportMapper.findPageByUserId(userId, afterMonth, afterReportId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页获取用户健康报告失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<HealthReport> getReportsByDateRangePage(LocalDate start, LocalDate end,
+                                                              HealthReport after, int skip, int pageSize) {
+        try {
+            LocalDate afterMonth = after != null ? after.getReportMonth() : null;
+            String afterReportId = after != null ? after.getReportId() : null;
+            return KeysetPage.of(healthReportMapper.findPageByMonthBetween(
+                    start, end, afterMonth, afterReportId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页获取日期范围健康报告失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    public int countReportsByDateRange(LocalDate start, LocalDate end) {
+        try {
+            return healthReportMapper.countByMonthBetween(start, end);
+        } catch (Exception e) {
+            System.err.println("统计日期范围健康报告失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Cursor依赖当前事务持有的数据库连接，因此遍历必须在本方法内完成
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int forEachReportInDateRange(LocalDate start, LocalDate end, Consumer<HealthReport> action) {
+        int count = 0;
+        try (Cursor<HealthReport> cursor = healthReportMapper.streamByMonthBetween(start, end)) {
+            for (HealthReport report : cursor) {
+                action.accept(report);
+                count++;
+            }
+        } catch (Exception e) {
+            System.err.println("遍历日期范围健康报告失败: " + e.getMessage());
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HealthReportListItem> searchReports(HealthReportCriteria criteria) {
+        try {
+            return healthReportMapper.search(criteria);
+        } catch (Exception e) {
+            System.err.println("搜索健康报告失败: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<HealthReportListItem> searchReportsPage(HealthReportCriteria criteria,
+                                                              HealthReportListItem after, int skip, int pageSize) {
+        try {
+            LocalDate afterMonth = after != null ? after.getReportMonth() : null;
+            String afterReportId = after != null ? after.getReportId() : null;
+            return KeysetPage.of(healthReportMapper.searchPage(
+                    criteria, afterMonth, afterReportId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页搜索健康报告失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int countSearchReports(HealthReportCriteria criteria) {
+        try {
+            return healthReportMapper.countSearch(criteria);
+        } catch (Exception e) {
+            System.err.println("统计健康报告失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 重新解析报告summary并覆盖该报告的指标记录
+     */
+    private void replaceIndicators(HealthReport report) {
+        healthIndicatorMapper.deleteByReportId(report.getReportId());
+        List<HealthIndicator> indicators = HealthIndicatorExtractor.extractIndicators(report);
+        if (!indicators.isEmpty()) {
+            healthIndicatorMapper.insertAll(indicators);
+        }
+        healthReportMapper.markIndicatorVersion(List.of(report.getReportId()), HealthIndicatorExtractor.VERSION);
+    }
+
+    /**
+     * 从报告和指标重算一个用户月份的汇总，必须在写入报告和指标之后调用
+     */
+    private void refreshRollup(String userId, LocalDate month) {
+        monthlyRollupMapper.deleteUserMonth(userId, month);
+        monthlyRollupMapper.insertUserMonth(userId, month);
+        monthlyRollupMapper.deleteIndicatorMonth(userId, month);
+        monthlyRollupMapper.insertIndicatorMonth(userId, month);
+    }
+}
@@ -0,0 +1,109 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.EmailIdentity;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.IdentityMapper;
+import org.healthtrack.service.IdentityResolver;
+import org.healthtrack.service.ProviderService;
+import org.healthtrack.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 登录身份解析实现类
+ * 邮箱到ID由内存索引或一条UNION查询得到，用户和提供者实体按主键读取（经过查询缓存）
+ */
+@Service
+@Transactional(readOnly = true)
+public class IdentityResolverImpl implements IdentityResolver {
+
+    @Autowired
+    private IdentityMapper identityMapper;
+
+    @Autowired
+    private EmailIdentityIndex emailIdentityIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProviderService providerService;
+
+    @Override
+    public EmailIdentity resolve(String email) {
+        try {
+            if (email == null || email.trim().isEmpty()) {
+                return null;
+            }
+            // 两个索引都没有时才查询数据库
+            for (String identityType : List.of(EmailIdentity.PROVIDER, EmailIdentity.USER)) {
+                String id = emailIdentityIndex.lookup(identityType, email);
+                if (id != null) {
+                    return new EmailIdentity(email, identityType, id);
+                }
+            }
+            List<EmailIdentity> identities = queryAndLearn(email);
+            return identities.stream().filter(EmailIdentity::isProvider).findFirst()
+                    .orElse(identities.isEmpty() ? null : identities.get(0));
+        } catch (Exception e) {
+            System.err.println("解析邮箱身份失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public User resolveUser(String email) {
+        try {
+            String healthId = resolveId(EmailIdentity.USER, email);
+            return healthId != null ? userService.getUserById(healthId) : null;
+        } catch (Exception e) {
+            System.err.println("根据邮箱查找用户失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Provider resolveProvider(String email) {
+        try {
+            String licenseNumber = resolveId(EmailIdentity.PROVIDER, email);
+            return licenseNumber != null ? providerService.getProviderById(licenseNumber) : null;
+        } catch (Exception e) {
+            System.err.println("根据邮箱查找提供者失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String resolveId(String identityType, String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return null;
+        }
+        String id = emailIdentityIndex.lookup(identityType, email);
+        if (id != null) {
+            return id;
+        }
+
+        // 索引中没有：一次查询取回该邮箱的所有身份
+        for (EmailIdentity identity : queryAndLearn(email)) {
+            if (identityType.equals(identity.getIdentityType())) {
+                return identity.getIdentityId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查询邮箱的所有身份并补充到索引
+     */
+    private List<EmailIdentity> queryAndLearn(String email) {
+        long generation = emailIdentityIndex.generation();
+        List<EmailIdentity> identities = identityMapper.findByEmail(email.trim());
+        for (EmailIdentity identity : identities) {
+            emailIdentityIndex.learn(identity, generation);
+        }
+        return identities;
+    }
+}
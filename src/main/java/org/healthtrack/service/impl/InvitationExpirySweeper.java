@@ -0,0 +1,95 @@
+package org.healthtrack.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import org.healthtrack.dto.ExpirySweepStatistics;
+import org.healthtrack.mapper.InvitationMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邀请过期清理任务
+ * 用一条UPDATE按批将已过期的待处理邀请标记为Expired，每批一个事务，直到某批不满为止。
+ * 由后台定时任务按 healthtrack.invitation.expiry-sweep-interval-ms 执行，清理次数、过期行数和耗时见 {@link #getStatistics()}
+ */
+@Component
+public class InvitationExpirySweeper {
+
+    @Autowired
+    private InvitationMapper invitationMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${healthtrack.invitation.expiry-sweep-enabled:true}")
+    private boolean enabled;
+
+    @Value("${healthtrack.invitation.expiry-sweep-batch-size:1000}")
+    private int batchSize;
+
+    private long sweepCount;
+    private long totalExpired;
+    private long totalDurationMs;
+    private long lastExpired;
+    private long lastDurationMs;
+    private LocalDateTime lastSweepTime;
+
+    /**
+     * 批大小不是正数时每批都“不满”的判断失效，sweep会无限循环，因此启动时校验
+     */
+    @PostConstruct
+    public void validate() {
+        if (batchSize <= 0) {
+            throw new IllegalStateException(
+                    "healthtrack.invitation.expiry-sweep-batch-size 必须大于0，当前为 " + batchSize);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${healthtrack.invitation.expiry-sweep-interval-ms:60000}",
+            initialDelayString = "${healthtrack.invitation.expiry-sweep-interval-ms:60000}")
+    public void sweepInBackground() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (Exception e) {
+            System.err.println("清理过期邀请失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 将当前时刻之前过期的全部待处理邀请标记为过期
+     * @return 本次标记的邀请数
+     */
+    public synchronized int sweep() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> invitationMapper.expirePending(now, batchSize));
+            int count = updated != null ? updated : 0;
+            expired += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        sweepCount++;
+        totalExpired += expired;
+        totalDurationMs += durationMs;
+        lastExpired = expired;
+        lastDurationMs = durationMs;
+        lastSweepTime = LocalDateTime.now();
+        return expired;
+    }
+
+    public synchronized ExpirySweepStatistics getStatistics() {
+        return new ExpirySweepStatistics(sweepCount, totalExpired, totalDurationMs,
+                lastExpired, lastDurationMs, lastSweepTime);
+    }
+}
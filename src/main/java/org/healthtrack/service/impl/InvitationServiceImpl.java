@@ -1,13 +1,26 @@
 package org.healthtrack.service.impl;
 
+import org.healthtrack.dto.ExpirySweepStatistics;
+import org.healthtrack.dto.InviteeContact;
+import org.healthtrack.dto.KeysetPage;
 import org.healthtrack.entity.Invitation;
+import org.healthtrack.entity.User;
 import org.healthtrack.mapper.InvitationMapper;
+import org.healthtrack.mapper.UserMapper;
 import org.healthtrack.service.InvitationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * 邀请服务实现类
@@ -17,9 +30,18 @@ import java.util.List;
 @Transactional
 public class InvitationServiceImpl implements InvitationService {
 
+    // 挑战邀请的有效天数
+    static final int CHALLENGE_INVITATION_VALID_DAYS = 7;
+
     @Autowired
     private InvitationMapper invitationMapper;
 
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private InvitationExpirySweeper invitationExpirySweeper;
+
     /**
      * 获取所有邀请
      * @return 邀请列表
@@ -57,12 +79,8 @@ public class InvitationServiceImpl implements InvitationService {
     @Override
     public boolean saveInvitation(Invitation invitation) {
         try {
-            Invitation existing = invitationMapper.findById(invitation.getInvitationId());
-            if (existing != null) {
-                return invitationMapper.update(invitation) > 0;
-            } else {
-                return invitationMapper.insert(invitation) > 0;
-            }
+            invitationMapper.upsert(invitation);
+            return true;
         } catch (Exception e) {
             System.err.println("保存邀请失败: " + e.getMessage());
             return false;
@@ -116,20 +134,14 @@ public class InvitationServiceImpl implements InvitationService {
 
     /**
      * 过期处理：将过期的待处理邀请标记为过期
-     * @return 处理成功的邀请数量
+     * 由清理任务按批更新，每批单独提交，不在调用方的事务中执行
+     * @return 处理成功返回true，失败返回false
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean expireOldInvitations() {
         try {
-            List<Invitation> expiredInvitations = invitationMapper.findExpiredInvitations();
-            if (expiredInvitations.isEmpty()) {
-                return true;
-            }
-
-            for (Invitation invitation : expiredInvitations) {
-                invitation.setStatus("Expired");
-                invitationMapper.update(invitation);
-            }
+            invitationExpirySweeper.sweep();
             return true;
         } catch (Exception e) {
             System.err.println("处理过期邀请失败: " + e.getMessage());
@@ -137,6 +149,16 @@ public class InvitationServiceImpl implements InvitationService {
         }
     }
 
+    /**
+     * 获取邀请过期清理的统计
+     * @return 清理次数、过期行数与耗时
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ExpirySweepStatistics getExpirySweepStatistics() {
+        return invitationExpirySweeper.getStatistics();
+    }
+
     /**
      * 检查邀请是否有效（未过期且状态为Pending）
      * @param invitationId 邀请ID
@@ -187,4 +209,104 @@ public class InvitationServiceImpl implements InvitationService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 统计可邀请加入挑战的用户
+     * @param challengeId 挑战ID
+     * @param inviterId 邀请人ID，不计入结果
+     * @return 尚未参与该挑战的用户数
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int countInvitableUsers(String challengeId, String inviterId) {
+        try {
+            return userMapper.countNotParticipating(challengeId, inviterId);
+        } catch (Exception e) {
+            System.err.println("统计可邀请用户失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 分页获取可邀请加入挑战的用户
+     * @param challengeId 挑战ID
+     * @param inviterId 邀请人ID，结果中不包含邀请人
+     * @return 一页尚未参与该挑战的用户
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getInvitableUsersPage(String challengeId, String inviterId,
+                                                  User after, int skip, int pageSize) {
+        try {
+            String afterHealthId = after != null ? after.getHealthId() : null;
+            return KeysetPage.of(userMapper.findNotParticipating(challengeId, inviterId, afterHealthId,
+                    skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("获取可邀请用户失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    /**
+     * 批量邀请用户加入挑战
+     * 按批查询被邀请人的主邮箱并排除已参与者，再按批多行插入邀请，全部邀请在同一事务中写入
+     * @param challengeId 挑战ID
+     * @param inviterId 邀请人ID
+     * @param healthIds 被邀请人的健康ID
+     * @return 发出的邀请数
+     */
+    @Override
+    public int inviteAll(String challengeId, String inviterId, Collection<String> healthIds) {
+        try {
+            Set<String> ids = new LinkedHashSet<>();
+            for (String healthId : healthIds) {
+                if (healthId != null && !healthId.equals(inviterId)) {
+                    ids.add(healthId);
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Invitation> invitations = new ArrayList<>(ids.size());
+            for (List<String> chunk : chunks(new ArrayList<>(ids))) {
+                for (InviteeContact invitee : invitationMapper.findInviteeContacts(challengeId, chunk)) {
+                    invitations.add(challengeInvitation(challengeId, inviterId, invitee.getContact(), now));
+                }
+            }
+            for (List<Invitation> chunk : chunks(invitations)) {
+                invitationMapper.insertAll(chunk);
+            }
+            return invitations.size();
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            System.err.println("批量发送邀请失败: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Invitation challengeInvitation(String challengeId, String inviterId, String contact,
+                                                  LocalDateTime now) {
+        Invitation invitation = new Invitation();
+        // 12位随机十六进制，大批量邀请时也不会与已有ID冲突
+        invitation.setInvitationId("INV" + UUID.randomUUID().toString().replace("-", "")
+                .substring(0, 12).toUpperCase(Locale.ROOT));
+        invitation.setInviterId(inviterId);
+        invitation.setInviteeContact(contact);
+        invitation.setRelatedChallengeId(challengeId);
+        invitation.setInvitationType("Challenge");
+        invitation.setStatus("Pending");
+        invitation.setSentTime(now);
+        invitation.setExpiredTime(now.plusDays(CHALLENGE_INVITATION_VALID_DAYS));
+        return invitation;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += InvitationMapper.MAX_BATCH_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + InvitationMapper.MAX_BATCH_SIZE, items.size())));
+        }
+        return chunks;
+    }
+}
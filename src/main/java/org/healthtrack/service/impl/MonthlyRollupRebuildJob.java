@@ -0,0 +1,84 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 月度汇总重建任务
+ * 保存和删除报告时会重算对应月份，本任务用于首次上线和修复（例如绕过服务层直接改了health_report）。
+ * 按health_id顺序分批处理用户，每批在一个事务中删除这些用户的汇总并由报告和指标重新聚合。
+ * 通过 healthtrack.rollup.rebuild-on-startup 在启动时执行，或用 healthtrack.rollup.rebuild-cron 定期执行（默认关闭）。
+ */
+@Component
+public class MonthlyRollupRebuildJob {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private MonthlyRollupMapper monthlyRollupMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${healthtrack.rollup.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${healthtrack.rollup.rebuild-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuildAndLog();
+        }
+    }
+
+    @Scheduled(cron = "${healthtrack.rollup.rebuild-cron:-}")
+    public void rebuildOnSchedule() {
+        rebuildAndLog();
+    }
+
+    private void rebuildAndLog() {
+        try {
+            int count = rebuild();
+            System.out.println("月度汇总重建完成，写入汇总 " + count + " 行");
+        } catch (Exception e) {
+            System.err.println("月度汇总重建失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 重建所有用户的月度汇总
+     * @return 写入的步数汇总和指标汇总行数
+     */
+    public int rebuild() {
+        int written = 0;
+        String afterHealthId = null;
+        while (true) {
+            List<String> userIds = userMapper.findPage(afterHealthId, 0, batchSize).stream()
+                    .map(User::getHealthId).toList();
+            if (userIds.isEmpty()) {
+                return written;
+            }
+
+            Integer rows = transactionTemplate.execute(status -> {
+                monthlyRollupMapper.deleteUsers(userIds);
+                monthlyRollupMapper.deleteIndicatorUsers(userIds);
+                return monthlyRollupMapper.insertUsers(userIds) + monthlyRollupMapper.insertIndicatorUsers(userIds);
+            });
+            written += rows != null ? rows : 0;
+            afterHealthId = userIds.get(userIds.size() - 1);
+        }
+    }
+}
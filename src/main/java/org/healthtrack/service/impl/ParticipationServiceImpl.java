@@ -6,9 +6,7 @@ import org.healthtrack.service.ParticipationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 参与记录服务实现类
@@ -20,6 +18,12 @@ public class ParticipationServiceImpl implements ParticipationService {
     @Autowired
     private ParticipationMapper participationMapper;
 
+    @Autowired
+    private ChallengePopularityIndex popularityIndex;
+
+    @Autowired
+    private ChallengeRankingIndex rankingIndex;
+
     @Override
     public List<Participation> getAllParticipations() {
         try {
@@ -88,6 +92,10 @@ public class ParticipationServiceImpl implements ParticipationService {
             }
 
             int result = participationMapper.insert(participation);
+            if (result > 0) {
+                popularityIndex.participantJoined(participation.getChallengeId());
+                rankingIndex.participantJoined(participation.getChallengeId(), participation.getProgress());
+            }
             return result > 0;
         } catch (Exception e) {
             System.err.println("参与挑战失败: " + e.getMessage());
@@ -114,6 +122,10 @@ public class ParticipationServiceImpl implements ParticipationService {
             participation.setProgress(0); // 默认进度为0
 
             int result = participationMapper.insert(participation);
+            if (result > 0) {
+                popularityIndex.participantJoined(participation.getChallengeId());
+                rankingIndex.participantJoined(participation.getChallengeId(), participation.getProgress());
+            }
             return result > 0;
         } catch (Exception e) {
             System.err.println("参与挑战失败: " + e.getMessage());
@@ -133,14 +145,19 @@ public class ParticipationServiceImpl implements ParticipationService {
                 throw new IllegalArgumentException("进度必须在0-100之间");
             }
 
-            Participation participation = participationMapper.findByUserAndChallenge(healthId, challengeId);
+            // 锁定该行：并发修改同一参与记录时，后到者读到前者提交的进度，排名索引才不会重复扣减
+            Participation participation = participationMapper.findByUserAndChallengeForUpdate(healthId, challengeId);
             if (participation == null) {
                 System.err.println("参与记录不存在");
                 return false;
             }
 
+            Integer oldProgress = participation.getProgress();
             participation.setProgress(progress);
             int result = participationMapper.update(participation);
+            if (result > 0) {
+                rankingIndex.progressChanged(challengeId, oldProgress, progress);
+            }
             return result > 0;
         } catch (Exception e) {
             System.err.println("更新进度失败: " + e.getMessage());
@@ -155,7 +172,12 @@ public class ParticipationServiceImpl implements ParticipationService {
                 throw new IllegalArgumentException("用户ID和挑战ID不能为空");
             }
 
+            Participation existing = participationMapper.findByUserAndChallengeForUpdate(healthId, challengeId);
             int result = participationMapper.delete(healthId, challengeId);
+            if (result > 0) {
+                popularityIndex.participantLeft(challengeId);
+                rankingIndex.participantLeft(challengeId, existing != null ? existing.getProgress() : null);
+            }
             return result > 0;
         } catch (Exception e) {
             System.err.println("退出挑战失败: " + e.getMessage());
@@ -184,8 +206,7 @@ public class ParticipationServiceImpl implements ParticipationService {
             if (challengeId == null || challengeId.trim().isEmpty()) {
                 return 0;
             }
-            List<Participation> participations = participationMapper.findByChallengeId(challengeId);
-            return participations != null ? participations.size() : 0;
+            return participationMapper.countParticipantsByChallenge(challengeId);
         } catch (Exception e) {
             System.err.println("统计参与人数失败: " + e.getMessage());
             return 0;
@@ -198,8 +219,7 @@ public class ParticipationServiceImpl implements ParticipationService {
             if (healthId == null || healthId.trim().isEmpty()) {
                 return 0;
             }
-            List<Participation> participations = participationMapper.findByUserId(healthId);
-            return participations != null ? participations.size() : 0;
+            return participationMapper.countChallengesByUser(healthId);
         } catch (Exception e) {
             System.err.println("统计用户参与数量失败: " + e.getMessage());
             return 0;
@@ -223,24 +243,30 @@ public class ParticipationServiceImpl implements ParticipationService {
                 return -1;
             }
 
-            List<Participation> participations = participationMapper.findByChallengeId(challengeId);
-            if (participations.isEmpty()) {
-                return -1;
+            Participation participation = participationMapper.findByUserAndChallenge(healthId, challengeId);
+            if (participation == null) {
+                return -1; // 用户未参与该挑战
             }
+            return getUserRankInChallenge(participation);
+        } catch (Exception e) {
+            System.err.println("计算用户排名失败: " + e.getMessage());
+            return -1;
+        }
+    }
 
-            // 按进度降序排序
-            List<Participation> sorted = participations.stream()
-                    .sorted(Comparator.comparingInt(Participation::getProgress).reversed())
-                    .collect(Collectors.toList());
-
-            // 查找用户排名
-            for (int i = 0; i < sorted.size(); i++) {
-                if (sorted.get(i).getHealthId().equals(healthId)) {
-                    return i + 1; // 排名从1开始
-                }
+    @Override
+    public int getUserRankInChallenge(Participation participation) {
+        try {
+            if (participation == null || participation.getChallengeId() == null) {
+                return -1;
             }
 
-            return -1; // 用户未参与该挑战
+            int progress = participation.getProgress() != null ? participation.getProgress() : 0;
+            if (rankingIndex.isLoaded()) {
+                return rankingIndex.rankOf(participation.getChallengeId(), progress);
+            }
+            // 索引尚未加载时直接统计进度更高的人数
+            return participationMapper.countAheadInChallenge(participation.getChallengeId(), progress) + 1;
         } catch (Exception e) {
             System.err.println("计算用户排名失败: " + e.getMessage());
             return -1;
@@ -1,14 +1,25 @@
 package org.healthtrack.service.impl;
 
+import org.healthtrack.config.CacheConfig;
 import org.healthtrack.entity.Provider;
 import org.healthtrack.entity.ProviderEmail;
 import org.healthtrack.mapper.ProviderMapper;
 import org.healthtrack.mapper.ProviderEmailMapper;
 import org.healthtrack.service.ProviderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -20,6 +31,12 @@ public class ProviderServiceImpl implements ProviderService {
     @Autowired
     private ProviderEmailMapper providerEmailMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmailIdentityIndex emailIdentityIndex;
+
     // ==================== 提供者管理方法 ====================
 
     @Override
@@ -33,6 +50,7 @@ public class ProviderServiceImpl implements ProviderService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PROVIDERS, key = "#licenseNumber", unless = "#result == null")
     public Provider getProviderById(String licenseNumber) {
         try {
             return providerMapper.findById(licenseNumber);
@@ -42,6 +60,27 @@ public class ProviderServiceImpl implements ProviderService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Provider> getProvidersByIds(Collection<String> licenseNumbers) {
+        Map<String, Provider> providers = new HashMap<>();
+        try {
+            Set<String> ids = new LinkedHashSet<>(licenseNumbers);
+            ids.remove(null);
+            // IN列表分批，避免执照号很多时生成超长SQL
+            List<String> idList = new ArrayList<>(ids);
+            for (int from = 0; from < idList.size(); from += ProviderMapper.MAX_IDS_PER_QUERY) {
+                int to = Math.min(from + ProviderMapper.MAX_IDS_PER_QUERY, idList.size());
+                for (Provider provider : providerMapper.findByIds(idList.subList(from, to))) {
+                    providers.put(provider.getLicenseNumber(), provider);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("批量获取提供者失败: " + e.getMessage());
+        }
+        return providers;
+    }
+
     @Override
     public boolean saveProvider(Provider provider) {
         try {
@@ -49,12 +88,9 @@ public class ProviderServiceImpl implements ProviderService {
                 throw new IllegalArgumentException("提供者信息不完整");
             }
 
-            Provider existing = providerMapper.findById(provider.getLicenseNumber());
-            if (existing != null) {
-                return providerMapper.update(provider) > 0;
-            } else {
-                return providerMapper.insert(provider) > 0;
-            }
+            evictProviderCaches(provider.getLicenseNumber());
+            providerMapper.upsert(provider);
+            return true;
         } catch (Exception e) {
             System.err.println("保存提供者失败: " + e.getMessage());
             return false;
@@ -64,6 +100,8 @@ public class ProviderServiceImpl implements ProviderService {
     @Override
     public boolean deleteProvider(String licenseNumber) {
         try {
+            List<String> emails = evictProviderCaches(licenseNumber);
+            emailIdentityIndex.emailsChanged(emails);
             // 先删除关联的邮箱记录
             providerEmailMapper.deleteByProviderId(licenseNumber);
             // 再删除提供者记录
@@ -117,6 +155,8 @@ public class ProviderServiceImpl implements ProviderService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PROVIDERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#emailAddress)",
+            condition = "#emailAddress != null")
     public boolean addProviderEmail(String licenseNumber, String emailAddress, boolean isPrimary) {
         try {
             if (licenseNumber == null || emailAddress == null) {
@@ -133,6 +173,7 @@ public class ProviderServiceImpl implements ProviderService {
             providerEmail.setEmailAddress(emailAddress);
             providerEmail.setIsPrimary(isPrimary);
 
+            emailIdentityIndex.emailsChanged(List.of(emailAddress));
             return providerEmailMapper.insert(providerEmail) > 0;
         } catch (Exception e) {
             System.err.println("添加提供者邮箱失败: " + e.getMessage());
@@ -141,8 +182,13 @@ public class ProviderServiceImpl implements ProviderService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PROVIDERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#emailAddress)",
+            condition = "#emailAddress != null")
     public boolean removeProviderEmail(String licenseNumber, String emailAddress) {
         try {
+            if (emailAddress != null) {
+                emailIdentityIndex.emailsChanged(List.of(emailAddress));
+            }
             return providerEmailMapper.delete(licenseNumber, emailAddress) > 0;
         } catch (Exception e) {
             System.err.println("删除提供者邮箱失败: " + e.getMessage());
@@ -180,6 +226,8 @@ public class ProviderServiceImpl implements ProviderService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PROVIDERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#email)",
+            condition = "#email != null", unless = "#result == null")
     public Provider getProviderByEmail(String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
@@ -207,6 +255,23 @@ public class ProviderServiceImpl implements ProviderService {
     }
 
     // 私有辅助方法
+
+    /**
+     * 清除该提供者的按执照号和按邮箱缓存，在事务提交后生效（见 {@link CacheConfig}）
+     * @return 该提供者的邮箱地址
+     */
+    private List<String> evictProviderCaches(String licenseNumber) {
+        Cache providers = cacheManager.getCache(CacheConfig.PROVIDERS);
+        Cache providersByEmail = cacheManager.getCache(CacheConfig.PROVIDERS_BY_EMAIL);
+        providers.evict(licenseNumber);
+        List<String> emails = providerEmailMapper.findByProviderId(licenseNumber).stream()
+                .map(ProviderEmail::getEmailAddress).toList();
+        for (String email : emails) {
+            providersByEmail.evict(CacheConfig.emailKey(email));
+        }
+        return emails;
+    }
+
     private void clearProviderPrimaryFlags(String licenseNumber) {
         try {
             // 实现清除primary标记的逻辑
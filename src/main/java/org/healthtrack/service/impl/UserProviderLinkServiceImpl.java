@@ -146,8 +146,7 @@ public class UserProviderLinkServiceImpl implements UserProviderLinkService {
             if (licenseNumber == null || licenseNumber.trim().isEmpty()) {
                 return 0;
             }
-            List<UserProviderLink> links = userProviderLinkMapper.findByProviderId(licenseNumber);
-            return links != null ? links.size() : 0;
+            return userProviderLinkMapper.countByProviderId(licenseNumber);
         } catch (Exception e) {
             System.err.println("统计提供者用户数量失败: " + e.getMessage());
             return 0;
@@ -160,8 +159,7 @@ public class UserProviderLinkServiceImpl implements UserProviderLinkService {
             if (healthId == null || healthId.trim().isEmpty()) {
                 return 0;
             }
-            List<UserProviderLink> links = userProviderLinkMapper.findByUserId(healthId);
-            return links != null ? links.size() : 0;
+            return userProviderLinkMapper.countByUserId(healthId);
         } catch (Exception e) {
             System.err.println("统计用户提供者数量失败: " + e.getMessage());
             return 0;
@@ -1,19 +1,26 @@
 package org.healthtrack.service.impl;
 
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.config.CacheConfig;
 import org.healthtrack.dto.ActiveUserStats;
+import org.healthtrack.dto.KeysetPage;
+import org.healthtrack.dto.UserListItem;
 import org.healthtrack.entity.User;
 import org.healthtrack.entity.UserEmail;
+import org.healthtrack.mapper.ActivityLeaderboardMapper;
 import org.healthtrack.mapper.UserMapper;
 import org.healthtrack.mapper.UserEmailMapper;
-import org.healthtrack.service.HealthReportService;
-import org.healthtrack.service.ParticipationService;
 import org.healthtrack.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -25,11 +32,20 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserEmailMapper userEmailMapper;
     
-    @Autowired(required = false)
-    private HealthReportService healthReportService;
-    
-    @Autowired(required = false)
-    private ParticipationService participationService;
+    @Autowired
+    private ActivityLeaderboardMapper activityLeaderboardMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmailIdentityIndex emailIdentityIndex;
+
+    @Autowired
+    private ChallengePopularityIndex popularityIndex;
+
+    @Autowired
+    private ChallengeRankingIndex rankingIndex;
 
     // ==================== 用户管理方法 ====================
 
@@ -44,6 +60,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#healthId", unless = "#result == null")
     public User getUserById(String healthId) {
         try {
             return userMapper.findById(healthId);
@@ -60,12 +77,9 @@ public class UserServiceImpl implements UserService {
                 throw new IllegalArgumentException("用户信息不完整");
             }
 
-            User existing = userMapper.findById(user.getHealthId());
-            if (existing != null) {
-                return userMapper.update(user) > 0;
-            } else {
-                return userMapper.insert(user) > 0;
-            }
+            evictUserCaches(user.getHealthId());
+            userMapper.upsert(user);
+            return true;
         } catch (Exception e) {
             System.err.println("保存用户失败: " + e.getMessage());
             return false;
@@ -75,10 +89,17 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean deleteUser(String healthId) {
         try {
+            List<String> emails = evictUserCaches(healthId);
+            emailIdentityIndex.emailsChanged(emails);
+            rankingIndex.userDeleting(healthId);
             // 先删除关联的邮箱记录
             userEmailMapper.deleteByUserId(healthId);
-            // 再删除用户记录
-            return userMapper.delete(healthId) > 0;
+            // 再删除用户记录，参与记录和创建的挑战随之级联删除
+            boolean deleted = userMapper.delete(healthId) > 0;
+            if (deleted) {
+                popularityIndex.userDeleted();
+            }
+            return deleted;
         } catch (Exception e) {
             System.err.println("删除用户失败: " + e.getMessage());
             return false;
@@ -115,11 +136,50 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(User after, int skip, int pageSize) {
+        try {
+            String afterHealthId = after != null ? after.getHealthId() : null;
+            return KeysetPage.of(userMapper.findPage(afterHealthId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页获取用户失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<UserListItem> getUserListPage(User after, int skip, int pageSize) {
+        try {
+            String afterHealthId = after != null ? after.getHealthId() : null;
+            return KeysetPage.of(userMapper.findListPage(afterHealthId, skip, pageSize + 1), pageSize);
+        } catch (Exception e) {
+            System.err.println("分页获取用户列表失败: " + e.getMessage());
+            return KeysetPage.empty();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int forEachUser(Consumer<User> action) {
+        int count = 0;
+        // Cursor依赖当前事务持有的连接，遍历必须在方法内完成
+        try (Cursor<User> cursor = userMapper.streamAll()) {
+            for (User user : cursor) {
+                action.accept(user);
+                count++;
+            }
+        } catch (Exception e) {
+            System.err.println("遍历用户失败: " + e.getMessage());
+        }
+        return count;
+    }
+
     @Override
     public int getTotalUserCount() {
         try {
-            List<User> users = userMapper.findAll();
-            return users != null ? users.size() : 0;
+            return userMapper.countAll();
         } catch (Exception e) {
             System.err.println("统计用户总数失败: " + e.getMessage());
             return 0;
@@ -129,8 +189,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public int getVerifiedUserCount() {
         try {
-            List<User> users = userMapper.findByVerificationStatus("Verified");
-            return users != null ? users.size() : 0;
+            return userMapper.countByVerificationStatus("Verified");
         } catch (Exception e) {
             System.err.println("统计已认证用户失败: " + e.getMessage());
             return 0;
@@ -164,6 +223,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#emailAddress)",
+                    condition = "#emailAddress != null"),
+            @CacheEvict(cacheNames = CacheConfig.PRIMARY_EMAILS, key = "#healthId", condition = "#healthId != null")
+    })
     public boolean addUserEmail(String healthId, String emailAddress, boolean isPrimary) {
         try {
             if (healthId == null || emailAddress == null) {
@@ -180,6 +244,7 @@ public class UserServiceImpl implements UserService {
             userEmail.setEmailAddress(emailAddress);
             userEmail.setIsPrimary(isPrimary);
 
+            emailIdentityIndex.emailsChanged(List.of(emailAddress));
             return userEmailMapper.insert(userEmail) > 0;
         } catch (Exception e) {
             System.err.println("添加用户邮箱失败: " + e.getMessage());
@@ -188,8 +253,16 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#emailAddress)",
+                    condition = "#emailAddress != null"),
+            @CacheEvict(cacheNames = CacheConfig.PRIMARY_EMAILS, key = "#healthId", condition = "#healthId != null")
+    })
     public boolean removeUserEmail(String healthId, String emailAddress) {
         try {
+            if (emailAddress != null) {
+                emailIdentityIndex.emailsChanged(List.of(emailAddress));
+            }
             return userEmailMapper.delete(healthId, emailAddress) > 0;
         } catch (Exception e) {
             System.err.println("删除用户邮箱失败: " + e.getMessage());
@@ -198,6 +271,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRIMARY_EMAILS, key = "#healthId", condition = "#healthId != null")
     public boolean setPrimaryEmail(String healthId, String emailAddress) {
         try {
             // 先清除所有primary标记
@@ -217,6 +291,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRIMARY_EMAILS, key = "#healthId", unless = "#result == null")
     public UserEmail getPrimaryEmail(String healthId) {
         try {
             return userEmailMapper.findPrimaryEmail(healthId);
@@ -229,8 +304,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public int getUserEmailCount(String healthId) {
         try {
-            List<UserEmail> emails = userEmailMapper.findByUserId(healthId);
-            return emails != null ? emails.size() : 0;
+            return userEmailMapper.countByUserId(healthId);
         } catch (Exception e) {
             System.err.println("统计用户邮箱数量失败: " + e.getMessage());
             return 0;
@@ -253,6 +327,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "T(org.healthtrack.config.CacheConfig).emailKey(#email)",
+            condition = "#email != null", unless = "#result == null")
     public User getUserByEmail(String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
@@ -296,49 +372,44 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<ActiveUserStats> getMostActiveUsers(int limit, String sortBy) {
         try {
-            List<User> allUsers = userMapper.findAll();
-            
-            List<ActiveUserStats> statsList = allUsers.stream()
-                .map(user -> {
-                    int healthRecordCount = healthReportService != null ? 
-                        healthReportService.countReportsByUser(user.getHealthId()) : 0;
-                    
-                    // 统计完成的挑战数（进度>=100）
-                    int completedChallengeCount = 0;
-                    if (participationService != null) {
-                        var participations = participationService.getParticipationsByUser(user.getHealthId());
-                        completedChallengeCount = (int) participations.stream()
-                            .filter(p -> p.getProgress() != null && p.getProgress() >= 100)
-                            .count();
-                    }
-                    
-                    return new ActiveUserStats(user, healthRecordCount, completedChallengeCount);
-                })
-                .collect(Collectors.toList());
-            
-            // 根据排序方式排序
-            Comparator<ActiveUserStats> comparator;
+            // 聚合、排序和截取都在数据库中完成，避免逐用户查询
+            String normalizedSortBy;
             switch (sortBy != null ? sortBy.toLowerCase() : "total") {
                 case "health_records":
-                    comparator = Comparator.comparingInt(ActiveUserStats::getHealthRecordCount).reversed();
+                    normalizedSortBy = "health_records";
                     break;
                 case "challenges":
-                    comparator = Comparator.comparingInt(ActiveUserStats::getCompletedChallengeCount).reversed();
+                    normalizedSortBy = "challenges";
                     break;
                 case "total":
                 default:
-                    comparator = Comparator.comparingInt(ActiveUserStats::getTotalActivityScore).reversed();
+                    normalizedSortBy = "total";
                     break;
             }
-            
-            return statsList.stream()
-                .sorted(comparator)
-                .limit(limit > 0 ? limit : Integer.MAX_VALUE)
-                .collect(Collectors.toList());
+
+            return activityLeaderboardMapper.findMostActiveUsers(normalizedSortBy, limit);
         } catch (Exception e) {
             System.err.println("获取最活跃用户失败: " + e.getMessage());
             e.printStackTrace();
             return List.of();
         }
     }
+
+    /**
+     * 清除该用户的按ID、按邮箱和主邮箱缓存，在事务提交后生效（见 {@link CacheConfig}）
+     * @return 该用户的邮箱地址
+     */
+    private List<String> evictUserCaches(String healthId) {
+        Cache users = cacheManager.getCache(CacheConfig.USERS);
+        Cache usersByEmail = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        Cache primaryEmails = cacheManager.getCache(CacheConfig.PRIMARY_EMAILS);
+        users.evict(healthId);
+        primaryEmails.evict(healthId);
+        List<String> emails = userEmailMapper.findByUserId(healthId).stream()
+                .map(UserEmail::getEmailAddress).toList();
+        for (String email : emails) {
+            usersByEmail.evict(CacheConfig.emailKey(email));
+        }
+        return emails;
+    }
 }
\ No newline at end of file
@@ -1,16 +1,17 @@
 package org.healthtrack.service.impl;
 
 import org.healthtrack.dto.ChallengeWithParticipants;
+import org.healthtrack.dto.UpsertResult;
 import org.healthtrack.entity.WellnessChallenge;
 import org.healthtrack.mapper.WellnessChallengeMapper;
-import org.healthtrack.service.ParticipationService;
 import org.healthtrack.service.WellnessChallengeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,7 +22,10 @@ public class WellnessChallengeServiceImpl implements WellnessChallengeService {
     private WellnessChallengeMapper challengeMapper;
     
     @Autowired
-    private ParticipationService participationService;
+    private ChallengePopularityIndex popularityIndex;
+
+    @Autowired
+    private ChallengeRankingIndex rankingIndex;
 
     @Override
     public List<WellnessChallenge> getAllChallenges() {
@@ -51,14 +55,12 @@ public class WellnessChallengeServiceImpl implements WellnessChallengeService {
                 return false;
             }
 
-            WellnessChallenge existing = challengeMapper.findById(challenge.getChallengeId());
-            if (existing != null) {
-                int result = challengeMapper.update(challenge);
-                return result > 0;
-            } else {
-                int result = challengeMapper.insert(challenge);
-                return result > 0;
+            UpsertResult result = UpsertResult.of(challengeMapper.upsert(challenge));
+            // 更新已有挑战时也可能得到INSERTED_OR_MATCHED，challengeCreated可重复调用
+            if (result == UpsertResult.INSERTED_OR_MATCHED) {
+                popularityIndex.challengeCreated(challenge.getChallengeId());
             }
+            return true;
         } catch (Exception e) {
             System.err.println("保存挑战失败: " + e.getMessage());
             e.printStackTrace();
@@ -75,6 +77,10 @@ public class WellnessChallengeServiceImpl implements WellnessChallengeService {
             }
 
             int result = challengeMapper.delete(challengeId);
+            if (result > 0) {
+                popularityIndex.challengeDeleted(challengeId);
+                rankingIndex.challengeDeleted(challengeId);
+            }
             return result > 0;
         } catch (Exception e) {
             System.err.println("删除挑战失败: " + e.getMessage());
@@ -118,8 +124,7 @@ public class WellnessChallengeServiceImpl implements WellnessChallengeService {
             if (userId == null || userId.trim().isEmpty()) {
                 return 0;
             }
-            List<WellnessChallenge> challenges = challengeMapper.findByCreatorId(userId);
-            return challenges != null ? challenges.size() : 0;
+            return challengeMapper.countByCreatorId(userId);
         } catch (Exception e) {
             System.err.println("统计用户挑战数量失败: " + e.getMessage());
             return 0;
@@ -129,16 +134,21 @@ public class WellnessChallengeServiceImpl implements WellnessChallengeService {
     @Override
     public List<ChallengeWithParticipants> getMostPopularChallenges(int limit) {
         try {
-            List<WellnessChallenge> allChallenges = challengeMapper.findAll();
-            
-            return allChallenges.stream()
-                .map(challenge -> {
-                    int participantCount = participationService != null ? 
-                        participationService.getChallengeParticipantsCount(challenge.getChallengeId()) : 0;
-                    return new ChallengeWithParticipants(challenge, participantCount);
-                })
-                .sorted(Comparator.comparingInt(ChallengeWithParticipants::getParticipantCount).reversed())
-                .limit(limit > 0 ? limit : Integer.MAX_VALUE)
+            if (!popularityIndex.isEnabled()) {
+                return challengeMapper.findMostPopular(limit);
+            }
+
+            // 使用内存排行索引，只需按ID加载上榜的挑战
+            Map<String, Integer> top = popularityIndex.topChallenges(limit);
+            if (top.isEmpty()) {
+                return List.of();
+            }
+            Map<String, WellnessChallenge> challengesById = challengeMapper.findByIds(top.keySet()).stream()
+                .collect(Collectors.toMap(WellnessChallenge::getChallengeId, Function.identity()));
+
+            return top.entrySet().stream()
+                .filter(entry -> challengesById.containsKey(entry.getKey()))
+                .map(entry -> new ChallengeWithParticipants(challengesById.get(entry.getKey()), entry.getValue()))
                 .collect(Collectors.toList());
         } catch (Exception e) {
             System.err.println("获取最受欢迎挑战失败: " + e.getMessage());
@@ -19,6 +19,7 @@ public class ActiveUsersFrame extends JFrame {
     private UserService userService;
     private DefaultTableModel tableModel;
     private JComboBox<String> sortCombo;
+    private final UiLoader loader = new UiLoader(this);
     
     public ActiveUsersFrame(User currentUser) {
         super("HealthTrack - 最活跃用户");
@@ -138,8 +139,13 @@ public class ActiveUsersFrame extends JFrame {
             }
         }
         
-        java.util.List<ActiveUserStats> statsList = userService.getMostActiveUsers(20, sortBy);
-        
+        // 切换排序方式时取消尚未完成的上一次查询
+        String sort = sortBy;
+        loader.load("active", () -> userService.getMostActiveUsers(20, sort), this::showStats);
+    }
+    
+    private void showStats(java.util.List<ActiveUserStats> statsList) {
+        tableModel.setRowCount(0);
         if (statsList.isEmpty()) {
             JOptionPane.showMessageDialog(this, "未找到用户数据", "提示", JOptionPane.INFORMATION_MESSAGE);
             return;
@@ -7,6 +7,7 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,6 +19,7 @@ public class AdminProviderManagementFrame extends JFrame {
     private final ProviderService providerService;
     private DefaultTableModel tableModel;
     private JTable providerTable;
+    private final UiLoader loader = new UiLoader(this);
     
     public AdminProviderManagementFrame(ProviderService providerService) {
         super("HealthTrack - 管理员医疗提供者管理");
@@ -119,47 +121,36 @@ public class AdminProviderManagementFrame extends JFrame {
     }
     
     private void loadProviders() {
-        SwingWorker<List<Provider>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Provider> doInBackground() {
-                return providerService.getAllProviders();
-            }
-            
-            @Override
-            protected void done() {
+        // 查询提供者及各自的主邮箱都在后台完成，EDT只负责填充表格
+        loader.load("providers", () -> {
+            List<Provider> providers = providerService.getAllProviders();
+            List<Object[]> rows = new ArrayList<>(providers.size());
+            for (Provider provider : providers) {
+                // 获取主邮箱
+                String emailDisplay = "无";
                 try {
-                    List<Provider> providers = get();
-                    tableModel.setRowCount(0);
-                    
-                    for (Provider provider : providers) {
-                        // 获取主邮箱
-                        String emailDisplay = "无";
-                        try {
-                            var primaryEmail = providerService.getPrimaryProviderEmail(provider.getLicenseNumber());
-                            emailDisplay = primaryEmail != null ? primaryEmail.getEmailAddress() : "无";
-                        } catch (Exception e) {
-                            emailDisplay = "加载失败";
-                        }
-                        
-                        tableModel.addRow(new Object[]{
-                            provider.getLicenseNumber(),
-                            provider.getName(),
-                            provider.getSpecialty() != null ? provider.getSpecialty() : "",
-                            provider.getPhone() != null ? provider.getPhone() : "",
-                            emailDisplay,
-                            provider.getVerifiedStatus() != null ? provider.getVerifiedStatus() : "Unverified"
-                        });
-                    }
+                    var primaryEmail = providerService.getPrimaryProviderEmail(provider.getLicenseNumber());
+                    emailDisplay = primaryEmail != null ? primaryEmail.getEmailAddress() : "无";
                 } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(AdminProviderManagementFrame.this,
-                        "加载提供者数据失败: " + e.getMessage(),
-                        "错误",
-                        JOptionPane.ERROR_MESSAGE);
+                    emailDisplay = "加载失败";
                 }
+                
+                rows.add(new Object[]{
+                    provider.getLicenseNumber(),
+                    provider.getName(),
+                    provider.getSpecialty() != null ? provider.getSpecialty() : "",
+                    provider.getPhone() != null ? provider.getPhone() : "",
+                    emailDisplay,
+                    provider.getVerifiedStatus() != null ? provider.getVerifiedStatus() : "Unverified"
+                });
             }
-        };
-        worker.execute();
+            return rows;
+        }, rows -> {
+            tableModel.setRowCount(0);
+            for (Object[] row : rows) {
+                tableModel.addRow(row);
+            }
+        });
     }
     
     private void showAddProviderDialog() {
@@ -1,13 +1,14 @@
 package org.healthtrack.ui;
 
-import org.healthtrack.entity.*;
+import org.healthtrack.dto.CacheStatistics;
+import org.healthtrack.dto.ConnectionPoolStatistics;
+import org.healthtrack.dto.DashboardSnapshot;
 import org.healthtrack.service.*;
 import org.healthtrack.HealthTrackApplication;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -18,44 +19,37 @@ public class AdminStatisticsFrame extends JFrame {
     
     private final UserService userService;
     private final ProviderService providerService;
-    private AppointmentService appointmentService;
-    private WellnessChallengeService challengeService;
-    private HealthReportService healthReportService;
-    private ParticipationService participationService;
+    private DashboardStatsService dashboardStatsService;
+    private CacheStatsService cacheStatsService;
+    private InvitationService invitationService;
+    private ConnectionPoolStatsService connectionPoolStatsService;
+    private final UiLoader loader = new UiLoader(this);
     
     public AdminStatisticsFrame(UserService userService, ProviderService providerService) {
         super("HealthTrack - 系统统计");
         this.userService = userService;
         this.providerService = providerService;
         
-        // 从Spring上下文获取其他服务
+        // 从Spring上下文获取统计服务
         try {
-            org.springframework.context.ApplicationContext context = 
-                HealthTrackApplication.getContext();
-            if (context != null) {
-                try {
-                    this.appointmentService = context.getBean(AppointmentService.class);
-                } catch (Exception e) {
-                    System.err.println("获取AppointmentService失败: " + e.getMessage());
-                }
-                try {
-                    this.challengeService = context.getBean(WellnessChallengeService.class);
-                } catch (Exception e) {
-                    System.err.println("获取WellnessChallengeService失败: " + e.getMessage());
-                }
-                try {
-                    this.healthReportService = context.getBean(HealthReportService.class);
-                } catch (Exception e) {
-                    System.err.println("获取HealthReportService失败: " + e.getMessage());
-                }
-                try {
-                    this.participationService = context.getBean(ParticipationService.class);
-                } catch (Exception e) {
-                    System.err.println("获取ParticipationService失败: " + e.getMessage());
-                }
-            }
+            this.dashboardStatsService = HealthTrackApplication.getContext().getBean(DashboardStatsService.class);
+        } catch (Exception e) {
+            System.err.println("获取DashboardStatsService失败: " + e.getMessage());
+        }
+        try {
+            this.cacheStatsService = HealthTrackApplication.getContext().getBean(CacheStatsService.class);
+        } catch (Exception e) {
+            System.err.println("获取CacheStatsService失败: " + e.getMessage());
+        }
+        try {
+            this.invitationService = HealthTrackApplication.getContext().getBean(InvitationService.class);
+        } catch (Exception e) {
+            System.err.println("获取InvitationService失败: " + e.getMessage());
+        }
+        try {
+            this.connectionPoolStatsService = HealthTrackApplication.getContext().getBean(ConnectionPoolStatsService.class);
         } catch (Exception e) {
-            System.err.println("获取服务失败: " + e.getMessage());
+            System.err.println("获取ConnectionPoolStatsService失败: " + e.getMessage());
         }
         
         try {
@@ -108,12 +102,15 @@ public class AdminStatisticsFrame extends JFrame {
         buttonPanel.setOpaque(false);
         
         JButton refreshButton = UIStyleConstants.createModernButton("刷新统计", UIStyleConstants.PRIMARY_BLUE);
+        JButton latencyButton = UIStyleConstants.createModernButton("界面响应统计", UIStyleConstants.PURPLE);
         JButton backButton = UIStyleConstants.createModernButton("返回", UIStyleConstants.TEXT_SECONDARY);
         
-        refreshButton.addActionListener(e -> loadStatistics());
+        refreshButton.addActionListener(e -> loadStatistics(true));
+        latencyButton.addActionListener(e -> showLatencyStats());
         backButton.addActionListener(e -> dispose());
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(latencyButton);
         buttonPanel.add(backButton);
         
         mainPanel.add(titlePanel, BorderLayout.NORTH);
@@ -375,174 +372,94 @@ public class AdminStatisticsFrame extends JFrame {
     }
     
     private void loadStatistics() {
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                // 在后台线程中计算统计数据
-                updateUserStatistics();
-                updateProviderStatistics();
-                updateAppointmentStatistics();
-                updateChallengeStatistics();
-                updateHealthReportStatistics();
-                updateActivityStatistics();
-                return null;
-            }
-            
-            @Override
-            protected void done() {
-                // 刷新UI
-                revalidate();
-                repaint();
-            }
-        };
-        worker.execute();
+        loadStatistics(false);
     }
     
-    private void updateUserStatistics() {
-        try {
-            int totalUsers = userService.getTotalUserCount();
-            int verifiedUsers = userService.getVerifiedUserCount();
-            int unverifiedUsers = totalUsers - verifiedUsers;
-            
-            List<User> allUsers = userService.getAllUsers();
-            long adminCount = allUsers.stream()
-                .filter(u -> "Administrator".equals(u.getRole()))
-                .count();
-            
-            updateLabel("totalUsers", String.valueOf(totalUsers));
-            updateLabel("verifiedUsers", String.valueOf(verifiedUsers));
-            updateLabel("unverifiedUsers", String.valueOf(unverifiedUsers));
-            updateLabel("adminUsers", String.valueOf(adminCount));
-        } catch (Exception e) {
-            System.err.println("更新用户统计失败: " + e.getMessage());
+    private void loadStatistics(boolean forceRefresh) {
+        if (dashboardStatsService == null) {
+            updateLabel("totalUsers", "服务未初始化");
+            return;
         }
+        
+        // 在后台线程中读取预先计算的统计快照
+        loader.load("snapshot",
+            () -> forceRefresh ? dashboardStatsService.refreshSnapshot() : dashboardStatsService.getSnapshot(),
+            snapshot -> {
+                if (snapshot != null) {
+                    applySnapshot(snapshot);
+                } else {
+                    updateLabel("totalUsers", "数据加载失败");
+                }
+                // 刷新UI
+                revalidate();
+                repaint();
+            },
+            e -> System.err.println("加载统计快照失败: " + e.getMessage()));
     }
     
-    private void updateProviderStatistics() {
-        try {
-            List<Provider> allProviders = providerService.getAllProviders();
-            int totalProviders = allProviders.size();
-            long verifiedProviders = allProviders.stream()
-                .filter(p -> "Verified".equals(p.getVerifiedStatus()))
-                .count();
-            
-            updateLabel("totalProviders", String.valueOf(totalProviders));
-            updateLabel("verifiedProviders", String.valueOf(verifiedProviders));
-        } catch (Exception e) {
-            System.err.println("更新提供者统计失败: " + e.getMessage());
+    /**
+     * 显示各界面后台查询的耗时统计
+     */
+    private void showLatencyStats() {
+        StringBuilder text = new StringBuilder();
+        for (UiLoader.CallStats stats : UiLoader.getStats().values()) {
+            text.append(stats).append("\n");
         }
-    }
-    
-    private void updateAppointmentStatistics() {
-        try {
-            if (appointmentService == null) {
-                updateLabel("totalAppointments", "服务未初始化");
-                return;
+        if (cacheStatsService != null) {
+            text.append(text.length() > 0 ? "\n" : "").append("查询缓存:\n");
+            for (CacheStatistics stats : cacheStatsService.getCacheStatistics()) {
+                text.append(stats).append("\n");
             }
-            
-            List<Appointment> allAppointments = appointmentService.getAllAppointments();
-            int total = allAppointments.size();
-            long scheduled = allAppointments.stream()
-                .filter(a -> "Scheduled".equals(a.getStatus()))
-                .count();
-            long completed = allAppointments.stream()
-                .filter(a -> "Completed".equals(a.getStatus()))
-                .count();
-            long cancelled = allAppointments.stream()
-                .filter(a -> "Cancelled".equals(a.getStatus()))
-                .count();
-            
-            updateLabel("totalAppointments", String.valueOf(total));
-            updateLabel("scheduledAppointments", String.valueOf(scheduled));
-            updateLabel("completedAppointments", String.valueOf(completed));
-            updateLabel("cancelledAppointments", String.valueOf(cancelled));
-        } catch (Exception e) {
-            System.err.println("更新预约统计失败: " + e.getMessage());
         }
-    }
-    
-    private void updateChallengeStatistics() {
-        try {
-            if (challengeService == null) {
-                updateLabel("totalChallenges", "服务未初始化");
-                return;
-            }
-            
-            List<WellnessChallenge> allChallenges = challengeService.getAllChallenges();
-            int total = allChallenges.size();
-            List<WellnessChallenge> activeChallenges = challengeService.getActiveChallenges();
-            int active = activeChallenges.size();
-            
-            updateLabel("totalChallenges", String.valueOf(total));
-            updateLabel("activeChallenges", String.valueOf(active));
-        } catch (Exception e) {
-            System.err.println("更新挑战统计失败: " + e.getMessage());
+        if (invitationService != null) {
+            text.append(text.length() > 0 ? "\n" : "").append("后台任务:\n")
+                .append(invitationService.getExpirySweepStatistics()).append("\n");
         }
-    }
-    
-    private void updateHealthReportStatistics() {
-        try {
-            if (healthReportService == null) {
-                updateLabel("totalReports", "服务未初始化");
-                return;
+        if (connectionPoolStatsService != null) {
+            text.append(text.length() > 0 ? "\n" : "").append("连接池:\n");
+            for (ConnectionPoolStatistics stats : connectionPoolStatsService.getPoolStatistics()) {
+                text.append(stats).append("\n");
             }
-            
-            List<HealthReport> allReports = healthReportService.getAllReports();
-            int total = allReports.size();
-            
-            updateLabel("totalReports", String.valueOf(total));
-        } catch (Exception e) {
-            System.err.println("更新健康报告统计失败: " + e.getMessage());
         }
+        JTextArea area = new JTextArea(text.length() > 0 ? text.toString() : "暂无数据");
+        area.setFont(UIStyleConstants.FONT_TEXT);
+        area.setEditable(false);
+        JScrollPane scrollPane = new JScrollPane(area);
+        scrollPane.setPreferredSize(new Dimension(600, 300));
+        JOptionPane.showMessageDialog(this, scrollPane, "界面响应统计", JOptionPane.INFORMATION_MESSAGE);
     }
     
-    private void updateActivityStatistics() {
-        try {
-            // 最活跃用户（记录健康数据最多）
-            List<User> allUsers = userService.getAllUsers();
-            String mostActiveUsers = allUsers.stream()
-                .limit(5)
-                .map(u -> u.getName() + " (" + u.getHealthId() + ")")
-                .collect(Collectors.joining("\n"));
-            
-            if (mostActiveUsers.isEmpty()) {
-                mostActiveUsers = "暂无数据";
-            }
-            
-            updateTextArea("mostActiveUsers", mostActiveUsers);
-            
-            // 参与人数最多的挑战
-            if (challengeService != null && participationService != null) {
-                List<WellnessChallenge> allChallenges = challengeService.getAllChallenges();
-                String popularChallenge = allChallenges.stream()
-                    .map(challenge -> {
-                        try {
-                            List<Participation> participations = participationService.getParticipationsByChallenge(challenge.getChallengeId());
-                            int count = participations != null ? participations.size() : 0;
-                            return challenge.getGoal() + " - " + count + " 人参与";
-                        } catch (Exception e) {
-                            return challenge.getGoal() + " - 数据加载失败";
-                        }
-                    })
-                    .sorted((a, b) -> {
-                        int countA = Integer.parseInt(a.split(" - ")[1].replace(" 人参与", ""));
-                        int countB = Integer.parseInt(b.split(" - ")[1].replace(" 人参与", ""));
-                        return Integer.compare(countB, countA);
-                    })
-                    .limit(3)
-                    .collect(Collectors.joining("\n"));
-                
-                if (popularChallenge.isEmpty()) {
-                    popularChallenge = "暂无数据";
-                }
-                
-                updateTextArea("popularChallenge", popularChallenge);
-            } else {
-                updateTextArea("popularChallenge", "服务未初始化");
-            }
-        } catch (Exception e) {
-            System.err.println("更新活跃度统计失败: " + e.getMessage());
-        }
+    private void applySnapshot(DashboardSnapshot snapshot) {
+        updateLabel("totalUsers", String.valueOf(snapshot.getTotalUsers()));
+        updateLabel("verifiedUsers", String.valueOf(snapshot.getVerifiedUsers()));
+        updateLabel("unverifiedUsers", String.valueOf(snapshot.getUnverifiedUsers()));
+        updateLabel("adminUsers", String.valueOf(snapshot.getAdminUsers()));
+        
+        updateLabel("totalProviders", String.valueOf(snapshot.getTotalProviders()));
+        updateLabel("verifiedProviders", String.valueOf(snapshot.getVerifiedProviders()));
+        
+        updateLabel("totalAppointments", String.valueOf(snapshot.getTotalAppointments()));
+        updateLabel("scheduledAppointments", String.valueOf(snapshot.getScheduledAppointments()));
+        updateLabel("completedAppointments", String.valueOf(snapshot.getCompletedAppointments()));
+        updateLabel("cancelledAppointments", String.valueOf(snapshot.getCancelledAppointments()));
+        
+        updateLabel("totalChallenges", String.valueOf(snapshot.getTotalChallenges()));
+        updateLabel("activeChallenges", String.valueOf(snapshot.getActiveChallenges()));
+        
+        updateLabel("totalReports", String.valueOf(snapshot.getTotalReports()));
+        
+        // 最活跃用户（记录健康数据最多）
+        String mostActiveUsers = snapshot.getMostActiveUsers().stream()
+            .map(stats -> stats.getUser().getName() + " (" + stats.getUser().getHealthId() + ") - "
+                + stats.getHealthRecordCount() + " 条记录")
+            .collect(Collectors.joining("\n"));
+        updateTextArea("mostActiveUsers", mostActiveUsers.isEmpty() ? "暂无数据" : mostActiveUsers);
+        
+        // 参与人数最多的挑战
+        String popularChallenge = snapshot.getPopularChallenges().stream()
+            .map(cwp -> cwp.getChallenge().getGoal() + " - " + cwp.getParticipantCount() + " 人参与")
+            .collect(Collectors.joining("\n"));
+        updateTextArea("popularChallenge", popularChallenge.isEmpty() ? "暂无数据" : popularChallenge);
     }
     
     private void updateLabel(String name, String value) {
@@ -1,11 +1,11 @@
 package org.healthtrack.ui;
 
+import org.healthtrack.dto.UserListItem;
 import org.healthtrack.entity.User;
 import org.healthtrack.service.UserService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.util.List;
@@ -17,28 +17,18 @@ import java.util.List;
 public class AdminUserManagementFrame extends JFrame {
 
     private final UserService userService;
-    private final DefaultTableModel tableModel;
+    private final LazyTableModel<UserListItem> tableModel;
     private final JTable userTable;
 
     public AdminUserManagementFrame(UserService userService) {
         super("HealthTrack - 管理员用户管理");
         this.userService = userService;
         
-        // 初始化表格模型
-        this.tableModel = new DefaultTableModel(
-                new Object[]{"健康ID", "姓名", "电话号码", "主邮箱", "验证状态", "角色", "家庭ID"},
-                0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return String.class;
-            }
-        };
+        // 初始化表格模型：按需分块加载，只读取可见区域的用户
+        this.tableModel = new LazyTableModel<>(
+                new String[]{"健康ID", "姓名", "电话号码", "主邮箱", "验证状态", "角色", "家庭ID"},
+                this::toRow
+        );
         
         this.userTable = new JTable(tableModel);
         
@@ -178,56 +168,43 @@ public class AdminUserManagementFrame extends JFrame {
     }
 
     private void loadUsers() {
-        SwingWorker<List<User>, Void> worker = new SwingWorker<>() {
+        tableModel.load(new LazyTableModel.RowSource<>() {
             @Override
-            protected List<User> doInBackground() {
-                return userService.getAllUsers();
+            public int count() {
+                return userService.getTotalUserCount();
             }
-            
-            @Override
-            protected void done() {
-                try {
-                    List<User> users = get();
-                    tableModel.setRowCount(0); // 清空现有数据
-                    for (User user : users) {
-                        // 获取主邮箱
-                        String emailDisplay = "无";
-                        try {
-                            var primaryEmail = userService.getPrimaryEmail(user.getHealthId());
-                            emailDisplay = primaryEmail != null ? primaryEmail.getEmailAddress() : "无";
-                        } catch (Exception e) {
-                            emailDisplay = "加载失败";
-                        }
-                        
-                        // 根据状态设置显示
-                        String statusDisplay = user.getVerificationStatus();
-                        if ("Verified".equals(statusDisplay)) {
-                            statusDisplay = "[已验证]";
-                        } else if ("Unverified".equals(statusDisplay)) {
-                            statusDisplay = "[未验证]";
-                        }
 
-                        tableModel.addRow(new Object[]{
-                            user.getHealthId(),
-                            user.getName(),
-                            user.getPhone() != null ? user.getPhone() : "",
-                            emailDisplay,
-                            statusDisplay,
-                            user.getRole() != null ? user.getRole() : "Regular User",
-                            user.getFamilyId() != null ? user.getFamilyId() : ""
-                        });
-                    }
-                    
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(AdminUserManagementFrame.this,
-                        "加载用户数据失败: " + e.getMessage(),
-                        "错误",
-                        JOptionPane.ERROR_MESSAGE);
-                }
+            @Override
+            public List<UserListItem> fetch(UserListItem after, int skip, int limit) {
+                return userService.getUserListPage(after, skip, limit).getItems();
             }
+        });
+    }
+
+    /**
+     * 转换为表格行，在表格的后台加载线程中执行
+     */
+    private Object[] toRow(UserListItem user) {
+        // 主邮箱由分页查询一并返回
+        String emailDisplay = user.getPrimaryEmail() != null ? user.getPrimaryEmail() : "无";
+
+        // 根据状态设置显示
+        String statusDisplay = user.getVerificationStatus();
+        if ("Verified".equals(statusDisplay)) {
+            statusDisplay = "[已验证]";
+        } else if ("Unverified".equals(statusDisplay)) {
+            statusDisplay = "[未验证]";
+        }
+
+        return new Object[]{
+            user.getHealthId(),
+            user.getName(),
+            user.getPhone() != null ? user.getPhone() : "",
+            emailDisplay,
+            statusDisplay,
+            user.getRole() != null ? user.getRole() : "Regular User",
+            user.getFamilyId() != null ? user.getFamilyId() : ""
         };
-        worker.execute();
     }
 
     private void showAddUserDialog() {
@@ -353,7 +330,15 @@ public class AdminUserManagementFrame extends JFrame {
             return;
         }
         
-        String healthId = (String) tableModel.getValueAt(selectedRow, 0);
+        User selected = tableModel.getRow(selectedRow);
+        if (selected == null) {
+            JOptionPane.showMessageDialog(this,
+                "数据尚未加载完成，请稍后再试",
+                "提示",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String healthId = selected.getHealthId();
         User user = userService.getUserById(healthId);
         
         if (user == null) {
@@ -478,8 +463,16 @@ public class AdminUserManagementFrame extends JFrame {
             return;
         }
         
-        String healthId = (String) tableModel.getValueAt(selectedRow, 0);
-        String userName = (String) tableModel.getValueAt(selectedRow, 1);
+        User selected = tableModel.getRow(selectedRow);
+        if (selected == null) {
+            JOptionPane.showMessageDialog(this,
+                "数据尚未加载完成，请稍后再试",
+                "提示",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String healthId = selected.getHealthId();
+        String userName = selected.getName();
         
         int confirm = JOptionPane.showConfirmDialog(this,
             String.format("确定要删除用户 '%s' (%s) 吗？此操作不可撤销！", userName, healthId),
@@ -8,7 +8,6 @@ import org.healthtrack.service.ProviderService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -30,7 +29,8 @@ public class AppointmentSearchFrame extends JFrame {
     private JSpinner startDateSpinner;
     private JSpinner endDateSpinner;
     private JComboBox<Provider> providerCombo;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Appointment> tableModel;
+    private volatile String searchProviderName = "";
     
     public AppointmentSearchFrame(AppointmentService appointmentService, 
                                 ProviderService providerService,
@@ -194,15 +194,10 @@ public class AppointmentSearchFrame extends JFrame {
         JPanel tablePanel = UIStyleConstants.createCardPanel();
         tablePanel.setLayout(new BorderLayout());
         
-        tableModel = new DefaultTableModel(
-            new Object[]{"预约ID", "日期时间", "类型", "状态", "提供者", "备注"},
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LazyTableModel<>(
+            new String[]{"预约ID", "日期时间", "类型", "状态", "提供者", "备注"},
+            this::toRow
+        );
         
         JTable table = new JTable(tableModel);
         table.setRowHeight(35);
@@ -229,8 +224,6 @@ public class AppointmentSearchFrame extends JFrame {
     }
     
     private void performSearch() {
-        tableModel.setRowCount(0);
-        
         if (appointmentService == null) {
             return;
         }
@@ -257,42 +250,51 @@ public class AppointmentSearchFrame extends JFrame {
         Provider selectedProvider = (Provider) providerCombo.getSelectedItem();
         String providerLicense = (selectedProvider != null) ? selectedProvider.getLicenseNumber() : null;
         
-        // 执行搜索
-        List<Appointment> appointments = appointmentService.searchAppointments(
-            currentUser.getHealthId(),
-            status,
-            type,
-            startDateTime,
-            endDateTime,
-            providerLicense
-        );
-        
-        // 显示结果
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        for (Appointment appointment : appointments) {
-            // 获取提供者信息 - 简化处理，如果有搜索条件中的提供者则显示
-            String providerName = "";
-            if (providerLicense != null && providerService != null) {
-                Provider p = providerService.getProviderById(providerLicense);
-                if (p != null) {
-                    providerName = p.getName();
-                }
+        // 获取提供者信息 - 简化处理，如果有搜索条件中的提供者则显示
+        String providerName = "";
+        if (providerLicense != null && providerService != null) {
+            Provider p = providerService.getProviderById(providerLicense);
+            if (p != null) {
+                providerName = p.getName();
             }
-            
-            tableModel.addRow(new Object[]{
-                appointment.getAppointmentId(),
-                appointment.getDateTime() != null ? appointment.getDateTime().format(formatter) : "",
-                appointment.getType() != null ? appointment.getType() : "",
-                appointment.getStatus() != null ? appointment.getStatus() : "",
-                providerName,
-                appointment.getNote() != null ? (appointment.getNote().length() > 30 ? 
-                    appointment.getNote().substring(0, 30) + "..." : appointment.getNote()) : ""
-            });
         }
+        searchProviderName = providerName;
         
-        if (appointments.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "未找到符合条件的预约", "提示", JOptionPane.INFORMATION_MESSAGE);
-        }
+        // 执行搜索：表格按需分页加载结果
+        String userId = currentUser.getHealthId();
+        String statusFilter = status;
+        String typeFilter = type;
+        tableModel.load(new LazyTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return appointmentService.countAppointments(
+                    userId, statusFilter, typeFilter, startDateTime, endDateTime, providerLicense);
+            }
+            
+            @Override
+            public List<Appointment> fetch(Appointment after, int skip, int limit) {
+                return appointmentService.searchAppointmentsPage(
+                    userId, statusFilter, typeFilter, startDateTime, endDateTime, providerLicense,
+                    after, skip, limit).getItems();
+            }
+        }, count -> {
+            if (count == 0) {
+                JOptionPane.showMessageDialog(this, "未找到符合条件的预约", "提示", JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
+    }
+    
+    private Object[] toRow(Appointment appointment) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        return new Object[]{
+            appointment.getAppointmentId(),
+            appointment.getDateTime() != null ? appointment.getDateTime().format(formatter) : "",
+            appointment.getType() != null ? appointment.getType() : "",
+            appointment.getStatus() != null ? appointment.getStatus() : "",
+            searchProviderName,
+            appointment.getNote() != null ? (appointment.getNote().length() > 30 ? 
+                appointment.getNote().substring(0, 30) + "..." : appointment.getNote()) : ""
+        };
     }
     
     private void resetSearch() {
@@ -301,6 +303,6 @@ public class AppointmentSearchFrame extends JFrame {
         startDateSpinner.setValue(java.sql.Date.valueOf(LocalDate.now().minusMonths(1)));
         endDateSpinner.setValue(java.sql.Date.valueOf(LocalDate.now().plusMonths(1)));
         providerCombo.setSelectedIndex(0);
-        tableModel.setRowCount(0);
+        tableModel.clear();
     }
 }
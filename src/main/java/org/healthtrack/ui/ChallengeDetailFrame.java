@@ -1,20 +1,16 @@
 package org.healthtrack.ui;
 
 import org.healthtrack.HealthTrackApplication;
-import org.healthtrack.entity.Invitation;
 import org.healthtrack.entity.User;
 import org.healthtrack.entity.WellnessChallenge;
 import org.healthtrack.service.InvitationService;
 import org.healthtrack.service.ParticipationService;
-import org.healthtrack.service.UserService;
 import org.healthtrack.service.WellnessChallengeService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 /**
  * 挑战详情页面
@@ -25,7 +21,7 @@ public class ChallengeDetailFrame extends JFrame {
     private final User currentUser;
     private final InvitationService invitationService;
     private final ParticipationService participationService;
-    private final UserService userService;
+    private final UiLoader loader;
     
     public ChallengeDetailFrame(WellnessChallengeService challengeService,
                                ParticipationService participationService,
@@ -35,10 +31,10 @@ public class ChallengeDetailFrame extends JFrame {
         this.challenge = challenge;
         this.currentUser = currentUser;
         this.participationService = participationService;
+        this.loader = new UiLoader(this);
         
         // 获取服务
         this.invitationService = HealthTrackApplication.getContext().getBean(InvitationService.class);
-        this.userService = HealthTrackApplication.getContext().getBean(UserService.class);
         
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -127,7 +123,13 @@ public class ChallengeDetailFrame extends JFrame {
     }
     
     private void showInviteDialog() {
+        if (invitationService == null) {
+            JOptionPane.showMessageDialog(this, "邀请服务未初始化", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
         JDialog dialog = new JDialog(this, "邀请他人加入挑战", true);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         dialog.getContentPane().setBackground(UIStyleConstants.BACKGROUND);
         dialog.setLayout(new BorderLayout());
         dialog.setSize(600, 500);
@@ -140,39 +142,22 @@ public class ChallengeDetailFrame extends JFrame {
         titleLabel.setBorder(new EmptyBorder(15, 15, 15, 15));
         titlePanel.add(titleLabel, BorderLayout.CENTER);
         
-        // 用户列表（多选）
+        // 用户列表（多选）：按需分块加载，只读取可见区域的用户
         JPanel listPanel = UIStyleConstants.createCardPanel();
         listPanel.setLayout(new BorderLayout());
         
-        DefaultListModel<String> listModel = new DefaultListModel<>();
-        java.util.List<User> allUsers = userService != null ? userService.getAllUsers() : java.util.Collections.emptyList();
-        java.util.Map<String, User> userMap = new java.util.HashMap<>();
-        
-        // 过滤掉当前用户和已参与的用户
-        for (User user : allUsers) {
-            if (user.getHealthId().equals(currentUser.getHealthId())) {
-                continue; // 跳过自己
-            }
-            
-            // 检查是否已参与
-            if (participationService != null && 
-                participationService.isUserParticipating(user.getHealthId(), challenge.getChallengeId())) {
-                continue; // 跳过已参与的用户
-            }
-            
-            String display = user.getName() + " (" + user.getHealthId() + ")";
-            listModel.addElement(display);
-            userMap.put(display, user);
-        }
+        LazyTableModel<User> inviteeModel = new LazyTableModel<>(
+                new String[]{"姓名", "健康ID"},
+                user -> new Object[]{user.getName(), user.getHealthId()}
+        );
+        loadInvitees(inviteeModel, titleLabel);
         
-        if (listModel.isEmpty()) {
-            listModel.addElement("没有可邀请的用户");
-        }
-        
-        JList<String> userList = new JList<>(listModel);
-        userList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
-        userList.setFont(UIStyleConstants.FONT_TEXT);
-        JScrollPane scrollPane = new JScrollPane(userList);
+        JTable userTable = new JTable(inviteeModel);
+        userTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        userTable.setFont(UIStyleConstants.FONT_TEXT);
+        userTable.setRowHeight(30);
+        userTable.getTableHeader().setFont(UIStyleConstants.FONT_HEADING);
+        JScrollPane scrollPane = new JScrollPane(userTable);
         listPanel.add(scrollPane, BorderLayout.CENTER);
         
         // 按钮面板
@@ -182,74 +167,58 @@ public class ChallengeDetailFrame extends JFrame {
         JButton cancelButton = UIStyleConstants.createModernButton("取消", UIStyleConstants.DANGER_RED);
         
         inviteButton.addActionListener(e -> {
-            int[] selectedIndices = userList.getSelectedIndices();
-            if (selectedIndices.length == 0) {
+            java.util.List<String> inviteeIds = new java.util.ArrayList<>();
+            for (int row : userTable.getSelectedRows()) {
+                User invitee = inviteeModel.getRow(row);
+                if (invitee != null) {
+                    inviteeIds.add(invitee.getHealthId());
+                }
+            }
+            if (inviteeIds.isEmpty()) {
                 JOptionPane.showMessageDialog(dialog, "请至少选择一个用户", "提示", JOptionPane.WARNING_MESSAGE);
                 return;
             }
             
-            int successCount = 0;
-            int failCount = 0;
-            
-            for (int index : selectedIndices) {
-                String display = listModel.get(index);
-                User invitee = userMap.get(display);
-                
-                if (invitee == null) {
-                    failCount++;
-                    continue;
+            // 一次批量发送全部邀请，已参与的用户会被跳过；写入在后台线程执行
+            inviteButton.setEnabled(false);
+            loader.load("invite", () -> invitationService.inviteAll(
+                    challenge.getChallengeId(), currentUser.getHealthId(), inviteeIds), successCount -> {
+                inviteButton.setEnabled(true);
+                int failCount = inviteeIds.size() - successCount;
+                String message;
+                if (failCount == 0) {
+                    message = "成功邀请 " + successCount + " 位用户！";
+                } else {
+                    message = "成功邀请 " + successCount + " 位用户，失败 " + failCount + " 位";
                 }
+                JOptionPane.showMessageDialog(dialog, message, successCount > 0 ? "成功" : "提示",
+                    successCount > 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
                 
-                // 获取用户邮箱（用于邀请）
-                String contact = invitee.getHealthId();
-                if (userService != null) {
-                    try {
-                        var primaryEmail = userService.getPrimaryEmail(invitee.getHealthId());
-                        if (primaryEmail != null && primaryEmail.getEmailAddress() != null) {
-                            contact = primaryEmail.getEmailAddress();
-                        }
-                    } catch (Exception ex) {
-                        // 使用健康ID作为联系方式
-                    }
+                // 刷新列表，移除已邀请的用户
+                if (successCount > 0) {
+                    userTable.clearSelection();
+                    loadInvitees(inviteeModel, titleLabel);
                 }
-                
-                // 创建邀请
-                Invitation invitation = new Invitation();
-                invitation.setInvitationId("INV" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-                invitation.setInviterId(currentUser.getHealthId());
-                invitation.setInviteeContact(contact);
-                invitation.setRelatedChallengeId(challenge.getChallengeId());
-                invitation.setInvitationType("Challenge");
-                invitation.setStatus("Pending");
-                invitation.setSentTime(LocalDateTime.now());
-                invitation.setExpiredTime(LocalDateTime.now().plusDays(7)); // 7天后过期
-                
-                if (invitationService != null && invitationService.saveInvitation(invitation)) {
-                    successCount++;
-                } else {
-                    failCount++;
-                }
-            }
-            
-            String message;
-            if (failCount == 0) {
-                message = "成功邀请 " + successCount + " 位用户！";
-            } else {
-                message = "成功邀请 " + successCount + " 位用户，失败 " + failCount + " 位";
-            }
-            JOptionPane.showMessageDialog(dialog, message, successCount > 0 ? "成功" : "提示", 
-                successCount > 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
-            
-            // 刷新列表，移除已邀请的用户
-            if (successCount > 0) {
-                refreshUserList(listModel, userMap);
-            }
+            }, error -> {
+                inviteButton.setEnabled(true);
+                System.err.println("发送邀请失败: " + error.getMessage());
+                JOptionPane.showMessageDialog(dialog, "发送邀请失败: " + error.getMessage(),
+                    "错误", JOptionPane.ERROR_MESSAGE);
+            });
         });
         
         cancelButton.addActionListener(e -> dialog.dispose());
         buttonPanel.add(inviteButton);
         buttonPanel.add(cancelButton);
         
+        // 关闭对话框时停止加载列表
+        dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                inviteeModel.clear();
+            }
+        });
+        
         dialog.add(titlePanel, BorderLayout.NORTH);
         dialog.add(listPanel, BorderLayout.CENTER);
         dialog.add(buttonPanel, BorderLayout.SOUTH);
@@ -257,31 +226,25 @@ public class ChallengeDetailFrame extends JFrame {
         dialog.setVisible(true);
     }
     
-    private void refreshUserList(DefaultListModel<String> listModel, java.util.Map<String, User> userMap) {
-        listModel.clear();
-        userMap.clear();
-        
-        java.util.List<User> allUsers = userService != null ? userService.getAllUsers() : java.util.Collections.emptyList();
-        
-        for (User user : allUsers) {
-            if (user.getHealthId().equals(currentUser.getHealthId())) {
-                continue; // 跳过自己
+    /**
+     * 按健康ID顺序分页加载尚未参与该挑战的用户，计数完成后更新标题
+     */
+    private void loadInvitees(LazyTableModel<User> model, JLabel titleLabel) {
+        String challengeId = challenge.getChallengeId();
+        String inviterId = currentUser.getHealthId();
+        model.load(new LazyTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return invitationService.countInvitableUsers(challengeId, inviterId);
             }
-            
-            // 检查是否已参与
-            if (participationService != null && 
-                participationService.isUserParticipating(user.getHealthId(), challenge.getChallengeId())) {
-                continue; // 跳过已参与的用户
+
+            @Override
+            public java.util.List<User> fetch(User after, int skip, int limit) {
+                return invitationService.getInvitableUsersPage(challengeId, inviterId, after, skip, limit).getItems();
             }
-            
-            String display = user.getName() + " (" + user.getHealthId() + ")";
-            listModel.addElement(display);
-            userMap.put(display, user);
-        }
-        
-        if (listModel.isEmpty()) {
-            listModel.addElement("没有可邀请的用户");
-        }
+        }, count -> titleLabel.setText(count == 0
+                ? "没有可邀请的用户"
+                : "选择要邀请的用户（可多选，共 " + count + " 人）"));
     }
     
     private void joinChallenge() {
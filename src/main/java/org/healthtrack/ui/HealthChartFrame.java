@@ -1,8 +1,8 @@
 package org.healthtrack.ui;
 
-import org.healthtrack.entity.HealthReport;
+import org.healthtrack.dto.MonthlySteps;
 import org.healthtrack.entity.User;
-import org.healthtrack.service.HealthReportService;
+import org.healthtrack.service.ChartDataService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -10,14 +10,15 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * 健康指标图表页面
  */
 public class HealthChartFrame extends JFrame {
     
-    public HealthChartFrame(HealthReportService healthReportService, User currentUser) {
+    private final UiLoader loader = new UiLoader(this);
+    
+    public HealthChartFrame(ChartDataService chartDataService, User currentUser) {
         super("HealthTrack - 健康指标图表");
         
         try {
@@ -26,10 +27,10 @@ public class HealthChartFrame extends JFrame {
             e.printStackTrace();
         }
         
-        initUI(healthReportService, currentUser);
+        initUI(chartDataService, currentUser);
     }
     
-    private void initUI(HealthReportService healthReportService, User currentUser) {
+    private void initUI(ChartDataService chartDataService, User currentUser) {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         getContentPane().setBackground(UIStyleConstants.BACKGROUND);
         
@@ -47,7 +48,7 @@ public class HealthChartFrame extends JFrame {
         tablePanel.setLayout(new BorderLayout());
         
         DefaultTableModel tableModel = new DefaultTableModel(
-            new Object[]{"报告月份", "总步数", "摘要"},
+            new Object[]{"报告月份", "总步数", "报告数"},
             0
         ) {
             @Override
@@ -56,21 +57,23 @@ public class HealthChartFrame extends JFrame {
             }
         };
         
-        if (healthReportService != null) {
+        if (chartDataService != null) {
             LocalDate startDate = LocalDate.now().minusMonths(6);
             LocalDate endDate = LocalDate.now();
-            List<HealthReport> reports = healthReportService.getReportsByDateRange(startDate, endDate);
             
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-            for (HealthReport report : reports) {
-                if (report.getUserId().equals(currentUser.getHealthId())) {
-                    tableModel.addRow(new Object[]{
-                        report.getReportMonth().format(formatter),
-                        report.getTotalSteps() != null ? report.getTotalSteps() : 0,
-                        report.getSummary() != null ? report.getSummary() : ""
-                    });
-                }
-            }
+            // 只读取当前用户每月的月份、步数合计和报告数
+            loader.load("steps",
+                () -> chartDataService.getMonthlySteps(currentUser.getHealthId(), startDate, endDate),
+                points -> {
+                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+                    for (MonthlySteps point : points) {
+                        tableModel.addRow(new Object[]{
+                            point.getReportMonth().format(formatter),
+                            point.getSteps(),
+                            point.getReportCount()
+                        });
+                    }
+                });
         }
         
         JTable table = new JTable(tableModel);
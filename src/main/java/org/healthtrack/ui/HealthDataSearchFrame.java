@@ -1,12 +1,13 @@
 package org.healthtrack.ui;
 
+import org.healthtrack.dto.HealthReportCriteria;
+import org.healthtrack.dto.HealthReportListItem;
 import org.healthtrack.entity.HealthReport;
 import org.healthtrack.entity.User;
 import org.healthtrack.service.HealthReportService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -19,7 +20,8 @@ public class HealthDataSearchFrame extends JFrame {
     
     private final HealthReportService healthReportService;
     private final User currentUser;
-    private DefaultTableModel tableModel;
+    private final UiLoader loader = new UiLoader(this);
+    private LazyTableModel<HealthReportListItem> tableModel;
     private JComboBox<String> monthCombo;
     private JSpinner startDateSpinner;
     private JSpinner endDateSpinner;
@@ -157,15 +159,11 @@ public class HealthDataSearchFrame extends JFrame {
         JPanel tablePanel = UIStyleConstants.createCardPanel();
         tablePanel.setLayout(new BorderLayout());
         
-        tableModel = new DefaultTableModel(
-            new Object[]{"报告ID", "报告月份", "总步数", "摘要"},
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // 筛选在数据库中完成，表格按需分块加载
+        tableModel = new LazyTableModel<>(
+            new String[]{"报告ID", "报告月份", "总步数", "摘要"},
+            this::toRow
+        );
         
         JTable table = new JTable(tableModel);
         table.setRowHeight(35);
@@ -179,12 +177,14 @@ public class HealthDataSearchFrame extends JFrame {
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     int row = table.rowAtPoint(e.getPoint());
-                    if (row >= 0) {
-                        String reportId = (String) tableModel.getValueAt(row, 0);
-                        HealthReport report = healthReportService.getReportById(reportId);
-                        if (report != null) {
-                            showReportDetailDialog(report);
-                        }
+                    HealthReportListItem item = row >= 0 ? tableModel.getRow(row) : null;
+                    if (item != null) {
+                        String reportId = item.getReportId();
+                        loader.load("detail", () -> healthReportService.getReportById(reportId), report -> {
+                            if (report != null) {
+                                showReportDetailDialog(report);
+                            }
+                        });
                     }
                 }
             }
@@ -227,83 +227,66 @@ public class HealthDataSearchFrame extends JFrame {
     }
     
     private void performSearch(boolean showNoResultMessage) {
-        tableModel.setRowCount(0);
-        
         if (healthReportService == null) {
+            tableModel.clear();
             return;
         }
         
-        List<HealthReport> reports = healthReportService.getReportsByUser(currentUser.getHealthId());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        
         // 获取搜索条件
+        HealthReportCriteria criteria = new HealthReportCriteria();
+        criteria.setUserId(currentUser.getHealthId());
         String selectedMonth = (String) monthCombo.getSelectedItem();
-        LocalDate monthDate = null;
         if (selectedMonth != null && !"全部".equals(selectedMonth)) {
-            monthDate = LocalDate.parse(selectedMonth + "-01");
+            criteria.setMonth(LocalDate.parse(selectedMonth + "-01"));
         }
         
         java.util.Date startDateValue = (java.util.Date) startDateSpinner.getValue();
-        LocalDate startDate = new java.sql.Date(startDateValue.getTime()).toLocalDate();
+        criteria.setStartDate(new java.sql.Date(startDateValue.getTime()).toLocalDate());
         java.util.Date endDateValue = (java.util.Date) endDateSpinner.getValue();
-        LocalDate endDate = new java.sql.Date(endDateValue.getTime()).toLocalDate();
+        criteria.setEndDate(new java.sql.Date(endDateValue.getTime()).toLocalDate());
         
         String minStepsStr = minStepsField.getText().trim();
         String maxStepsStr = maxStepsField.getText().trim();
-        Integer minSteps = null;
-        Integer maxSteps = null;
         try {
             if (!minStepsStr.isEmpty()) {
-                minSteps = Integer.parseInt(minStepsStr);
+                criteria.setMinSteps(Integer.parseInt(minStepsStr));
             }
             if (!maxStepsStr.isEmpty()) {
-                maxSteps = Integer.parseInt(maxStepsStr);
+                criteria.setMaxSteps(Integer.parseInt(maxStepsStr));
             }
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "步数必须是数字", "输入错误", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        // 应用搜索条件
-        for (HealthReport report : reports) {
-            // 月份过滤
-            if (monthDate != null && report.getReportMonth() != null) {
-                if (report.getReportMonth().getYear() != monthDate.getYear() ||
-                    report.getReportMonth().getMonthValue() != monthDate.getMonthValue()) {
-                    continue;
-                }
+        tableModel.load(new LazyTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return healthReportService.countSearchReports(criteria);
             }
             
-            // 日期范围过滤
-            if (report.getReportMonth() != null) {
-                if (report.getReportMonth().isBefore(startDate) || report.getReportMonth().isAfter(endDate)) {
-                    continue;
-                }
+            @Override
+            public List<HealthReportListItem> fetch(HealthReportListItem after, int skip, int limit) {
+                return healthReportService.searchReportsPage(criteria, after, skip, limit).getItems();
             }
-            
-            // 步数范围过滤
-            if (report.getTotalSteps() != null) {
-                if (minSteps != null && report.getTotalSteps() < minSteps) {
-                    continue;
-                }
-                if (maxSteps != null && report.getTotalSteps() > maxSteps) {
-                    continue;
-                }
+        }, count -> {
+            // 只在用户主动搜索且没有结果时显示提示
+            if (showNoResultMessage && count == 0) {
+                JOptionPane.showMessageDialog(this, "未找到符合条件的健康数据", "提示", JOptionPane.INFORMATION_MESSAGE);
             }
-            
-            tableModel.addRow(new Object[]{
-                report.getReportId(),
-                report.getReportMonth() != null ? report.getReportMonth().format(formatter) : "",
-                report.getTotalSteps() != null ? report.getTotalSteps() : 0,
-                report.getSummary() != null ? (report.getSummary().length() > 30 ? 
-                    report.getSummary().substring(0, 30) + "..." : report.getSummary()) : ""
-            });
-        }
-        
-        // 只在用户主动搜索且没有结果时显示提示
-        if (showNoResultMessage && tableModel.getRowCount() == 0) {
-            JOptionPane.showMessageDialog(this, "未找到符合条件的健康数据", "提示", JOptionPane.INFORMATION_MESSAGE);
-        }
+        });
+    }
+    
+    /**
+     * 转换为表格行，在表格的后台加载线程中执行
+     */
+    private Object[] toRow(HealthReportListItem item) {
+        return new Object[]{
+            item.getReportId(),
+            item.getReportMonth() != null ? item.getReportMonth().format(DateTimeFormatter.ofPattern("yyyy-MM")) : "",
+            item.getTotalSteps() != null ? item.getTotalSteps() : 0,
+            item.getSummaryPreview() != null ? item.getSummaryPreview() : ""
+        };
     }
     
     private void resetSearch() {
@@ -385,4 +368,4 @@ public class HealthDataSearchFrame extends JFrame {
         valueComponent.setForeground(UIStyleConstants.TEXT_PRIMARY);
         panel.add(valueComponent, gbc);
     }
-}
+}
\ No newline at end of file
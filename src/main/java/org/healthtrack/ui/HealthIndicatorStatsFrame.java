@@ -79,7 +79,7 @@ public class HealthIndicatorStatsFrame extends JFrame {
         
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        indicatorCombo = new JComboBox<>(new String[]{"体重 (kg)", "收缩压 (mmHg)", "舒张压 (mmHg)"});
+        indicatorCombo = new JComboBox<>(new String[]{"体重 (kg)", "收缩压 (mmHg)", "舒张压 (mmHg)", "心率 (次/分)", "血糖 (mmol/L)"});
         indicatorCombo.setFont(UIStyleConstants.FONT_TEXT);
         searchPanel.add(indicatorCombo, gbc);
         
@@ -180,6 +180,14 @@ public class HealthIndicatorStatsFrame extends JFrame {
                 indicatorType = "blood_pressure_diastolic";
                 displayName = "舒张压 (mmHg)";
                 break;
+            case "心率 (次/分)":
+                indicatorType = "heart_rate";
+                displayName = "心率 (次/分)";
+                break;
+            case "血糖 (mmol/L)":
+                indicatorType = "glucose";
+                displayName = "血糖 (mmol/L)";
+                break;
             default:
                 indicatorType = "weight";
                 displayName = "体重 (kg)";
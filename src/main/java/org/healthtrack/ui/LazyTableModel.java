@@ -0,0 +1,313 @@
+package org.healthtrack.ui;
+
+import javax.swing.*;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * 按需加载的只读表格模型
+ * 行数来自计数查询，行数据按块通过 {@link UiLoader} 在后台线程分页加载。JTable只读取可见区域的单元格，
+ * 因此几十万行的表格打开时也只加载可见的一两块；已加载的块保存在LRU缓存中，读取某块时顺带预取下一块。
+ * 未加载的行先显示占位文字，块加载完成后刷新对应的行；加载失败的块显示失败提示，
+ * 不再自动重试，直到调用 {@link #refresh()} 重新加载。
+ * 每块的最后一行作为下一块的键集分页起点；直接跳到未加载过的位置时，从最近的已知起点向后跳过相应行数。
+ * 重新加载或清空时取消所有未完成的加载；快速滚动时，提交新的块之前先取消已滚出可见区域的块，
+ * 后台线程只加载用户最终停留位置的数据（可见区域取自显示该模型的JTable）。
+ * 除数据加载本身外，所有方法都在EDT上调用
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    /**
+     * 表格的数据来源
+     */
+    public interface RowSource<T> {
+        /**
+         * @return 总行数
+         */
+        int count();
+
+        /**
+         * 读取一块数据
+         * @param after 起点行（结果从它之后开始），为null时从第一行开始
+         * @param skip 在起点之后再跳过的行数
+         * @param limit 最多返回的行数
+         */
+        List<T> fetch(T after, int skip, int limit);
+    }
+
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+    public static final int DEFAULT_CACHED_BLOCKS = 20;
+
+    private static final String LOADING = "加载中...";
+    private static final String FAILED = "加载失败";
+
+    private final String[] columns;
+    private final Function<T, Object[]> rowMapper;
+    private final int blockSize;
+
+    private RowSource<T> source;
+    private IntConsumer onCounted;
+    private int rowCount;
+    // 每次重新加载递增，丢弃旧数据源迟到的结果
+    private int generation;
+
+    private final Map<Integer, Block<T>> blocks;
+    // 每块的最后一行，块被淘汰后仍保留，作为后续块的分页起点
+    private final TreeMap<Integer, T> blockEnds = new TreeMap<>();
+    // 正在加载的块
+    private final Map<Integer, Future<?>> pending = new HashMap<>();
+    private Future<?> counting;
+    // 显示该模型的表格，用于判断哪些块仍然可见
+    private JTable table;
+    // 加载失败的块，重新加载前不再请求
+    private final Set<Integer> failed = new HashSet<>();
+
+    /**
+     * @param columns 列名
+     * @param rowMapper 把一行数据转换为各列的显示值，在后台线程执行
+     */
+    public LazyTableModel(String[] columns, Function<T, Object[]> rowMapper) {
+        this(columns, rowMapper, DEFAULT_BLOCK_SIZE, DEFAULT_CACHED_BLOCKS);
+    }
+
+    /**
+     * @param columns 列名
+     * @param rowMapper 把一行数据转换为各列的显示值，在后台线程执行
+     * @param blockSize 每块的行数
+     * @param cachedBlocks 最多缓存的块数
+     */
+    public LazyTableModel(String[] columns, Function<T, Object[]> rowMapper, int blockSize, int cachedBlocks) {
+        this.columns = columns;
+        this.rowMapper = rowMapper;
+        this.blockSize = blockSize;
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Block<T>> eldest) {
+                return size() > cachedBlocks;
+            }
+        };
+    }
+
+    /**
+     * 切换数据来源并重新加载
+     */
+    public void load(RowSource<T> source) {
+        load(source, null);
+    }
+
+    /**
+     * 切换数据来源并重新加载
+     * @param onCounted 行数查询完成后在EDT上回调，可为null
+     */
+    public void load(RowSource<T> source, IntConsumer onCounted) {
+        this.source = source;
+        this.onCounted = onCounted;
+        refresh();
+    }
+
+    /**
+     * 丢弃已加载的数据，按当前数据来源重新计数
+     */
+    public void refresh() {
+        generation++;
+        for (Future<?> future : pending.values()) {
+            future.cancel(true);
+        }
+        if (counting != null) {
+            counting.cancel(true);
+            counting = null;
+        }
+        blocks.clear();
+        blockEnds.clear();
+        pending.clear();
+        failed.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+        if (source == null) {
+            return;
+        }
+
+        int requested = generation;
+        IntConsumer callback = onCounted;
+        counting = UiLoader.submit("LazyTableModel.count", source::count, (count, error) -> {
+            if (requested != generation) {
+                return;
+            }
+            counting = null;
+            if (error != null) {
+                System.err.println("统计表格行数失败: " + error.getMessage());
+                return;
+            }
+            rowCount = count;
+            fireTableDataChanged();
+            if (callback != null) {
+                callback.accept(count);
+            }
+        });
+    }
+
+    /**
+     * 清空表格并停止使用当前数据来源
+     */
+    public void clear() {
+        source = null;
+        onCounted = null;
+        refresh();
+    }
+
+    /**
+     * 获取某行的原始数据，该行尚未加载时返回null
+     */
+    public T getRow(int row) {
+        Block<T> block = blocks.get(row / blockSize);
+        int index = row % blockSize;
+        return block != null && index < block.rows.size() ? block.rows.get(index) : null;
+    }
+
+    @Override
+    public void addTableModelListener(TableModelListener listener) {
+        super.addTableModelListener(listener);
+        if (listener instanceof JTable) {
+            table = (JTable) listener;
+        }
+    }
+
+    @Override
+    public void removeTableModelListener(TableModelListener listener) {
+        super.removeTableModelListener(listener);
+        if (listener == table) {
+            table = null;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int blockIndex = row / blockSize;
+        Block<T> block = blocks.get(blockIndex);
+        if (block == null) {
+            if (failed.contains(blockIndex)) {
+                return column == 0 ? FAILED : "";
+            }
+            requestBlock(blockIndex);
+            return column == 0 ? LOADING : "";
+        }
+        requestBlock(blockIndex + 1);
+        int index = row % blockSize;
+        return index < block.cells.size() ? block.cells.get(index)[column] : "";
+    }
+
+    private void requestBlock(int blockIndex) {
+        if (source == null || blockIndex * blockSize >= rowCount
+                || blocks.containsKey(blockIndex) || failed.contains(blockIndex) || pending.containsKey(blockIndex)) {
+            return;
+        }
+        cancelHiddenBlocks();
+
+        // 从最近的已知块尾开始定位，中间未加载的块用skip跳过
+        Map.Entry<Integer, T> anchor = blockEnds.floorEntry(blockIndex - 1);
+        T after = anchor != null ? anchor.getValue() : null;
+        int skip = (anchor != null ? blockIndex - 1 - anchor.getKey() : blockIndex) * blockSize;
+
+        int requested = generation;
+        RowSource<T> fetching = source;
+        pending.put(blockIndex, UiLoader.submit("LazyTableModel.fetch", () -> {
+            List<T> rows = fetching.fetch(after, skip, blockSize);
+            List<Object[]> cells = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                cells.add(rowMapper.apply(row));
+            }
+            return new Block<>(rows, cells);
+        }, (block, error) -> blockLoaded(requested, blockIndex, block, error)));
+    }
+
+    /**
+     * 取消已滚出可见区域的块（保留可见块之后用于预取的一块）
+     */
+    private void cancelHiddenBlocks() {
+        if (table == null || pending.isEmpty()) {
+            return;
+        }
+        Rectangle visible = table.getVisibleRect();
+        int firstRow = table.rowAtPoint(visible.getLocation());
+        if (visible.isEmpty() || firstRow < 0) {
+            return;
+        }
+        int lastRow = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        int first = firstRow / blockSize;
+        int last = (lastRow < 0 ? rowCount - 1 : lastRow) / blockSize + 1;
+        pending.entrySet().removeIf(entry -> {
+            if (entry.getKey() >= first && entry.getKey() <= last) {
+                return false;
+            }
+            entry.getValue().cancel(true);
+            return true;
+        });
+    }
+
+    private void blockLoaded(int requested, int blockIndex, Block<T> block, Exception error) {
+        if (requested != generation) {
+            return;
+        }
+        pending.remove(blockIndex);
+        if (error != null) {
+            // 加载队列已满时被丢弃的块不算失败，刷新后若仍可见会重新请求
+            if (!(error instanceof RejectedExecutionException)) {
+                System.err.println("加载表格数据失败: " + error.getMessage());
+                failed.add(blockIndex);
+            }
+        } else {
+            blocks.put(blockIndex, block);
+            if (!block.rows.isEmpty()) {
+                blockEnds.put(blockIndex, block.rows.get(block.rows.size() - 1));
+            }
+        }
+        int first = blockIndex * blockSize;
+        int last = Math.min(first + blockSize, rowCount) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private static class Block<T> {
+        private final List<T> rows;
+        private final List<Object[]> cells;
+
+        Block(List<T> rows, List<Object[]> cells) {
+            this.rows = rows;
+            this.cells = cells;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.healthtrack.ui;
 
 import org.healthtrack.entity.User;
 import org.healthtrack.entity.Provider;
+import org.healthtrack.service.IdentityResolver;
 import org.healthtrack.service.UserService;
 import org.healthtrack.service.ProviderService;
 
@@ -19,21 +20,24 @@ public class LoginFrame extends JFrame {
     
     private final UserService userService;
     private ProviderService providerService;
+    private IdentityResolver identityResolver;
     private JTextField emailField;
     private JPasswordField passwordField; // 根据角色不同，可以是健康ID或执照号
     private JComboBox<String> roleComboBox;
     private JLabel passwordLabel; // 动态标签，显示"健康ID"或"执照号"
+    private final UiLoader loader = new UiLoader(this);
     
     public LoginFrame(UserService userService) {
         super("HealthTrack - 登录");
         this.userService = userService;
         
-        // 从Spring上下文获取ProviderService
+        // 从Spring上下文获取ProviderService和IdentityResolver
         try {
             org.springframework.context.ApplicationContext context = 
                 org.healthtrack.HealthTrackApplication.getContext();
             if (context != null) {
                 this.providerService = context.getBean(ProviderService.class);
+                this.identityResolver = context.getBean(IdentityResolver.class);
             }
         } catch (Exception e) {
             System.err.println("获取ProviderService失败: " + e.getMessage());
@@ -238,7 +242,7 @@ public class LoginFrame extends JFrame {
         // 根据选择的角色进行不同的登录验证
         if (selectedRole.contains("Provider")) {
             // 医疗提供者登录
-            if (providerService == null) {
+            if (providerService == null || identityResolver == null) {
                 JOptionPane.showMessageDialog(this,
                     "ProviderService未初始化，请重启应用程序",
                     "错误",
@@ -246,22 +250,24 @@ public class LoginFrame extends JFrame {
                 return;
             }
             
-            Provider provider = providerService.getProviderByEmail(email);
-            if (provider != null && provider.getLicenseNumber().equals(password)) {
-                // 登录成功，打开提供者菜单
-                this.setVisible(false);
-                this.dispose();
-                
-                SwingUtilities.invokeLater(() -> {
-                    ProviderMenuFrame providerMenu = new ProviderMenuFrame(providerService, provider);
-                    providerMenu.setVisible(true);
-                });
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "邮箱地址或执照号错误，请重试",
-                    "登录失败",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            // 邮箱查询在后台执行，重复点击登录时取消上一次查询
+            loader.load("login", () -> identityResolver.resolveProvider(email), provider -> {
+                if (provider != null && provider.getLicenseNumber().equals(password)) {
+                    // 登录成功，打开提供者菜单
+                    this.setVisible(false);
+                    this.dispose();
+                    
+                    SwingUtilities.invokeLater(() -> {
+                        ProviderMenuFrame providerMenu = new ProviderMenuFrame(providerService, provider);
+                        providerMenu.setVisible(true);
+                    });
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "邮箱地址或执照号错误，请重试",
+                        "登录失败",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
         } else {
             // 普通用户登录
             // 首先检查是否为管理员登录（邮箱为admin，userID为123456）
@@ -306,22 +312,24 @@ public class LoginFrame extends JFrame {
             }
             
             // 普通用户登录验证
-            User user = userService.getUserByEmail(email);
-            if (user != null && user.getHealthId().equals(password)) {
-                // 登录成功，打开主菜单
-                this.setVisible(false);
-                this.dispose();
-                
-                SwingUtilities.invokeLater(() -> {
-                    MainMenuFrame mainMenu = new MainMenuFrame(userService, user);
-                    mainMenu.setVisible(true);
-                });
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "邮箱地址或健康ID错误，请重试",
-                    "登录失败",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            loader.load("login", () -> identityResolver != null
+                ? identityResolver.resolveUser(email) : userService.getUserByEmail(email), user -> {
+                if (user != null && user.getHealthId().equals(password)) {
+                    // 登录成功，打开主菜单
+                    this.setVisible(false);
+                    this.dispose();
+                    
+                    SwingUtilities.invokeLater(() -> {
+                        MainMenuFrame mainMenu = new MainMenuFrame(userService, user);
+                        mainMenu.setVisible(true);
+                    });
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "邮箱地址或健康ID错误，请重试",
+                        "登录失败",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
@@ -1,6 +1,8 @@
 package org.healthtrack.ui;
 
 import org.healthtrack.HealthTrackApplication;
+import org.healthtrack.dto.HealthReportCriteria;
+import org.healthtrack.dto.HealthReportListItem;
 import org.healthtrack.entity.HealthReport;
 import org.healthtrack.entity.Provider;
 import org.healthtrack.entity.User;
@@ -10,12 +12,10 @@ import org.healthtrack.service.ProviderService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 月度健康摘要页面 - 显示健康报告列表并支持搜索
@@ -26,8 +26,9 @@ public class MonthlySummaryFrame extends JFrame {
     private final AppointmentService appointmentService;
     private final ProviderService providerService;
     private final User currentUser;
+    private final UiLoader loader = new UiLoader(this);
     
-    private DefaultTableModel tableModel;
+    private LazyTableModel<HealthReportListItem> tableModel;
     private JComboBox<String> monthCombo;
     private JComboBox<Provider> providerCombo;
     private JSpinner startDateSpinner;
@@ -98,13 +99,13 @@ public class MonthlySummaryFrame extends JFrame {
         
         gbc.gridx = 1;
         gbc.weightx = 1;
-        List<Provider> allProviders = providerService.getAllProviders();
-        Provider[] providerArray = new Provider[allProviders.size() + 1];
-        providerArray[0] = null;
-        for (int i = 0; i < allProviders.size(); i++) {
-            providerArray[i + 1] = allProviders.get(i);
-        }
-        providerCombo = new JComboBox<>(providerArray);
+        // 提供者列表在后台加载，先只放"全部"选项
+        providerCombo = new JComboBox<>(new Provider[]{null});
+        loader.load("providers", providerService::getAllProviders, providers -> {
+            for (Provider provider : providers) {
+                providerCombo.addItem(provider);
+            }
+        });
         providerCombo.setFont(UIStyleConstants.FONT_INPUT);
         providerCombo.setRenderer(new DefaultListCellRenderer() {
             @Override
@@ -185,15 +186,11 @@ public class MonthlySummaryFrame extends JFrame {
         JPanel tablePanel = UIStyleConstants.createCardPanel();
         tablePanel.setLayout(new BorderLayout());
         
-        tableModel = new DefaultTableModel(
-            new Object[]{"报告ID", "报告月份", "总步数", "摘要", "验证者"},
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // 筛选和验证者姓名都在一次分页查询中完成，表格按需分块加载
+        tableModel = new LazyTableModel<>(
+            new String[]{"报告ID", "报告月份", "总步数", "摘要", "验证者"},
+            this::toRow
+        );
         
         JTable table = new JTable(tableModel);
         table.setRowHeight(35);
@@ -208,12 +205,9 @@ public class MonthlySummaryFrame extends JFrame {
             public void mouseClicked(java.awt.event.MouseEvent e) {
                 if (e.getClickCount() == 2) {
                     int row = table.rowAtPoint(e.getPoint());
-                    if (row >= 0) {
-                        String reportId = (String) tableModel.getValueAt(row, 0);
-                        HealthReport report = healthReportService.getReportById(reportId);
-                        if (report != null) {
-                            showReportDetailDialog(report);
-                        }
+                    HealthReportListItem item = row >= 0 ? tableModel.getRow(row) : null;
+                    if (item != null) {
+                        openReportDetail(item);
                     }
                 }
             }
@@ -252,37 +246,22 @@ public class MonthlySummaryFrame extends JFrame {
     }
     
     private void performSearch() {
-        tableModel.setRowCount(0);
-        
         if (healthReportService == null) {
+            tableModel.clear();
             return;
         }
         
-        // 获取所有报告
-        List<HealthReport> reports = healthReportService.getReportsByUser(currentUser.getHealthId());
-        
-        // 应用搜索条件
+        // 在EDT上读取搜索条件
+        HealthReportCriteria criteria = new HealthReportCriteria();
+        criteria.setUserId(currentUser.getHealthId());
         String selectedMonth = (String) monthCombo.getSelectedItem();
         if (selectedMonth != null && !"全部".equals(selectedMonth)) {
-            LocalDate monthDate = LocalDate.parse(selectedMonth + "-01");
-            reports = reports.stream()
-                .filter(r -> r.getReportMonth() != null && 
-                    r.getReportMonth().getYear() == monthDate.getYear() &&
-                    r.getReportMonth().getMonthValue() == monthDate.getMonthValue())
-                .collect(Collectors.toList());
+            criteria.setMonth(LocalDate.parse(selectedMonth + "-01"));
         }
-        
-        // 日期范围过滤
         java.util.Date startDateValue = (java.util.Date) startDateSpinner.getValue();
-        LocalDate startDate = new java.sql.Date(startDateValue.getTime()).toLocalDate();
+        criteria.setStartDate(new java.sql.Date(startDateValue.getTime()).toLocalDate());
         java.util.Date endDateValue = (java.util.Date) endDateSpinner.getValue();
-        LocalDate endDate = new java.sql.Date(endDateValue.getTime()).toLocalDate();
-        
-        reports = reports.stream()
-            .filter(r -> r.getReportMonth() != null && 
-                !r.getReportMonth().isBefore(startDate) && 
-                !r.getReportMonth().isAfter(endDate))
-            .collect(Collectors.toList());
+        criteria.setEndDate(new java.sql.Date(endDateValue.getTime()).toLocalDate());
         
         // 提供者过滤（通过预约）
         Provider selectedProvider = (Provider) providerCombo.getSelectedItem();
@@ -291,26 +270,30 @@ public class MonthlySummaryFrame extends JFrame {
             // 暂时保留所有报告，后续可以根据需要实现更精确的过滤逻辑
         }
         
-        // 显示结果
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        for (HealthReport report : reports) {
-            String verifierName = "";
-            if (report.getVerifierId() != null && providerService != null) {
-                Provider verifier = providerService.getProviderById(report.getVerifierId());
-                if (verifier != null) {
-                    verifierName = verifier.getName();
-                }
+        tableModel.load(new LazyTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return healthReportService.countSearchReports(criteria);
             }
             
-            tableModel.addRow(new Object[]{
-                report.getReportId(),
-                report.getReportMonth() != null ? report.getReportMonth().format(formatter) : "",
-                report.getTotalSteps() != null ? report.getTotalSteps() : 0,
-                report.getSummary() != null ? (report.getSummary().length() > 30 ? 
-                    report.getSummary().substring(0, 30) + "..." : report.getSummary()) : "",
-                verifierName
-            });
-        }
+            @Override
+            public List<HealthReportListItem> fetch(HealthReportListItem after, int skip, int limit) {
+                return healthReportService.searchReportsPage(criteria, after, skip, limit).getItems();
+            }
+        });
+    }
+    
+    /**
+     * 转换为表格行，在表格的后台加载线程中执行
+     */
+    private Object[] toRow(HealthReportListItem item) {
+        return new Object[]{
+            item.getReportId(),
+            item.getReportMonth() != null ? item.getReportMonth().format(DateTimeFormatter.ofPattern("yyyy-MM")) : "",
+            item.getTotalSteps() != null ? item.getTotalSteps() : 0,
+            item.getSummaryPreview() != null ? item.getSummaryPreview() : "",
+            item.getVerifierName() != null ? item.getVerifierName() : ""
+        };
     }
     
     private void resetSearch() {
@@ -351,11 +334,9 @@ public class MonthlySummaryFrame extends JFrame {
                 return;
             }
             
-            String reportId = (String) tableModel.getValueAt(selectedRow, 0);
-            HealthReport report = healthReportService.getReportById(reportId);
-            
-            if (report != null) {
-                showReportDetailDialog(report);
+            HealthReportListItem item = tableModel.getRow(selectedRow);
+            if (item != null) {
+                openReportDetail(item);
             }
         }
     }
@@ -376,7 +357,20 @@ public class MonthlySummaryFrame extends JFrame {
         return null;
     }
     
-    private void showReportDetailDialog(HealthReport report) {
+    /**
+     * 在后台读取完整报告后显示详情，验证者姓名直接取自列表行
+     */
+    private void openReportDetail(HealthReportListItem item) {
+        String verifierName = item.getVerifierName() != null
+            ? item.getVerifierName() + " (" + item.getVerifierId() + ")" : "";
+        loader.load("detail", () -> healthReportService.getReportById(item.getReportId()), report -> {
+            if (report != null) {
+                showReportDetailDialog(report, verifierName);
+            }
+        });
+    }
+    
+    private void showReportDetailDialog(HealthReport report, String verifierName) {
         JDialog dialog = new JDialog(this, "健康报告详情", true);
         dialog.getContentPane().setBackground(UIStyleConstants.BACKGROUND);
         dialog.setLayout(new BorderLayout());
@@ -416,13 +410,6 @@ public class MonthlySummaryFrame extends JFrame {
         summaryScroll.setPreferredSize(new Dimension(400, 100));
         detailPanel.add(summaryScroll, gbc);
         
-        String verifierName = "";
-        if (report.getVerifierId() != null && providerService != null) {
-            Provider verifier = providerService.getProviderById(report.getVerifierId());
-            if (verifier != null) {
-                verifierName = verifier.getName() + " (" + verifier.getLicenseNumber() + ")";
-            }
-        }
         addDetailRow(detailPanel, gbc, "验证者:", verifierName.isEmpty() ? "未验证" : verifierName, 4);
         
         JPanel buttonPanel = new JPanel(new FlowLayout());
@@ -19,6 +19,7 @@ public class PopularChallengesFrame extends JFrame {
     
     private WellnessChallengeService challengeService;
     private DefaultTableModel tableModel;
+    private final UiLoader loader = new UiLoader(this);
     
     public PopularChallengesFrame(User currentUser) {
         super("HealthTrack - 最受欢迎挑战");
@@ -106,8 +107,11 @@ public class PopularChallengesFrame extends JFrame {
             return;
         }
         
-        java.util.List<ChallengeWithParticipants> challenges = challengeService.getMostPopularChallenges(20);
-        
+        loader.load("popular", () -> challengeService.getMostPopularChallenges(20), this::showChallenges);
+    }
+    
+    private void showChallenges(java.util.List<ChallengeWithParticipants> challenges) {
+        tableModel.setRowCount(0);
         if (challenges.isEmpty()) {
             JOptionPane.showMessageDialog(this, "未找到挑战数据", "提示", JOptionPane.INFORMATION_MESSAGE);
             return;
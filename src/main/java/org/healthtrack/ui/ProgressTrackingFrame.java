@@ -9,6 +9,7 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,6 +20,7 @@ public class ProgressTrackingFrame extends JFrame {
     private final ParticipationService participationService;
     private final WellnessChallengeService challengeService;
     private final User currentUser;
+    private final UiLoader loader = new UiLoader(this);
     private DefaultTableModel tableModel;
     private JTable progressTable;
     
@@ -104,17 +106,26 @@ public class ProgressTrackingFrame extends JFrame {
             return;
         }
         
-        List<Participation> participations = participationService.getParticipationsByUser(currentUser.getHealthId());
-        tableModel.setRowCount(0);
-        
-        for (Participation participation : participations) {
-            int rank = participationService.getUserRankInChallenge(currentUser.getHealthId(), participation.getChallengeId());
-            tableModel.addRow(new Object[]{
-                participation.getChallengeId(),
-                participation.getProgress() != null ? participation.getProgress() + "%" : "0%",
-                rank > 0 ? "#" + rank : "未排名"
-            });
-        }
+        String userId = currentUser.getHealthId();
+        loader.load("progress", () -> {
+            // 每个挑战的排名都需要查询，整体在后台完成
+            List<Participation> participations = participationService.getParticipationsByUser(userId);
+            List<Object[]> rows = new ArrayList<>(participations.size());
+            for (Participation participation : participations) {
+                int rank = participationService.getUserRankInChallenge(participation);
+                rows.add(new Object[]{
+                    participation.getChallengeId(),
+                    participation.getProgress() != null ? participation.getProgress() + "%" : "0%",
+                    rank > 0 ? "#" + rank : "未排名"
+                });
+            }
+            return rows;
+        }, rows -> {
+            tableModel.setRowCount(0);
+            for (Object[] row : rows) {
+                tableModel.addRow(row);
+            }
+        });
     }
 }
 
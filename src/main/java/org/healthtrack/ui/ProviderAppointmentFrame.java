@@ -6,7 +6,6 @@ import org.healthtrack.service.AppointmentService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -18,7 +17,7 @@ public class ProviderAppointmentFrame extends JFrame {
     
     private final AppointmentService appointmentService;
     private final Provider currentProvider;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Appointment> tableModel;
     private JTable appointmentTable;
     
     public ProviderAppointmentFrame(AppointmentService appointmentService, Provider currentProvider) {
@@ -59,15 +58,10 @@ public class ProviderAppointmentFrame extends JFrame {
         JPanel tablePanel = UIStyleConstants.createCardPanel();
         tablePanel.setLayout(new BorderLayout());
         
-        tableModel = new DefaultTableModel(
-            new Object[]{"预约ID", "日期时间", "类型", "状态", "患者ID", "备注"},
-            0
-        ) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new LazyTableModel<>(
+            new String[]{"预约ID", "日期时间", "类型", "状态", "患者ID", "备注"},
+            this::toRow
+        );
         
         appointmentTable = new JTable(tableModel);
         appointmentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -113,20 +107,32 @@ public class ProviderAppointmentFrame extends JFrame {
             return;
         }
         
-        List<Appointment> appointments = appointmentService.getAppointmentsByProvider(currentProvider.getLicenseNumber());
-        tableModel.setRowCount(0);
-        
+        // 按预约时间倒序分页加载该提供者的预约
+        String licenseNumber = currentProvider.getLicenseNumber();
+        tableModel.load(new LazyTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return appointmentService.countAppointments(null, null, null, null, null, licenseNumber);
+            }
+            
+            @Override
+            public List<Appointment> fetch(Appointment after, int skip, int limit) {
+                return appointmentService.searchAppointmentsPage(
+                    null, null, null, null, null, licenseNumber, after, skip, limit).getItems();
+            }
+        });
+    }
+    
+    private Object[] toRow(Appointment appointment) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        for (Appointment appointment : appointments) {
-            tableModel.addRow(new Object[]{
-                appointment.getAppointmentId(),
-                appointment.getDateTime() != null ? appointment.getDateTime().format(formatter) : "",
-                appointment.getType() != null ? appointment.getType() : "",
-                appointment.getStatus() != null ? appointment.getStatus() : "",
-                appointment.getUserId() != null ? appointment.getUserId() : "",
-                appointment.getNote() != null ? appointment.getNote() : ""
-            });
-        }
+        return new Object[]{
+            appointment.getAppointmentId(),
+            appointment.getDateTime() != null ? appointment.getDateTime().format(formatter) : "",
+            appointment.getType() != null ? appointment.getType() : "",
+            appointment.getStatus() != null ? appointment.getStatus() : "",
+            appointment.getUserId() != null ? appointment.getUserId() : "",
+            appointment.getNote() != null ? appointment.getNote() : ""
+        };
     }
     
     private void viewAppointmentDetails() {
@@ -136,7 +142,12 @@ public class ProviderAppointmentFrame extends JFrame {
             return;
         }
         
-        String appointmentId = (String) tableModel.getValueAt(row, 0);
+        Appointment selected = tableModel.getRow(row);
+        if (selected == null) {
+            JOptionPane.showMessageDialog(this, "数据尚未加载完成，请稍后再试", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String appointmentId = selected.getAppointmentId();
         Appointment appointment = appointmentService.getAppointmentById(appointmentId);
         
         if (appointment == null) {
@@ -166,7 +177,12 @@ public class ProviderAppointmentFrame extends JFrame {
             return;
         }
         
-        String appointmentId = (String) tableModel.getValueAt(row, 0);
+        Appointment selected = tableModel.getRow(row);
+        if (selected == null) {
+            JOptionPane.showMessageDialog(this, "数据尚未加载完成，请稍后再试", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String appointmentId = selected.getAppointmentId();
         Appointment appointment = appointmentService.getAppointmentById(appointmentId);
         
         if (appointment == null) {
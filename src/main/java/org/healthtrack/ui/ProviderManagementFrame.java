@@ -14,6 +14,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
@@ -119,8 +120,11 @@ public class ProviderManagementFrame extends JFrame {
         List<UserProviderLink> links = userProviderLinkService.getLinksByUserId(currentUser.getHealthId());
         tableModel.setRowCount(0);
         
+        // 一次查询取回所有关联的提供者
+        Map<String, Provider> providers = providerService.getProvidersByIds(
+            links.stream().map(UserProviderLink::getLicenseNumber).toList());
         for (UserProviderLink link : links) {
-            Provider provider = providerService.getProviderById(link.getLicenseNumber());
+            Provider provider = providers.get(link.getLicenseNumber());
             if (provider != null) {
                 tableModel.addRow(new Object[]{
                     provider.getLicenseNumber(),
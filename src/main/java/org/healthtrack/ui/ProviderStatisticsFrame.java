@@ -18,6 +18,7 @@ public class ProviderStatisticsFrame extends JFrame {
     
     private final AppointmentService appointmentService;
     private final Provider currentProvider;
+    private final UiLoader loader = new UiLoader(this);
     
     public ProviderStatisticsFrame(AppointmentService appointmentService, Provider currentProvider) {
         super("HealthTrack - 预约统计");
@@ -177,8 +178,12 @@ public class ProviderStatisticsFrame extends JFrame {
             return;
         }
         
-        List<Appointment> appointments = appointmentService.getAppointmentsByProvider(currentProvider.getLicenseNumber());
-        
+        String licenseNumber = currentProvider.getLicenseNumber();
+        loader.load("statistics", () -> appointmentService.getAppointmentsByProvider(licenseNumber),
+            this::showStatistics);
+    }
+    
+    private void showStatistics(List<Appointment> appointments) {
         // 更新总体统计
         int total = appointments.size();
         updateLabel("totalAppointments", String.valueOf(total));
@@ -0,0 +1,357 @@
+package org.healthtrack.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 界面数据加载
+ * 界面上的查询统一提交到一个固定大小的后台线程池执行，结果回到EDT处理，慢查询不会卡住整个界面。
+ * 每个窗口持有一个UiLoader：同一key的新请求会取消尚未完成的旧请求（例如连续点击搜索），
+ * 加载超过一小段时间时在窗口上显示加载遮罩，窗口关闭时取消所有未完成的请求。
+ * 等待队列有上限：队列满时先清掉已取消的任务，仍然满则丢弃最早排队的任务（它的回调收到
+ * {@link RejectedExecutionException}），优先执行用户最近的操作。
+ * 每类调用的耗时记录在共享统计中，见 {@link #getStats()}
+ */
+public class UiLoader {
+
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // 超过该耗时的调用输出日志
+    private static final long SLOW_CALL_MS = 1000;
+    // 加载超过该时间才显示遮罩，避免快速查询造成闪烁
+    private static final int OVERLAY_DELAY_MS = 200;
+    // 等待执行的任务上限，正常使用时同一窗口的同类请求会相互取消，远达不到该数量
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final ExecutorService EXECUTOR;
+    private static final Map<String, CallStats> STATS = new ConcurrentHashMap<>();
+
+    static {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "ui-loader-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, UiLoader::discardOldest);
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private final JFrame owner;
+    private final Map<String, Call> running = new HashMap<>();
+    private final LoadingOverlay overlay = new LoadingOverlay();
+    private final Timer overlayTimer;
+
+    public UiLoader(JFrame owner) {
+        this.owner = owner;
+        this.overlayTimer = new Timer(OVERLAY_DELAY_MS, e -> showOverlay());
+        this.overlayTimer.setRepeats(false);
+        owner.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelAll();
+            }
+        });
+    }
+
+    /**
+     * 在后台执行查询，完成后在EDT上处理结果；查询失败时输出日志并提示
+     * @param key 请求类别，同一窗口中同一key的新请求会取消旧请求
+     * @param query 后台执行的查询
+     * @param onSuccess 在EDT上处理查询结果
+     */
+    public <T> void load(String key, Callable<T> query, Consumer<T> onSuccess) {
+        load(key, query, onSuccess, null);
+    }
+
+    /**
+     * 在后台执行查询，完成后在EDT上处理结果
+     * @param key 请求类别，同一窗口中同一key的新请求会取消旧请求
+     * @param query 后台执行的查询
+     * @param onSuccess 在EDT上处理查询结果
+     * @param onFailure 在EDT上处理查询异常，为null时输出日志并弹出提示
+     */
+    public <T> void load(String key, Callable<T> query, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        cancel(key);
+        String metric = owner.getClass().getSimpleName() + "." + key;
+        Call call = new Call();
+        running.put(key, call);
+        if (running.size() == 1) {
+            overlayTimer.restart();
+        }
+        call.future = submit(metric, query, (result, error) -> {
+            if (running.get(key) != call) {
+                return; // 已被新请求取代或已取消
+            }
+            running.remove(key);
+            loadingFinished();
+            if (error == null) {
+                onSuccess.accept(result);
+            } else if (onFailure != null) {
+                onFailure.accept(error);
+            } else {
+                System.err.println("加载数据失败(" + metric + "): " + error.getMessage());
+                JOptionPane.showMessageDialog(owner, "加载数据失败: " + error.getMessage(),
+                        "错误", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    /**
+     * 取消某类尚未完成的请求
+     */
+    public void cancel(String key) {
+        Call call = running.remove(key);
+        if (call != null) {
+            call.future.cancel(true);
+            loadingFinished();
+        }
+    }
+
+    /**
+     * 取消本窗口所有尚未完成的请求
+     */
+    public void cancelAll() {
+        for (String key : new ArrayList<>(running.keySet())) {
+            cancel(key);
+        }
+    }
+
+    /**
+     * 是否有尚未完成的请求
+     */
+    public boolean isLoading() {
+        return !running.isEmpty();
+    }
+
+    private void loadingFinished() {
+        if (running.isEmpty()) {
+            overlayTimer.stop();
+            overlay.setVisible(false);
+        }
+    }
+
+    private void showOverlay() {
+        if (!running.isEmpty() && owner.isDisplayable()) {
+            if (owner.getGlassPane() != overlay) {
+                owner.setGlassPane(overlay);
+            }
+            overlay.setVisible(true);
+        }
+    }
+
+    /**
+     * 不属于某个窗口的后台调用（例如表格分块加载），同样计入耗时统计
+     * @param metric 统计名称
+     * @param task 后台执行的任务
+     * @param callback 在EDT上接收结果或异常（二者其一为null）
+     */
+    public static <T> Future<?> submit(String metric, Callable<T> task, ResultCallback<T> callback) {
+        LoadTask<T> loadTask = new LoadTask<>(metric, task, callback);
+        EXECUTOR.execute(loadTask);
+        return loadTask;
+    }
+
+    /**
+     * 队列已满时的处理：先清除已取消的任务，仍然满则丢弃最早排队的任务并通知它的调用方
+     */
+    private static void discardOldest(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.purge();
+        if (executor.getQueue().remainingCapacity() == 0) {
+            Runnable oldest = executor.getQueue().poll();
+            if (oldest instanceof LoadTask) {
+                ((LoadTask<?>) oldest).reject();
+            }
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * 各类调用的耗时统计，按名称排序
+     */
+    public static Map<String, CallStats> getStats() {
+        return new TreeMap<>(STATS);
+    }
+
+    private static void record(String metric, long elapsedNanos, boolean failed, boolean cancelled) {
+        STATS.computeIfAbsent(metric, CallStats::new).record(elapsedNanos, failed, cancelled);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs >= SLOW_CALL_MS) {
+            System.out.println("界面查询较慢: " + metric + " 耗时 " + elapsedMs + " ms");
+        }
+    }
+
+    /**
+     * 后台调用完成后的回调
+     */
+    public interface ResultCallback<T> {
+        void onResult(T result, Exception error);
+    }
+
+    /**
+     * 一类调用的耗时统计
+     */
+    public static class CallStats {
+        private final String name;
+        private long count;
+        private long failures;
+        private long cancelled;
+        private long totalNanos;
+        private long maxNanos;
+
+        CallStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long elapsedNanos, boolean failed, boolean wasCancelled) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            if (failed) {
+                failures++;
+            }
+            if (wasCancelled) {
+                cancelled++;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public synchronized long getCancelled() {
+            return cancelled;
+        }
+
+        public synchronized double getAverageMillis() {
+            return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+        }
+
+        public synchronized double getMaxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%s: 次数=%d, 平均=%.1fms, 最大=%.1fms, 失败=%d, 取消=%d",
+                    name, count, getAverageMillis(), getMaxMillis(), failures, cancelled);
+        }
+    }
+
+    private static class Call {
+        private Future<?> future;
+    }
+
+    /**
+     * 后台任务：完成后在EDT上回调结果；被取消的任务不回调（被中断的查询抛出的异常不算失败），
+     * 因队列已满被丢弃的任务以 {@link RejectedExecutionException} 回调
+     */
+    private static class LoadTask<T> extends FutureTask<T> {
+        private final String metric;
+        private final ResultCallback<T> callback;
+        private volatile long startNanos;
+        private volatile boolean rejected;
+
+        LoadTask(String metric, Callable<T> task, ResultCallback<T> callback) {
+            super(task);
+            this.metric = metric;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            startNanos = System.nanoTime();
+            super.run();
+        }
+
+        /**
+         * 从队列中丢弃，不再执行
+         */
+        void reject() {
+            rejected = true;
+            cancel(false);
+        }
+
+        @Override
+        protected void done() {
+            long elapsedNanos = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+            if (isCancelled()) {
+                record(metric, elapsedNanos, rejected, !rejected);
+                if (rejected) {
+                    RejectedExecutionException error =
+                            new RejectedExecutionException("界面加载请求过多，已放弃较早的请求");
+                    SwingUtilities.invokeLater(() -> callback.onResult(null, error));
+                }
+                return;
+            }
+            T result = null;
+            Exception error = null;
+            try {
+                result = get();
+            } catch (ExecutionException e) {
+                error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            }
+            record(metric, elapsedNanos, error != null, false);
+            T value = result;
+            Exception failure = error;
+            SwingUtilities.invokeLater(() -> callback.onResult(value, failure));
+        }
+    }
+
+    /**
+     * 半透明的加载遮罩，作为窗口的glassPane显示；不拦截鼠标事件，加载期间仍可重新搜索或关闭窗口
+     */
+    private static class LoadingOverlay extends JComponent {
+
+        LoadingOverlay() {
+            setOpaque(false);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(new Color(255, 255, 255, 140));
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            g2.setFont(UIStyleConstants.FONT_HEADING);
+            g2.setColor(UIStyleConstants.TEXT_PRIMARY);
+            String text = "加载中...";
+            FontMetrics metrics = g2.getFontMetrics();
+            g2.drawString(text, (getWidth() - metrics.stringWidth(text)) / 2,
+                    (getHeight() - metrics.getHeight()) / 2 + metrics.getAscent());
+            g2.dispose();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -31,6 +32,7 @@ public class UserManagementFrame extends JFrame {
     private final UserService userService;
     private final DefaultTableModel tableModel;
     private final JTable userTable;
+    private final UiLoader loader = new UiLoader(this);
 
     public UserManagementFrame(UserService userService) {
         super("HealthTrack - 用户管理系统");
@@ -227,60 +229,53 @@ public class UserManagementFrame extends JFrame {
     }
 
     private void loadUsers() {
-        SwingWorker<List<User>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<User> doInBackground() {
-                return userService.getAllUsers();
-            }
-            
-            @Override
-            protected void done() {
+        // 查询用户及各自的主邮箱都在后台完成，EDT只负责填充表格
+        loader.load("users", () -> {
+            List<User> users = userService.getAllUsers();
+            List<Object[]> rows = new ArrayList<>(users.size());
+            for (User user : users) {
+                // 获取主邮箱
+                String emailDisplay = null;
                 try {
-                    List<User> users = get();
-                    tableModel.setRowCount(0); // 清空现有数据
-                    for (User user : users) {
-                        // 获取主邮箱
-                        String emailDisplay = null;
-                        try {
-                            var primaryEmail = userService.getPrimaryEmail(user.getHealthId());
-                            emailDisplay = primaryEmail != null ? primaryEmail.getEmailAddress() : "无";
-                        } catch (Exception e) {
-                            emailDisplay = "加载失败";
-                        }
-                        
-                        // 根据状态设置显示
-                        String statusDisplay = user.getVerificationStatus();
-                        if ("Verified".equals(statusDisplay)) {
-                            statusDisplay = "[已验证]";
-                        } else if ("Unverified".equals(statusDisplay)) {
-                            statusDisplay = "[未验证]";
-                        }
-
-                        tableModel.addRow(new Object[]{
-                            user.getHealthId(),
-                            user.getName(),
-                            user.getPhone(),
-                            emailDisplay,
-                            statusDisplay,
-                            user.getRole(),
-                            user.getFamilyId()
-                        });
-                    }
-                    
-                    // 在状态栏显示加载信息
-                    showStatusMessage("加载完成，共 " + users.size() + " 条记录");
-                    
+                    var primaryEmail = userService.getPrimaryEmail(user.getHealthId());
+                    emailDisplay = primaryEmail != null ? primaryEmail.getEmailAddress() : "无";
                 } catch (Exception e) {
-                    e.printStackTrace();
-                    showStatusMessage("加载用户数据失败: " + e.getMessage());
-                    JOptionPane.showMessageDialog(UserManagementFrame.this,
-                        "加载用户数据失败: " + e.getMessage(),
-                        "错误",
-                        JOptionPane.ERROR_MESSAGE);
+                    emailDisplay = "加载失败";
                 }
+                
+                // 根据状态设置显示
+                String statusDisplay = user.getVerificationStatus();
+                if ("Verified".equals(statusDisplay)) {
+                    statusDisplay = "[已验证]";
+                } else if ("Unverified".equals(statusDisplay)) {
+                    statusDisplay = "[未验证]";
+                }
+
+                rows.add(new Object[]{
+                    user.getHealthId(),
+                    user.getName(),
+                    user.getPhone(),
+                    emailDisplay,
+                    statusDisplay,
+                    user.getRole(),
+                    user.getFamilyId()
+                });
             }
-        };
-        worker.execute();
+            return rows;
+        }, rows -> {
+            tableModel.setRowCount(0); // 清空现有数据
+            for (Object[] row : rows) {
+                tableModel.addRow(row);
+            }
+            // 在状态栏显示加载信息
+            showStatusMessage("加载完成，共 " + rows.size() + " 条记录");
+        }, e -> {
+            showStatusMessage("加载用户数据失败: " + e.getMessage());
+            JOptionPane.showMessageDialog(UserManagementFrame.this,
+                "加载用户数据失败: " + e.getMessage(),
+                "错误",
+                JOptionPane.ERROR_MESSAGE);
+        });
     }
     
     private void showStatusMessage(String message) {
@@ -1,28 +1,63 @@
 package org.healthtrack.util;
 
+import org.healthtrack.entity.HealthIndicator;
+import org.healthtrack.entity.HealthReport;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 健康指标提取工具类
- * 从健康报告的summary字段中提取体重、血压等指标
+ * 从健康报告的summary字段中提取体重、血压、心率、血糖等指标
+ *
+ * 识别规则（关键字不区分大小写，后面可跟一个半角或全角冒号及任意空白）：
+ * 体重 "体重: 70kg"、"weight: 70.5"；
+ * 血压 "血压: 120/80"、"blood pressure: 120/80 mmHg"、"BP 120/80"；
+ * 心率 "心率: 72"、"脉搏 72"、"heart rate: 72 bpm"、"pulse: 72"；
+ * 血糖 "血糖: 5.6"、"glucose: 5.6 mmol/L"、"blood sugar: 5.6"。
+ * 所有指标在一次遍历中识别，结果写入调用方提供的 {@link IndicatorSink}。
  */
 public class HealthIndicatorExtractor {
-    
-    // 体重模式：匹配 "体重: 70kg", "weight: 70", "70kg" 等
-    private static final Pattern WEIGHT_PATTERN = Pattern.compile(
-        "(?:体重|weight)[:：]?\\s*(\\d+(?:\\.\\d+)?)\\s*(?:kg|公斤)?", 
-        Pattern.CASE_INSENSITIVE
-    );
-    
-    // 血压模式：匹配 "血压: 120/80", "blood pressure: 120/80", "120/80 mmHg" 等
-    private static final Pattern BLOOD_PRESSURE_PATTERN = Pattern.compile(
-        "(?:血压|blood\\s*pressure|bp)[:：]?\\s*(\\d+)\\s*/\\s*(\\d+)\\s*(?:mmHg)?", 
-        Pattern.CASE_INSENSITIVE
-    );
-    
+
+    public static final String WEIGHT = "weight";
+    public static final String BLOOD_PRESSURE_SYSTOLIC = "blood_pressure_systolic";
+    public static final String BLOOD_PRESSURE_DIASTOLIC = "blood_pressure_diastolic";
+    public static final String HEART_RATE = "heart_rate";
+    public static final String GLUCOSE = "glucose";
+
+    /**
+     * 识别规则的版本，写入health_report.indicator_version；规则变化（如新增指标类型）时递增，
+     * 回填任务会重新解析版本较低的报告
+     */
+    public static final int VERSION = 2;
+
+    private static final int KIND_WEIGHT = 0;
+    private static final int KIND_HEART_RATE = 1;
+    private static final int KIND_GLUCOSE = 2;
+
+    // 超过15位有效数字时交给Double.parseDouble，保证与正则实现的解析结果一致
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    /**
+     * 单次遍历文本，将识别到的全部指标按出现顺序写入sink
+     * @param text 文本内容，为null时不做任何处理
+     * @param sink 指标接收方
+     */
+    public static void scan(CharSequence text, IndicatorSink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            int end = matchAt(text, pos, length, sink);
+            pos = end > pos ? end : pos + 1;
+        }
+    }
+
     /**
      * 从文本中提取体重值（单位：kg）
      * @param text 文本内容
@@ -32,18 +67,12 @@ public class HealthIndicatorExtractor {
         if (text == null || text.trim().isEmpty()) {
             return null;
         }
-        
-        Matcher matcher = WEIGHT_PATTERN.matcher(text);
-        if (matcher.find()) {
-            try {
-                return Double.parseDouble(matcher.group(1));
-            } catch (NumberFormatException e) {
-                return null;
-            }
-        }
-        return null;
+
+        IndicatorBuffer buffer = new IndicatorBuffer();
+        scan(text, buffer);
+        return buffer.getWeightCount() > 0 ? buffer.getWeight(0) : null;
     }
-    
+
     /**
      * 从文本中提取血压值
      * @param text 文本内容
@@ -53,20 +82,15 @@ public class HealthIndicatorExtractor {
         if (text == null || text.trim().isEmpty()) {
             return null;
         }
-        
-        Matcher matcher = BLOOD_PRESSURE_PATTERN.matcher(text);
-        if (matcher.find()) {
-            try {
-                int systolic = Integer.parseInt(matcher.group(1));
-                int diastolic = Integer.parseInt(matcher.group(2));
-                return new BloodPressure(systolic, diastolic);
-            } catch (NumberFormatException e) {
-                return null;
-            }
+
+        IndicatorBuffer buffer = new IndicatorBuffer();
+        scan(text, buffer);
+        if (buffer.getBloodPressureCount() > 0) {
+            return new BloodPressure(buffer.getSystolic(0), buffer.getDiastolic(0));
         }
         return null;
     }
-    
+
     /**
      * 从文本中提取所有体重值
      * @param text 文本内容
@@ -77,18 +101,15 @@ public class HealthIndicatorExtractor {
         if (text == null || text.trim().isEmpty()) {
             return weights;
         }
-        
-        Matcher matcher = WEIGHT_PATTERN.matcher(text);
-        while (matcher.find()) {
-            try {
-                weights.add(Double.parseDouble(matcher.group(1)));
-            } catch (NumberFormatException e) {
-                // 忽略无效值
-            }
+
+        IndicatorBuffer buffer = new IndicatorBuffer();
+        scan(text, buffer);
+        for (int i = 0; i < buffer.getWeightCount(); i++) {
+            weights.add(buffer.getWeight(i));
         }
         return weights;
     }
-    
+
     /**
      * 从文本中提取所有血压值
      * @param text 文本内容
@@ -99,44 +120,387 @@ public class HealthIndicatorExtractor {
         if (text == null || text.trim().isEmpty()) {
             return pressures;
         }
-        
-        Matcher matcher = BLOOD_PRESSURE_PATTERN.matcher(text);
-        while (matcher.find()) {
-            try {
-                int systolic = Integer.parseInt(matcher.group(1));
-                int diastolic = Integer.parseInt(matcher.group(2));
-                pressures.add(new BloodPressure(systolic, diastolic));
-            } catch (NumberFormatException e) {
-                // 忽略无效值
-            }
+
+        IndicatorBuffer buffer = new IndicatorBuffer();
+        scan(text, buffer);
+        for (int i = 0; i < buffer.getBloodPressureCount(); i++) {
+            pressures.add(new BloodPressure(buffer.getSystolic(i), buffer.getDiastolic(i)));
         }
         return pressures;
     }
-    
+
+    /**
+     * 从健康报告的summary中解析出待持久化的指标（每种指标取第一个匹配值）
+     * @param report 健康报告
+     * @return 指标列表，summary为空或未找到指标时返回空列表
+     */
+    public static List<HealthIndicator> extractIndicators(HealthReport report) {
+        List<HealthIndicator> indicators = new ArrayList<>();
+        if (report == null || report.getSummary() == null) {
+            return indicators;
+        }
+
+        IndicatorBuffer buffer = new IndicatorBuffer();
+        scan(report.getSummary(), buffer);
+        if (buffer.getWeightCount() > 0) {
+            indicators.add(toIndicator(report, WEIGHT, buffer.getWeight(0)));
+        }
+        if (buffer.getBloodPressureCount() > 0) {
+            indicators.add(toIndicator(report, BLOOD_PRESSURE_SYSTOLIC, buffer.getSystolic(0)));
+            indicators.add(toIndicator(report, BLOOD_PRESSURE_DIASTOLIC, buffer.getDiastolic(0)));
+        }
+        if (buffer.getHeartRateCount() > 0) {
+            indicators.add(toIndicator(report, HEART_RATE, buffer.getHeartRate(0)));
+        }
+        if (buffer.getGlucoseCount() > 0) {
+            indicators.add(toIndicator(report, GLUCOSE, buffer.getGlucose(0)));
+        }
+        return indicators;
+    }
+
+    private static HealthIndicator toIndicator(HealthReport report, String indicatorType, double value) {
+        return new HealthIndicator(report.getReportId(), indicatorType,
+            report.getUserId(), report.getReportMonth(), value);
+    }
+
+    /**
+     * 尝试在pos处匹配一个指标
+     * @return 匹配结束位置；未匹配时返回-1
+     */
+    private static int matchAt(CharSequence text, int pos, int length, IndicatorSink sink) {
+        int end;
+        switch (text.charAt(pos)) {
+            case '体':
+                return charAt(text, pos + 1, length) == '重'
+                    ? readDecimal(text, pos + 2, length, KIND_WEIGHT, sink) : -1;
+            case '血':
+                char next = charAt(text, pos + 1, length);
+                if (next == '压') {
+                    return readBloodPressure(text, pos + 2, length, sink);
+                }
+                return next == '糖' ? readDecimal(text, pos + 2, length, KIND_GLUCOSE, sink) : -1;
+            case '心':
+                return charAt(text, pos + 1, length) == '率'
+                    ? readDecimal(text, pos + 2, length, KIND_HEART_RATE, sink) : -1;
+            case '脉':
+                return charAt(text, pos + 1, length) == '搏'
+                    ? readDecimal(text, pos + 2, length, KIND_HEART_RATE, sink) : -1;
+            case 'w':
+            case 'W':
+                end = keyword(text, pos, length, "weight");
+                return end < 0 ? -1 : readDecimal(text, end, length, KIND_WEIGHT, sink);
+            case 'b':
+            case 'B':
+                end = keyword(text, pos, length, "blood");
+                if (end >= 0) {
+                    end = skipWhitespace(text, end, length);
+                    int pressureEnd = keyword(text, end, length, "pressure");
+                    if (pressureEnd >= 0) {
+                        return readBloodPressure(text, pressureEnd, length, sink);
+                    }
+                    int sugarEnd = keyword(text, end, length, "sugar");
+                    return sugarEnd < 0 ? -1 : readDecimal(text, sugarEnd, length, KIND_GLUCOSE, sink);
+                }
+                end = keyword(text, pos, length, "bp");
+                return end < 0 ? -1 : readBloodPressure(text, end, length, sink);
+            case 'h':
+            case 'H':
+                end = keyword(text, pos, length, "heart");
+                if (end < 0) {
+                    return -1;
+                }
+                end = keyword(text, skipWhitespace(text, end, length), length, "rate");
+                return end < 0 ? -1 : readDecimal(text, end, length, KIND_HEART_RATE, sink);
+            case 'p':
+            case 'P':
+                end = keyword(text, pos, length, "pulse");
+                return end < 0 ? -1 : readDecimal(text, end, length, KIND_HEART_RATE, sink);
+            case 'g':
+            case 'G':
+                end = keyword(text, pos, length, "glucose");
+                return end < 0 ? -1 : readDecimal(text, end, length, KIND_GLUCOSE, sink);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 读取关键字后的小数值并写入sink
+     */
+    private static int readDecimal(CharSequence text, int pos, int length, int kind, IndicatorSink sink) {
+        pos = skipSeparator(text, pos, length);
+        int start = pos;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            mantissa = mantissa * 10 + (text.charAt(pos) - '0');
+            digits++;
+            pos++;
+            if (digits > MAX_FAST_DIGITS) {
+                mantissa = 0;
+            }
+        }
+        if (pos == start) {
+            return -1;
+        }
+        if (pos + 1 < length && text.charAt(pos) == '.' && isDigit(text.charAt(pos + 1))) {
+            pos++;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                mantissa = mantissa * 10 + (text.charAt(pos) - '0');
+                digits++;
+                scale++;
+                pos++;
+                if (digits > MAX_FAST_DIGITS) {
+                    mantissa = 0;
+                }
+            }
+        }
+
+        // 有效数字不超过15位时尾数和10的幂都能精确表示为double，一次除法即得到正确舍入的结果
+        double value = digits <= MAX_FAST_DIGITS
+            ? mantissa / POWERS_OF_TEN[scale]
+            : Double.parseDouble(text.subSequence(start, pos).toString());
+        switch (kind) {
+            case KIND_WEIGHT:
+                sink.onWeight(value);
+                break;
+            case KIND_HEART_RATE:
+                sink.onHeartRate(value);
+                break;
+            default:
+                sink.onGlucose(value);
+        }
+        return pos;
+    }
+
+    /**
+     * 读取关键字后的"收缩压/舒张压"并写入sink，超出int范围的值视为无效
+     */
+    private static int readBloodPressure(CharSequence text, int pos, int length, IndicatorSink sink) {
+        pos = skipSeparator(text, pos, length);
+        int start = pos;
+        long systolic = 0;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            if (systolic <= Integer.MAX_VALUE) {
+                systolic = systolic * 10 + (text.charAt(pos) - '0');
+            }
+            pos++;
+        }
+        if (pos == start) {
+            return -1;
+        }
+        pos = skipWhitespace(text, pos, length);
+        if (charAt(text, pos, length) != '/') {
+            return -1;
+        }
+        pos = skipWhitespace(text, pos + 1, length);
+        start = pos;
+        long diastolic = 0;
+        while (pos < length && isDigit(text.charAt(pos))) {
+            if (diastolic <= Integer.MAX_VALUE) {
+                diastolic = diastolic * 10 + (text.charAt(pos) - '0');
+            }
+            pos++;
+        }
+        if (pos == start || systolic > Integer.MAX_VALUE || diastolic > Integer.MAX_VALUE) {
+            return -1;
+        }
+        sink.onBloodPressure((int) systolic, (int) diastolic);
+        return pos;
+    }
+
+    /**
+     * 匹配ASCII关键字（不区分大小写），keyword须为小写
+     * @return 关键字结束位置；不匹配时返回-1
+     */
+    private static int keyword(CharSequence text, int pos, int length, String keyword) {
+        int end = pos + keyword.length();
+        if (end > length) {
+            return -1;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = text.charAt(pos + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != keyword.charAt(i)) {
+                return -1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 跳过一个可选的半角或全角冒号以及之后的空白
+     */
+    private static int skipSeparator(CharSequence text, int pos, int length) {
+        char c = charAt(text, pos, length);
+        if (c == ':' || c == '：') {
+            pos++;
+        }
+        return skipWhitespace(text, pos, length);
+    }
+
+    private static int skipWhitespace(CharSequence text, int pos, int length) {
+        while (pos < length && isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    // 与正则\s一致：空格、\t、\n、\u000B、\f、\r
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static char charAt(CharSequence text, int pos, int length) {
+        return pos < length ? text.charAt(pos) : '\0';
+    }
+
+    /**
+     * 指标接收方，由 {@link #scan(CharSequence, IndicatorSink)} 按出现顺序回调
+     */
+    public interface IndicatorSink {
+
+        /** 体重（kg） */
+        void onWeight(double weight);
+
+        /** 血压（mmHg） */
+        void onBloodPressure(int systolic, int diastolic);
+
+        /** 心率（次/分） */
+        void onHeartRate(double heartRate);
+
+        /** 血糖（mmol/L） */
+        void onGlucose(double glucose);
+    }
+
+    /**
+     * 基于基本类型数组的可复用指标缓冲区
+     * 调用 {@link #clear()} 后可用于下一段文本，容量只增不减，批量解析时不会为每个值装箱
+     */
+    public static class IndicatorBuffer implements IndicatorSink {
+        private final DoubleList weights = new DoubleList();
+        private final DoubleList systolics = new DoubleList();
+        private final DoubleList diastolics = new DoubleList();
+        private final DoubleList heartRates = new DoubleList();
+        private final DoubleList glucoses = new DoubleList();
+
+        public void clear() {
+            weights.size = 0;
+            systolics.size = 0;
+            diastolics.size = 0;
+            heartRates.size = 0;
+            glucoses.size = 0;
+        }
+
+        @Override
+        public void onWeight(double weight) {
+            weights.add(weight);
+        }
+
+        @Override
+        public void onBloodPressure(int systolic, int diastolic) {
+            systolics.add(systolic);
+            diastolics.add(diastolic);
+        }
+
+        @Override
+        public void onHeartRate(double heartRate) {
+            heartRates.add(heartRate);
+        }
+
+        @Override
+        public void onGlucose(double glucose) {
+            glucoses.add(glucose);
+        }
+
+        public int getWeightCount() {
+            return weights.size;
+        }
+
+        public double getWeight(int index) {
+            return weights.get(index);
+        }
+
+        public int getBloodPressureCount() {
+            return systolics.size;
+        }
+
+        public int getSystolic(int index) {
+            return (int) systolics.get(index);
+        }
+
+        public int getDiastolic(int index) {
+            return (int) diastolics.get(index);
+        }
+
+        public int getHeartRateCount() {
+            return heartRates.size;
+        }
+
+        public double getHeartRate(int index) {
+            return heartRates.get(index);
+        }
+
+        public int getGlucoseCount() {
+            return glucoses.size;
+        }
+
+        public double getGlucose(int index) {
+            return glucoses.get(index);
+        }
+    }
+
+    private static class DoubleList {
+        private double[] values = new double[4];
+        private int size;
+
+        void add(double value) {
+            if (size == values.length) {
+                double[] grown = new double[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        double get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return values[index];
+        }
+    }
+
     /**
      * 血压值类
      */
     public static class BloodPressure {
         private final int systolic;   // 收缩压
         private final int diastolic;  // 舒张压
-        
+
         public BloodPressure(int systolic, int diastolic) {
             this.systolic = systolic;
             this.diastolic = diastolic;
         }
-        
+
         public int getSystolic() {
             return systolic;
         }
-        
+
         public int getDiastolic() {
             return diastolic;
         }
-        
+
         @Override
         public String toString() {
             return systolic + "/" + diastolic;
         }
     }
 }
-
@@ -0,0 +1,59 @@
+package org.healthtrack.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * REST接口的API密钥校验
+ * 接口返回的健康ID和执照号同时是登录凭据，电话号码也属于个人信息，因此 /api 下的每个请求都必须携带
+ * 配置的密钥（请求头 X-API-Key 或 Authorization: Bearer），否则返回401。
+ * 未配置 healthtrack.api.key 时拒绝所有请求，而不是放行。
+ */
+public class ApiKeyFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] apiKey;
+
+    /**
+     * @param apiKey 允许访问的密钥，为null或空时拒绝所有请求
+     */
+    public ApiKeyFilter(String apiKey) {
+        this.apiKey = apiKey != null && !apiKey.isBlank() ? apiKey.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!authorized(request)) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "缺少或错误的API密钥");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean authorized(HttpServletRequest request) {
+        if (apiKey == null) {
+            return false;
+        }
+        String provided = request.getHeader(API_KEY_HEADER);
+        if (provided == null) {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+                provided = authorization.substring(BEARER_PREFIX.length()).trim();
+            }
+        }
+        // 按固定时间比较，避免通过响应时间逐字节猜测密钥
+        return provided != null && MessageDigest.isEqual(apiKey, provided.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.ApiPage;
+import org.healthtrack.entity.Appointment;
+import org.healthtrack.service.AppointmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 预约只读接口，可按用户、状态、类型、提供者筛选，按预约时间倒序分页，游标为"预约时间,预约ID"
+ */
+@RestController
+@RequestMapping("/api/appointments")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AppointmentController {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @GetMapping
+    public ApiPage<Appointment> list(@RequestParam(required = false) String userId,
+                                     @RequestParam(required = false) String status,
+                                     @RequestParam(required = false) String type,
+                                     @RequestParam(required = false) String provider,
+                                     @RequestParam(required = false) String after,
+                                     @RequestParam(defaultValue = "" + ApiPage.DEFAULT_PAGE_SIZE) int size) {
+        return ApiPage.of(appointmentService.searchAppointmentsPage(userId, status, type, null, null, provider,
+                        parseCursor(after), 0, ApiPage.pageSize(size)),
+                appointment -> appointment.getDateTime() + "," + appointment.getAppointmentId());
+    }
+
+    @GetMapping("/{appointmentId}")
+    public Appointment get(@PathVariable String appointmentId) {
+        Appointment appointment = appointmentService.getAppointmentById(appointmentId);
+        if (appointment == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "预约不存在: " + appointmentId);
+        }
+        return appointment;
+    }
+
+    private static Appointment parseCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        int separator = after.indexOf(',');
+        try {
+            Appointment appointment = new Appointment();
+            appointment.setDateTime(LocalDateTime.parse(after.substring(0, Math.max(separator, 0))));
+            appointment.setAppointmentId(after.substring(separator + 1));
+            return appointment;
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的分页游标: " + after);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.ApiPage;
+import org.healthtrack.entity.WellnessChallenge;
+import org.healthtrack.service.WellnessChallengeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 健康挑战只读接口，按挑战ID顺序分页
+ * wellness_challenge表规模小，读出全部后在内存中分页
+ */
+@RestController
+@RequestMapping("/api/challenges")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ChallengeController {
+
+    @Autowired
+    private WellnessChallengeService challengeService;
+
+    @GetMapping
+    public ApiPage<WellnessChallenge> list(@RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "" + ApiPage.DEFAULT_PAGE_SIZE) int size) {
+        return ApiPage.slice(challengeService.getAllChallenges(), WellnessChallenge::getChallengeId,
+                after, ApiPage.pageSize(size));
+    }
+
+    @GetMapping("/{challengeId}")
+    public WellnessChallenge get(@PathVariable String challengeId) {
+        WellnessChallenge challenge = challengeService.getChallengeById(challengeId);
+        if (challenge == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "挑战不存在: " + challengeId);
+        }
+        return challenge;
+    }
+}
@@ -0,0 +1,72 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.ApiPage;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.service.HealthReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 健康报告只读接口
+ * 不带userId时按报告ID顺序分页，游标为报告ID；
+ * 带userId时按(报告月份, 报告ID)顺序分页，使用(user_id, report_month)索引，游标为"月份,报告ID"
+ */
+@RestController
+@RequestMapping("/api/reports")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HealthReportController {
+
+    @Autowired
+    private HealthReportService healthReportService;
+
+    @GetMapping
+    public ApiPage<HealthReport> list(@RequestParam(required = false) String userId,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(defaultValue = "" + ApiPage.DEFAULT_PAGE_SIZE) int size) {
+        int pageSize = ApiPage.pageSize(size);
+        if (userId == null) {
+            HealthReport afterReport = null;
+            if (after != null) {
+                afterReport = new HealthReport();
+                afterReport.setReportId(after);
+            }
+            return ApiPage.of(healthReportService.getReportsPage(afterReport, 0, pageSize), HealthReport::getReportId);
+        }
+        return ApiPage.of(healthReportService.getReportsByUserPage(userId, parseCursor(after), 0, pageSize),
+                report -> report.getReportMonth() + "," + report.getReportId());
+    }
+
+    @GetMapping("/{reportId}")
+    public HealthReport get(@PathVariable String reportId) {
+        HealthReport report = healthReportService.getReportById(reportId);
+        if (report == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "健康报告不存在: " + reportId);
+        }
+        return report;
+    }
+
+    private static HealthReport parseCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        int separator = after.indexOf(',');
+        try {
+            HealthReport report = new HealthReport();
+            report.setReportMonth(LocalDate.parse(after.substring(0, Math.max(separator, 0))));
+            report.setReportId(after.substring(separator + 1));
+            return report;
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的分页游标: " + after);
+        }
+    }
+}
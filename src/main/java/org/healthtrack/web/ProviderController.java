@@ -0,0 +1,42 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.ApiPage;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.service.ProviderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 提供者只读接口，按执照号顺序分页
+ * provider表规模小，读出全部后在内存中分页
+ */
+@RestController
+@RequestMapping("/api/providers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProviderController {
+
+    @Autowired
+    private ProviderService providerService;
+
+    @GetMapping
+    public ApiPage<Provider> list(@RequestParam(required = false) String after,
+                                  @RequestParam(defaultValue = "" + ApiPage.DEFAULT_PAGE_SIZE) int size) {
+        return ApiPage.slice(providerService.getAllProviders(), Provider::getLicenseNumber, after, ApiPage.pageSize(size));
+    }
+
+    @GetMapping("/{licenseNumber}")
+    public Provider get(@PathVariable String licenseNumber) {
+        Provider provider = providerService.getProviderById(licenseNumber);
+        if (provider == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "提供者不存在: " + licenseNumber);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,27 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.DashboardSnapshot;
+import org.healthtrack.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 系统统计只读接口，返回管理员统计面板使用的同一份快照
+ * 快照在刷新间隔内不变，ETag也不变，客户端轮询时多数请求得到304
+ */
+@RestController
+@RequestMapping("/api/stats")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StatsController {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @GetMapping
+    public DashboardSnapshot get() {
+        return dashboardStatsService.getSnapshot();
+    }
+}
@@ -0,0 +1,46 @@
+package org.healthtrack.web;
+
+import org.healthtrack.dto.ApiPage;
+import org.healthtrack.entity.User;
+import org.healthtrack.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 用户只读接口，按健康ID顺序分页，游标为上一页最后一个健康ID
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ApiPage<User> list(@RequestParam(required = false) String after,
+                              @RequestParam(defaultValue = "" + ApiPage.DEFAULT_PAGE_SIZE) int size) {
+        User afterUser = null;
+        if (after != null) {
+            afterUser = new User();
+            afterUser.setHealthId(after);
+        }
+        return ApiPage.of(userService.getUsersPage(afterUser, 0, ApiPage.pageSize(size)), User::getHealthId);
+    }
+
+    @GetMapping("/{healthId}")
+    public User get(@PathVariable String healthId) {
+        User user = userService.getUserById(healthId);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "用户不存在: " + healthId);
+        }
+        return user;
+    }
+}
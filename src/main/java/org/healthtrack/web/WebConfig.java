@@ -0,0 +1,69 @@
+package org.healthtrack.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+/**
+ * Web模式（application-web.properties）下REST接口的公共设置
+ * 所有 /api 请求先经过 {@link ApiKeyFilter} 校验密钥（healthtrack.api.key），未通过的请求不会到达控制器；
+ * 响应体的哈希作为ETag，请求带If-None-Match且内容未变时返回304不再传输正文；
+ * Cache-Control: no-cache 让客户端和负载均衡前的缓存每次都带ETag重新验证，而不是直接使用过期内容
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+
+    static final String API_PATTERN = "/api/**";
+
+    @Value("${healthtrack.api.key:}")
+    private String apiKey;
+
+    @Bean
+    public FilterRegistrationBean<ApiKeyFilter> apiKeyFilter() {
+        if (apiKey == null || apiKey.isBlank()) {
+            System.err.println("未配置 healthtrack.api.key，/api 下的请求将全部被拒绝");
+        }
+        FilterRegistrationBean<ApiKeyFilter> registration = new FilterRegistrationBean<>(new ApiKeyFilter(apiKey));
+        registration.addUrlPatterns("/api/*");
+        // 先于ETag等其他过滤器执行
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(etagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * 使用弱ETag：Tomcat不压缩带强ETag的响应（压缩后字节不同），弱ETag只表示内容语义相同，可与gzip同时使用
+     */
+    static ShallowEtagHeaderFilter etagHeaderFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(true);
+        return filter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(apiCacheInterceptor()).addPathPatterns(API_PATTERN);
+    }
+
+    static WebContentInterceptor apiCacheInterceptor() {
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.addCacheMapping(CacheControl.noCache(), API_PATTERN);
+        return interceptor;
+    }
+}
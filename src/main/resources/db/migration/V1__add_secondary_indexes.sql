@@ -0,0 +1,26 @@
+-- V1: Secondary indexes for the mapper query set
+-- init.sql only declares primary and foreign keys; these cover the WHERE / ORDER BY columns used by org.healthtrack.mapper
+
+-- health_report: per-user monthly lookups and month range queries
+CREATE INDEX idx_health_report_user_month ON health_report (user_id, report_month);
+CREATE INDEX idx_health_report_month ON health_report (report_month);
+
+-- appointment: per-user history ordered by time, status filters, date range search
+CREATE INDEX idx_appointment_user_time ON appointment (user_id, date_time);
+CREATE INDEX idx_appointment_status_time ON appointment (status, date_time);
+CREATE INDEX idx_appointment_time ON appointment (date_time);
+
+-- participation: rank within a challenge and completed participations
+CREATE INDEX idx_participation_challenge_progress ON participation (challenge_id, progress);
+CREATE INDEX idx_participation_progress ON participation (progress);
+
+-- invitation: status/expiry sweeps and lookups by invitee
+CREATE INDEX idx_invitation_status_expired ON invitation (status, expired_time);
+CREATE INDEX idx_invitation_contact ON invitation (invitee_contact);
+
+-- email lookups (login, identity resolution)
+CREATE INDEX idx_user_email_address ON user_email (email_address);
+CREATE INDEX idx_provider_email_address ON provider_email (email_address);
+
+-- provider: search by specialty
+CREATE INDEX idx_provider_specialty ON provider (specialty);
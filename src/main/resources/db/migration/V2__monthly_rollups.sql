@@ -0,0 +1,47 @@
+-- V2: Per-user monthly rollups of health_report and health_indicator
+-- Maintained by HealthReportServiceImpl on every report save/delete and repaired by MonthlyRollupRebuildJob
+-- report_month is stored as written to health_report (the first day of the month by convention); readers aggregate over month ranges
+
+CREATE TABLE IF NOT EXISTS monthly_user_rollup (
+    user_id VARCHAR(20) NOT NULL,
+    report_month DATE NOT NULL,
+    report_count INTEGER NOT NULL,
+    steps_count INTEGER NOT NULL,
+    steps_total BIGINT NOT NULL,
+    steps_min INTEGER,
+    steps_max INTEGER,
+    PRIMARY KEY (user_id, report_month),
+    FOREIGN KEY (user_id) REFERENCES app_user(health_id) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS monthly_indicator_rollup (
+    user_id VARCHAR(20) NOT NULL,
+    indicator_type VARCHAR(30) NOT NULL,
+    report_month DATE NOT NULL,
+    value_count INTEGER NOT NULL,
+    value_sum DOUBLE NOT NULL,
+    value_min DOUBLE NOT NULL,
+    value_max DOUBLE NOT NULL,
+    PRIMARY KEY (user_id, indicator_type, report_month),
+    FOREIGN KEY (user_id) REFERENCES app_user(health_id) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Seed both rollups from the existing rows; DELETE first so a retried V2 does not hit duplicate keys
+-- health_indicator rows written later by HealthIndicatorBackfillJob refresh their own months
+DELETE FROM monthly_user_rollup;
+
+INSERT INTO monthly_user_rollup
+    (user_id, report_month, report_count, steps_count, steps_total, steps_min, steps_max)
+SELECT user_id, report_month, COUNT(*), COUNT(total_steps), COALESCE(SUM(total_steps), 0),
+       MIN(total_steps), MAX(total_steps)
+FROM health_report
+GROUP BY user_id, report_month;
+
+DELETE FROM monthly_indicator_rollup;
+
+INSERT INTO monthly_indicator_rollup
+    (user_id, indicator_type, report_month, value_count, value_sum, value_min, value_max)
+SELECT user_id, indicator_type, report_month, COUNT(*), SUM(indicator_value),
+       MIN(indicator_value), MAX(indicator_value)
+FROM health_indicator
+GROUP BY user_id, indicator_type, report_month;
@@ -0,0 +1,7 @@
+-- V3: Track which extractor version parsed each report's indicators
+-- HealthIndicatorBackfillJob re-parses reports whose indicator_version is below HealthIndicatorExtractor.VERSION,
+-- including reports whose summary yields no indicator at all, instead of inferring completion from missing rows
+
+ALTER TABLE health_report ADD COLUMN indicator_version INT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_health_report_indicator_version ON health_report (indicator_version, report_id);
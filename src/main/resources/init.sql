@@ -138,6 +138,25 @@ CREATE TABLE IF NOT EXISTS challenge_report (
                                                 FOREIGN KEY (report_id) REFERENCES health_report(report_id) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- 14. Health Indicator Table (indicators parsed from health_report.summary at write time)
+CREATE TABLE IF NOT EXISTS health_indicator (
+                                                report_id VARCHAR(20),
+                                                indicator_type VARCHAR(30),
+                                                user_id VARCHAR(20) NOT NULL,
+                                                report_month DATE NOT NULL,
+                                                indicator_value DOUBLE NOT NULL,
+                                                PRIMARY KEY (report_id, indicator_type),
+                                                INDEX idx_health_indicator_user_type_month (user_id, indicator_type, report_month),
+                                                FOREIGN KEY (report_id) REFERENCES health_report(report_id) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 15. Schema Version Table (versioned migrations under db/migration applied after this script)
+CREATE TABLE IF NOT EXISTS schema_version (
+                                              version INTEGER PRIMARY KEY,
+                                              description VARCHAR(200),
+                                              applied_time DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Note: SET FOREIGN_KEY_CHECKS statement is commented because Spring Boot's SQL parser may not handle it correctly
 -- SET FOREIGN_KEY_CHECKS = 1;
 
@@ -0,0 +1,92 @@
+package org.healthtrack.config;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 结构迁移：部分生效的版本可以重新执行，迁移失败时启动失败
+ */
+class SchemaMigratorTests {
+
+	private PooledDataSource dataSource;
+
+	@AfterEach
+	void close() {
+		if (dataSource != null) {
+			dataSource.forceCloseAll();
+		}
+	}
+
+	@Test
+	void partiallyAppliedVersionCanBeRetried() throws Exception {
+		dataSource = createDataSource("migrator_retry");
+		runInitScript();
+		// 模拟V1执行到一半失败：前面的索引已创建（DDL已提交），但版本未记录
+		execute("CREATE INDEX idx_health_report_user_month ON health_report (user_id, report_month)");
+
+		SchemaMigrator migrator = createMigrator();
+		assertTrue(migrator.migrate() > 0);
+		assertEquals(0, migrator.migrate());
+		assertEquals(1, count("SELECT COUNT(*) FROM schema_version WHERE version = 1"));
+	}
+
+	@Test
+	void startupFailsWhenMigrationFails() {
+		// 未执行init.sql，schema_version表不存在
+		dataSource = createDataSource("migrator_failure");
+
+		assertThrows(IllegalStateException.class, () -> createMigrator().onStartup());
+	}
+
+	private PooledDataSource createDataSource(String name) {
+		return new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+	}
+
+	private SchemaMigrator createMigrator() {
+		SchemaMigrator migrator = new SchemaMigrator();
+		ReflectionTestUtils.setField(migrator, "dataSource", dataSource);
+		return migrator;
+	}
+
+	private void runInitScript() throws Exception {
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+	}
+
+	private void execute(String sql) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private int count(String sql) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
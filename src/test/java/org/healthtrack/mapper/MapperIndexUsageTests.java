@@ -0,0 +1,199 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.healthtrack.config.SchemaMigrator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 对所有注解式@Select执行EXPLAIN，大表上不允许出现全表扫描
+ * 使用H2（MySQL兼容模式）执行init.sql和db/migration下的迁移脚本后检查执行计划。
+ * 确实需要读取整张表的查询（全量列表、全表聚合）登记在FULL_SCAN_BY_DESIGN中。
+ */
+class MapperIndexUsageTests {
+
+	// 随用户数增长的表；family_group、provider、provider_email、wellness_challenge规模较小，不做要求
+	private static final Set<String> LARGE_TABLES = Set.of(
+			"app_user", "user_email", "user_provider_link", "health_report", "health_indicator",
+			"appointment", "appointment_provider", "invitation", "participation", "challenge_report",
+			"monthly_user_rollup", "monthly_indicator_rollup");
+
+	private static final Set<String> FULL_SCAN_BY_DESIGN = Set.of(
+			// 全量列表
+			"UserMapper.findAll", "UserEmailMapper.findAll", "UserProviderLinkMapper.findAll",
+			"HealthReportMapper.findAll", "AppointmentMapper.findAll", "AppointmentProviderMapper.findAll",
+			"InvitationMapper.findAll", "ParticipationMapper.findAll",
+			// 邀请对象候选：除已参与者外的全部用户
+			"UserMapper.findNotParticipating", "UserMapper.countNotParticipating",
+			// 按主键顺序流式读取整张表
+			"UserMapper.streamAll", "HealthReportMapper.streamAll", "IdentityMapper.streamAll",
+			// 全表计数与聚合
+			"UserMapper.countAll", "UserMapper.countByVerificationStatus",
+			"ActivityLeaderboardMapper.findMostActiveUsers", "DashboardStatsMapper.countByMetric",
+			"WellnessChallengeMapper.findMostPopular", "ParticipationMapper.findProgressBuckets",
+			// 前置通配符的模糊查询无法使用索引
+			"UserMapper.findByNameContaining",
+			// 认证状态只有两种取值，按状态列出用户本身就要读取大部分行
+			"UserMapper.findByVerificationStatus");
+
+	// H2执行计划中的表访问： FROM "public"."appointment" "a" /* public.idx_appointment_user_time: user_id = ?1 */
+	private static final Pattern TABLE_ACCESS = Pattern.compile(
+			"\"public\"\\.\"(\\w+)\"(?:\\s+\"?\\w+\"?)?\\s*/\\*\\s*([^*]*?)\\s*\\*/");
+
+	private static PooledDataSource dataSource;
+	private static Configuration configuration;
+
+	@BeforeAll
+	static void createSchema() throws Exception {
+		dataSource = new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:mapper_explain;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+
+		SchemaMigrator migrator = new SchemaMigrator();
+		ReflectionTestUtils.setField(migrator, "dataSource", dataSource);
+		assertTrue(migrator.migrate() > 0, "应至少执行一个迁移版本");
+		assertTrue(migrator.migrate() == 0, "已执行的版本不应重复执行");
+
+		configuration = new Configuration(new Environment("explain", new JdbcTransactionFactory(), dataSource));
+		configuration.setMapUnderscoreToCamelCase(true);
+		configuration.addMappers("org.healthtrack.mapper");
+	}
+
+	@AfterAll
+	static void close() {
+		dataSource.forceCloseAll();
+	}
+
+	@TestFactory
+	List<DynamicTest> selectQueriesAvoidFullScansOnLargeTables() {
+		List<DynamicTest> tests = new ArrayList<>();
+		List<Class<?>> mappers = new ArrayList<>(configuration.getMapperRegistry().getMappers());
+		mappers.sort(Comparator.comparing(Class::getSimpleName));
+		for (Class<?> mapper : mappers) {
+			for (Method method : mapper.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(Select.class)) {
+					String name = mapper.getSimpleName() + "." + method.getName();
+					tests.add(DynamicTest.dynamicTest(name, () -> checkPlan(name, mapper, method)));
+				}
+			}
+		}
+		return tests;
+	}
+
+	private void checkPlan(String name, Class<?> mapper, Method method) throws Exception {
+		MappedStatement statement = configuration.getMappedStatement(mapper.getName() + "." + method.getName());
+		Object parameter = new ParamNameResolver(configuration, method).getNamedParams(sampleArguments(method));
+		BoundSql boundSql = statement.getBoundSql(parameter);
+
+		StringBuilder plan = new StringBuilder();
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement ps = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+			new DefaultParameterHandler(statement, parameter, boundSql).setParameters(ps);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					plan.append(rs.getString(1)).append('\n');
+				}
+			}
+		}
+
+		if (FULL_SCAN_BY_DESIGN.contains(name)) {
+			return;
+		}
+		Matcher matcher = TABLE_ACCESS.matcher(plan);
+		while (matcher.find()) {
+			String table = matcher.group(1);
+			String access = matcher.group(2);
+			// tableScan或不带条件的索引遍历都会读完整张表
+			boolean fullScan = access.endsWith(".tableScan") || !access.contains(":");
+			if (fullScan && LARGE_TABLES.contains(table)) {
+				fail(name + " 在 " + table + " 上全表扫描:\n" + plan);
+			}
+		}
+	}
+
+	private static Object[] sampleArguments(Method method) {
+		Class<?>[] types = method.getParameterTypes();
+		Object[] args = new Object[types.length];
+		for (int i = 0; i < types.length; i++) {
+			args[i] = sampleValue(types[i]);
+		}
+		return args;
+	}
+
+	private static Object sampleValue(Class<?> type) {
+		if (type == String.class) {
+			return "sample";
+		} else if (type == int.class || type == Integer.class) {
+			return 10;
+		} else if (type == long.class || type == Long.class) {
+			return 10L;
+		} else if (type == boolean.class || type == Boolean.class) {
+			return Boolean.TRUE;
+		} else if (type == double.class || type == Double.class) {
+			return 1.0;
+		} else if (type == LocalDate.class) {
+			return LocalDate.of(2024, 1, 1);
+		} else if (type == LocalDateTime.class) {
+			return LocalDateTime.of(2024, 1, 1, 0, 0);
+		} else if (Collection.class.isAssignableFrom(type)) {
+			return List.of("sample1", "sample2");
+		} else if (type.getName().startsWith("org.healthtrack.")) {
+			return sampleBean(type);
+		}
+		throw new IllegalArgumentException("不支持的参数类型: " + type.getName());
+	}
+
+	// 条件对象：每个setter都填入示例值，使动态SQL的所有条件分支都出现在执行计划中
+	private static Object sampleBean(Class<?> type) {
+		try {
+			Object bean = type.getDeclaredConstructor().newInstance();
+			for (Method setter : type.getMethods()) {
+				if (setter.getName().startsWith("set") && setter.getParameterCount() == 1) {
+					setter.invoke(bean, sampleValue(setter.getParameterTypes()[0]));
+				}
+			}
+			return bean;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("无法构造参数对象: " + type.getName(), e);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.healthtrack.dto.UpsertResult;
+import org.healthtrack.entity.Invitation;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+import org.healthtrack.entity.WellnessChallenge;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 在H2（MySQL兼容模式）上执行各Mapper的upsert：新主键插入、已有主键更新、值未变化时不修改
+ * 默认语句为MySQL的ON DUPLICATE KEY UPDATE写法，databaseId为h2时使用MERGE写法，两种都要验证
+ */
+class UpsertMapperTests {
+
+	private static PooledDataSource dataSource;
+	private static SqlSessionManager sessionManager;
+	private static SqlSessionManager mergeSessionManager;
+
+	@BeforeAll
+	static void createSchema() throws Exception {
+		dataSource = new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:mapper_upsert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+
+		sessionManager = sessionManager(null);
+		mergeSessionManager = sessionManager("h2");
+	}
+
+	private static SqlSessionManager sessionManager(String databaseId) {
+		Configuration configuration = new Configuration(new Environment("upsert", new JdbcTransactionFactory(), dataSource));
+		configuration.setMapUnderscoreToCamelCase(true);
+		configuration.setDatabaseId(databaseId);
+		configuration.addMappers("org.healthtrack.mapper");
+		return SqlSessionManager.newInstance(new SqlSessionFactoryBuilder().build(configuration));
+	}
+
+	@AfterAll
+	static void close() {
+		dataSource.forceCloseAll();
+	}
+
+	@Test
+	void userUpsertInsertsThenUpdates() {
+		UserMapper mapper = sessionManager.getMapper(UserMapper.class);
+		User user = user("upsert001", "张三");
+
+		assertEquals(UpsertResult.INSERTED_OR_MATCHED, UpsertResult.of(mapper.upsert(user)));
+		assertEquals(UpsertResult.UNCHANGED, UpsertResult.of(mapper.upsert(user)));
+
+		user.setName("李四");
+		assertEquals(UpsertResult.UPDATED, UpsertResult.of(mapper.upsert(user)));
+		assertEquals("李四", mapper.findById("upsert001").getName());
+	}
+
+	@Test
+	void providerUpsertWritesOnlyProviderColumns() {
+		ProviderMapper mapper = sessionManager.getMapper(ProviderMapper.class);
+		Provider provider = new Provider("LIC-UPSERT", "王医生", "内科", "Unverified", "13800000000");
+
+		assertEquals(UpsertResult.INSERTED_OR_MATCHED, UpsertResult.of(mapper.upsert(provider)));
+		provider.setVerifiedStatus("Verified");
+		assertEquals(UpsertResult.UPDATED, UpsertResult.of(mapper.upsert(provider)));
+		assertEquals("Verified", mapper.findById("LIC-UPSERT").getVerifiedStatus());
+	}
+
+	@Test
+	void challengeAndInvitationUpsert() {
+		sessionManager.getMapper(UserMapper.class).upsert(user("upsert002", "赵六"));
+
+		WellnessChallengeMapper challengeMapper = sessionManager.getMapper(WellnessChallengeMapper.class);
+		WellnessChallenge challenge = new WellnessChallenge();
+		challenge.setChallengeId("CH-UPSERT");
+		challenge.setGoal("每天一万步");
+		challenge.setStartDate(LocalDate.of(2024, 1, 1));
+		challenge.setEndDate(LocalDate.of(2024, 1, 31));
+		challenge.setCreatorId("upsert002");
+		assertEquals(UpsertResult.INSERTED_OR_MATCHED, UpsertResult.of(challengeMapper.upsert(challenge)));
+		challenge.setGoal("每天两万步");
+		assertEquals(UpsertResult.UPDATED, UpsertResult.of(challengeMapper.upsert(challenge)));
+
+		InvitationMapper invitationMapper = sessionManager.getMapper(InvitationMapper.class);
+		Invitation invitation = new Invitation();
+		invitation.setInvitationId("INV-UPSERT");
+		invitation.setInviteeContact("a@example.com");
+		invitation.setSentTime(LocalDateTime.of(2024, 1, 1, 9, 0));
+		invitation.setExpiredTime(LocalDateTime.of(2024, 1, 8, 9, 0));
+		invitation.setStatus("Pending");
+		invitation.setInvitationType("Challenge");
+		invitation.setInviterId("upsert002");
+		invitation.setRelatedChallengeId("CH-UPSERT");
+		assertEquals(UpsertResult.INSERTED_OR_MATCHED, UpsertResult.of(invitationMapper.upsert(invitation)));
+		invitation.setStatus("Accepted");
+		assertEquals(UpsertResult.UPDATED, UpsertResult.of(invitationMapper.upsert(invitation)));
+		assertEquals("Accepted", invitationMapper.findById("INV-UPSERT").getStatus());
+	}
+
+	@Test
+	void h2MergeInsertsThenUpdates() {
+		UserMapper mapper = mergeSessionManager.getMapper(UserMapper.class);
+		User user = user("upsert003", "孙七");
+
+		assertEquals(1, mapper.upsert(user));
+		user.setName("周八");
+		// MERGE更新已有行也返回1，无法与插入区分
+		assertEquals(UpsertResult.INSERTED_OR_MATCHED, UpsertResult.of(mapper.upsert(user)));
+		assertEquals("周八", mapper.findById("upsert003").getName());
+
+		ProviderMapper providerMapper = mergeSessionManager.getMapper(ProviderMapper.class);
+		Provider provider = new Provider("LIC-MERGE", "吴医生", "外科", "Unverified", null);
+		providerMapper.upsert(provider);
+		provider.setSpecialty("骨科");
+		providerMapper.upsert(provider);
+		assertEquals("骨科", providerMapper.findById("LIC-MERGE").getSpecialty());
+	}
+
+	private static User user(String healthId, String name) {
+		User user = new User();
+		user.setHealthId(healthId);
+		user.setName(name);
+		user.setVerificationStatus("Unverified");
+		user.setRole("User");
+		return user;
+	}
+}
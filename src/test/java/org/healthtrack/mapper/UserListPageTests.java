@@ -0,0 +1,98 @@
+package org.healthtrack.mapper;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.healthtrack.dto.UserListItem;
+import org.healthtrack.entity.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 用户列表分页：主邮箱由同一条查询关联得到，多个邮箱不会让用户重复出现；
+ * 邀请对象分页排除已参与者和邀请人
+ */
+class UserListPageTests {
+
+	private static PooledDataSource dataSource;
+	private static SqlSessionManager sessionManager;
+
+	@BeforeAll
+	static void createSchema() throws Exception {
+		dataSource = new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:user_list_page;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+
+		Configuration configuration = new Configuration(new Environment("list", new JdbcTransactionFactory(), dataSource));
+		configuration.setMapUnderscoreToCamelCase(true);
+		configuration.addMappers("org.healthtrack.mapper");
+		sessionManager = SqlSessionManager.newInstance(new SqlSessionFactoryBuilder().build(configuration));
+	}
+
+	@AfterAll
+	static void close() {
+		dataSource.forceCloseAll();
+	}
+
+	@Test
+	void listPageMatchesUserPageWithPrimaryEmail() {
+		UserMapper mapper = sessionManager.getMapper(UserMapper.class);
+		User noEmail = new User();
+		noEmail.setHealthId("user000");
+		noEmail.setName("无邮箱");
+		mapper.upsert(noEmail);
+
+		List<User> users = mapper.findPage(null, 0, 4);
+		List<UserListItem> items = mapper.findListPage(null, 0, 4);
+
+		assertEquals(users.size(), items.size());
+		for (int i = 0; i < users.size(); i++) {
+			assertEquals(users.get(i).getHealthId(), items.get(i).getHealthId());
+			assertEquals(users.get(i).getName(), items.get(i).getName());
+		}
+		assertNull(items.get(0).getPrimaryEmail());
+		// user001有三个邮箱，只关联主邮箱
+		assertEquals("user001", items.get(1).getHealthId());
+		assertEquals("zhangsan@email.com", items.get(1).getPrimaryEmail());
+		assertEquals("lisi@email.com", items.get(2).getPrimaryEmail());
+
+		List<UserListItem> next = mapper.findListPage("user002", 1, 1);
+		assertEquals("user004", next.get(0).getHealthId());
+		assertEquals("zhaoliu@email.com", next.get(0).getPrimaryEmail());
+	}
+
+	@Test
+	void invitablePageSkipsParticipantsAndInviter() {
+		UserMapper mapper = sessionManager.getMapper(UserMapper.class);
+
+		// chal001的参与者为user001~user003，邀请人为user004
+		List<User> first = mapper.findNotParticipating("chal001", "user004", "user000", 0, 2);
+		assertEquals(List.of("user005", "user006"), first.stream().map(User::getHealthId).toList());
+		List<User> rest = mapper.findNotParticipating("chal001", "user004", "user006", 1, 10);
+		assertEquals(List.of("user008", "user009", "user010"), rest.stream().map(User::getHealthId).toList());
+
+		assertEquals(mapper.findNotParticipating("chal001", "user004", null, 0, 100).size(),
+				mapper.countNotParticipating("chal001", "user004"));
+	}
+}
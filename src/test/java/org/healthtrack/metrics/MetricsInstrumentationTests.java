@@ -0,0 +1,193 @@
+package org.healthtrack.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.healthtrack.dto.MonthlySteps;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.healthtrack.service.ChartDataService;
+import org.healthtrack.service.impl.ChartDataServiceImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 映射器拦截器按语句记录耗时、行数和失败次数并打印慢查询，服务切面按方法计时，指标导出为Prometheus文本和JSON文件
+ */
+class MetricsInstrumentationTests {
+
+	private static PooledDataSource dataSource;
+	private static SimpleMeterRegistry registry;
+	private static MapperMetricsInterceptor interceptor;
+	private static SqlSessionManager sessionManager;
+
+	@BeforeAll
+	static void createSchema() throws Exception {
+		dataSource = new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:mapper_metrics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+
+		registry = new SimpleMeterRegistry();
+		interceptor = new MapperMetricsInterceptor();
+		ReflectionTestUtils.setField(interceptor, "meterRegistry", registry);
+		ReflectionTestUtils.setField(interceptor, "slowQueryThresholdMs", Long.MAX_VALUE);
+
+		Configuration configuration = new Configuration(new Environment("metrics", new JdbcTransactionFactory(), dataSource));
+		configuration.setMapUnderscoreToCamelCase(true);
+		configuration.setDatabaseId("h2");
+		configuration.addMappers("org.healthtrack.mapper");
+		configuration.addInterceptor(interceptor);
+		sessionManager = SqlSessionManager.newInstance(new SqlSessionFactoryBuilder().build(configuration));
+	}
+
+	@AfterAll
+	static void close() {
+		dataSource.forceCloseAll();
+	}
+
+	@Test
+	void mapperCallsAreTimedWithRowCounts() {
+		UserMapper userMapper = sessionManager.getMapper(UserMapper.class);
+		userMapper.upsert(user("metrics01"));
+		userMapper.upsert(user("metrics02"));
+		userMapper.findById("metrics01");
+		int total = userMapper.findAll().size();
+
+		Timer findById = registry.get(MapperMetricsInterceptor.CALLS)
+				.tags("statement", "UserMapper.findById", "command", "select", "outcome", "success").timer();
+		assertEquals(1, findById.count());
+		assertEquals(3, findById.takeSnapshot().percentileValues().length);
+		assertEquals(2, registry.get(MapperMetricsInterceptor.CALLS)
+				.tags("statement", "UserMapper.upsert", "command", "insert", "outcome", "success").timer().count());
+		assertEquals(total, registry.get(MapperMetricsInterceptor.ROWS)
+				.tags("statement", "UserMapper.findAll").summary().totalAmount());
+		assertEquals(2, registry.get(MapperMetricsInterceptor.ROWS)
+				.tags("statement", "UserMapper.upsert").summary().totalAmount());
+	}
+
+	@Test
+	void failedStatementsAreCountedByException() {
+		UserMapper userMapper = sessionManager.getMapper(UserMapper.class);
+		userMapper.insert(user("metrics03"));
+
+		assertThrows(Exception.class, () -> userMapper.insert(user("metrics03")));
+
+		assertEquals(1, registry.get(MapperMetricsInterceptor.ERRORS)
+				.tags("statement", "UserMapper.insert").counter().count());
+		assertEquals(1, registry.get(MapperMetricsInterceptor.CALLS)
+				.tags("statement", "UserMapper.insert", "outcome", "error").timer().count());
+	}
+
+	@Test
+	void slowStatementsAreLoggedWithSql() {
+		PrintStream originalErr = System.err;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+		ReflectionTestUtils.setField(interceptor, "slowQueryThresholdMs", 0L);
+		try {
+			System.setErr(new PrintStream(captured, true, StandardCharsets.UTF_8));
+			sessionManager.getMapper(UserMapper.class).findById("metrics01");
+		} finally {
+			System.setErr(originalErr);
+			ReflectionTestUtils.setField(interceptor, "slowQueryThresholdMs", Long.MAX_VALUE);
+		}
+
+		String log = captured.toString(StandardCharsets.UTF_8);
+		assertTrue(log.contains("慢查询 UserMapper.findById"), log);
+		assertTrue(log.contains("SELECT * FROM app_user WHERE health_id = ?"), log);
+	}
+
+	@Test
+	void serviceCallsAreTimedByMethod() {
+		SimpleMeterRegistry serviceRegistry = new SimpleMeterRegistry();
+		ServiceMetricsAspect aspect = new ServiceMetricsAspect();
+		ReflectionTestUtils.setField(aspect, "meterRegistry", serviceRegistry);
+		MonthlyRollupMapper monthlyRollupMapper = mock(MonthlyRollupMapper.class);
+		when(monthlyRollupMapper.findMonthlySteps(any(), any(), any())).thenReturn(List.of(new MonthlySteps()));
+		ChartDataServiceImpl target = new ChartDataServiceImpl();
+		ReflectionTestUtils.setField(target, "monthlyRollupMapper", monthlyRollupMapper);
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(aspect);
+		ChartDataService service = factory.getProxy();
+
+		service.getMonthlySteps("user001", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 1));
+		service.getMonthlySteps("user001", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 1));
+
+		Timer timer = serviceRegistry.get(ServiceMetricsAspect.CALLS)
+				.tags("service", "ChartDataService", "method", "getMonthlySteps", "outcome", "success").timer();
+		assertEquals(2, timer.count());
+	}
+
+	@Test
+	void exportWritesPrometheusTextAndJson(@TempDir Path dir) throws Exception {
+		PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		Timer.builder(MapperMetricsInterceptor.CALLS)
+				.tag("statement", "UserMapper.findById")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(prometheus)
+				.record(12, TimeUnit.MILLISECONDS);
+		MetricsFileExporter exporter = new MetricsFileExporter();
+		ReflectionTestUtils.setField(exporter, "meterRegistry", prometheus);
+		ReflectionTestUtils.setField(exporter, "prometheusMeterRegistry", prometheus);
+		ReflectionTestUtils.setField(exporter, "exportDir", dir.toString());
+
+		assertEquals(1, exporter.export());
+
+		String text = Files.readString(dir.resolve(MetricsFileExporter.PROMETHEUS_FILE));
+		assertTrue(text.contains("healthtrack_mapper_calls_seconds_count{statement=\"UserMapper.findById\",} 1.0"), text);
+		JsonNode meter = new ObjectMapper().readTree(dir.resolve(MetricsFileExporter.JSON_FILE).toFile())
+				.get("meters").get(0);
+		assertEquals(MapperMetricsInterceptor.CALLS, meter.get("name").asText());
+		assertEquals("UserMapper.findById", meter.get("tags").get("statement").asText());
+		assertEquals(1.0, meter.get("measurements").get("count").asDouble());
+		assertNotNull(meter.get("percentiles").get("0.99"));
+	}
+
+	private static User user(String healthId) {
+		User user = new User();
+		user.setHealthId(healthId);
+		user.setName(healthId);
+		return user;
+	}
+}
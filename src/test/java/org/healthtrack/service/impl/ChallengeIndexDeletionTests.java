@@ -0,0 +1,157 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.ChallengeWithParticipants;
+import org.healthtrack.dto.ProgressBucket;
+import org.healthtrack.entity.Participation;
+import org.healthtrack.entity.WellnessChallenge;
+import org.healthtrack.mapper.ParticipationMapper;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 删除用户或挑战后，内存中的挑战热度和排名索引不再保留级联删除掉的参与记录；
+ * 与加载并发提交的参与记录不会被重复计数
+ */
+class ChallengeIndexDeletionTests {
+
+	@Test
+	void popularityIndexReloadsAfterUserDeleted() {
+		WellnessChallengeMapper challengeMapper = mock(WellnessChallengeMapper.class);
+		when(challengeMapper.findMostPopular(0))
+				.thenReturn(List.of(popular("ch001", 3), popular("ch002", 1)))
+				.thenReturn(List.of(popular("ch001", 2)));
+		ChallengePopularityIndex index = new ChallengePopularityIndex();
+		ReflectionTestUtils.setField(index, "challengeMapper", challengeMapper);
+		ReflectionTestUtils.setField(index, "enabled", true);
+
+		assertEquals(Map.of("ch001", 3, "ch002", 1), index.topChallenges(0));
+		index.userDeleted();
+
+		assertEquals(Map.of("ch001", 2), index.topChallenges(0));
+		verify(challengeMapper, times(2)).findMostPopular(0);
+	}
+
+	@Test
+	void joinCommittedDuringLoadIsNotCountedTwice() {
+		WellnessChallengeMapper challengeMapper = mock(WellnessChallengeMapper.class);
+		// 加载时已能看到刚提交的参与记录
+		when(challengeMapper.findMostPopular(0)).thenReturn(List.of(popular("ch001", 2)));
+		ChallengePopularityIndex index = new ChallengePopularityIndex();
+		ReflectionTestUtils.setField(index, "challengeMapper", challengeMapper);
+		ReflectionTestUtils.setField(index, "enabled", true);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.participantJoined("ch001");
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+			assertEquals(Map.of("ch001", 2), index.topChallenges(0));
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(Map.of("ch001", 2), index.topChallenges(0));
+		verify(challengeMapper, times(2)).findMostPopular(0);
+	}
+
+	@Test
+	void joinCommittedAfterLoadIsApplied() {
+		WellnessChallengeMapper challengeMapper = mock(WellnessChallengeMapper.class);
+		when(challengeMapper.findMostPopular(0)).thenReturn(List.of(popular("ch001", 1)));
+		ChallengePopularityIndex index = new ChallengePopularityIndex();
+		ReflectionTestUtils.setField(index, "challengeMapper", challengeMapper);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		assertEquals(Map.of("ch001", 1), index.topChallenges(0));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.participantJoined("ch001");
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(Map.of("ch001", 2), index.topChallenges(0));
+		verify(challengeMapper, times(1)).findMostPopular(0);
+	}
+
+	@Test
+	void rankingIndexDropsDeletedChallenge() {
+		ChallengeRankingIndex index = rankingIndex(mock(WellnessChallengeMapper.class),
+				bucket("ch001", 80, 2), bucket("ch001", 50, 1));
+		assertEquals(4, index.rankOf("ch001", 10));
+
+		index.challengeDeleted("ch001");
+
+		// 同一ID重新创建的挑战不继承原来的进度分布
+		assertEquals(1, index.rankOf("ch001", 10));
+	}
+
+	@Test
+	void rankingIndexSubtractsDeletedUsersParticipations() {
+		WellnessChallengeMapper challengeMapper = mock(WellnessChallengeMapper.class);
+		ChallengeRankingIndex index = rankingIndex(challengeMapper,
+				bucket("ch001", 80, 2), bucket("ch001", 50, 1), bucket("ch002", 90, 4));
+		ParticipationMapper participationMapper =
+				(ParticipationMapper) ReflectionTestUtils.getField(index, "participationMapper");
+		when(participationMapper.findByUserId("user001")).thenReturn(List.of(participation("ch001", 80)));
+		WellnessChallenge created = new WellnessChallenge();
+		created.setChallengeId("ch002");
+		when(challengeMapper.findByCreatorId("user001")).thenReturn(List.of(created));
+
+		index.userDeleting("user001");
+
+		assertEquals(3, index.rankOf("ch001", 10));
+		assertEquals(1, index.rankOf("ch002", 10));
+	}
+
+	private static ChallengeRankingIndex rankingIndex(WellnessChallengeMapper challengeMapper, ProgressBucket... buckets) {
+		ParticipationMapper participationMapper = mock(ParticipationMapper.class);
+		when(participationMapper.findProgressBuckets()).thenReturn(List.of(buckets));
+		ChallengeRankingIndex index = new ChallengeRankingIndex();
+		ReflectionTestUtils.setField(index, "participationMapper", participationMapper);
+		ReflectionTestUtils.setField(index, "challengeMapper", challengeMapper);
+		index.rebuild();
+		return index;
+	}
+
+	private static ProgressBucket bucket(String challengeId, int progress, int participantCount) {
+		ProgressBucket bucket = new ProgressBucket();
+		bucket.setChallengeId(challengeId);
+		bucket.setProgress(progress);
+		bucket.setParticipantCount(participantCount);
+		return bucket;
+	}
+
+	private static Participation participation(String challengeId, int progress) {
+		Participation participation = new Participation();
+		participation.setHealthId("user001");
+		participation.setChallengeId(challengeId);
+		participation.setProgress(progress);
+		return participation;
+	}
+
+	private static ChallengeWithParticipants popular(String challengeId, int participantCount) {
+		WellnessChallenge challenge = new WellnessChallenge();
+		challenge.setChallengeId(challengeId);
+		ChallengeWithParticipants cwp = new ChallengeWithParticipants();
+		cwp.setChallenge(challenge);
+		cwp.setParticipantCount(participantCount);
+		return cwp;
+	}
+}
@@ -0,0 +1,70 @@
+package org.healthtrack.service.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.healthtrack.dto.ConnectionPoolStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 连接池统计：从HikariCP的Micrometer指标读出使用中、空闲连接数和获取连接耗时百分位
+ */
+class ConnectionPoolStatsTests {
+
+	@Test
+	void statisticsReflectBorrowedConnections() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		// 与management.metrics.distribution.percentiles配置的效果相同
+		registry.config().meterFilter(new MeterFilter() {
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				return DistributionStatisticConfig.builder().percentiles(0.5, 0.95, 0.99).build().merge(config);
+			}
+		});
+		ConnectionPoolStatsServiceImpl service = new ConnectionPoolStatsServiceImpl();
+		ReflectionTestUtils.setField(service, "meterRegistry", registry);
+
+		try (HikariDataSource dataSource = new HikariDataSource()) {
+			dataSource.setJdbcUrl("jdbc:h2:mem:pool_stats;MODE=MySQL;DB_CLOSE_DELAY=-1");
+			dataSource.setPoolName("TestPool");
+			dataSource.setMaximumPoolSize(4);
+			dataSource.setMinimumIdle(4);
+			dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+			try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+				assertFalse(first.isClosed());
+				assertFalse(second.isClosed());
+				List<ConnectionPoolStatistics> statistics = service.getPoolStatistics();
+				assertEquals(1, statistics.size());
+				ConnectionPoolStatistics pool = statistics.get(0);
+				assertEquals("TestPool", pool.getPoolName());
+				assertEquals(2, pool.getActive());
+				assertEquals(0, pool.getPending());
+				assertEquals(4, pool.getMax());
+				assertEquals(2, pool.getAcquireCount());
+				assertFalse(Double.isNaN(pool.getAcquireP99Ms()));
+				assertTrue(pool.getAcquireP50Ms() <= pool.getAcquireP99Ms());
+				assertEquals(0, pool.getTimeoutCount());
+			}
+		}
+	}
+
+	@Test
+	void noPoolsWithoutMetrics() {
+		ConnectionPoolStatsServiceImpl service = new ConnectionPoolStatsServiceImpl();
+		ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+
+		assertTrue(service.getPoolStatistics().isEmpty());
+	}
+}
@@ -0,0 +1,120 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.ParticipationMapper;
+import org.healthtrack.mapper.UserEmailMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.healthtrack.mapper.UserProviderLinkMapper;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 统计方法只能走COUNT查询，不能加载实体列表后再取size
+ */
+@ExtendWith(MockitoExtension.class)
+class CountQueryTests {
+
+	@Mock
+	private UserMapper userMapper;
+
+	@Mock
+	private UserEmailMapper userEmailMapper;
+
+	@Mock
+	private HealthReportMapper healthReportMapper;
+
+	@Mock
+	private ParticipationMapper participationMapper;
+
+	@Mock
+	private WellnessChallengeMapper challengeMapper;
+
+	@Mock
+	private UserProviderLinkMapper userProviderLinkMapper;
+
+	@InjectMocks
+	private UserServiceImpl userService;
+
+	@InjectMocks
+	private HealthReportServiceImpl healthReportService;
+
+	@InjectMocks
+	private ParticipationServiceImpl participationService;
+
+	@InjectMocks
+	private WellnessChallengeServiceImpl challengeService;
+
+	@InjectMocks
+	private UserProviderLinkServiceImpl userProviderLinkService;
+
+	@Test
+	void userCountsUseCountQueries() {
+		when(userMapper.countAll()).thenReturn(200_000);
+		when(userMapper.countByVerificationStatus("Verified")).thenReturn(150_000);
+		when(userEmailMapper.countByUserId("user001")).thenReturn(3);
+
+		assertEquals(200_000, userService.getTotalUserCount());
+		assertEquals(150_000, userService.getVerifiedUserCount());
+		assertEquals(3, userService.getUserEmailCount("user001"));
+
+		verify(userMapper).countAll();
+		verify(userMapper).countByVerificationStatus("Verified");
+		verify(userEmailMapper).countByUserId("user001");
+		verifyNoMoreInteractions(userMapper, userEmailMapper);
+	}
+
+	@Test
+	void healthReportCountUsesCountQuery() {
+		when(healthReportMapper.countByUserId("user001")).thenReturn(42);
+
+		assertEquals(42, healthReportService.countReportsByUser("user001"));
+
+		verify(healthReportMapper).countByUserId("user001");
+		verifyNoMoreInteractions(healthReportMapper);
+	}
+
+	@Test
+	void participationCountsUseCountQueries() {
+		when(participationMapper.countParticipantsByChallenge("chal001")).thenReturn(5_000);
+		when(participationMapper.countChallengesByUser("user001")).thenReturn(7);
+
+		assertEquals(5_000, participationService.countChallengeParticipants("chal001"));
+		assertEquals(7, participationService.countUserParticipations("user001"));
+
+		verify(participationMapper).countParticipantsByChallenge("chal001");
+		verify(participationMapper).countChallengesByUser("user001");
+		verifyNoMoreInteractions(participationMapper);
+	}
+
+	@Test
+	void challengeCountUsesCountQuery() {
+		when(challengeMapper.countByCreatorId("user001")).thenReturn(4);
+
+		assertEquals(4, challengeService.countChallengesByUser("user001"));
+
+		verify(challengeMapper).countByCreatorId("user001");
+		verifyNoMoreInteractions(challengeMapper);
+	}
+
+	@Test
+	void providerLinkCountsUseCountQueries() {
+		when(userProviderLinkMapper.countByProviderId("doc001")).thenReturn(12);
+		when(userProviderLinkMapper.countByUserId("user001")).thenReturn(2);
+
+		assertEquals(12, userProviderLinkService.countUsersByProvider("doc001"));
+		assertEquals(2, userProviderLinkService.countProvidersByUser("user001"));
+
+		verify(userProviderLinkMapper).countByProviderId("doc001");
+		verify(userProviderLinkMapper).countByUserId("user001");
+		verifyNoMoreInteractions(userProviderLinkMapper);
+	}
+}
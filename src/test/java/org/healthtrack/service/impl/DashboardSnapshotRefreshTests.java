@@ -0,0 +1,64 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.mapper.ActivityLeaderboardMapper;
+import org.healthtrack.mapper.DashboardStatsMapper;
+import org.healthtrack.mapper.WellnessChallengeMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 统计快照后台刷新：有效期内有人读取时刷新，最近读取超过有效期后停止查询
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardSnapshotRefreshTests {
+
+	@Mock
+	private DashboardStatsMapper dashboardStatsMapper;
+
+	@Mock
+	private ActivityLeaderboardMapper activityLeaderboardMapper;
+
+	@Mock
+	private WellnessChallengeMapper challengeMapper;
+
+	@InjectMocks
+	private DashboardStatsServiceImpl dashboardStatsService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(dashboardStatsService, "snapshotTtlMs", 60_000L);
+	}
+
+	@Test
+	void backgroundRefreshRunsWhileSnapshotIsRead() {
+		dashboardStatsService.getSnapshot();
+		dashboardStatsService.refreshInBackground();
+
+		verify(dashboardStatsMapper, times(2)).countByMetric();
+	}
+
+	@Test
+	void backgroundRefreshStopsAfterReadsStop() {
+		dashboardStatsService.getSnapshot();
+		// 最近一次读取已超过有效期
+		ReflectionTestUtils.setField(dashboardStatsService, "lastReadMillis", System.currentTimeMillis() - 120_000L);
+		dashboardStatsService.refreshInBackground();
+
+		verify(dashboardStatsMapper, times(1)).countByMetric();
+	}
+
+	@Test
+	void nothingIsQueriedBeforeFirstRead() {
+		dashboardStatsService.refreshInBackground();
+
+		verify(dashboardStatsMapper, times(0)).countByMetric();
+	}
+}
@@ -0,0 +1,98 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.mapper.HealthIndicatorMapper;
+import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 健康指标回填：启动时仅在存在indicator_version落后于当前规则的报告时执行回填，解析后记录版本
+ */
+@ExtendWith(MockitoExtension.class)
+class HealthIndicatorBackfillJobTests {
+
+	@Mock
+	private HealthReportMapper healthReportMapper;
+
+	@Mock
+	private HealthIndicatorMapper healthIndicatorMapper;
+
+	@Mock
+	private MonthlyRollupMapper monthlyRollupMapper;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private HealthIndicatorBackfillJob job;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(job, "backfillOnStartup", true);
+		ReflectionTestUtils.setField(job, "batchSize", 100);
+		lenient().when(transactionTemplate.execute(any())).thenAnswer(
+				invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	@Test
+	void startupSkipsWhenEveryReportIsCurrent() {
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "", 1)).thenReturn(List.of());
+
+		job.onApplicationReady();
+
+		verify(healthReportMapper, never()).findPageBelowIndicatorVersion(eq(HealthIndicatorExtractor.VERSION), any(), eq(100));
+		verify(healthIndicatorMapper, never()).insertAll(anyList());
+	}
+
+	@Test
+	void startupBackfillsOutdatedReports() {
+		HealthReport report = new HealthReport("r1", LocalDate.of(2024, 1, 1), "u1");
+		report.setSummary("体重: 70kg 心率: 72");
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "", 1)).thenReturn(List.of(report));
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "", 100)).thenReturn(List.of(report));
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "r1", 100)).thenReturn(List.of());
+		when(healthIndicatorMapper.insertAll(anyList())).thenReturn(2);
+
+		job.onApplicationReady();
+
+		verify(healthIndicatorMapper).deleteByReportIds(List.of("r1"));
+		verify(healthIndicatorMapper).insertAll(anyList());
+		verify(healthReportMapper).markIndicatorVersion(List.of("r1"), HealthIndicatorExtractor.VERSION);
+		verify(monthlyRollupMapper).deleteIndicatorMonth("u1", LocalDate.of(2024, 1, 1));
+		verify(monthlyRollupMapper).insertIndicatorMonth("u1", LocalDate.of(2024, 1, 1));
+	}
+
+	@Test
+	void reportWithoutIndicatorsIsStillMarked() {
+		HealthReport report = new HealthReport("r1", LocalDate.of(2024, 1, 1), "u1");
+		report.setSummary("一切正常");
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "", 100)).thenReturn(List.of(report));
+		when(healthReportMapper.findPageBelowIndicatorVersion(HealthIndicatorExtractor.VERSION, "r1", 100)).thenReturn(List.of());
+
+		job.backfill();
+
+		verify(healthIndicatorMapper, never()).insertAll(anyList());
+		verify(healthReportMapper).markIndicatorVersion(List.of("r1"), HealthIndicatorExtractor.VERSION);
+	}
+}
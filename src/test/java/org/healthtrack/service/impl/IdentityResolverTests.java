@@ -0,0 +1,138 @@
+package org.healthtrack.service.impl;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.healthtrack.dto.EmailIdentity;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.IdentityMapper;
+import org.healthtrack.service.ProviderService;
+import org.healthtrack.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录身份解析：内存索引命中时不查询邮箱表，未命中时一次UNION查询并补充索引，邮箱变化后重新查询
+ */
+@ExtendWith(MockitoExtension.class)
+class IdentityResolverTests {
+
+	@Mock
+	private IdentityMapper identityMapper;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private ProviderService providerService;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	private final EmailIdentityIndex emailIdentityIndex = new EmailIdentityIndex();
+
+	@InjectMocks
+	private IdentityResolverImpl identityResolver;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(emailIdentityIndex, "identityMapper", identityMapper);
+		ReflectionTestUtils.setField(emailIdentityIndex, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(emailIdentityIndex, "enabled", true);
+		ReflectionTestUtils.setField(identityResolver, "emailIdentityIndex", emailIdentityIndex);
+	}
+
+	@Test
+	void unknownEmailIsQueriedOnceThenServedFromIndex() {
+		User user = new User();
+		when(identityMapper.findByEmail("zhangsan@email.com"))
+				.thenReturn(List.of(new EmailIdentity("zhangsan@email.com", EmailIdentity.USER, "user001")));
+		when(userService.getUserById("user001")).thenReturn(user);
+
+		assertSame(user, identityResolver.resolveUser("zhangsan@email.com"));
+		assertSame(user, identityResolver.resolveUser("ZhangSan@Email.com"));
+
+		verify(identityMapper, times(1)).findByEmail(any());
+		verify(userService, times(2)).getUserById("user001");
+	}
+
+	@Test
+	void roleMismatchReturnsNull() {
+		when(identityMapper.findByEmail("zhangsan@email.com"))
+				.thenReturn(List.of(new EmailIdentity("zhangsan@email.com", EmailIdentity.USER, "user001")));
+
+		assertNull(identityResolver.resolveProvider("zhangsan@email.com"));
+		verify(providerService, never()).getProviderById(any());
+	}
+
+	@Test
+	void changedEmailIsQueriedAgain() {
+		when(identityMapper.findByEmail("doc@email.com"))
+				.thenReturn(List.of(new EmailIdentity("doc@email.com", EmailIdentity.PROVIDER, "doc001")))
+				.thenReturn(List.of());
+		when(providerService.getProviderById("doc001")).thenReturn(new Provider());
+
+		identityResolver.resolveProvider("doc@email.com");
+		emailIdentityIndex.emailsChanged(List.of("doc@email.com"));
+
+		assertNull(identityResolver.resolveProvider("doc@email.com"));
+		verify(identityMapper, times(2)).findByEmail("doc@email.com");
+	}
+
+	@Test
+	void staleResultIsNotLearnedAfterEmailChanged() {
+		// 查询返回旧身份期间该邮箱被删除并提交
+		when(identityMapper.findByEmail("doc@email.com")).thenAnswer(invocation -> {
+			emailIdentityIndex.emailsChanged(List.of("doc@email.com"));
+			return List.of(new EmailIdentity("doc@email.com", EmailIdentity.PROVIDER, "doc001"));
+		}).thenReturn(List.of());
+
+		identityResolver.resolve("doc@email.com");
+
+		assertNull(emailIdentityIndex.lookup(EmailIdentity.PROVIDER, "doc@email.com"));
+		assertNull(identityResolver.resolve("doc@email.com"));
+		verify(identityMapper, times(2)).findByEmail("doc@email.com");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void rebuildLoadsAllEmails() {
+		Cursor<EmailIdentity> cursor = mock(Cursor.class);
+		when(cursor.iterator()).thenReturn(List.of(
+				new EmailIdentity("zhangsan@email.com", EmailIdentity.USER, "user001"),
+				new EmailIdentity("doc@email.com", EmailIdentity.PROVIDER, "doc001")).iterator());
+		when(identityMapper.streamAll()).thenReturn(cursor);
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		assertEquals(2, emailIdentityIndex.rebuild());
+
+		EmailIdentity identity = identityResolver.resolve("doc@email.com");
+		assertEquals(EmailIdentity.PROVIDER, identity.getIdentityType());
+		assertEquals("doc001", identity.getIdentityId());
+		assertEquals("user001", identityResolver.resolve("zhangsan@email.com").getIdentityId());
+		verify(identityMapper, never()).findByEmail(any());
+	}
+}
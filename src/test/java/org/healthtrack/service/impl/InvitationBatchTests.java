@@ -0,0 +1,131 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.InviteeContact;
+import org.healthtrack.dto.KeysetPage;
+import org.healthtrack.entity.Invitation;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.InvitationMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量邀请：被邀请人按批查询，邀请按批多行插入，不再逐个查询邮箱和逐条保存
+ */
+@ExtendWith(MockitoExtension.class)
+class InvitationBatchTests {
+
+	@Mock
+	private InvitationMapper invitationMapper;
+
+	@Mock
+	private UserMapper userMapper;
+
+	@InjectMocks
+	private InvitationServiceImpl invitationService;
+
+	@Test
+	void largeCohortIsInvitedWithBoundedNumberOfStatements() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			ids.add("user" + i);
+		}
+		when(invitationMapper.findInviteeContacts(eq("CH001"), anyCollection())).thenAnswer(invocation -> {
+			Collection<String> chunk = invocation.getArgument(1);
+			return chunk.stream().map(id -> contact(id, id + "@email.com")).toList();
+		});
+		List<Invitation> inserted = new ArrayList<>();
+		when(invitationMapper.insertAll(anyList())).thenAnswer(invocation -> {
+			List<Invitation> chunk = invocation.getArgument(0);
+			assertEquals(InvitationMapper.MAX_BATCH_SIZE, chunk.size());
+			inserted.addAll(chunk);
+			return chunk.size();
+		});
+
+		assertEquals(5000, invitationService.inviteAll("CH001", "owner", ids));
+
+		verify(invitationMapper, times(10)).findInviteeContacts(eq("CH001"), anyCollection());
+		verify(invitationMapper, times(10)).insertAll(anyList());
+		verify(invitationMapper, never()).findById(any());
+		verify(invitationMapper, never()).insert(any());
+		Set<String> invitationIds = new HashSet<>();
+		inserted.forEach(invitation -> invitationIds.add(invitation.getInvitationId()));
+		assertEquals(5000, invitationIds.size());
+	}
+
+	@Test
+	void participantsAreSkippedAndContactFallsBackToHealthId() {
+		when(invitationMapper.findInviteeContacts("CH001", List.of("user001", "user002")))
+				.thenReturn(List.of(contact("user002", null)));
+		List<Invitation> inserted = new ArrayList<>();
+		when(invitationMapper.insertAll(anyList())).thenAnswer(invocation -> {
+			inserted.addAll(invocation.getArgument(0));
+			return inserted.size();
+		});
+
+		int invited = invitationService.inviteAll("CH001", "owner",
+				Arrays.asList("user001", "owner", null, "user002", "user001"));
+
+		assertEquals(1, invited);
+		Invitation invitation = inserted.get(0);
+		assertEquals("user002", invitation.getInviteeContact());
+		assertEquals("owner", invitation.getInviterId());
+		assertEquals("CH001", invitation.getRelatedChallengeId());
+		assertEquals("Pending", invitation.getStatus());
+		assertEquals(invitation.getSentTime().plusDays(InvitationServiceImpl.CHALLENGE_INVITATION_VALID_DAYS),
+				invitation.getExpiredTime());
+	}
+
+	@Test
+	void nobodyToInviteSkipsQueries() {
+		assertEquals(0, invitationService.inviteAll("CH001", "owner", List.of("owner")));
+		verify(invitationMapper, never()).findInviteeContacts(any(), anyCollection());
+		verify(invitationMapper, never()).insertAll(anyList());
+	}
+
+	@Test
+	void invitableUsersArePagedAfterLastUser() {
+		when(userMapper.findNotParticipating("CH001", "owner", "user001", 0, 3))
+				.thenReturn(List.of(user("user002"), user("user003"), user("user004")));
+
+		KeysetPage<User> page = invitationService.getInvitableUsersPage("CH001", "owner", user("user001"), 0, 2);
+
+		assertEquals(2, page.getItems().size());
+		assertEquals("user003", page.getItems().get(1).getHealthId());
+		assertTrue(page.hasNext());
+	}
+
+	private static InviteeContact contact(String healthId, String primaryEmail) {
+		InviteeContact contact = new InviteeContact();
+		contact.setHealthId(healthId);
+		contact.setPrimaryEmail(primaryEmail);
+		return contact;
+	}
+
+	private static User user(String healthId) {
+		User user = new User();
+		user.setHealthId(healthId);
+		return user;
+	}
+}
@@ -0,0 +1,80 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.dto.ExpirySweepStatistics;
+import org.healthtrack.mapper.InvitationMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 邀请过期清理：按批执行UPDATE直到某批不满，每批一个事务，并累计过期行数和耗时
+ */
+@ExtendWith(MockitoExtension.class)
+class InvitationExpirySweeperTests {
+
+	@Mock
+	private InvitationMapper invitationMapper;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private InvitationExpirySweeper sweeper;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(sweeper, "batchSize", 100);
+		lenient().when(transactionTemplate.execute(any())).thenAnswer(
+				invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	@Test
+	void nonPositiveBatchSizeIsRejectedAtStartup() {
+		sweeper.validate();
+		ReflectionTestUtils.setField(sweeper, "batchSize", 0);
+
+		assertThrows(IllegalStateException.class, () -> sweeper.validate());
+	}
+
+	@Test
+	void sweepRunsChunksUntilPartialBatch() {
+		when(invitationMapper.expirePending(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 30);
+
+		assertEquals(230, sweeper.sweep());
+
+		verify(invitationMapper, times(3)).expirePending(any(LocalDateTime.class), eq(100));
+		verify(transactionTemplate, times(3)).execute(any());
+	}
+
+	@Test
+	void statisticsAccumulateAcrossSweeps() {
+		when(invitationMapper.expirePending(any(LocalDateTime.class), eq(100))).thenReturn(5, 0);
+
+		sweeper.sweep();
+		sweeper.sweep();
+
+		ExpirySweepStatistics stats = sweeper.getStatistics();
+		assertEquals(2, stats.getSweepCount());
+		assertEquals(5, stats.getTotalExpired());
+		assertEquals(0, stats.getLastExpired());
+		assertNotNull(stats.getLastSweepTime());
+	}
+}
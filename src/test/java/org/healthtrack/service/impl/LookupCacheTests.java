@@ -0,0 +1,250 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.config.CacheConfig;
+import org.healthtrack.dto.CacheStatistics;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.ProviderEmail;
+import org.healthtrack.entity.User;
+import org.healthtrack.entity.UserEmail;
+import org.healthtrack.mapper.ActivityLeaderboardMapper;
+import org.healthtrack.mapper.IdentityMapper;
+import org.healthtrack.mapper.ProviderEmailMapper;
+import org.healthtrack.mapper.ProviderMapper;
+import org.healthtrack.mapper.UserEmailMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.healthtrack.service.CacheStatsService;
+import org.healthtrack.service.ProviderService;
+import org.healthtrack.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户和提供者查询缓存：重复查询只访问一次数据库，返回副本，写操作提交后重新查询
+ */
+@SpringJUnitConfig({CacheConfig.class, UserServiceImpl.class, ProviderServiceImpl.class, CacheStatsServiceImpl.class,
+		EmailIdentityIndex.class})
+class LookupCacheTests {
+
+	@MockBean
+	private UserMapper userMapper;
+
+	@MockBean
+	private UserEmailMapper userEmailMapper;
+
+	@MockBean
+	private ActivityLeaderboardMapper activityLeaderboardMapper;
+
+	@MockBean
+	private ProviderMapper providerMapper;
+
+	@MockBean
+	private ProviderEmailMapper providerEmailMapper;
+
+	@MockBean
+	private IdentityMapper identityMapper;
+
+	@MockBean
+	private TransactionTemplate transactionTemplate;
+
+	@MockBean
+	private ChallengePopularityIndex popularityIndex;
+
+	@MockBean
+	private ChallengeRankingIndex rankingIndex;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ProviderService providerService;
+
+	@Autowired
+	private CacheStatsService cacheStatsService;
+
+	@BeforeEach
+	void clearCaches() {
+		cacheStatsService.clearAll();
+	}
+
+	@Test
+	void userLookupsAreCachedUntilUserIsSaved() {
+		User user = user("user001");
+		when(userMapper.findById("user001")).thenReturn(user);
+		when(userEmailMapper.findByEmailAddress("a@example.com")).thenReturn(List.of(userEmail("user001", "a@example.com")));
+		when(userEmailMapper.findByUserId("user001")).thenReturn(List.of(userEmail("user001", "a@example.com")));
+		when(userMapper.upsert(any())).thenReturn(2);
+
+		assertEquals("user001", userService.getUserById("user001").getHealthId());
+		assertEquals("user001", userService.getUserById("user001").getHealthId());
+		assertEquals("user001", userService.getUserByEmail("a@example.com").getHealthId());
+		assertEquals("user001", userService.getUserByEmail("a@example.com").getHealthId());
+		verify(userMapper, times(2)).findById("user001");
+		verify(userEmailMapper, times(1)).findByEmailAddress("a@example.com");
+
+		// 保存时清除按ID和按邮箱的缓存
+		userService.saveUser(user);
+		userService.getUserById("user001");
+		userService.getUserByEmail("a@example.com");
+		verify(userMapper, times(4)).findById("user001");
+		verify(userEmailMapper, times(2)).findByEmailAddress("a@example.com");
+	}
+
+	@Test
+	void cachedUsersAreCopiedOnReturn() {
+		User user = user("user003");
+		user.setName("原姓名");
+		when(userMapper.findById("user003")).thenReturn(user);
+
+		User first = userService.getUserById("user003");
+		// 调用方修改返回的对象（如编辑对话框）不影响缓存
+		first.setName("修改后");
+		User second = userService.getUserById("user003");
+		assertNotSame(first, second);
+		assertEquals("原姓名", second.getName());
+		verify(userMapper, times(1)).findById("user003");
+	}
+
+	@Test
+	void evictionWaitsForTransactionCommit() {
+		when(userMapper.findById("user004")).thenReturn(user("user004"));
+		userService.getUserById("user004");
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			userService.saveUser(user("user004"));
+			// 提交前仍读取缓存
+			userService.getUserById("user004");
+			verify(userMapper, times(1)).findById("user004");
+
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		userService.getUserById("user004");
+		verify(userMapper, times(2)).findById("user004");
+	}
+
+	@Test
+	void missingUsersAreNotCached() {
+		assertNull(userService.getUserByEmail("new@example.com"));
+		when(userEmailMapper.findByEmailAddress("new@example.com")).thenReturn(List.of(userEmail("user002", "new@example.com")));
+		when(userMapper.findById("user002")).thenReturn(user("user002"));
+
+		assertEquals("user002", userService.getUserByEmail("new@example.com").getHealthId());
+	}
+
+	@Test
+	void primaryEmailIsEvictedWhenChanged() {
+		when(userEmailMapper.findPrimaryEmail("user001")).thenReturn(userEmail("user001", "a@example.com"));
+
+		userService.getPrimaryEmail("user001");
+		userService.getPrimaryEmail("user001");
+		verify(userEmailMapper, times(1)).findPrimaryEmail("user001");
+
+		userService.setPrimaryEmail("user001", "b@example.com");
+		userService.getPrimaryEmail("user001");
+		verify(userEmailMapper, times(2)).findPrimaryEmail("user001");
+	}
+
+	@Test
+	void providerEmailLookupIsEvictedWhenEmailRemoved() {
+		Provider provider = new Provider();
+		provider.setLicenseNumber("doc001");
+		ProviderEmail email = new ProviderEmail();
+		email.setLicenseNumber("doc001");
+		email.setEmailAddress("doc@example.com");
+		when(providerEmailMapper.findByEmailAddress("doc@example.com")).thenReturn(List.of(email));
+		when(providerMapper.findById("doc001")).thenReturn(provider);
+
+		assertEquals("doc001", providerService.getProviderByEmail("doc@example.com").getLicenseNumber());
+		assertEquals("doc001", providerService.getProviderByEmail("doc@example.com").getLicenseNumber());
+		verify(providerEmailMapper, times(1)).findByEmailAddress("doc@example.com");
+
+		providerService.removeProviderEmail("doc001", "doc@example.com");
+		providerService.getProviderByEmail("doc@example.com");
+		verify(providerEmailMapper, times(2)).findByEmailAddress("doc@example.com");
+	}
+
+	@Test
+	void emailKeysAreNormalized() {
+		User user = user("user001");
+		when(userMapper.findById("user001")).thenReturn(user);
+		when(userEmailMapper.findByEmailAddress(any())).thenReturn(List.of(userEmail("user001", "a@example.com")));
+		when(userEmailMapper.findByUserId("user001")).thenReturn(List.of(userEmail("user001", "a@example.com")));
+		when(userMapper.upsert(any())).thenReturn(2);
+
+		// 同一邮箱的不同写法共用一个缓存项
+		assertEquals("user001", userService.getUserByEmail(" A@Example.com ").getHealthId());
+		assertEquals("user001", userService.getUserByEmail("a@example.com").getHealthId());
+		verify(userEmailMapper, times(1)).findByEmailAddress(any());
+
+		// 按存储的写法清除后，其他写法也不再命中旧数据
+		userService.saveUser(user);
+		userService.getUserByEmail("A@EXAMPLE.COM");
+		verify(userEmailMapper, times(2)).findByEmailAddress(any());
+
+		ProviderEmail email = new ProviderEmail();
+		email.setLicenseNumber("doc001");
+		email.setEmailAddress("doc@example.com");
+		Provider provider = new Provider();
+		provider.setLicenseNumber("doc001");
+		when(providerEmailMapper.findByEmailAddress(any())).thenReturn(List.of(email));
+		when(providerMapper.findById("doc001")).thenReturn(provider);
+		providerService.getProviderByEmail("Doc@Example.com");
+		providerService.removeProviderEmail("doc001", "DOC@example.com");
+		providerService.getProviderByEmail("doc@example.com");
+		verify(providerEmailMapper, times(2)).findByEmailAddress(any());
+	}
+
+	@Test
+	void statisticsCountHitsAndMisses() {
+		when(providerMapper.findById("doc001")).thenReturn(new Provider());
+		long hitsBefore = providerStats().getHitCount();
+		long missesBefore = providerStats().getMissCount();
+
+		providerService.getProviderById("doc001");
+		providerService.getProviderById("doc001");
+		providerService.getProviderById("doc001");
+
+		assertEquals(2, providerStats().getHitCount() - hitsBefore);
+		assertEquals(1, providerStats().getMissCount() - missesBefore);
+		assertEquals(1, providerStats().getSize());
+	}
+
+	private CacheStatistics providerStats() {
+		return cacheStatsService.getCacheStatistics().stream()
+				.filter(stats -> stats.getName().equals(CacheConfig.PROVIDERS))
+				.findFirst().orElseThrow();
+	}
+
+	private static User user(String healthId) {
+		User user = new User();
+		user.setHealthId(healthId);
+		return user;
+	}
+
+	private static UserEmail userEmail(String healthId, String emailAddress) {
+		UserEmail email = new UserEmail();
+		email.setHealthId(healthId);
+		email.setEmailAddress(emailAddress);
+		return email;
+	}
+}
@@ -0,0 +1,271 @@
+package org.healthtrack.service.impl;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.healthtrack.config.SchemaMigrator;
+import org.healthtrack.dto.HealthIndicatorStats;
+import org.healthtrack.dto.MonthlySteps;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.entity.MonthlyUserRollup;
+import org.healthtrack.entity.User;
+import org.healthtrack.mapper.HealthIndicatorMapper;
+import org.healthtrack.mapper.HealthReportMapper;
+import org.healthtrack.mapper.MonthlyRollupMapper;
+import org.healthtrack.mapper.UserMapper;
+import org.healthtrack.util.HealthIndicatorExtractor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 月度汇总：迁移时按已有报告生成，保存、修改、移动和删除报告后与health_report一致，
+ * 重建任务得到相同结果，指标回填后汇总随之更新，图表只读取当前用户的数据
+ */
+class MonthlyRollupTests {
+
+	private static final LocalDate JANUARY = LocalDate.of(2024, 1, 1);
+	private static final LocalDate FEBRUARY = LocalDate.of(2024, 2, 1);
+
+	private static PooledDataSource dataSource;
+	private static SqlSessionManager sessionManager;
+	private static HealthReportServiceImpl healthReportService;
+	private static MonthlyRollupRebuildJob rebuildJob;
+	private static HealthIndicatorBackfillJob backfillJob;
+	private static ChartDataServiceImpl chartDataService;
+
+	@BeforeAll
+	static void createSchema() throws Exception {
+		dataSource = new PooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:monthly_rollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		Resources.setCharset(StandardCharsets.UTF_8);
+		try (Connection connection = dataSource.getConnection();
+			 Reader reader = Resources.getResourceAsReader("init.sql")) {
+			ScriptRunner runner = new ScriptRunner(connection);
+			runner.setLogWriter(null);
+			runner.setStopOnError(true);
+			runner.runScript(reader);
+		}
+		SchemaMigrator migrator = new SchemaMigrator();
+		ReflectionTestUtils.setField(migrator, "dataSource", dataSource);
+		migrator.migrate();
+
+		Configuration configuration = new Configuration(new Environment("rollup", new JdbcTransactionFactory(), dataSource));
+		configuration.setMapUnderscoreToCamelCase(true);
+		configuration.setDatabaseId("h2");
+		configuration.addMappers("org.healthtrack.mapper");
+		sessionManager = SqlSessionManager.newInstance(new SqlSessionFactoryBuilder().build(configuration));
+
+		healthReportService = new HealthReportServiceImpl();
+		ReflectionTestUtils.setField(healthReportService, "healthReportMapper", sessionManager.getMapper(HealthReportMapper.class));
+		ReflectionTestUtils.setField(healthReportService, "healthIndicatorMapper", sessionManager.getMapper(HealthIndicatorMapper.class));
+		ReflectionTestUtils.setField(healthReportService, "monthlyRollupMapper", sessionManager.getMapper(MonthlyRollupMapper.class));
+
+		chartDataService = new ChartDataServiceImpl();
+		ReflectionTestUtils.setField(chartDataService, "monthlyRollupMapper", sessionManager.getMapper(MonthlyRollupMapper.class));
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(
+				invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		rebuildJob = new MonthlyRollupRebuildJob();
+		ReflectionTestUtils.setField(rebuildJob, "userMapper", sessionManager.getMapper(UserMapper.class));
+		ReflectionTestUtils.setField(rebuildJob, "monthlyRollupMapper", sessionManager.getMapper(MonthlyRollupMapper.class));
+		ReflectionTestUtils.setField(rebuildJob, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(rebuildJob, "batchSize", 3);
+
+		backfillJob = new HealthIndicatorBackfillJob();
+		ReflectionTestUtils.setField(backfillJob, "healthReportMapper", sessionManager.getMapper(HealthReportMapper.class));
+		ReflectionTestUtils.setField(backfillJob, "healthIndicatorMapper", sessionManager.getMapper(HealthIndicatorMapper.class));
+		ReflectionTestUtils.setField(backfillJob, "monthlyRollupMapper", sessionManager.getMapper(MonthlyRollupMapper.class));
+		ReflectionTestUtils.setField(backfillJob, "transactionTemplate", transactionTemplate);
+		ReflectionTestUtils.setField(backfillJob, "batchSize", 3);
+
+		UserMapper userMapper = sessionManager.getMapper(UserMapper.class);
+		userMapper.upsert(user("rollup01"));
+		userMapper.upsert(user("rollup02"));
+		userMapper.upsert(user("rollup03"));
+		userMapper.upsert(user("rollup04"));
+		userMapper.upsert(user("rollup05"));
+		userMapper.upsert(user("rollup06"));
+		userMapper.upsert(user("rollup07"));
+	}
+
+	@AfterAll
+	static void close() {
+		dataSource.forceCloseAll();
+	}
+
+	@Test
+	void rollupFollowsReportChanges() {
+		assertTrue(healthReportService.saveReport(report("ru001", JANUARY, "rollup01", 100000, "体重: 70kg 心率: 70")));
+		assertTrue(healthReportService.saveReport(report("ru002", JANUARY, "rollup01", 200000, "体重: 72kg")));
+		assertTrue(healthReportService.saveReport(report("ru003", FEBRUARY, "rollup01", null, "心率: 80")));
+
+		List<MonthlyUserRollup> rollups = healthReportService.getMonthlyRollups("rollup01", JANUARY, FEBRUARY);
+		assertEquals(2, rollups.size());
+		MonthlyUserRollup january = rollups.get(0);
+		assertEquals(2, january.getReportCount());
+		assertEquals(300000, january.getStepsTotal());
+		assertEquals(100000, january.getStepsMin());
+		assertEquals(200000, january.getStepsMax());
+		MonthlyUserRollup february = rollups.get(1);
+		assertEquals(1, february.getReportCount());
+		assertEquals(0, february.getStepsCount());
+		assertEquals(0, february.getStepsTotal());
+
+		HealthIndicatorStats weight = healthReportService.getMonthlyIndicatorStats("rollup01", "2024-01",
+				HealthIndicatorExtractor.WEIGHT);
+		assertEquals(2, weight.getCount());
+		assertEquals(71.0, weight.getAverage(), 1e-9);
+		assertEquals(70.0, weight.getMin());
+		assertEquals(72.0, weight.getMax());
+
+		// 修改步数后最大值随之变化
+		assertTrue(healthReportService.saveReport(report("ru002", JANUARY, "rollup01", 50000, "体重: 72kg")));
+		january = healthReportService.getMonthlyRollups("rollup01", JANUARY, JANUARY).get(0);
+		assertEquals(150000, january.getStepsTotal());
+		assertEquals(50000, january.getStepsMin());
+		assertEquals(100000, january.getStepsMax());
+
+		// 移到另一个用户后两边都重算
+		assertTrue(healthReportService.saveReport(report("ru001", JANUARY, "rollup02", 100000, "体重: 70kg 心率: 70")));
+		assertEquals(1, healthReportService.getMonthlyRollups("rollup01", JANUARY, JANUARY).get(0).getReportCount());
+		assertEquals(1, healthReportService.getMonthlyRollups("rollup02", JANUARY, JANUARY).get(0).getReportCount());
+		assertEquals(1, healthReportService.getMonthlyIndicatorStats("rollup01", "2024-01",
+				HealthIndicatorExtractor.WEIGHT).getCount());
+
+		// 删除月份中唯一的报告后汇总行消失
+		assertTrue(healthReportService.deleteReport("ru003"));
+		assertEquals(1, healthReportService.getMonthlyRollups("rollup01", JANUARY, FEBRUARY).size());
+		assertEquals(0, healthReportService.getMonthlyIndicatorStats("rollup01", "2024-02",
+				HealthIndicatorExtractor.HEART_RATE).getCount());
+	}
+
+	@Test
+	void rebuildMatchesIncrementalMaintenance() throws Exception {
+		healthReportService.saveReport(report("ru101", JANUARY, "rollup03", 80000, "血糖: 5.5"));
+		healthReportService.saveReport(report("ru102", FEBRUARY, "rollup03", 90000, "血糖: 6.5"));
+		List<MonthlyUserRollup> incremental = healthReportService.getMonthlyRollups("rollup03", JANUARY, FEBRUARY);
+
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("DELETE FROM monthly_user_rollup");
+			statement.executeUpdate("DELETE FROM monthly_indicator_rollup");
+			connection.commit();
+		}
+		assertTrue(rebuildJob.rebuild() > 0);
+
+		List<MonthlyUserRollup> rebuilt = healthReportService.getMonthlyRollups("rollup03", JANUARY, FEBRUARY);
+		assertEquals(incremental.size(), rebuilt.size());
+		for (int i = 0; i < rebuilt.size(); i++) {
+			assertEquals(incremental.get(i).getReportMonth(), rebuilt.get(i).getReportMonth());
+			assertEquals(incremental.get(i).getReportCount(), rebuilt.get(i).getReportCount());
+			assertEquals(incremental.get(i).getStepsTotal(), rebuilt.get(i).getStepsTotal());
+		}
+		HealthIndicatorStats glucose = healthReportService.getMonthlyIndicatorStats("rollup03", "2024-02",
+				HealthIndicatorExtractor.GLUCOSE);
+		assertEquals(1, glucose.getCount());
+		assertEquals(6.5, glucose.getMax());
+	}
+
+	@Test
+	void migrationSeedsRollupsFromExistingReports() {
+		// init.sql中的示例报告在V2执行前已存在
+		List<MonthlyUserRollup> rollups = healthReportService.getMonthlyRollups("user001", JANUARY, FEBRUARY);
+		assertEquals(2, rollups.size());
+		assertEquals(1, rollups.get(0).getReportCount());
+		assertEquals(250000, rollups.get(0).getStepsTotal());
+		assertEquals(300000, rollups.get(1).getStepsTotal());
+	}
+
+	@Test
+	void backfillRefreshesIndicatorRollup() {
+		// 绕过服务直接写入的报告没有指标，也没有指标汇总
+		sessionManager.getMapper(HealthReportMapper.class).insert(report("ru301", JANUARY, "rollup06", 1000, "心率: 66"));
+		assertEquals(0, healthReportService.getMonthlyIndicatorStats("rollup06", "2024-01",
+				HealthIndicatorExtractor.HEART_RATE).getCount());
+
+		assertTrue(backfillJob.backfill() > 0);
+
+		HealthIndicatorStats heartRate = healthReportService.getMonthlyIndicatorStats("rollup06", "2024-01",
+				HealthIndicatorExtractor.HEART_RATE);
+		assertEquals(1, heartRate.getCount());
+		assertEquals(66.0, heartRate.getMax());
+	}
+
+	@Test
+	void backfillReparsesOlderVersionsOnlyOnce() throws Exception {
+		// 旧版本只识别出体重，没有心率；另一份报告没有任何指标
+		HealthReport outdated = report("ru401", JANUARY, "rollup07", 1000, "体重: 70kg 心率: 66");
+		sessionManager.getMapper(HealthReportMapper.class).insert(outdated);
+		sessionManager.getMapper(HealthReportMapper.class).insert(report("ru402", JANUARY, "rollup07", 1000, "一切正常"));
+		HealthReport weightOnly = report("ru401", JANUARY, "rollup07", 1000, "体重: 70kg");
+		sessionManager.getMapper(HealthIndicatorMapper.class).insertAll(HealthIndicatorExtractor.extractIndicators(weightOnly));
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("UPDATE health_report SET indicator_version = 1 WHERE report_id = 'ru401'");
+			connection.commit();
+		}
+
+		backfillJob.backfill();
+
+		assertEquals(1, healthReportService.getMonthlyIndicatorStats("rollup07", "2024-01",
+				HealthIndicatorExtractor.WEIGHT).getCount());
+		assertEquals(1, healthReportService.getMonthlyIndicatorStats("rollup07", "2024-01",
+				HealthIndicatorExtractor.HEART_RATE).getCount());
+		// 没有指标的报告也已记录版本，不会在下次启动时重复扫描
+		assertFalse(backfillJob.hasPendingReports());
+		assertEquals(0, backfillJob.backfill());
+	}
+
+	@Test
+	void chartPointsAreScopedToUser() {
+		healthReportService.saveReport(report("ru201", JANUARY, "rollup04", 1000, null));
+		healthReportService.saveReport(report("ru202", JANUARY, "rollup04", 2000, null));
+		healthReportService.saveReport(report("ru203", FEBRUARY, "rollup04", 4000, null));
+		healthReportService.saveReport(report("ru204", FEBRUARY, "rollup05", 8000, null));
+
+		List<MonthlySteps> points = chartDataService.getMonthlySteps("rollup04", JANUARY, FEBRUARY);
+		assertEquals(2, points.size());
+		assertEquals(JANUARY, points.get(0).getReportMonth());
+		assertEquals(3000, points.get(0).getSteps());
+		assertEquals(2, points.get(0).getReportCount());
+		assertEquals(FEBRUARY, points.get(1).getReportMonth());
+		assertEquals(4000, points.get(1).getSteps());
+		assertEquals(1, points.get(1).getReportCount());
+	}
+
+	private static User user(String healthId) {
+		User user = new User();
+		user.setHealthId(healthId);
+		user.setName(healthId);
+		return user;
+	}
+
+	private static HealthReport report(String reportId, LocalDate month, String userId, Integer steps, String summary) {
+		HealthReport report = new HealthReport(reportId, month, userId);
+		report.setTotalSteps(steps);
+		report.setSummary(summary);
+		return report;
+	}
+}
@@ -0,0 +1,64 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.entity.Participation;
+import org.healthtrack.mapper.ParticipationMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 修改进度和退出挑战时加锁读取原进度，排名索引按锁定后的原进度调整
+ */
+@ExtendWith(MockitoExtension.class)
+class ParticipationProgressTests {
+
+	@Mock
+	private ParticipationMapper participationMapper;
+
+	@Mock
+	private ChallengeRankingIndex rankingIndex;
+
+	@Mock
+	private ChallengePopularityIndex popularityIndex;
+
+	@InjectMocks
+	private ParticipationServiceImpl participationService;
+
+	@Test
+	void progressUpdateReadsLockedRow() {
+		when(participationMapper.findByUserAndChallengeForUpdate("user001", "ch001")).thenReturn(participation(40));
+		when(participationMapper.update(any())).thenReturn(1);
+
+		assertTrue(participationService.updateProgress("user001", "ch001", 70));
+
+		verify(rankingIndex).progressChanged("ch001", 40, 70);
+		verify(participationMapper, never()).findByUserAndChallenge(any(), any());
+	}
+
+	@Test
+	void leaveReadsLockedRow() {
+		when(participationMapper.findByUserAndChallengeForUpdate("user001", "ch001")).thenReturn(participation(90));
+		when(participationMapper.delete("user001", "ch001")).thenReturn(1);
+
+		assertTrue(participationService.leaveChallenge("user001", "ch001"));
+
+		verify(rankingIndex).participantLeft("ch001", 90);
+		verify(participationMapper, never()).findByUserAndChallenge(any(), any());
+	}
+
+	private static Participation participation(int progress) {
+		Participation participation = new Participation();
+		participation.setHealthId("user001");
+		participation.setChallengeId("ch001");
+		participation.setProgress(progress);
+		return participation;
+	}
+}
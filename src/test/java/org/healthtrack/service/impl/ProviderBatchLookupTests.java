@@ -0,0 +1,80 @@
+package org.healthtrack.service.impl;
+
+import org.healthtrack.entity.Provider;
+import org.healthtrack.mapper.ProviderMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量获取提供者时IN列表按MAX_IDS_PER_QUERY分批，每批一次查询
+ */
+@ExtendWith(MockitoExtension.class)
+class ProviderBatchLookupTests {
+
+	@Mock
+	private ProviderMapper providerMapper;
+
+	@InjectMocks
+	private ProviderServiceImpl providerService;
+
+	@Test
+	void largeIdListIsSplitIntoBoundedChunks() {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < ProviderMapper.MAX_IDS_PER_QUERY * 2 + 1; i++) {
+			ids.add("doc" + i);
+		}
+		List<Integer> chunkSizes = new ArrayList<>();
+		when(providerMapper.findByIds(anyCollection())).thenAnswer(invocation -> {
+			Collection<String> chunk = invocation.getArgument(0);
+			chunkSizes.add(chunk.size());
+			return chunk.stream().map(ProviderBatchLookupTests::provider).toList();
+		});
+
+		Map<String, Provider> providers = providerService.getProvidersByIds(ids);
+
+		assertEquals(ids.size(), providers.size());
+		assertEquals(List.of(ProviderMapper.MAX_IDS_PER_QUERY, ProviderMapper.MAX_IDS_PER_QUERY, 1), chunkSizes);
+		verify(providerMapper, times(3)).findByIds(anyCollection());
+	}
+
+	@Test
+	void duplicatesAndNullsAreQueriedOnce() {
+		when(providerMapper.findByIds(List.of("doc001", "doc002")))
+				.thenReturn(List.of(provider("doc001")));
+
+		Map<String, Provider> providers = providerService.getProvidersByIds(
+				Arrays.asList("doc001", null, "doc002", "doc001"));
+
+		assertEquals(1, providers.size());
+		assertEquals("doc001", providers.get("doc001").getLicenseNumber());
+	}
+
+	@Test
+	void emptyIdListSkipsQuery() {
+		assertTrue(providerService.getProvidersByIds(List.of()).isEmpty());
+		verify(providerMapper, never()).findByIds(anyCollection());
+	}
+
+	private static Provider provider(String licenseNumber) {
+		Provider provider = new Provider();
+		provider.setLicenseNumber(licenseNumber);
+		return provider;
+	}
+}
@@ -0,0 +1,159 @@
+package org.healthtrack.util;
+
+import org.healthtrack.entity.HealthIndicator;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.util.HealthIndicatorExtractor.IndicatorBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单次遍历扫描器：与原先按指标逐个匹配的正则实现结果一致，并能识别心率和血糖
+ */
+class HealthIndicatorExtractorTests {
+
+	// 原实现的体重、血压正则，以及按同样写法定义的心率、血糖正则
+	private static final Pattern WEIGHT_PATTERN = Pattern.compile(
+			"(?:体重|weight)[:：]?\\s*(\\d+(?:\\.\\d+)?)\\s*(?:kg|公斤)?", Pattern.CASE_INSENSITIVE);
+	private static final Pattern BLOOD_PRESSURE_PATTERN = Pattern.compile(
+			"(?:血压|blood\\s*pressure|bp)[:：]?\\s*(\\d+)\\s*/\\s*(\\d+)\\s*(?:mmHg)?", Pattern.CASE_INSENSITIVE);
+	private static final Pattern HEART_RATE_PATTERN = Pattern.compile(
+			"(?:心率|脉搏|heart\\s*rate|pulse)[:：]?\\s*(\\d+(?:\\.\\d+)?)", Pattern.CASE_INSENSITIVE);
+	private static final Pattern GLUCOSE_PATTERN = Pattern.compile(
+			"(?:血糖|glucose|blood\\s*sugar)[:：]?\\s*(\\d+(?:\\.\\d+)?)", Pattern.CASE_INSENSITIVE);
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"体重: 70kg",
+			"体重：70.5公斤",
+			"Weight: 70.5",
+			"WEIGHT 70",
+			"weight weight 70",
+			"weight 70.",
+			"weight: .5",
+			"weightlifting 30 minutes",
+			"血压: 120/80",
+			"血压：120/80 mmHg",
+			"Blood Pressure: 120/80",
+			"blood   pressure120/ 80",
+			"bp:120/80/70",
+			"BP 120 / 80",
+			"血压: 99999999999/80",
+			"血压: 120/99999999999",
+			"血压 120/",
+			"心率: 72 脉搏：80",
+			"heart rate: 72 bpm, Heart  Rate 75",
+			"pulse 60.5",
+			"血糖: 5.6",
+			"glucose: 5.6 mmol/L",
+			"blood sugar：6",
+			"blood test pending, BPM monitor recalibrated",
+			"体重 70kg 血压 118/76 心率 66 血糖 5.1；weight: 71 bp 120/80 pulse 70 glucose 5.3",
+			"体重: 12345678901234567.25"
+	})
+	void scannerMatchesRegexImplementation(String text) {
+		assertEquals(regex(text), scan(text), text);
+	}
+
+	@Test
+	void extractsHeartRateAndGlucoseIndicators() {
+		HealthReport report = new HealthReport("r1", LocalDate.of(2024, 3, 1), "u1");
+		report.setSummary("心率: 72 bpm，血糖：5.6 mmol/L，heart rate 80");
+
+		List<HealthIndicator> indicators = HealthIndicatorExtractor.extractIndicators(report);
+
+		assertEquals(2, indicators.size());
+		assertEquals(HealthIndicatorExtractor.HEART_RATE, indicators.get(0).getIndicatorType());
+		assertEquals(72.0, indicators.get(0).getIndicatorValue());
+		assertEquals(HealthIndicatorExtractor.GLUCOSE, indicators.get(1).getIndicatorType());
+		assertEquals(5.6, indicators.get(1).getIndicatorValue());
+		assertEquals("u1", indicators.get(1).getUserId());
+	}
+
+	@Test
+	void extractsEveryIndicatorTypeOnce() {
+		HealthReport report = new HealthReport("r2", LocalDate.of(2024, 3, 1), "u1");
+		report.setSummary("Pulse: 64; blood sugar 4.9; weight 70; BP 120/80; 体重 71");
+
+		List<String> types = new ArrayList<>();
+		for (HealthIndicator indicator : HealthIndicatorExtractor.extractIndicators(report)) {
+			types.add(indicator.getIndicatorType());
+		}
+
+		assertEquals(List.of(HealthIndicatorExtractor.WEIGHT, HealthIndicatorExtractor.BLOOD_PRESSURE_SYSTOLIC,
+				HealthIndicatorExtractor.BLOOD_PRESSURE_DIASTOLIC, HealthIndicatorExtractor.HEART_RATE,
+				HealthIndicatorExtractor.GLUCOSE), types);
+	}
+
+	@Test
+	void emptySummaryYieldsNothing() {
+		assertNull(HealthIndicatorExtractor.extractWeight(" "));
+		assertNull(HealthIndicatorExtractor.extractBloodPressure(null));
+		assertTrue(HealthIndicatorExtractor.extractIndicators(new HealthReport("r3", LocalDate.of(2024, 3, 1), "u1")).isEmpty());
+	}
+
+	/**
+	 * 扫描器结果，按体重、血压、心率、血糖的顺序展开
+	 */
+	private static List<List<Double>> scan(String text) {
+		IndicatorBuffer buffer = new IndicatorBuffer();
+		HealthIndicatorExtractor.scan(text, buffer);
+		List<Double> weights = new ArrayList<>();
+		for (int i = 0; i < buffer.getWeightCount(); i++) {
+			weights.add(buffer.getWeight(i));
+		}
+		List<Double> pressures = new ArrayList<>();
+		for (int i = 0; i < buffer.getBloodPressureCount(); i++) {
+			pressures.add((double) buffer.getSystolic(i));
+			pressures.add((double) buffer.getDiastolic(i));
+		}
+		List<Double> heartRates = new ArrayList<>();
+		for (int i = 0; i < buffer.getHeartRateCount(); i++) {
+			heartRates.add(buffer.getHeartRate(i));
+		}
+		List<Double> glucoses = new ArrayList<>();
+		for (int i = 0; i < buffer.getGlucoseCount(); i++) {
+			glucoses.add(buffer.getGlucose(i));
+		}
+		return List.of(weights, pressures, heartRates, glucoses);
+	}
+
+	/**
+	 * 正则实现的结果，解析失败的值与原实现一样忽略
+	 */
+	private static List<List<Double>> regex(String text) {
+		List<Double> pressures = new ArrayList<>();
+		Matcher matcher = BLOOD_PRESSURE_PATTERN.matcher(text);
+		while (matcher.find()) {
+			try {
+				int systolic = Integer.parseInt(matcher.group(1));
+				int diastolic = Integer.parseInt(matcher.group(2));
+				pressures.add((double) systolic);
+				pressures.add((double) diastolic);
+			} catch (NumberFormatException e) {
+				// 忽略无效值
+			}
+		}
+		return List.of(decimals(WEIGHT_PATTERN, text), pressures,
+				decimals(HEART_RATE_PATTERN, text), decimals(GLUCOSE_PATTERN, text));
+	}
+
+	private static List<Double> decimals(Pattern pattern, String text) {
+		List<Double> values = new ArrayList<>();
+		Matcher matcher = pattern.matcher(text);
+		while (matcher.find()) {
+			values.add(Double.parseDouble(matcher.group(1)));
+		}
+		return values;
+	}
+}
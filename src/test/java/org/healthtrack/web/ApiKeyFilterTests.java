@@ -0,0 +1,73 @@
+package org.healthtrack.web;
+
+import org.healthtrack.entity.User;
+import org.healthtrack.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * API密钥校验：缺少或错误的密钥返回401且不访问服务，未配置密钥时拒绝所有请求
+ */
+@ExtendWith(MockitoExtension.class)
+class ApiKeyFilterTests {
+
+	@Mock
+	private UserService userService;
+
+	@InjectMocks
+	private UserController userController;
+
+	private MockMvc mockMvc(String apiKey) {
+		return MockMvcBuilders.standaloneSetup(userController)
+				.addFilters(new ApiKeyFilter(apiKey))
+				.build();
+	}
+
+	@Test
+	void requestsWithoutValidKeyAreRejected() throws Exception {
+		MockMvc mockMvc = mockMvc("secret-key");
+
+		mockMvc.perform(get("/api/users/user001"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/users/user001").header(ApiKeyFilter.API_KEY_HEADER, "wrong-key"))
+				.andExpect(status().isUnauthorized());
+
+		verify(userService, never()).getUserById(any());
+	}
+
+	@Test
+	void requestsWithKeyReachController() throws Exception {
+		User user = new User();
+		user.setHealthId("user001");
+		when(userService.getUserById("user001")).thenReturn(user);
+		MockMvc mockMvc = mockMvc("secret-key");
+
+		mockMvc.perform(get("/api/users/user001").header(ApiKeyFilter.API_KEY_HEADER, "secret-key"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.healthId").value("user001"));
+		mockMvc.perform(get("/api/users/user001").header(HttpHeaders.AUTHORIZATION, "Bearer secret-key"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void missingConfigurationRejectsEverything() throws Exception {
+		mockMvc(" ").perform(get("/api/users/user001").header(ApiKeyFilter.API_KEY_HEADER, " "))
+				.andExpect(status().isUnauthorized());
+
+		verify(userService, never()).getUserById(any());
+	}
+}
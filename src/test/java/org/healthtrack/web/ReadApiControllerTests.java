@@ -0,0 +1,167 @@
+package org.healthtrack.web;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.healthtrack.dto.KeysetPage;
+import org.healthtrack.entity.HealthReport;
+import org.healthtrack.entity.Provider;
+import org.healthtrack.entity.User;
+import org.healthtrack.service.HealthReportService;
+import org.healthtrack.service.ProviderService;
+import org.healthtrack.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 只读REST接口：键集游标分页、内存分页、404和400，以及ETag重新验证
+ */
+@ExtendWith(MockitoExtension.class)
+class ReadApiControllerTests {
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private ProviderService providerService;
+
+	@Mock
+	private HealthReportService healthReportService;
+
+	@InjectMocks
+	private UserController userController;
+
+	@InjectMocks
+	private ProviderController providerController;
+
+	@InjectMocks
+	private HealthReportController healthReportController;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(userController, providerController, healthReportController)
+				// 与Spring Boot默认配置一致：日期按ISO字符串输出
+				.setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+						.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()))
+				.addFilters(WebConfig.etagHeaderFilter())
+				.addInterceptors(WebConfig.apiCacheInterceptor())
+				.build();
+	}
+
+	@Test
+	void usersArePagedWithCursor() throws Exception {
+		when(userService.getUsersPage(any(), eq(0), eq(2)))
+				.thenReturn(KeysetPage.of(List.of(user("user003"), user("user004"), user("user005")), 2));
+
+		mockMvc.perform(get("/api/users").param("after", "user002").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(2))
+				.andExpect(jsonPath("$.items[0].healthId").value("user003"))
+				.andExpect(jsonPath("$.next").value("user004"));
+
+		ArgumentCaptor<User> after = ArgumentCaptor.forClass(User.class);
+		verify(userService).getUsersPage(after.capture(), eq(0), eq(2));
+		assertEquals("user002", after.getValue().getHealthId());
+	}
+
+	@Test
+	void userReportsUseMonthAndIdCursor() throws Exception {
+		LocalDate month = LocalDate.of(2024, 3, 1);
+		when(healthReportService.getReportsByUserPage(eq("user001"), any(), eq(0), eq(1)))
+				.thenReturn(KeysetPage.of(List.of(new HealthReport("R010", month, "user001"),
+						new HealthReport("R011", month, "user001")), 1));
+
+		mockMvc.perform(get("/api/reports").param("userId", "user001")
+						.param("after", "2024-02-01,R009").param("size", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].reportMonth").value("2024-03-01"))
+				.andExpect(jsonPath("$.next").value("2024-03-01,R010"));
+
+		ArgumentCaptor<HealthReport> after = ArgumentCaptor.forClass(HealthReport.class);
+		verify(healthReportService).getReportsByUserPage(eq("user001"), after.capture(), eq(0), eq(1));
+		assertEquals(LocalDate.of(2024, 2, 1), after.getValue().getReportMonth());
+		assertEquals("R009", after.getValue().getReportId());
+	}
+
+	@Test
+	void invalidCursorIsRejected() throws Exception {
+		mockMvc.perform(get("/api/reports").param("userId", "user001").param("after", "R009"))
+				.andExpect(status().isBadRequest());
+
+		verify(healthReportService, never()).getReportsByUserPage(any(), any(), eq(0), eq(50));
+	}
+
+	@Test
+	void providersAreSlicedInMemory() throws Exception {
+		when(providerService.getAllProviders())
+				.thenReturn(List.of(provider("doc003"), provider("doc001"), provider("doc002")));
+
+		mockMvc.perform(get("/api/providers").param("after", "doc001").param("size", "1"))
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].licenseNumber").value("doc002"))
+				.andExpect(jsonPath("$.next").value("doc002"));
+		mockMvc.perform(get("/api/providers").param("after", "doc002"))
+				.andExpect(jsonPath("$.items[0].licenseNumber").value("doc003"))
+				.andExpect(jsonPath("$.next").doesNotExist());
+	}
+
+	@Test
+	void missingEntityReturns404() throws Exception {
+		mockMvc.perform(get("/api/users/nobody"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void unchangedResponseIsRevalidatedWithEtag() throws Exception {
+		when(userService.getUserById("user001")).thenReturn(user("user001"));
+
+		MvcResult first = mockMvc.perform(get("/api/users/user001"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache"))
+				.andReturn();
+		String etag = first.getResponse().getHeader("ETag");
+		assertTrue(etag.startsWith("W/"), etag);
+
+		MvcResult second = mockMvc.perform(get("/api/users/user001").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andReturn();
+		assertEquals(0, second.getResponse().getContentAsByteArray().length);
+	}
+
+	private static User user(String healthId) {
+		User user = new User();
+		user.setHealthId(healthId);
+		return user;
+	}
+
+	private static Provider provider(String licenseNumber) {
+		Provider provider = new Provider();
+		provider.setLicenseNumber(licenseNumber);
+		return provider;
+	}
+}